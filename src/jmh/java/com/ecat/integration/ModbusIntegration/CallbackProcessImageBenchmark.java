@@ -0,0 +1,74 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ecat.integration.ModbusIntegration.Slave.AbstractModbusDataCallback;
+import com.ecat.integration.ModbusIntegration.Slave.CallbackProcessImage;
+import com.serotonin.modbus4j.exception.IllegalDataAddressException;
+
+/**
+ * Slave 侧 CallbackProcessImage 读取分发基准
+ *
+ * <p>Modbus4J 处理一次 FC03/FC04 读取时按寄存器逐个调用 ProcessImage，这里按一次读 {@value #REGISTERS} 个寄存器测量，
+ * 结果为每个寄存器的耗时。
+ *
+ * @author coffee
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbackProcessImageBenchmark {
+
+    private static final int REGISTERS = 16;
+
+    private final short[] values = new short[REGISTERS];
+    private final CallbackProcessImage processImage = new CallbackProcessImage(1, new AbstractModbusDataCallback() {
+        @Override
+        public short onReadHoldingRegister(int slaveId, int address) {
+            return values[address];
+        }
+
+        @Override
+        public short onReadInputRegister(int slaveId, int address) {
+            return values[address];
+        }
+
+        @Override
+        public boolean onReadCoil(int slaveId, int address) {
+            return (values[address] & 1) != 0;
+        }
+    });
+
+    @Benchmark
+    @OperationsPerInvocation(REGISTERS)
+    public void readHoldingRegisters(Blackhole blackhole) throws IllegalDataAddressException {
+        for (int offset = 0; offset < REGISTERS; offset++) {
+            blackhole.consume(processImage.getHoldingRegister(offset));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGISTERS)
+    public void readInputRegisters(Blackhole blackhole) throws IllegalDataAddressException {
+        for (int offset = 0; offset < REGISTERS; offset++) {
+            blackhole.consume(processImage.getInputRegister(offset));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REGISTERS)
+    public void readCoils(Blackhole blackhole) throws IllegalDataAddressException {
+        for (int offset = 0; offset < REGISTERS; offset++) {
+            blackhole.consume(processImage.getCoil(offset));
+        }
+    }
+}
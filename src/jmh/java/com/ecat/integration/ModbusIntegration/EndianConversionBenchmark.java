@@ -0,0 +1,124 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.ecat.integration.ModbusIntegration.EndianConverter.AbstractEndianConverter;
+import com.ecat.integration.ModbusIntegration.EndianConverter.EndianConverter;
+import com.ecat.integration.ModbusIntegration.EndianConverter.ModbusByteOrder;
+
+/**
+ * Tools 与 EndianConverter 寄存器转换基准
+ *
+ * @author coffee
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EndianConversionBenchmark {
+
+    private final EndianConverter big = AbstractEndianConverter.getBigEndianConverter();
+    private final EndianConverter little = AbstractEndianConverter.getLittleEndianConverter();
+    private final EndianConverter dcba = AbstractEndianConverter.getConverter(ModbusByteOrder.DCBA);
+    // 非 final，避免被 JIT 常量折叠
+    private short highWord = 0x42F6;
+    private short lowWord = (short) 0xE979;
+    private float floatValue = 123.456f;
+    private int intValue = 0x12345678;
+    private final short[] block = { 0, highWord, lowWord, 0 };
+    private final short[] target = new short[4];
+    // 一次 FC03 最多 125 个寄存器，即 62 个 32 位值
+    private final short[] response = new short[124];
+    private final float[] floats = new float[62];
+
+    @Benchmark
+    public float toolsBigEndianToFloat() {
+        return Tools.convertBigEndianToFloat(highWord, lowWord);
+    }
+
+    @Benchmark
+    public float toolsLittleEndianToFloat() {
+        return Tools.convertLittleEndianToFloat(lowWord, highWord);
+    }
+
+    @Benchmark
+    public short[] toolsFloatToBigEndianShorts() {
+        return Tools.convertFloatToBigEndianShorts(floatValue);
+    }
+
+    @Benchmark
+    public int toolsBigEndianToInt() {
+        return Tools.convertBigEndianToInt(highWord, lowWord);
+    }
+
+    @Benchmark
+    public float converterBigShortsToFloat() {
+        return big.shortsToFloat(highWord, lowWord);
+    }
+
+    @Benchmark
+    public float converterLittleShortsToFloat() {
+        return little.shortsToFloat(lowWord, highWord);
+    }
+
+    @Benchmark
+    public short[] converterBigFloatToShorts() {
+        return big.floatToShorts(floatValue);
+    }
+
+    @Benchmark
+    public int converterBigShortsToInt() {
+        return big.shortsToInt(highWord, lowWord);
+    }
+
+    @Benchmark
+    public short[] converterBigIntToShorts() {
+        return big.intToShorts(intValue);
+    }
+
+    @Benchmark
+    public float converterBigShortsToFloatAtOffset() {
+        return big.shortsToFloat(block, 1);
+    }
+
+    @Benchmark
+    public short[] converterBigFloatToShortsAtOffset() {
+        big.floatToShorts(floatValue, target, 1);
+        return target;
+    }
+
+    @Benchmark
+    public float[] converterBigShortsToFloatsOneByOne() {
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = big.shortsToFloat(response, i * 2);
+        }
+        return floats;
+    }
+
+    @Benchmark
+    public float[] converterBigShortsToFloatsBulk() {
+        big.shortsToFloats(response, 0, 2, floats, floats.length);
+        return floats;
+    }
+
+    @Benchmark
+    public float toolsLittleEndianByteSwapToFloat() {
+        return Tools.convertLittleEndianByteSwapToFloat(lowWord, highWord);
+    }
+
+    @Benchmark
+    public float converterDcbaShortsToFloatAtOffset() {
+        return dcba.shortsToFloat(block, 1);
+    }
+
+    @Benchmark
+    public long converterDcbaShortsToLong() {
+        return dcba.shortsToLong(response, 0);
+    }
+}
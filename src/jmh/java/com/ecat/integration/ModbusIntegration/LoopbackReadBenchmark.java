@@ -0,0 +1,89 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.ecat.integration.ModbusIntegration.Slave.AbstractModbusDataCallback;
+import com.ecat.integration.ModbusIntegration.Slave.ModbusSlaveServer;
+import com.ecat.integration.ModbusIntegration.Slave.ModbusTcpSlaveConfig;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+/**
+ * 端到端读取吞吐基准：ModbusSource 通过本机回环 TCP 读取进程内的 ModbusSlaveServer
+ *
+ * <p>包含请求队列、executor、Modbus4J 编解码、TCP 回环和 Slave 分发的全部开销，不含真实网络和设备时延。
+ *
+ * @author coffee
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LoopbackReadBenchmark {
+
+    private static final int SLAVE_ID = 1;
+
+    @Param({ "KEEP_ALIVE", "SHORT" })
+    public ModbusTcpConnectionMode connectionMode;
+
+    @Param({ "10", "125" })
+    public int registers;
+
+    private ModbusSlaveServer server;
+    private ModbusSource source;
+
+    @Setup
+    public void setUp() throws Exception {
+        int port = freePort();
+        server = new ModbusSlaveServer(new ModbusTcpSlaveConfig(SLAVE_ID, "127.0.0.1", port));
+        server.registerCallback(SLAVE_ID, new AbstractModbusDataCallback() {
+            @Override
+            public short onReadHoldingRegister(int slaveId, int address) {
+                return (short) address;
+            }
+        });
+        server.start();
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", port, SLAVE_ID, ModbusProtocol.TCP, 2000, 1, connectionMode, 1);
+        source = new ModbusSource(info, 16, 5000);
+        if (readHoldingRegisters() == null) {
+            throw new IllegalStateException("Loopback slave did not respond on port " + port);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.destroyResources();
+        server.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Benchmark
+    public ReadHoldingRegistersResponse readHoldingRegisters() throws Exception {
+        return source.readHoldingRegisters(0, registers).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 4 个调用方同时读取同一总线（请求在源内排队，相同读取会被合并）
+     */
+    @Benchmark
+    @Threads(4)
+    public ReadHoldingRegistersResponse readHoldingRegistersShared() throws Exception {
+        return source.readHoldingRegisters(0, registers).get(5, TimeUnit.SECONDS);
+    }
+}
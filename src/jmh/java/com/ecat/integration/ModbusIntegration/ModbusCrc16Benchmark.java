@@ -0,0 +1,73 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * CRC16：逐位计算、按字节查表、slicing-by-4/8（byte[] 与直接 ByteBuffer）对比
+ *
+ * <p>8 字节为最短的读请求帧，256 字节为最长的 RTU 帧。
+ *
+ * @author coffee
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModbusCrc16Benchmark {
+
+    @Param({ "8", "64", "256" })
+    public int length;
+
+    private byte[] data;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setUp() {
+        data = new byte[length];
+        new Random(1).nextBytes(data);
+        direct = ByteBuffer.allocateDirect(length);
+        direct.put(data).clear();
+    }
+
+    @Benchmark
+    public int bitwise() {
+        int crc = 0xFFFF;
+        for (int i = 0; i < length; i++) {
+            crc ^= data[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0xA001 : crc >>> 1;
+            }
+        }
+        return crc;
+    }
+
+    @Benchmark
+    public int table() {
+        return ModbusCrc16.calculateTable(data, 0, length);
+    }
+
+    @Benchmark
+    public int slicing4() {
+        return ModbusCrc16.calculateSlicing4(data, 0, length);
+    }
+
+    @Benchmark
+    public int slicing8() {
+        return ModbusCrc16.calculateSlicing8(data, 0, length);
+    }
+
+    @Benchmark
+    public int slicing8Direct() {
+        return ModbusCrc16.calculate(direct, 0, length);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * ModbusSource 锁获取/释放与 ModbusTransactionStrategy 开销基准
+ *
+ * <p>不连接设备，只测量锁和策略本身：单线程为无竞争开销，4 线程为同一总线上多设备竞争时的开销。
+ *
+ * @author coffee
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModbusLockBenchmark {
+
+    private static final int THREADS = 4;
+
+    private ModbusSource source;
+
+    @Setup
+    public void setUp() {
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000);
+        // skipOpen：不创建 master，等待队列容纳所有基准线程
+        source = new ModbusSource(info, THREADS, 5000, true, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.destroyResources();
+    }
+
+    @Benchmark
+    public boolean acquireRelease() {
+        return source.release(source.acquire());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public boolean acquireReleaseContended() {
+        return source.release(source.acquire());
+    }
+
+    @Benchmark
+    public boolean acquireReleaseToken() {
+        return source.releaseToken(source.acquireToken(5000, TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public boolean acquireReleaseTokenContended() {
+        return source.releaseToken(source.acquireToken(5000, TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    public Boolean executeWithLambda() {
+        return ModbusTransactionStrategy.executeWithLambda(source, s -> CompletableFuture.completedFuture(true)).join();
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public Boolean executeWithLambdaContended() {
+        return ModbusTransactionStrategy.executeWithLambda(source, s -> CompletableFuture.completedFuture(true)).join();
+    }
+
+    @Benchmark
+    public Boolean executeWithLambdaAsync() {
+        return ModbusTransactionStrategy.executeWithLambdaAsync(source, s -> CompletableFuture.completedFuture(true)).join();
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.sero.util.queue.ByteQueue;
+
+/**
+ * FC03 请求编码 + 响应解码：modbus4j 对象与 ModbusPduCodec 对比
+ *
+ * <p>配合 {@code -prof gc} 查看每次操作的分配量，ModbusPduCodec 路径应接近 0 B/op。
+ *
+ * @author coffee
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModbusPduCodecBenchmark {
+
+    @Param({ "10", "125" })
+    public int registers;
+
+    private final ModbusBufferPool pool = new ModbusBufferPool(4);
+    private byte[] responseFrame;
+    private ByteBuffer responseBuffer;
+    private short[] dest;
+
+    @Setup
+    public void setUp() {
+        responseFrame = new byte[3 + registers * 2];
+        responseFrame[0] = 1;
+        responseFrame[1] = 3;
+        responseFrame[2] = (byte) (registers * 2);
+        for (int i = 0; i < registers; i++) {
+            responseFrame[4 + i * 2] = (byte) i;
+        }
+        responseBuffer = ByteBuffer.wrap(responseFrame);
+        dest = new short[registers];
+    }
+
+    @Benchmark
+    public short[] modbus4j() throws ModbusTransportException {
+        ByteQueue queue = new ByteQueue();
+        new ReadHoldingRegistersRequest(1, 0, registers).write(queue);
+        queue.popAll();
+        ModbusResponse response = ModbusResponse.createModbusResponse(new ByteQueue(responseFrame));
+        return ((ReadHoldingRegistersResponse) response).getShortData();
+    }
+
+    @Benchmark
+    public short[] codec() throws ModbusTransportException {
+        ByteBuffer adu = pool.acquire();
+        adu.position(ModbusPduCodec.MBAP_PREFIX_LENGTH);
+        ModbusPduCodec.encodeRead(adu, 1, 3, 0, registers);
+        ModbusPduCodec.putMbapHeader(adu, 0, 1);
+        pool.release(adu);
+        ModbusPduCodec.decodeRegisters(responseBuffer, 3, registers, dest, 0);
+        return dest;
+    }
+}
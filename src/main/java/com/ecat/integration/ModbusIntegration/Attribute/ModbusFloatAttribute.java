@@ -9,6 +9,7 @@ import com.ecat.core.Utils.NumberFormatter;
 import com.ecat.integration.ModbusIntegration.ModbusSource;
 import com.ecat.integration.ModbusIntegration.ModbusTransactionStrategy;
 import com.ecat.integration.ModbusIntegration.EndianConverter.EndianConverter;
+import lombok.Getter;
 
 /**
  * ModbusFloatAttribute class
@@ -23,6 +24,7 @@ import com.ecat.integration.ModbusIntegration.EndianConverter.EndianConverter;
  */
 public class ModbusFloatAttribute extends ModbusNumericAttributeBase<Float> {
 
+    @Getter
     private Short registerAddress; // 目标寄存器地址（0x46）
     private final EndianConverter endianConverter;
     // private final short registerNumber = 2; // 寄存器数量
@@ -102,6 +104,29 @@ public class ModbusFloatAttribute extends ModbusNumericAttributeBase<Float> {
         return super.updateValue(floatValue);
     }
 
+    /**
+     * 从整块读取结果中按偏移解码两个寄存器并更新属性值，不复制寄存器数组
+     * 
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性第一个寄存器在数组中的下标
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset) {
+        return super.updateValue(endianConverter.shortsToFloat(registers, offset));
+    }
+
+    /**
+     * 从整块读取结果中按偏移解码两个寄存器并更新属性值和状态
+     * 
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性第一个寄存器在数组中的下标
+     * @param status    属性状态
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset, AttributeStatus status) {
+        return super.updateValue(endianConverter.shortsToFloat(registers, offset), status);
+    }
+
     @Override
     public String getDisplayValue(UnitInfo toUnit) {
         if (value == null) return null;
@@ -202,6 +202,30 @@ public class ModbusScalableFloatDRAttribute extends ModbusNumericAttributeBase<F
         return super.updateValue(actualValue, status);
     }
 
+    /**
+     * 从整块读取结果中按偏移解码两个寄存器并更新属性值，不复制寄存器数组
+     * 实际属性值为：(寄存器转换后的int值) / scaleFactor
+     *
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性第一个寄存器在数组中的下标
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset) {
+        return super.updateValue(endianConverter.shortsToInt(registers, offset) / scaleFactor);
+    }
+
+    /**
+     * 从整块读取结果中按偏移解码两个寄存器并更新属性值和状态
+     *
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性第一个寄存器在数组中的下标
+     * @param status    属性状态
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset, AttributeStatus status) {
+        return super.updateValue(endianConverter.shortsToInt(registers, offset) / scaleFactor, status);
+    }
+
     @Override
     public String getDisplayValue(UnitInfo toUnit) {
         if (value == null) return null;
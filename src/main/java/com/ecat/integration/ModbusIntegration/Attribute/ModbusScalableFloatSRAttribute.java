@@ -191,6 +191,31 @@ public class ModbusScalableFloatSRAttribute extends ModbusNumericAttributeBase<F
         return super.updateValue(actualValue, status);
     }
 
+    /**
+     * 从整块读取结果中按偏移取寄存器并更新属性值
+     * @important 仅为设备数据更新使用，不要用于用户侧操作
+     * 
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性寄存器在数组中的下标
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset) {
+        return updateValue(registers[offset]);
+    }
+
+    /**
+     * 从整块读取结果中按偏移取寄存器并更新属性值和状态
+     * @important 仅为设备数据更新使用，不要用于用户侧操作
+     * 
+     * @param registers 读取结果（如 getShortData()）
+     * @param offset    本属性寄存器在数组中的下标
+     * @param status    属性状态
+     * @return 如果值有变化返回true，否则返回false
+     */
+    public boolean updateValue(short[] registers, int offset, AttributeStatus status) {
+        return updateValue(registers[offset], status);
+    }
+
     @Override
     public String getDisplayValue(UnitInfo toUnit) {
         if (value == null) return null;
@@ -8,6 +8,7 @@ import com.ecat.core.State.UnitInfo;
 import com.ecat.core.Utils.NumberFormatter;
 import com.ecat.integration.ModbusIntegration.ModbusSource;
 import com.ecat.integration.ModbusIntegration.ModbusTransactionStrategy;
+import lombok.Getter;
 
 /**
  * ModbusShortAttribute class
@@ -22,6 +23,7 @@ import com.ecat.integration.ModbusIntegration.ModbusTransactionStrategy;
  */
 public class ModbusShortAttribute extends ModbusNumericAttributeBase<Short> {
 
+    @Getter
     private Short registerAddress; // 目标寄存器地址
 
     /**
@@ -16,6 +16,7 @@
 
 package com.ecat.integration.ModbusIntegration.ConfigSchemas;
 
+import com.ecat.core.ConfigFlow.ConfigItem.EnumConfigItem;
 import com.ecat.core.ConfigFlow.ConfigItem.NumericConfigItem;
 import com.ecat.core.ConfigFlow.ConfigItem.SchemaConfigItem;
 import com.ecat.core.ConfigFlow.ConfigSchema;
@@ -25,10 +26,11 @@ import com.ecat.integration.SerialIntegration.ConfigSchemas.SerialCommConfigSche
 /**
  * Modbus RTU 通讯配置 Schema
  * <p>
- * 嵌套串口配置 {@link SerialCommConfigSchema}，并附加 Modbus 从站 ID：
+ * 嵌套串口配置 {@link SerialCommConfigSchema}，并附加 Modbus 从站 ID 和帧处理方式：
  * <ul>
  *   <li>serial_settings - 串口设置（引用 SerialCommConfigSchema）</li>
  *   <li>slave_id - Modbus 从站 ID（1-247）</li>
+ *   <li>rtu_framing - RTU 帧处理方式，可选，MODBUS4J（默认）/ NATIVE（帧间隔按波特率计算，按响应长度判定帧结束）</li>
  * </ul>
  *
  * @author coffee
@@ -42,6 +44,11 @@ public class ModbusRtuCommConfigSchema implements ConfigSchemaProvider {
                 .displayName("串口设置"))
             .addField(new NumericConfigItem("slave_id", true, 1.0)
                 .displayName("从站 ID")
-                .range(1.0, 247.0));
+                .range(1.0, 247.0))
+            .addField(new EnumConfigItem("rtu_framing", false, "MODBUS4J")
+                .displayName("RTU 帧处理")
+                .addOption("MODBUS4J", "Modbus4J")
+                .addOption("NATIVE", "原生（按波特率计算帧间隔）")
+                .buildValidator());
     }
 }
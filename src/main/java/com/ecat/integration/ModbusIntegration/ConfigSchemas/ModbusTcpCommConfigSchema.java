@@ -32,6 +32,9 @@ import com.ecat.core.ConfigFlow.ConfigSchemaProvider;
  *   <li>port - 通讯端口（默认 502）</li>
  *   <li>slave_id - Modbus 从站 ID（1-247）</li>
  *   <li>timeout - 超时时间(ms)，可选</li>
+ *   <li>max_in_flight - 同时在途的最大请求数，可选，大于 1 时按 MBAP 事务 ID 流水线发送（仅 TCP 模式）</li>
+ *   <li>connection_mode - 连接模式，可选，SHORT（每个事务新建连接，默认）/ KEEP_ALIVE（长连接）/ NIO（非阻塞长连接，大量设备共用 I/O 线程）</li>
+ *   <li>pool_size - 长连接模式下同一 ip:port 的连接数，可选，适用于允许多个并发会话的网关</li>
  * </ul>
  *
  * @author coffee
@@ -57,6 +60,18 @@ public class ModbusTcpCommConfigSchema implements ConfigSchemaProvider {
                 .range(1.0, 247.0))
             .addField(new NumericConfigItem("timeout", false, 2000.0)
                 .displayName("超时时间(ms)")
-                .range(100.0, 30000.0));
+                .range(100.0, 30000.0))
+            .addField(new NumericConfigItem("max_in_flight", false, 1.0)
+                .displayName("最大在途请求数")
+                .range(1.0, 16.0))
+            .addField(new EnumConfigItem("connection_mode", false, "SHORT")
+                .displayName("连接模式")
+                .addOption("SHORT", "短连接（每次事务新建连接）")
+                .addOption("KEEP_ALIVE", "长连接")
+                .addOption("NIO", "非阻塞长连接（大量设备共用 I/O 线程）")
+                .buildValidator())
+            .addField(new NumericConfigItem("pool_size", false, 1.0)
+                .displayName("连接数")
+                .range(1.0, 8.0));
     }
 }
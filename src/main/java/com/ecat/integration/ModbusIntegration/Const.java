@@ -9,4 +9,22 @@ public class Const {
     public static final Integer DEFAULT_WAIT_TIMEOUT_MS = 2000; // 默认等待超时时间（毫秒）
     public static final Integer DEFAULT_MAX_WAITERS = 3; // 默认最大等待请求数
     public static final Integer DEFAULT_TCP_TIMEOUT_MS = 2000; // TCP 事务超时默认值（毫秒），与 ModbusTcpCommConfigSchema 中 timeout 默认值一致
+    public static final Integer DEFAULT_TCP_MAX_IN_FLIGHT = 1; // TCP 同时在途的最大请求数，1 表示不流水线（一问一答）
+    public static final ModbusTcpConnectionMode DEFAULT_TCP_CONNECTION_MODE = ModbusTcpConnectionMode.SHORT; // TCP 默认短连接，兼容只接受短连接的旧网关；现场按需配置 KEEP_ALIVE
+    public static final Integer DEFAULT_TCP_POOL_SIZE = 1; // 长连接模式下每个 ip:port 的连接数
+    public static final Integer DEFAULT_WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2); // 共享调度器默认工作线程数
+    public static final Integer DEFAULT_ADAPTIVE_TIMEOUT_MIN_MS = 100; // 自适应超时下限（毫秒），上限为设备配置的 timeout
+    public static final Integer DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 3; // 从站连续超时达到该次数后熔断
+    public static final Integer DEFAULT_CIRCUIT_PROBE_INTERVAL_MS = 5000; // 熔断期间探测请求的间隔（毫秒）
+    public static final Integer DEFAULT_RECONNECT_BACKOFF_MIN_MS = 1000; // 连接失败后首次退避时间（毫秒），期间请求立即失败
+    public static final Integer DEFAULT_RECONNECT_BACKOFF_MAX_MS = 30000; // 连续连接失败时的最长退避时间（毫秒）
+    public static final Integer DEFAULT_PRIORITY_AGING_MS = 1000; // 低优先级请求每等待该时长提升一级，防止饿死
+    public static final Integer DEFAULT_REGISTER_CACHE_MAX_ENTRIES = 65536; // 每个 ModbusSource 寄存器读缓存的最大寄存器数量，超出按 LRU 淘汰
+    public static final Integer DEFAULT_READ_PLAN_MAX_GAP = 8; // 寄存器块合并读取时允许跨越的最大空闲寄存器数量
+    public static final Integer DEFAULT_BUFFER_POOL_SIZE = 256; // 异步 TCP master 共享请求缓冲池最多缓存的空闲缓冲区数量
+    public static final Boolean DEFAULT_RTU_NATIVE_FRAMING = false; // 串口默认使用 modbus4j 的 RTU master，true 时使用按波特率计算帧间隔的 ModbusRtuMaster
+    public static final Integer DEFAULT_RTU_FRAME_GAP_TOLERANCE_MS = 20; // 原生 RTU 帧内允许的最大静默（毫秒），USB 转串口驱动成批交付数据，不能严格按 t1.5 判定
+    public static final Integer DEFAULT_BROADCAST_TURNAROUND_MS = 100; // 广播（从站 0）写入后的转换延时（毫秒），期间总线不发送其他请求，从站处理广播
+    public static final Integer DEFAULT_NIO_IO_THREADS = Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() / 2)); // NIO 模式下所有 TCP 连接共用的 I/O 线程数
+    public static final Integer DEFAULT_NIO_RESOLVER_THREADS = 2; // NIO 模式下解析设备主机名的线程数，DNS 查询不占用 I/O 线程
 }
@@ -59,11 +59,91 @@ public class DeviceSpecificModbusSource extends ModbusSource {
         return delegate.acquire(timeout, unit);
     }
     
+    @Override
+    public CompletableFuture<String> acquireAsync() {
+        return delegate.acquireAsync();
+    }
+
+    @Override
+    public CompletableFuture<String> acquireAsync(long timeout, java.util.concurrent.TimeUnit unit) {
+        return delegate.acquireAsync(timeout, unit);
+    }
+
     @Override
     public boolean release(String releaseKey) {
         return delegate.release(releaseKey);
     }
+
+    @Override
+    public long acquireToken(long timeout, java.util.concurrent.TimeUnit unit) {
+        return delegate.acquireToken(timeout, unit);
+    }
+
+    @Override
+    public boolean releaseToken(long token) {
+        return delegate.releaseToken(token);
+    }
     
+    @Override
+    public ModbusRttTracker getRttTracker() {
+        return delegate.getRttTracker();
+    }
+
+    @Override
+    public boolean isAdaptiveTimeout() {
+        return delegate.isAdaptiveTimeout();
+    }
+
+    @Override
+    public void setAdaptiveTimeout(boolean adaptiveTimeout) {
+        delegate.setAdaptiveTimeout(adaptiveTimeout);
+    }
+
+    @Override
+    public ModbusMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    @Override
+    public int getQueuedRequestCount() {
+        return delegate.getQueuedRequestCount();
+    }
+
+    @Override
+    public ModbusRegisterCache getRegisterCache() {
+        return delegate.getRegisterCache();
+    }
+
+    @Override
+    public long getCoalescedReadCount() {
+        return delegate.getCoalescedReadCount();
+    }
+
+    @Override
+    public ModbusCircuitBreaker getCircuitBreaker() {
+        return delegate.getCircuitBreaker();
+    }
+
+    @Override
+    public ModbusReconnectBackoff getReconnectBackoff() {
+        return delegate.getReconnectBackoff();
+    }
+
+    /**
+     * 当前设备（slaveId）的熔断状态，用于健康检查
+     * @return OPEN/HALF_OPEN 表示设备连续无应答，请求会立即失败
+     */
+    public ModbusCircuitState getCircuitState() {
+        return delegate.getCircuitBreaker().getState(deviceModbusInfo.getSlaveId());
+    }
+
+    /**
+     * 人工恢复当前设备的熔断状态（例如更换设备后），下一个请求立即发送
+     */
+    public void resetCircuit() {
+        delegate.getCircuitBreaker().reset(deviceModbusInfo.getSlaveId());
+    }
+
     @Override
     public int getWaitingCount() {
         return delegate.getWaitingCount();
@@ -95,6 +175,28 @@ public class DeviceSpecificModbusSource extends ModbusSource {
         return delegate.readInputRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), startAddress, numberOfRegisters);
     }
     
+    @Override
+    public CompletableFuture<ReadHoldingRegistersResponse> readHoldingRegisters(int startAddress, int numberOfRegisters, long maxAgeMs) {
+        return delegate.readHoldingRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), startAddress, numberOfRegisters, maxAgeMs);
+    }
+
+    @Override
+    public CompletableFuture<ReadInputRegistersResponse> readInputRegisters(int startAddress, int numberOfRegisters, long maxAgeMs) {
+        return delegate.readInputRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), startAddress, numberOfRegisters, maxAgeMs);
+    }
+
+    @Override
+    public CompletableFuture<Integer> readHoldingRegisters(int startAddress, int numberOfRegisters, short[] dest, int destOffset) {
+        return delegate.readRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), ModbusReadPlanner.RegisterType.HOLDING,
+                startAddress, numberOfRegisters, dest, destOffset);
+    }
+
+    @Override
+    public CompletableFuture<Integer> readInputRegisters(int startAddress, int numberOfRegisters, short[] dest, int destOffset) {
+        return delegate.readRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), ModbusReadPlanner.RegisterType.INPUT,
+                startAddress, numberOfRegisters, dest, destOffset);
+    }
+
     @Override
     public CompletableFuture<ReportSlaveIdResponse> reportSlaveId() {
         return delegate.reportSlaveIdWithSlaveId(deviceModbusInfo.getSlaveId());
@@ -124,6 +226,44 @@ public class DeviceSpecificModbusSource extends ModbusSource {
     public CompletableFuture<WriteRegistersResponse> writeRegisters(int startAddress, short[] values) {
         return delegate.writeRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), startAddress, values);
     }
+
+    @Override
+    public CompletableFuture<Integer> readWriteRegisters(int writeStart, short[] values, int readStart, int readCount,
+            short[] dest, int destOffset) {
+        return delegate.readWriteRegistersWithSlaveId(deviceModbusInfo.getSlaveId(), writeStart, values, readStart,
+                readCount, dest, destOffset);
+    }
+
+    // 广播与设备的 slaveId 无关，由共享连接发送
+    @Override
+    public CompletableFuture<Boolean> broadcastWriteRegister(int address, int value) {
+        return delegate.broadcastWriteRegister(address, value);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> broadcastWriteRegisters(int startAddress, short[] values) {
+        return delegate.broadcastWriteRegisters(startAddress, values);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> broadcastWriteCoil(int address, boolean value) {
+        return delegate.broadcastWriteCoil(address, value);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> broadcastWriteCoils(int startAddress, boolean[] values) {
+        return delegate.broadcastWriteCoils(startAddress, values);
+    }
+
+    @Override
+    public int getBroadcastTurnaroundMs() {
+        return delegate.getBroadcastTurnaroundMs();
+    }
+
+    @Override
+    public void setBroadcastTurnaroundMs(int broadcastTurnaroundMs) {
+        delegate.setBroadcastTurnaroundMs(broadcastTurnaroundMs);
+    }
     
     // 委托其他必要的方法
     @Override
@@ -140,7 +280,17 @@ public class DeviceSpecificModbusSource extends ModbusSource {
     public boolean isModbusOpen() {
         return delegate.isModbusOpen();
     }
-    
+
+    @Override
+    public boolean isOpening() {
+        return delegate.isOpening();
+    }
+
+    @Override
+    public CompletableFuture<Boolean> whenOpen() {
+        return delegate.whenOpen();
+    }
+
     @Override
     public void closeModbus() {
         if (deviceIdentity != null) {
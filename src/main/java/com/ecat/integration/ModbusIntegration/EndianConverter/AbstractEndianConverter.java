@@ -14,6 +14,20 @@ public abstract class AbstractEndianConverter implements EndianConverter {
         static final BigEndianConverter BIG_INSTANCE = new BigEndianConverter();
         // 小端转换器单例（全局唯一）
         static final LittleEndianConverter LITTLE_INSTANCE = new LittleEndianConverter();
+        // 按字节顺序查表的转换器，[32位顺序][64位顺序]
+        static final ByteOrderConverter[][] ORDERED_INSTANCES = createOrderedInstances();
+
+        private static ByteOrderConverter[][] createOrderedInstances() {
+            ModbusByteOrder[] orders = ModbusByteOrder.values();
+            ModbusByteOrder64[] orders64 = ModbusByteOrder64.values();
+            ByteOrderConverter[][] instances = new ByteOrderConverter[orders.length][orders64.length];
+            for (ModbusByteOrder order : orders) {
+                for (ModbusByteOrder64 order64 : orders64) {
+                    instances[order.ordinal()][order64.ordinal()] = new ByteOrderConverter(order, order64);
+                }
+            }
+            return instances;
+        }
     }
 
     /**
@@ -31,4 +45,23 @@ public abstract class AbstractEndianConverter implements EndianConverter {
     public static LittleEndianConverter getLittleEndianConverter() {
         return InstanceHolder.LITTLE_INSTANCE;
     }
+
+    /**
+     * 获取指定字节顺序的转换器单例，64 位值使用该顺序的默认扩展（{@link ModbusByteOrder#getDefaultOrder64()}）
+     * @param order 32 位字节顺序
+     * @return 转换器实例
+     */
+    public static ByteOrderConverter getConverter(ModbusByteOrder order) {
+        return getConverter(order, order.getDefaultOrder64());
+    }
+
+    /**
+     * 获取指定 32 位和 64 位字节顺序的转换器单例
+     * @param order 32 位字节顺序
+     * @param order64 64 位字节顺序
+     * @return 转换器实例
+     */
+    public static ByteOrderConverter getConverter(ModbusByteOrder order, ModbusByteOrder64 order64) {
+        return InstanceHolder.ORDERED_INSTANCES[order.ordinal()][order64.ordinal()];
+    }
 }
@@ -5,29 +5,131 @@ import com.ecat.integration.ModbusIntegration.Tools;
 /**
  * 大端序转换器类
  * 
+ * <p>寄存器顺序为 [高位寄存器, 低位寄存器]（ABCD），与 Tools 中 BigEndian 系列方法结果一致。
+ * 
  * @author coffee
  */
 public class BigEndianConverter extends AbstractEndianConverter {
     @Override
     public short[] floatToShorts(float value) {
-        return Tools.convertFloatToBigEndianShorts(value);
+        short[] words = new short[2];
+        intToShorts(Float.floatToIntBits(value), words, 0);
+        return words;
     }
 
     @Override
     public float shortsToFloat(short word1, short word2) {
-        // 对应Tools的convertBigEndianToFloat参数顺序（word1=高位寄存器，word2=低位寄存器）
-        return Tools.convertBigEndianToFloat(word1, word2);
+        // word1=高位寄存器，word2=低位寄存器
+        return Float.intBitsToFloat(shortsToInt(word1, word2));
     }
 
     @Override
     public short[] intToShorts(int value) {
-        return Tools.convertIntToBigEndianShorts(value);
+        short[] words = new short[2];
+        intToShorts(value, words, 0);
+        return words;
     }
 
     @Override
     public int shortsToInt(short word1, short word2) {
         // 大端模式：word1是高位寄存器，word2是低位寄存器
-        return Tools.convertBigEndianToInt(word1, word2);
+        return (word1 << 16) | (word2 & 0xFFFF);
+    }
+
+    @Override
+    public float shortsToFloat(short[] words, int offset) {
+        return Float.intBitsToFloat(shortsToInt(words[offset], words[offset + 1]));
+    }
+
+    @Override
+    public int shortsToInt(short[] words, int offset) {
+        return shortsToInt(words[offset], words[offset + 1]);
+    }
+
+    @Override
+    public void floatToShorts(float value, short[] words, int offset) {
+        intToShorts(Float.floatToIntBits(value), words, offset);
+    }
+
+    @Override
+    public void intToShorts(int value, short[] words, int offset) {
+        words[offset] = (short) (value >>> 16);
+        words[offset + 1] = (short) value;
+    }
+
+    @Override
+    public void shortsToFloats(short[] words, int offset, int stride, float[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = Float.intBitsToFloat((words[p] << 16) | (words[p + 1] & 0xFFFF));
+        }
+    }
+
+    @Override
+    public void shortsToFloats(short[] words, int[] offsets, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = Float.intBitsToFloat((words[p] << 16) | (words[p + 1] & 0xFFFF));
+        }
+    }
+
+    @Override
+    public void shortsToInts(short[] words, int offset, int stride, int[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = (words[p] << 16) | (words[p + 1] & 0xFFFF);
+        }
+    }
+
+    @Override
+    public void shortsToInts(short[] words, int[] offsets, int[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = (words[p] << 16) | (words[p + 1] & 0xFFFF);
+        }
+    }
+
+    @Override
+    public void shortsToUnsignedInts(short[] words, int offset, int stride, long[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = ((words[p] & 0xFFFFL) << 16) | (words[p + 1] & 0xFFFFL);
+        }
+    }
+
+    @Override
+    public void shortsToUnsignedInts(short[] words, int[] offsets, long[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = ((words[p] & 0xFFFFL) << 16) | (words[p + 1] & 0xFFFFL);
+        }
+    }
+
+    @Override
+    public void shortsToScaledFloats(short[] words, int offset, int stride, float scaleFactor, float[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = ((words[p] << 16) | (words[p + 1] & 0xFFFF)) / scaleFactor;
+        }
+    }
+
+    @Override
+    public void shortsToScaledFloats(short[] words, int[] offsets, float scaleFactor, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = ((words[p] << 16) | (words[p + 1] & 0xFFFF)) / scaleFactor;
+        }
+    }
+
+    @Override
+    public long shortsToLong(short[] words, int offset) {
+        // ABCDEFGH
+        return ((words[offset] & 0xFFFFL) << 48) | ((words[offset + 1] & 0xFFFFL) << 32)
+                | ((words[offset + 2] & 0xFFFFL) << 16) | (words[offset + 3] & 0xFFFFL);
+    }
+
+    @Override
+    public void longToShorts(long value, short[] words, int offset) {
+        words[offset] = (short) (value >>> 48);
+        words[offset + 1] = (short) (value >>> 32);
+        words[offset + 2] = (short) (value >>> 16);
+        words[offset + 3] = (short) value;
     }
 
     @Override
@@ -0,0 +1,145 @@
+package com.ecat.integration.ModbusIntegration.EndianConverter;
+
+import com.ecat.integration.ModbusIntegration.Tools;
+
+/**
+ * 按字节顺序表转换的端序转换器，覆盖 32 位的 ABCD/CDAB/BADC/DCBA 和 64 位的 8 种常见顺序
+ *
+ * <p>寄存器下标和字节交换在构造时由 {@link ModbusByteOrder}/{@link ModbusByteOrder64} 查表得到，
+ * 转换时只做移位和掩码运算，不按顺序分支。实例通过 {@link AbstractEndianConverter#getConverter(ModbusByteOrder)}
+ * 获取（全局缓存）。
+ *
+ * <p>单寄存器方法（{@link #shortToInt(short)}/{@link #intToShort(int)}）在字节交换的顺序（BADC、DCBA）下交换两个字节，
+ * 其余顺序不交换。
+ *
+ * @author coffee
+ */
+public class ByteOrderConverter extends AbstractEndianConverter {
+
+    private static final int BYTE_MASK_32 = 0x00FF00FF;
+    private static final long BYTE_MASK_64 = 0x00FF00FF00FF00FFL;
+
+    private final ModbusByteOrder order;
+    private final ModbusByteOrder64 order64;
+    private final int high;
+    private final int low;
+    private final int swapMask32;
+    private final int word0;
+    private final int word1;
+    private final int word2;
+    private final int word3;
+    private final long swapMask64;
+
+    ByteOrderConverter(ModbusByteOrder order, ModbusByteOrder64 order64) {
+        this.order = order;
+        this.order64 = order64;
+        this.high = order.getHighWordIndex();
+        this.low = 1 - high;
+        this.swapMask32 = order.isByteSwap() ? -1 : 0;
+        this.word0 = order64.getWordIndex(0);
+        this.word1 = order64.getWordIndex(1);
+        this.word2 = order64.getWordIndex(2);
+        this.word3 = order64.getWordIndex(3);
+        this.swapMask64 = order64.isByteSwap() ? -1L : 0L;
+    }
+
+    public ModbusByteOrder getOrder() {
+        return order;
+    }
+
+    public ModbusByteOrder64 getOrder64() {
+        return order64;
+    }
+
+    /**
+     * 交换每个 16 位内的两个字节（swapMask 为 0 时原样返回）
+     */
+    private static int swapBytes(int value, int swapMask) {
+        int swapped = ((value >>> 8) & BYTE_MASK_32) | ((value & BYTE_MASK_32) << 8);
+        return value ^ ((value ^ swapped) & swapMask);
+    }
+
+    private static long swapBytes(long value, long swapMask) {
+        long swapped = ((value >>> 8) & BYTE_MASK_64) | ((value & BYTE_MASK_64) << 8);
+        return value ^ ((value ^ swapped) & swapMask);
+    }
+
+    @Override
+    public int shortsToInt(short[] words, int offset) {
+        return swapBytes((words[offset + high] << 16) | (words[offset + low] & 0xFFFF), swapMask32);
+    }
+
+    @Override
+    public void intToShorts(int value, short[] words, int offset) {
+        int raw = swapBytes(value, swapMask32);
+        words[offset + high] = (short) (raw >>> 16);
+        words[offset + low] = (short) raw;
+    }
+
+    @Override
+    public int shortsToInt(short word1, short word2) {
+        // high 为 1 时 word2 是高 16 位：循环移位 16 位交换两个字
+        int value = Integer.rotateLeft((word1 << 16) | (word2 & 0xFFFF), high << 4);
+        return swapBytes(value, swapMask32);
+    }
+
+    @Override
+    public short[] intToShorts(int value) {
+        short[] words = new short[2];
+        intToShorts(value, words, 0);
+        return words;
+    }
+
+    @Override
+    public float shortsToFloat(short word1, short word2) {
+        return Float.intBitsToFloat(shortsToInt(word1, word2));
+    }
+
+    @Override
+    public float shortsToFloat(short[] words, int offset) {
+        return Float.intBitsToFloat(shortsToInt(words, offset));
+    }
+
+    @Override
+    public short[] floatToShorts(float value) {
+        return intToShorts(Float.floatToIntBits(value));
+    }
+
+    @Override
+    public void floatToShorts(float value, short[] words, int offset) {
+        intToShorts(Float.floatToIntBits(value), words, offset);
+    }
+
+    @Override
+    public long shortsToLong(short[] words, int offset) {
+        long raw = ((words[offset + word0] & 0xFFFFL) << 48)
+                | ((words[offset + word1] & 0xFFFFL) << 32)
+                | ((words[offset + word2] & 0xFFFFL) << 16)
+                | (words[offset + word3] & 0xFFFFL);
+        return swapBytes(raw, swapMask64);
+    }
+
+    @Override
+    public void longToShorts(long value, short[] words, int offset) {
+        long raw = swapBytes(value, swapMask64);
+        words[offset + word0] = (short) (raw >>> 48);
+        words[offset + word1] = (short) (raw >>> 32);
+        words[offset + word2] = (short) (raw >>> 16);
+        words[offset + word3] = (short) raw;
+    }
+
+    @Override
+    public short intToShort(int value) {
+        return order.isByteSwap() ? Tools.convertIntToShortLittleEndian(value) : Tools.convertIntToShortBigEndian(value);
+    }
+
+    @Override
+    public int shortToInt(short value) {
+        return order.isByteSwap() ? Tools.convertShortToIntLittleEndian(value) : Tools.convertShortToIntBigEndian(value);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteOrderConverter{" + order + ", " + order64 + "}";
+    }
+}
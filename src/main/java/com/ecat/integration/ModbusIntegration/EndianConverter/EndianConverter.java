@@ -3,6 +3,16 @@ package com.ecat.integration.ModbusIntegration.EndianConverter;
 /**
  * EndianConverter接口定义了端序转换器的基本操作
  * 
+ * <p>带 {@code (short[] words, int offset)} 参数的方法直接在调用方的寄存器数组上读写，不分配新数组，
+ * 适合高频轮询时按偏移从整块读取结果（如 {@code getShortData()}）中解码。
+ * 默认实现回退到返回数组的方法，内置的大端/小端转换器均直接按位运算实现。
+ * 
+ * <p>批量方法（{@code shortsToFloats} 等）一次解码整块读取结果中的多个 32 位值：第 i 个值位于
+ * {@code offset + i * stride}（连续存放时 stride 为 2），或位于偏移表 {@code offsets[i]}。
+ * 
+ * <p>64 位方法（{@code shortsToLong}/{@code shortsToDouble} 等）占 4 个寄存器；默认按高 32 位在前、
+ * 每个 32 位按本转换器的顺序解码。其他顺序见 {@link ModbusByteOrder64}。
+ * 
  * @author coffee
  */
 public interface EndianConverter {
@@ -49,4 +59,171 @@ public interface EndianConverter {
      * @return 整数值
      */
     int shortToInt(short value);
+
+    /**
+     * 从寄存器数组的指定偏移读取两个寄存器并转换为浮点值，不分配内存
+     * @param words 寄存器数组
+     * @param offset 第一个寄存器在数组中的下标
+     * @return 浮点值
+     */
+    default float shortsToFloat(short[] words, int offset) {
+        return shortsToFloat(words[offset], words[offset + 1]);
+    }
+
+    /**
+     * 从寄存器数组的指定偏移读取两个寄存器并转换为整数值，不分配内存
+     * @param words 寄存器数组
+     * @param offset 第一个寄存器在数组中的下标
+     * @return 整数值
+     */
+    default int shortsToInt(short[] words, int offset) {
+        return shortsToInt(words[offset], words[offset + 1]);
+    }
+
+    /**
+     * 将浮点值按端序写入寄存器数组的指定偏移（2个寄存器）
+     * @param value 浮点值
+     * @param words 目标寄存器数组
+     * @param offset 写入的起始下标
+     */
+    default void floatToShorts(float value, short[] words, int offset) {
+        short[] shorts = floatToShorts(value);
+        words[offset] = shorts[0];
+        words[offset + 1] = shorts[1];
+    }
+
+    /**
+     * 将整数值按端序写入寄存器数组的指定偏移（2个寄存器）
+     * @param value 整数值
+     * @param words 目标寄存器数组
+     * @param offset 写入的起始下标
+     */
+    default void intToShorts(int value, short[] words, int offset) {
+        short[] shorts = intToShorts(value);
+        words[offset] = shorts[0];
+        words[offset + 1] = shorts[1];
+    }
+
+    /**
+     * 批量解码浮点值：values[i] 取自 words[offset + i * stride] 起的两个寄存器
+     * @param words 寄存器数组
+     * @param offset 第一个值的下标
+     * @param stride 相邻两个值的下标间隔（连续存放为 2）
+     * @param values 结果数组，写入 [0, count)
+     * @param count 值的个数
+     */
+    default void shortsToFloats(short[] words, int offset, int stride, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = shortsToFloat(words, offset + i * stride);
+        }
+    }
+
+    /**
+     * 按偏移表批量解码浮点值：values[i] 取自 words[offsets[i]] 起的两个寄存器
+     * @param words 寄存器数组
+     * @param offsets 每个值第一个寄存器的下标
+     * @param values 结果数组，长度不小于 offsets.length
+     */
+    default void shortsToFloats(short[] words, int[] offsets, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            values[i] = shortsToFloat(words, offsets[i]);
+        }
+    }
+
+    /**
+     * 批量解码有符号 32 位整数，参数含义同 {@link #shortsToFloats(short[], int, int, float[], int)}
+     */
+    default void shortsToInts(short[] words, int offset, int stride, int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = shortsToInt(words, offset + i * stride);
+        }
+    }
+
+    /**
+     * 按偏移表批量解码有符号 32 位整数
+     */
+    default void shortsToInts(short[] words, int[] offsets, int[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            values[i] = shortsToInt(words, offsets[i]);
+        }
+    }
+
+    /**
+     * 批量解码无符号 32 位整数（结果为 0 ~ 4294967295 的 long），参数含义同
+     * {@link #shortsToFloats(short[], int, int, float[], int)}
+     */
+    default void shortsToUnsignedInts(short[] words, int offset, int stride, long[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = shortsToInt(words, offset + i * stride) & 0xFFFFFFFFL;
+        }
+    }
+
+    /**
+     * 按偏移表批量解码无符号 32 位整数
+     */
+    default void shortsToUnsignedInts(short[] words, int[] offsets, long[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            values[i] = shortsToInt(words, offsets[i]) & 0xFFFFFFFFL;
+        }
+    }
+
+    /**
+     * 批量解码缩放值：values[i] = 有符号 32 位整数 / scaleFactor（与 ModbusScalableFloatDRAttribute 一致），
+     * 其余参数含义同 {@link #shortsToFloats(short[], int, int, float[], int)}
+     */
+    default void shortsToScaledFloats(short[] words, int offset, int stride, float scaleFactor, float[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = shortsToInt(words, offset + i * stride) / scaleFactor;
+        }
+    }
+
+    /**
+     * 按偏移表批量解码缩放值
+     */
+    default void shortsToScaledFloats(short[] words, int[] offsets, float scaleFactor, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            values[i] = shortsToInt(words, offsets[i]) / scaleFactor;
+        }
+    }
+
+    /**
+     * 从寄存器数组的指定偏移读取四个寄存器并转换为 64 位整数
+     * @param words 寄存器数组
+     * @param offset 第一个寄存器在数组中的下标
+     * @return 64 位整数
+     */
+    default long shortsToLong(short[] words, int offset) {
+        return ((long) shortsToInt(words, offset) << 32) | (shortsToInt(words, offset + 2) & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 将 64 位整数写入寄存器数组的指定偏移（4个寄存器）
+     * @param value 64 位整数
+     * @param words 目标寄存器数组
+     * @param offset 写入的起始下标
+     */
+    default void longToShorts(long value, short[] words, int offset) {
+        intToShorts((int) (value >>> 32), words, offset);
+        intToShorts((int) value, words, offset + 2);
+    }
+
+    /**
+     * 从寄存器数组的指定偏移读取四个寄存器并转换为双精度浮点值
+     * @param words 寄存器数组
+     * @param offset 第一个寄存器在数组中的下标
+     * @return 双精度浮点值
+     */
+    default double shortsToDouble(short[] words, int offset) {
+        return Double.longBitsToDouble(shortsToLong(words, offset));
+    }
+
+    /**
+     * 将双精度浮点值写入寄存器数组的指定偏移（4个寄存器）
+     * @param value 双精度浮点值
+     * @param words 目标寄存器数组
+     * @param offset 写入的起始下标
+     */
+    default void doubleToShorts(double value, short[] words, int offset) {
+        longToShorts(Double.doubleToLongBits(value), words, offset);
+    }
 }
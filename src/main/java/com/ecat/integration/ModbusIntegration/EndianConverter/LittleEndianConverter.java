@@ -5,30 +5,131 @@ import com.ecat.integration.ModbusIntegration.Tools;
 /**
  * 小端序转换器类
  * 
+ * <p>寄存器顺序为 [低位寄存器, 高位寄存器]（CDAB），与 Tools 中 LittleEndian 系列方法结果一致。
+ * 
  * @author coffee
  */
 public class LittleEndianConverter extends AbstractEndianConverter {
     @Override
     public short[] floatToShorts(float value) {
-        return Tools.convertFloatToLittleEndianShorts(value);
+        short[] words = new short[2];
+        intToShorts(Float.floatToIntBits(value), words, 0);
+        return words;
     }
 
     @Override
     public float shortsToFloat(short word1, short word2) {
-        // 注意：Tools中convertLittleEndianToFloat参数顺序是(lowWord, highWord)
-        // 因此这里需要将传入的word1（低位寄存器）和word2（高位寄存器）按顺序传递
-        return Tools.convertLittleEndianToFloat(word1, word2);
+        // word1=低位寄存器，word2=高位寄存器（与Tools.convertLittleEndianToFloat参数顺序一致）
+        return Float.intBitsToFloat(shortsToInt(word1, word2));
     }
     
     @Override
     public short[] intToShorts(int value) {
-        return Tools.convertIntToLittleEndianShorts(value);
+        short[] words = new short[2];
+        intToShorts(value, words, 0);
+        return words;
     }
 
     @Override
     public int shortsToInt(short word1, short word2) {
         // 小端模式：word1是低位寄存器，word2是高位寄存器
-        return Tools.convertLittleEndianToInt(word1, word2);
+        return (word2 << 16) | (word1 & 0xFFFF);
+    }
+
+    @Override
+    public float shortsToFloat(short[] words, int offset) {
+        return Float.intBitsToFloat(shortsToInt(words[offset], words[offset + 1]));
+    }
+
+    @Override
+    public int shortsToInt(short[] words, int offset) {
+        return shortsToInt(words[offset], words[offset + 1]);
+    }
+
+    @Override
+    public void floatToShorts(float value, short[] words, int offset) {
+        intToShorts(Float.floatToIntBits(value), words, offset);
+    }
+
+    @Override
+    public void intToShorts(int value, short[] words, int offset) {
+        words[offset] = (short) value;
+        words[offset + 1] = (short) (value >>> 16);
+    }
+
+    @Override
+    public void shortsToFloats(short[] words, int offset, int stride, float[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = Float.intBitsToFloat((words[p + 1] << 16) | (words[p] & 0xFFFF));
+        }
+    }
+
+    @Override
+    public void shortsToFloats(short[] words, int[] offsets, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = Float.intBitsToFloat((words[p + 1] << 16) | (words[p] & 0xFFFF));
+        }
+    }
+
+    @Override
+    public void shortsToInts(short[] words, int offset, int stride, int[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = (words[p + 1] << 16) | (words[p] & 0xFFFF);
+        }
+    }
+
+    @Override
+    public void shortsToInts(short[] words, int[] offsets, int[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = (words[p + 1] << 16) | (words[p] & 0xFFFF);
+        }
+    }
+
+    @Override
+    public void shortsToUnsignedInts(short[] words, int offset, int stride, long[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = ((words[p + 1] & 0xFFFFL) << 16) | (words[p] & 0xFFFFL);
+        }
+    }
+
+    @Override
+    public void shortsToUnsignedInts(short[] words, int[] offsets, long[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = ((words[p + 1] & 0xFFFFL) << 16) | (words[p] & 0xFFFFL);
+        }
+    }
+
+    @Override
+    public void shortsToScaledFloats(short[] words, int offset, int stride, float scaleFactor, float[] values, int count) {
+        for (int i = 0, p = offset; i < count; i++, p += stride) {
+            values[i] = ((words[p + 1] << 16) | (words[p] & 0xFFFF)) / scaleFactor;
+        }
+    }
+
+    @Override
+    public void shortsToScaledFloats(short[] words, int[] offsets, float scaleFactor, float[] values) {
+        for (int i = 0; i < offsets.length; i++) {
+            int p = offsets[i];
+            values[i] = ((words[p + 1] << 16) | (words[p] & 0xFFFF)) / scaleFactor;
+        }
+    }
+
+    @Override
+    public long shortsToLong(short[] words, int offset) {
+        // GHEFCDAB：与 32 位一致，低位寄存器在前
+        return ((words[offset + 3] & 0xFFFFL) << 48) | ((words[offset + 2] & 0xFFFFL) << 32)
+                | ((words[offset + 1] & 0xFFFFL) << 16) | (words[offset] & 0xFFFFL);
+    }
+
+    @Override
+    public void longToShorts(long value, short[] words, int offset) {
+        words[offset + 3] = (short) (value >>> 48);
+        words[offset + 2] = (short) (value >>> 32);
+        words[offset + 1] = (short) (value >>> 16);
+        words[offset] = (short) value;
     }
 
     @Override
@@ -0,0 +1,47 @@
+package com.ecat.integration.ModbusIntegration.EndianConverter;
+
+/**
+ * 32 位值在两个寄存器中的字节顺序
+ *
+ * <p>字母按寄存器传输顺序列出数值从高到低的字节（A 为最高字节），例如 0x12345678 按 CDAB 存放为寄存器 [0x5678, 0x1234]。
+ *
+ * @author coffee
+ * @see ByteOrderConverter
+ */
+public enum ModbusByteOrder {
+    ABCD(0, false, ModbusByteOrder64.ABCDEFGH), // 大端，同 BigEndianConverter
+    CDAB(1, false, ModbusByteOrder64.GHEFCDAB), // 字交换，同 LittleEndianConverter
+    BADC(0, true, ModbusByteOrder64.BADCFEHG),  // 字内字节交换，同 Tools.convertBigEndianByteSwapToFloat
+    DCBA(1, true, ModbusByteOrder64.HGFEDCBA);  // 完全反序，同 Tools.convertLittleEndianByteSwapToFloat
+
+    private final int highWordIndex;
+    private final boolean byteSwap;
+    private final ModbusByteOrder64 defaultOrder64;
+
+    ModbusByteOrder(int highWordIndex, boolean byteSwap, ModbusByteOrder64 defaultOrder64) {
+        this.highWordIndex = highWordIndex;
+        this.byteSwap = byteSwap;
+        this.defaultOrder64 = defaultOrder64;
+    }
+
+    /**
+     * 高 16 位所在的寄存器下标（0 或 1）
+     */
+    public int getHighWordIndex() {
+        return highWordIndex;
+    }
+
+    /**
+     * 每个寄存器内的两个字节是否交换
+     */
+    public boolean isByteSwap() {
+        return byteSwap;
+    }
+
+    /**
+     * 同一设备上 64 位值最常见的顺序（寄存器顺序按同样规则扩展到 4 个寄存器）
+     */
+    public ModbusByteOrder64 getDefaultOrder64() {
+        return defaultOrder64;
+    }
+}
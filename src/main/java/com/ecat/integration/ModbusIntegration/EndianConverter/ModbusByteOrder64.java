@@ -0,0 +1,43 @@
+package com.ecat.integration.ModbusIntegration.EndianConverter;
+
+/**
+ * 64 位值（double、int64）在四个寄存器中的字节顺序
+ *
+ * <p>字母按寄存器传输顺序列出数值从高到低的字节（A 为最高字节）。四个寄存器的排列有四种
+ * （原序、32 位内字交换、两个 32 位交换、完全字反序），每种再分字内字节是否交换，共 8 种。
+ *
+ * @author coffee
+ * @see ByteOrderConverter
+ */
+public enum ModbusByteOrder64 {
+    ABCDEFGH(0, 1, 2, 3, false), // 大端
+    CDABGHEF(1, 0, 3, 2, false), // 每个 32 位内字交换
+    EFGHABCD(2, 3, 0, 1, false), // 两个 32 位交换
+    GHEFCDAB(3, 2, 1, 0, false), // 完全字反序（低位寄存器在前）
+    BADCFEHG(0, 1, 2, 3, true),
+    DCBAHGFE(1, 0, 3, 2, true),
+    FEHGBADC(2, 3, 0, 1, true),
+    HGFEDCBA(3, 2, 1, 0, true);  // 完全反序
+
+    private final int[] wordIndexes;
+    private final boolean byteSwap;
+
+    ModbusByteOrder64(int word0, int word1, int word2, int word3, boolean byteSwap) {
+        this.wordIndexes = new int[] { word0, word1, word2, word3 };
+        this.byteSwap = byteSwap;
+    }
+
+    /**
+     * 数值第 {@code word} 个 16 位（0 为最高 16 位）所在的寄存器下标
+     */
+    public int getWordIndex(int word) {
+        return wordIndexes[word];
+    }
+
+    /**
+     * 每个寄存器内的两个字节是否交换
+     */
+    public boolean isByteSwap() {
+        return byteSwap;
+    }
+}
@@ -0,0 +1,721 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.code.FunctionCode;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+import com.serotonin.modbus4j.sero.util.queue.ByteQueue;
+
+/**
+ * 异步 Modbus TCP Master 基类（MBAP 帧）
+ *
+ * <p>负责与传输方式无关的部分：请求编码、MBAP 事务 ID 分配与响应匹配、按请求计时的超时、
+ * 同时在途数限制与本地排队。子类只负责把编码好的 ADU 写到连接上，并把收到的帧交给 {@link #onFrame}。
+ *
+ * <p>请求在提交时用 {@link ModbusPduCodec} 编码进共享缓冲池的 ByteBuffer。
+ * {@link #readRegistersAsync}、{@link #writeRegistersAsync} 等方法不经过 modbus4j 的请求/响应对象，
+ * 响应直接解析进调用方的数组，稳定轮询时几乎不产生垃圾；{@link #sendAsync(ModbusRequest)} 仍返回 modbus4j 响应。
+ *
+ * @see ModbusPipelinedTcpMaster
+ * @see ModbusNioTcpMaster
+ * @author coffee
+ */
+public abstract class ModbusAsyncTcpMaster extends ModbusMaster {
+
+    /**
+     * 所有异步 master 共用的请求缓冲池
+     */
+    private static final ModbusBufferPool BUFFER_POOL = new ModbusBufferPool(Const.DEFAULT_BUFFER_POOL_SIZE);
+
+    /**
+     * 所有异步 master 共用的超时定时器，只有一个守护线程
+     */
+    private static final ScheduledThreadPoolExecutor TIMEOUT_TIMER = createTimeoutTimer();
+
+    protected final Log log = LogFactory.getLogger(getClass());
+    protected final String host;
+    protected final int port;
+    private final int maxInFlight;
+
+    // 在途请求按事务 ID 的低位放入槽位（槽位数不小于 2 * maxInFlight），分配事务 ID 时跳过已占用的槽位，
+    // 因此按事务 ID 查找不需要装箱和哈希节点
+    private final AtomicReferenceArray<PendingRequest> inFlight;
+    private final int slotMask;
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final Queue<PendingRequest> backlog = new ArrayDeque<>(); // guarded by this
+    private int lastTransactionId; // guarded by this
+
+    /**
+     * 一个等待响应的请求
+     */
+    private abstract static class PendingRequest {
+        final int slaveId;
+        final int timeoutMs;
+        int transactionId;
+        ScheduledFuture<?> timeoutTask;
+        ByteBuffer adu; // 编码好的 ADU（事务 ID 在发出时填写），交给子类写出后由子类归还缓冲池
+
+        PendingRequest(int slaveId, int timeoutMs) {
+            this.slaveId = slaveId;
+            this.timeoutMs = timeoutMs;
+        }
+
+        /**
+         * 从 buffer 当前位置写入单元标识 + PDU
+         */
+        abstract void encode(ByteBuffer buffer) throws ModbusTransportException;
+
+        /**
+         * 解析响应帧并完成 future；frame 为连接复用的缓冲区，返回后即被覆盖
+         */
+        abstract void complete(ByteBuffer frame);
+
+        /**
+         * 广播请求（从站 0）写出后完成 future，没有应答
+         */
+        abstract void completeBroadcast();
+
+        abstract void fail(ModbusTransportException cause);
+    }
+
+    /**
+     * modbus4j 请求，响应构造为 modbus4j 响应对象
+     */
+    private static class ObjectRequest extends PendingRequest {
+        private final ModbusRequest request;
+        private final CompletableFuture<ModbusResponse> future = new CompletableFuture<>();
+
+        ObjectRequest(ModbusRequest request, int timeoutMs) {
+            super(request.getSlaveId(), timeoutMs);
+            this.request = request;
+        }
+
+        @Override
+        void encode(ByteBuffer buffer) {
+            ByteQueue queue = new ByteQueue();
+            request.write(queue); // unit id + PDU
+            buffer.put(queue.popAll());
+        }
+
+        @Override
+        void complete(ByteBuffer frame) {
+            byte[] bytes = new byte[frame.remaining()];
+            frame.get(bytes);
+            try {
+                future.complete(ModbusResponse.createModbusResponse(new ByteQueue(bytes)));
+            } catch (ModbusTransportException | RuntimeException e) {
+                future.completeExceptionally(e instanceof ModbusTransportException ? e
+                        : new ModbusTransportException(e, slaveId));
+            }
+        }
+
+        @Override
+        void completeBroadcast() {
+            future.complete(null); // 与 modbus4j 的 master 一致，广播返回 null
+        }
+
+        @Override
+        void fail(ModbusTransportException cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 原生编解码的请求：读响应直接解析进调用方数组，future 结果为读写数量或异常码的相反数
+     */
+    private static class RawRequest extends PendingRequest {
+        private final int functionCode;
+        private final int startOffset;
+        private final int count;
+        private final int value; // FC05/06 写入值
+        private final short[] registers;
+        private final boolean[] bits;
+        private final int arrayOffset;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        RawRequest(int slaveId, int functionCode, int startOffset, int count, int value, short[] registers, boolean[] bits,
+                int arrayOffset, int timeoutMs) {
+            super(slaveId, timeoutMs);
+            this.functionCode = functionCode;
+            this.startOffset = startOffset;
+            this.count = count;
+            this.value = value;
+            this.registers = registers;
+            this.bits = bits;
+            this.arrayOffset = arrayOffset;
+        }
+
+        @Override
+        void encode(ByteBuffer buffer) throws ModbusTransportException {
+            switch (functionCode) {
+                case FunctionCode.READ_COILS:
+                case FunctionCode.READ_DISCRETE_INPUTS:
+                case FunctionCode.READ_HOLDING_REGISTERS:
+                case FunctionCode.READ_INPUT_REGISTERS:
+                    ModbusPduCodec.encodeRead(buffer, slaveId, functionCode, startOffset, count);
+                    break;
+                case FunctionCode.WRITE_COIL:
+                    ModbusPduCodec.encodeWriteCoil(buffer, slaveId, startOffset, value != 0);
+                    break;
+                case FunctionCode.WRITE_REGISTER:
+                    ModbusPduCodec.encodeWriteRegister(buffer, slaveId, startOffset, value);
+                    break;
+                case FunctionCode.WRITE_COILS:
+                    ModbusPduCodec.encodeWriteCoils(buffer, slaveId, startOffset, bits, arrayOffset, count);
+                    break;
+                case FunctionCode.WRITE_REGISTERS:
+                    ModbusPduCodec.encodeWriteRegisters(buffer, slaveId, startOffset, registers, arrayOffset, count);
+                    break;
+                default:
+                    throw new ModbusTransportException("Unsupported function code: " + functionCode, slaveId);
+            }
+        }
+
+        @Override
+        void complete(ByteBuffer frame) {
+            try {
+                int result;
+                switch (functionCode) {
+                    case FunctionCode.READ_COILS:
+                    case FunctionCode.READ_DISCRETE_INPUTS:
+                        result = ModbusPduCodec.decodeBits(frame, functionCode, count, bits, arrayOffset);
+                        break;
+                    case FunctionCode.READ_HOLDING_REGISTERS:
+                    case FunctionCode.READ_INPUT_REGISTERS:
+                        result = ModbusPduCodec.decodeRegisters(frame, functionCode, count, registers, arrayOffset);
+                        break;
+                    default:
+                        result = ModbusPduCodec.decodeWrite(frame, functionCode, startOffset, count);
+                        break;
+                }
+                future.complete(result);
+            } catch (ModbusTransportException | RuntimeException e) {
+                future.completeExceptionally(e instanceof ModbusTransportException ? e
+                        : new ModbusTransportException(e, slaveId));
+            }
+        }
+
+        @Override
+        void completeBroadcast() {
+            future.complete(count);
+        }
+
+        @Override
+        void fail(ModbusTransportException cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * 读写多个寄存器（FC23）：写入值在调用线程上编码，读取结果直接解析进调用方数组
+     */
+    private static class ReadWriteRequest extends PendingRequest {
+        private final int readStart;
+        private final int readCount;
+        private final short[] dest;
+        private final int destOffset;
+        private final int writeStart;
+        private final short[] values;
+        private final int valuesOffset;
+        private final int writeCount;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        ReadWriteRequest(int slaveId, int readStart, int readCount, short[] dest, int destOffset, int writeStart,
+                short[] values, int valuesOffset, int writeCount, int timeoutMs) {
+            super(slaveId, timeoutMs);
+            this.readStart = readStart;
+            this.readCount = readCount;
+            this.dest = dest;
+            this.destOffset = destOffset;
+            this.writeStart = writeStart;
+            this.values = values;
+            this.valuesOffset = valuesOffset;
+            this.writeCount = writeCount;
+        }
+
+        @Override
+        void encode(ByteBuffer buffer) {
+            ModbusPduCodec.encodeReadWriteRegisters(buffer, slaveId, readStart, readCount, writeStart, values, valuesOffset,
+                    writeCount);
+        }
+
+        @Override
+        void complete(ByteBuffer frame) {
+            try {
+                future.complete(ModbusPduCodec.decodeRegisters(frame, ModbusPduCodec.READ_WRITE_REGISTERS, readCount, dest,
+                        destOffset));
+            } catch (ModbusTransportException | RuntimeException e) {
+                future.completeExceptionally(e instanceof ModbusTransportException ? e
+                        : new ModbusTransportException(e, slaveId));
+            }
+        }
+
+        @Override
+        void completeBroadcast() {
+            future.complete(0); // 广播没有回读
+        }
+
+        @Override
+        void fail(ModbusTransportException cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * @param host 设备 IP
+     * @param port 端口
+     * @param maxInFlight 同时在途的最大请求数
+     */
+    protected ModbusAsyncTcpMaster(String host, int port, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.host = host;
+        this.port = port;
+        this.maxInFlight = maxInFlight;
+        int slots = Integer.highestOneBit(Math.max(8, maxInFlight) * 4 - 1); // 不小于 2 * maxInFlight 的 2 的幂
+        this.inFlight = new AtomicReferenceArray<>(slots);
+        this.slotMask = slots - 1;
+    }
+
+    private static ScheduledThreadPoolExecutor createTimeoutTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "modbus-async-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * 所有异步 master 共用的超时定时器，子类可用于连接超时
+     */
+    protected static ScheduledThreadPoolExecutor getTimeoutTimer() {
+        return TIMEOUT_TIMER;
+    }
+
+    /**
+     * 所有异步 master 共用的请求缓冲池，仅用于监控和测试
+     */
+    static ModbusBufferPool getBufferPool() {
+        return BUFFER_POOL;
+    }
+
+    /**
+     * 归还 {@link #transmit(ByteBuffer)} 收到的缓冲区
+     */
+    protected static void releaseBuffer(ByteBuffer adu) {
+        BUFFER_POOL.release(adu);
+    }
+
+    /**
+     * 初始化，连接延迟到首次发送时建立
+     */
+    @Override
+    public synchronized void init() {
+        initialized = true;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        initialized = false;
+        closeConnection();
+        failInFlight(new ModbusTransportException("Master destroyed"));
+        failBacklog(new ModbusTransportException("Master destroyed"));
+    }
+
+    /**
+     * 同步发送，阻塞直到响应、超时或连接失败
+     */
+    @Override
+    public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+        try {
+            return sendAsync(request).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusTransportException(e, request.getSlaveId());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ModbusTransportException) {
+                throw (ModbusTransportException) e.getCause();
+            }
+            throw new ModbusTransportException(e.getCause(), request.getSlaveId());
+        }
+    }
+
+    /**
+     * 异步发送请求
+     *
+     * @param request Modbus 请求
+     * @return 响应 future，超时或连接失败时以 ModbusTransportException 异常完成
+     */
+    public CompletableFuture<ModbusResponse> sendAsync(ModbusRequest request) {
+        return sendAsync(request, getTimeout());
+    }
+
+    /**
+     * 异步发送请求，使用单独的应答超时
+     *
+     * @param request Modbus 请求
+     * @param timeoutMs 从请求发出起等待应答的时间（毫秒），用于按从站自适应的超时
+     * @return 响应 future，超时或连接失败时以 ModbusTransportException 异常完成
+     */
+    public CompletableFuture<ModbusResponse> sendAsync(ModbusRequest request, int timeoutMs) {
+        ObjectRequest pending = new ObjectRequest(request, timeoutMs);
+        submit(pending);
+        return pending.future;
+    }
+
+    /**
+     * 读寄存器（FC03/04），响应直接解析进 dest
+     *
+     * <p>dest 在 future 完成前由 I/O 线程写入，调用方在完成前不应读取或复用该区间。
+     *
+     * @param slaveId 从站 ID
+     * @param functionCode {@link FunctionCode#READ_HOLDING_REGISTERS} 或 {@link FunctionCode#READ_INPUT_REGISTERS}
+     * @param startOffset 起始地址
+     * @param count 寄存器数量（1~125）
+     * @param dest 目标数组
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @param timeoutMs 应答超时（毫秒）
+     * @return 寄存器数量，从站返回异常响应时为异常码的相反数；超时或连接失败时以 ModbusTransportException 异常完成
+     */
+    public CompletableFuture<Integer> readRegistersAsync(int slaveId, int functionCode, int startOffset, int count,
+            short[] dest, int destOffset, int timeoutMs) {
+        checkArray(dest.length, destOffset, count);
+        return submitRaw(new RawRequest(slaveId, functionCode, startOffset, count, 0, dest, null, destOffset, timeoutMs));
+    }
+
+    /**
+     * 读线圈或离散输入（FC01/02），响应直接解析进 dest
+     *
+     * @param functionCode {@link FunctionCode#READ_COILS} 或 {@link FunctionCode#READ_DISCRETE_INPUTS}
+     * @return 位数量，从站返回异常响应时为异常码的相反数
+     * @see #readRegistersAsync
+     */
+    public CompletableFuture<Integer> readBitsAsync(int slaveId, int functionCode, int startOffset, int count,
+            boolean[] dest, int destOffset, int timeoutMs) {
+        checkArray(dest.length, destOffset, count);
+        return submitRaw(new RawRequest(slaveId, functionCode, startOffset, count, 0, null, dest, destOffset, timeoutMs));
+    }
+
+    /**
+     * 写单个线圈（FC05）
+     *
+     * @return 1，从站返回异常响应时为异常码的相反数
+     */
+    public CompletableFuture<Integer> writeCoilAsync(int slaveId, int offset, boolean value, int timeoutMs) {
+        return submitRaw(new RawRequest(slaveId, FunctionCode.WRITE_COIL, offset, 1, value ? 1 : 0, null, null, 0, timeoutMs));
+    }
+
+    /**
+     * 写单个寄存器（FC06）
+     *
+     * @return 1，从站返回异常响应时为异常码的相反数
+     */
+    public CompletableFuture<Integer> writeRegisterAsync(int slaveId, int offset, int value, int timeoutMs) {
+        return submitRaw(new RawRequest(slaveId, FunctionCode.WRITE_REGISTER, offset, 1, value, null, null, 0, timeoutMs));
+    }
+
+    /**
+     * 写多个线圈（FC15）；values 在本方法返回前已编码，返回后调用方即可复用
+     *
+     * @return 写入数量，从站返回异常响应时为异常码的相反数
+     */
+    public CompletableFuture<Integer> writeCoilsAsync(int slaveId, int startOffset, boolean[] values, int valuesOffset,
+            int count, int timeoutMs) {
+        checkArray(values.length, valuesOffset, count);
+        return submitRaw(new RawRequest(slaveId, FunctionCode.WRITE_COILS, startOffset, count, 0, null, values, valuesOffset,
+                timeoutMs));
+    }
+
+    /**
+     * 写多个寄存器（FC16）；values 在本方法返回前已编码，返回后调用方即可复用
+     *
+     * @return 写入数量，从站返回异常响应时为异常码的相反数
+     */
+    public CompletableFuture<Integer> writeRegistersAsync(int slaveId, int startOffset, short[] values, int valuesOffset,
+            int count, int timeoutMs) {
+        checkArray(values.length, valuesOffset, count);
+        return submitRaw(new RawRequest(slaveId, FunctionCode.WRITE_REGISTERS, startOffset, count, 0, values, null,
+                valuesOffset, timeoutMs));
+    }
+
+    /**
+     * 读写多个寄存器（FC23）：一次事务内先写入再读取，读取结果直接解析进 dest；
+     * values 在本方法返回前已编码，返回后调用方即可复用
+     *
+     * @param readStart 读取起始地址
+     * @param readCount 读取数量（1~125）
+     * @param dest 读取结果的目标数组
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @param writeStart 写入起始地址
+     * @param values 写入值
+     * @param valuesOffset 第一个值在 values 中的下标
+     * @param writeCount 写入数量（1~121）
+     * @return 读取的寄存器数量，从站返回异常响应时为异常码的相反数（不支持 FC23 的从站通常返回 -1）
+     */
+    public CompletableFuture<Integer> readWriteRegistersAsync(int slaveId, int readStart, int readCount, short[] dest,
+            int destOffset, int writeStart, short[] values, int valuesOffset, int writeCount, int timeoutMs) {
+        checkArray(dest.length, destOffset, readCount);
+        checkArray(values.length, valuesOffset, writeCount);
+        ReadWriteRequest pending = new ReadWriteRequest(slaveId, readStart, readCount, dest, destOffset, writeStart, values,
+                valuesOffset, writeCount, timeoutMs);
+        submit(pending);
+        return pending.future;
+    }
+
+    private static void checkArray(int length, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", count: " + count + ", length: " + length);
+        }
+    }
+
+    private CompletableFuture<Integer> submitRaw(RawRequest pending) {
+        submit(pending);
+        return pending.future;
+    }
+
+    /**
+     * 在调用线程上编码（不持有锁），再放入本地队列等待发出
+     */
+    private void submit(PendingRequest pending) {
+        ByteBuffer adu = BUFFER_POOL.acquire();
+        adu.position(ModbusPduCodec.MBAP_PREFIX_LENGTH);
+        try {
+            pending.encode(adu);
+        } catch (ModbusTransportException e) {
+            BUFFER_POOL.release(adu);
+            pending.fail(e);
+            return;
+        } catch (IllegalArgumentException | BufferOverflowException e) {
+            BUFFER_POOL.release(adu);
+            pending.fail(new ModbusTransportException(e, pending.slaveId));
+            return;
+        }
+        pending.adu = adu;
+        synchronized (this) {
+            if (!initialized) {
+                releaseAdu(pending);
+                pending.fail(new ModbusTransportException("Master not initialized", pending.slaveId));
+            } else {
+                backlog.add(pending);
+                pump();
+            }
+        }
+    }
+
+    private static void releaseAdu(PendingRequest pending) {
+        BUFFER_POOL.release(pending.adu);
+        pending.adu = null;
+    }
+
+    /**
+     * 当前在途（已发出未响应）的请求数
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    /**
+     * 当前本地排队（未发出）的请求数
+     */
+    public synchronized int getBacklogCount() {
+        return backlog.size();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * 把 ADU 写到连接上；在持有 this 锁时调用
+     *
+     * <p>adu 已 flip（position 为 0，limit 为 ADU 长度），调用后归子类所有，写完后须通过
+     * {@link #releaseBuffer(ByteBuffer)} 归还。抛出 IOException 时由基类归还缓冲区、使该请求失败并关闭连接。
+     *
+     * <p>未连接时不得在此阻塞建立连接（调用方可能是提交请求的业务线程，且持有 this 锁）：
+     * 先把 adu 放入待发送队列，在其他线程上发起连接，连接建立后再写出；连接失败时调用 {@link #onConnectFailed}。
+     */
+    protected abstract void transmit(ByteBuffer adu) throws IOException;
+
+    /**
+     * 关闭当前连接（不处理在途请求）；在持有 this 锁时调用，未连接时什么都不做
+     */
+    protected abstract void closeConnection();
+
+    // guarded by this
+    private void send(PendingRequest pending) {
+        if (pending.slaveId == 0) {
+            sendBroadcast(pending);
+            return;
+        }
+        pending.transactionId = nextTransactionId();
+        inFlight.set(pending.transactionId & slotMask, pending);
+        inFlightCount.incrementAndGet();
+        ByteBuffer adu = pending.adu;
+        pending.adu = null;
+        ModbusPduCodec.putMbapHeader(adu, 0, pending.transactionId);
+        adu.flip();
+        // 先计时再写出：异步传输可能在 transmit 返回前就收到响应
+        pending.timeoutTask = TIMEOUT_TIMER.schedule(() -> onTimeout(pending), pending.timeoutMs, TimeUnit.MILLISECONDS);
+        try {
+            transmit(adu);
+        } catch (IOException e) {
+            releaseBuffer(adu);
+            pending.timeoutTask.cancel(false);
+            removeInFlight(pending);
+            pending.fail(new ModbusTransportException(e, pending.slaveId));
+            onConnectionLost(new ModbusTransportException(e, pending.slaveId));
+        }
+    }
+
+    /**
+     * 广播（从站 0）没有应答：写出后立即完成，不占用在途槽位，不计超时。
+     * 网关收到后在串口侧广播，总线转换延时由网关负责。
+     */
+    // guarded by this
+    private void sendBroadcast(PendingRequest pending) {
+        ByteBuffer adu = pending.adu;
+        pending.adu = null;
+        ModbusPduCodec.putMbapHeader(adu, 0, nextTransactionId());
+        adu.flip();
+        try {
+            transmit(adu);
+        } catch (IOException e) {
+            releaseBuffer(adu);
+            pending.fail(new ModbusTransportException(e, 0));
+            onConnectionLost(new ModbusTransportException(e, 0));
+            return;
+        }
+        pending.completeBroadcast();
+    }
+
+    // guarded by this
+    private int nextTransactionId() {
+        // 跳过槽位仍被在途请求占用的事务 ID（超时后迟到的响应不会被误匹配）
+        do {
+            lastTransactionId = (lastTransactionId + 1) & 0xFFFF;
+        } while (inFlight.get(lastTransactionId & slotMask) != null);
+        return lastTransactionId;
+    }
+
+    private boolean removeInFlight(PendingRequest pending) {
+        if (inFlight.compareAndSet(pending.transactionId & slotMask, pending, null)) {
+            inFlightCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 子类收到一个完整的响应帧时调用
+     *
+     * @param transactionId MBAP 事务 ID
+     * @param frame 单元标识 + PDU（position 到 limit），调用返回后即可复用
+     */
+    protected void onFrame(int transactionId, ByteBuffer frame) {
+        PendingRequest pending = inFlight.get(transactionId & slotMask);
+        if (pending == null || pending.transactionId != transactionId || !removeInFlight(pending)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Discard response with unknown transaction id: " + transactionId + " from " + host + ":" + port);
+            }
+            return;
+        }
+        if (pending.timeoutTask != null) {
+            pending.timeoutTask.cancel(false);
+        }
+        pending.complete(frame);
+        synchronized (this) {
+            pump();
+        }
+    }
+
+    /**
+     * 已建立的连接断开：关闭连接，在途请求全部失败，本地排队的请求在新连接上继续发送
+     */
+    protected synchronized void onConnectionLost(ModbusTransportException cause) {
+        closeConnection();
+        failInFlight(cause);
+        pump();
+    }
+
+    /**
+     * 连接建立失败：在途和本地排队的请求全部失败，不为排队的请求逐个重试连接。
+     * 设备不可达时每次连接尝试只等待一次连接超时，下一个新请求再发起连接。
+     */
+    protected synchronized void onConnectFailed(ModbusTransportException cause) {
+        closeConnection();
+        failInFlight(cause);
+        failBacklog(cause);
+    }
+
+    private void onTimeout(PendingRequest pending) {
+        if (removeInFlight(pending)) {
+            pending.fail(new ModbusTransportException(
+                    new TimeoutException("No response received in " + pending.timeoutMs + " ms, transaction id: "
+                            + pending.transactionId), pending.slaveId));
+            synchronized (this) {
+                pump();
+            }
+        }
+    }
+
+    // guarded by this
+    private void pump() {
+        if (!initialized) {
+            failBacklog(new ModbusTransportException("Master destroyed"));
+            return;
+        }
+        PendingRequest next;
+        while (inFlightCount.get() < maxInFlight && (next = backlog.poll()) != null) {
+            send(next);
+        }
+    }
+
+    // guarded by this
+    private void failBacklog(ModbusTransportException cause) {
+        PendingRequest next;
+        while ((next = backlog.poll()) != null) {
+            releaseAdu(next);
+            next.fail(cause);
+        }
+    }
+
+    private void failInFlight(ModbusTransportException cause) {
+        for (int i = 0; i < inFlight.length(); i++) {
+            PendingRequest pending = inFlight.get(i);
+            if (pending != null && removeInFlight(pending)) {
+                if (pending.timeoutTask != null) {
+                    pending.timeoutTask.cancel(false);
+                }
+                pending.fail(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 定长 ByteBuffer 池
+ *
+ * <p>无锁：每个槽位存放一个空闲缓冲区，取用时 getAndSet 为 null，归还时 CAS 放回空槽。
+ * 池空时直接分配新缓冲区，池满时丢弃归还的缓冲区（交给 GC），因此借出后未归还也不会泄漏。
+ * 稳定轮询时借出数不超过槽位数，不再分配。
+ *
+ * @author coffee
+ */
+public class ModbusBufferPool {
+
+    private final AtomicReferenceArray<ByteBuffer> slots;
+    private final int bufferSize;
+    private final boolean direct;
+    private final AtomicLong allocatedCount = new AtomicLong();
+
+    /**
+     * 创建堆缓冲区池，缓冲区大小为最大 Modbus TCP ADU（260 字节）
+     *
+     * @param capacity 最多缓存的空闲缓冲区数量
+     */
+    public ModbusBufferPool(int capacity) {
+        this(capacity, ModbusPduCodec.MAX_ADU_LENGTH, false);
+    }
+
+    /**
+     * @param capacity 最多缓存的空闲缓冲区数量
+     * @param bufferSize 每个缓冲区的字节数
+     * @param direct 是否分配直接缓冲区（NIO 通道读写时避免复制）
+     */
+    public ModbusBufferPool(int capacity, int bufferSize, boolean direct) {
+        if (capacity < 1 || bufferSize < 1) {
+            throw new IllegalArgumentException("capacity and bufferSize must be positive: " + capacity + ", " + bufferSize);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+    }
+
+    /**
+     * 借出一个已清空（position 0，limit 为容量）的缓冲区
+     */
+    public ByteBuffer acquire() {
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                ByteBuffer buffer = slots.getAndSet(i, null);
+                if (buffer != null) {
+                    buffer.clear();
+                    return buffer;
+                }
+            }
+        }
+        allocatedCount.incrementAndGet();
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * 归还缓冲区，归还后调用方不得再使用；非本池规格的缓冲区直接丢弃
+     *
+     * @param buffer 借出的缓冲区，为 null 时忽略
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.capacity() != bufferSize || buffer.isDirect() != direct) {
+            return;
+        }
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == null && slots.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 当前池中空闲的缓冲区数量
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 累计新分配的缓冲区数量，稳定运行后不再增长
+     */
+    public long getAllocatedCount() {
+        return allocatedCount.get();
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+}
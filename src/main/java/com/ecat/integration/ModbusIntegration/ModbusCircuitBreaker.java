@@ -0,0 +1,241 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.Getter;
+
+/**
+ * 按从站熔断无应答的设备
+ *
+ * <p>共享总线（尤其是 RS485）上的请求是串行的，一个离线从站的每次轮询都要等满超时，
+ * 同一总线上所有正常从站都会因此错过轮询周期。熔断器按从站 ID 统计连续超时：
+ * <ul>
+ *   <li>{@link ModbusCircuitState#CLOSED}：连续超时达到 failureThreshold 次后熔断</li>
+ *   <li>{@link ModbusCircuitState#OPEN}：该从站的请求立即失败，每隔 probeIntervalMs 放行一个探测请求</li>
+ *   <li>{@link ModbusCircuitState#HALF_OPEN}：探测请求收到应答（包括异常应答）则恢复，超时则继续熔断</li>
+ * </ul>
+ * 探测请求因其他原因失败（如连接断开）时回到熔断状态，等待下一次探测；探测结果一直未返回时，
+ * 下一个探测周期会再放行一个请求，不会永久卡在探测状态。
+ *
+ * <p>只统计应答超时，连接失败等总线级错误不属于某个从站，不会触发熔断，由 {@link ModbusReconnectBackoff} 按连接退避。
+ *
+ * @author coffee
+ */
+public class ModbusCircuitBreaker {
+
+    @Getter
+    private final int failureThreshold;
+    @Getter
+    private final long probeIntervalMs;
+    private final long probeIntervalNanos;
+    private final AtomicReferenceArray<SlaveCircuit> slaves = new AtomicReferenceArray<>(256);
+
+    /**
+     * 单个从站的状态，guarded by this
+     */
+    private static final class SlaveCircuit {
+        private ModbusCircuitState state = ModbusCircuitState.CLOSED;
+        private int consecutiveTimeouts;
+        private long nextProbeNanos;
+        private long rejectedCount;
+    }
+
+    /**
+     * @param failureThreshold 触发熔断的连续超时次数
+     * @param probeIntervalMs 熔断期间发送探测请求的间隔（毫秒）
+     */
+    public ModbusCircuitBreaker(int failureThreshold, long probeIntervalMs) {
+        if (failureThreshold < 1 || probeIntervalMs < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings, failureThreshold: " + failureThreshold
+                    + ", probeIntervalMs: " + probeIntervalMs);
+        }
+        this.failureThreshold = failureThreshold;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeIntervalNanos = TimeUnit.MILLISECONDS.toNanos(probeIntervalMs);
+    }
+
+    private SlaveCircuit slave(int slaveId) {
+        int index = slaveId & 0xFF;
+        SlaveCircuit circuit = slaves.get(index);
+        if (circuit == null) {
+            slaves.compareAndSet(index, null, new SlaveCircuit());
+            circuit = slaves.get(index);
+        }
+        return circuit;
+    }
+
+    /**
+     * 判断请求是否应立即失败（不改变状态），用于请求入队前快速拒绝
+     *
+     * @param slaveId 从站 ID
+     * @return true 表示该从站已熔断且未到探测时间
+     */
+    public boolean isRejecting(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            if (circuit.state == ModbusCircuitState.CLOSED || System.nanoTime() - circuit.nextProbeNanos >= 0L) {
+                return false;
+            }
+            circuit.rejectedCount++;
+            return true;
+        }
+    }
+
+    /**
+     * 请求发送前调用，熔断期间到达探测时间时放行一个探测请求
+     *
+     * @param slaveId 从站 ID
+     * @return true 表示可以发送，false 表示应立即失败
+     */
+    public boolean tryAcquire(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return true;
+        }
+        synchronized (circuit) {
+            if (circuit.state == ModbusCircuitState.CLOSED) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - circuit.nextProbeNanos >= 0L) {
+                circuit.state = ModbusCircuitState.HALF_OPEN;
+                circuit.nextProbeNanos = now + probeIntervalNanos;
+                return true;
+            }
+            circuit.rejectedCount++;
+            return false;
+        }
+    }
+
+    /**
+     * 记录一次收到应答（包括异常应答）
+     *
+     * @param slaveId 从站 ID
+     * @return true 表示该从站由熔断恢复
+     */
+    public boolean recordSuccess(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return false;
+        }
+        synchronized (circuit) {
+            circuit.consecutiveTimeouts = 0;
+            if (circuit.state == ModbusCircuitState.CLOSED) {
+                return false;
+            }
+            circuit.state = ModbusCircuitState.CLOSED;
+            return true;
+        }
+    }
+
+    /**
+     * 记录一次应答超时
+     *
+     * @param slaveId 从站 ID
+     * @return true 表示该从站由正常进入熔断
+     */
+    public boolean recordTimeout(int slaveId) {
+        SlaveCircuit circuit = slave(slaveId);
+        synchronized (circuit) {
+            circuit.consecutiveTimeouts++;
+            long nextProbe = System.nanoTime() + probeIntervalNanos;
+            switch (circuit.state) {
+                case CLOSED:
+                    if (circuit.consecutiveTimeouts < failureThreshold) {
+                        return false;
+                    }
+                    circuit.state = ModbusCircuitState.OPEN;
+                    circuit.nextProbeNanos = nextProbe;
+                    return true;
+                default:
+                    circuit.state = ModbusCircuitState.OPEN;
+                    circuit.nextProbeNanos = nextProbe;
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * 记录一次非超时的失败（连接断开、请求构造失败等），不计入连续超时，探测中则回到熔断状态
+     *
+     * @param slaveId 从站 ID
+     */
+    public void recordError(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return;
+        }
+        synchronized (circuit) {
+            if (circuit.state == ModbusCircuitState.HALF_OPEN) {
+                circuit.state = ModbusCircuitState.OPEN;
+            }
+        }
+    }
+
+    /**
+     * 人工恢复该从站（例如设备更换后）
+     *
+     * @param slaveId 从站 ID
+     */
+    public void reset(int slaveId) {
+        recordSuccess(slaveId);
+    }
+
+    /**
+     * 当前状态，用于健康检查
+     */
+    public ModbusCircuitState getState(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return ModbusCircuitState.CLOSED;
+        }
+        synchronized (circuit) {
+            return circuit.state;
+        }
+    }
+
+    /**
+     * 当前连续超时次数，用于健康检查
+     */
+    public int getConsecutiveTimeouts(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            return circuit.consecutiveTimeouts;
+        }
+    }
+
+    /**
+     * 熔断期间被立即拒绝的请求数，用于监控
+     */
+    public long getRejectedCount(int slaveId) {
+        SlaveCircuit circuit = slaves.get(slaveId & 0xFF);
+        if (circuit == null) {
+            return 0;
+        }
+        synchronized (circuit) {
+            return circuit.rejectedCount;
+        }
+    }
+
+    /**
+     * 当前未处于正常状态的从站 ID，用于总线级健康检查
+     */
+    public List<Integer> getOpenSlaveIds() {
+        List<Integer> open = new ArrayList<>();
+        for (int i = 0; i < slaves.length(); i++) {
+            if (getState(i) != ModbusCircuitState.CLOSED) {
+                open.add(i);
+            }
+        }
+        return open;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecat.integration.ModbusIntegration;
+
+/**
+ * 从站熔断状态枚举，见 {@link ModbusCircuitBreaker}
+ *
+ * @author coffee
+ */
+public enum ModbusCircuitState {
+    CLOSED,   // 正常：请求照常发送
+    OPEN,     // 熔断：请求立即失败，不占用总线
+    HALF_OPEN // 探测：已放行一个探测请求，等待其结果
+}
@@ -0,0 +1,183 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Modbus RTU CRC16（多项式 0xA001 反射形式，初值 0xFFFF）
+ *
+ * <p>三种实现，结果相同：
+ * <ul>
+ *   <li>按字节查表：每字节一次查表，短帧（少于 8 字节）使用</li>
+ *   <li>slicing-by-4 / slicing-by-8：每次处理 4/8 个字节，8 次查表互不依赖，CPU 可并行执行，
+ *       长帧明显快于逐字节查表</li>
+ * </ul>
+ * {@link #calculate(byte[], int, int)} 和 {@link #calculate(ByteBuffer, int, int)} 默认使用 slicing-by-8，
+ * 后者支持堆内和直接 ByteBuffer（按 long 读取，不复制）。帧中 CRC 低字节在前。
+ *
+ * @author coffee
+ */
+public final class ModbusCrc16 {
+
+    private static final int POLYNOMIAL = 0xA001;
+    private static final int INITIAL = 0xFFFF;
+
+    /**
+     * 8 张 256 项的表连续存放，第 k 张表为某字节之后再经过 k 个零字节的 CRC
+     */
+    private static final int[] TABLES = createTables();
+
+    private ModbusCrc16() {
+    }
+
+    private static int[] createTables() {
+        int[] tables = new int[8 * 256];
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLYNOMIAL : crc >>> 1;
+            }
+            tables[i] = crc;
+        }
+        for (int k = 1; k < 8; k++) {
+            for (int i = 0; i < 256; i++) {
+                int previous = tables[(k - 1) * 256 + i];
+                tables[k * 256 + i] = (previous >>> 8) ^ tables[previous & 0xFF];
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * 计算 data[offset, offset + length) 的 CRC16
+     *
+     * @return 0~0xFFFF
+     */
+    public static int calculate(byte[] data, int offset, int length) {
+        return calculateSlicing8(data, offset, length);
+    }
+
+    /**
+     * 计算 buffer 中 [offset, offset + length) 的 CRC16（绝对下标，不改变 position 和 limit）
+     *
+     * @param buffer 堆内或直接 ByteBuffer，字节序任意
+     * @return 0~0xFFFF
+     */
+    public static int calculate(ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return calculateSlicing8(buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        int[] t = TABLES;
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int crc = INITIAL;
+        int i = offset;
+        for (int end = offset + (length & ~7); i < end; i += 8) {
+            long word = buffer.getLong(i);
+            if (bigEndian) {
+                word = Long.reverseBytes(word); // 低位字节为帧中靠前的字节
+            }
+            crc ^= (int) word & 0xFFFF;
+            crc = t[7 * 256 + (crc & 0xFF)] ^ t[6 * 256 + (crc >>> 8)]
+                    ^ t[5 * 256 + ((int) (word >>> 16) & 0xFF)] ^ t[4 * 256 + ((int) (word >>> 24) & 0xFF)]
+                    ^ t[3 * 256 + ((int) (word >>> 32) & 0xFF)] ^ t[2 * 256 + ((int) (word >>> 40) & 0xFF)]
+                    ^ t[256 + ((int) (word >>> 48) & 0xFF)] ^ t[(int) (word >>> 56) & 0xFF];
+        }
+        for (int end = offset + length; i < end; i++) {
+            crc = (crc >>> 8) ^ t[(crc ^ buffer.get(i)) & 0xFF];
+        }
+        return crc;
+    }
+
+    /**
+     * 按字节查表
+     */
+    static int calculateTable(byte[] data, int offset, int length) {
+        return update(INITIAL, data, offset, offset + length);
+    }
+
+    private static int update(int crc, byte[] data, int from, int to) {
+        int[] t = TABLES;
+        for (int i = from; i < to; i++) {
+            crc = (crc >>> 8) ^ t[(crc ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+
+    /**
+     * slicing-by-4
+     */
+    static int calculateSlicing4(byte[] data, int offset, int length) {
+        int[] t = TABLES;
+        int crc = INITIAL;
+        int i = offset;
+        for (int end = offset + (length & ~3); i < end; i += 4) {
+            crc ^= (data[i] & 0xFF) | ((data[i + 1] & 0xFF) << 8);
+            crc = t[3 * 256 + (crc & 0xFF)] ^ t[2 * 256 + (crc >>> 8)]
+                    ^ t[256 + (data[i + 2] & 0xFF)] ^ t[data[i + 3] & 0xFF];
+        }
+        return update(crc, data, i, offset + length);
+    }
+
+    /**
+     * slicing-by-8
+     */
+    static int calculateSlicing8(byte[] data, int offset, int length) {
+        int[] t = TABLES;
+        int crc = INITIAL;
+        int i = offset;
+        for (int end = offset + (length & ~7); i < end; i += 8) {
+            crc ^= (data[i] & 0xFF) | ((data[i + 1] & 0xFF) << 8);
+            crc = t[7 * 256 + (crc & 0xFF)] ^ t[6 * 256 + (crc >>> 8)]
+                    ^ t[5 * 256 + (data[i + 2] & 0xFF)] ^ t[4 * 256 + (data[i + 3] & 0xFF)]
+                    ^ t[3 * 256 + (data[i + 4] & 0xFF)] ^ t[2 * 256 + (data[i + 5] & 0xFF)]
+                    ^ t[256 + (data[i + 6] & 0xFF)] ^ t[data[i + 7] & 0xFF];
+        }
+        return update(crc, data, i, offset + length);
+    }
+
+    /**
+     * 在 data[offset + length] 处追加 CRC（低字节在前）
+     *
+     * @return 追加后的帧长度 length + 2
+     */
+    public static int append(byte[] data, int offset, int length) {
+        int crc = calculate(data, offset, length);
+        data[offset + length] = (byte) crc;
+        data[offset + length + 1] = (byte) (crc >>> 8);
+        return length + 2;
+    }
+
+    /**
+     * 计算 buffer 中 [start, position) 的 CRC 并在 position 处追加（低字节在前），position 前移 2
+     */
+    public static void append(ByteBuffer buffer, int start) {
+        int crc = calculate(buffer, start, buffer.position() - start);
+        buffer.put((byte) crc).put((byte) (crc >>> 8));
+    }
+
+    /**
+     * 校验以 CRC 结尾的整帧
+     *
+     * @param length 帧长度（含 2 字节 CRC）
+     */
+    public static boolean check(byte[] frame, int offset, int length) {
+        if (length < 3) {
+            return false;
+        }
+        int expected = (frame[offset + length - 2] & 0xFF) | ((frame[offset + length - 1] & 0xFF) << 8);
+        return calculate(frame, offset, length - 2) == expected;
+    }
+
+    /**
+     * 校验 buffer 中 [offset, offset + length) 的整帧（绝对下标）
+     *
+     * @param length 帧长度（含 2 字节 CRC）
+     */
+    public static boolean check(ByteBuffer frame, int offset, int length) {
+        if (length < 3) {
+            return false;
+        }
+        int expected = (frame.get(offset + length - 2) & 0xFF) | ((frame.get(offset + length - 1) & 0xFF) << 8);
+        return calculate(frame, offset, length - 2) == expected;
+    }
+}
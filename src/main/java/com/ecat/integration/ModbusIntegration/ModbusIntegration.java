@@ -12,8 +12,13 @@ import com.ecat.integration.SerialIntegration.SerialInfo;
 import com.ecat.integration.SerialIntegration.SerialIntegration;
 import com.ecat.integration.SerialIntegration.SerialSource;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Modbus集成管理类，分别管理TCP和串行资源
@@ -25,12 +30,16 @@ import java.util.Map;
  * <li>注册和获取Modbus资源</li>
  * <li>支持TCP和串行协议</li>
  * </ul>
+ *
+ * <p>
+ * 设备可以在多个线程上并发注册：同一连接只创建一个共享的 ModbusSource，master 在后台初始化，
+ * 注册不等待打开串口或连接设备，无法连接的地址不会拖慢其他设备的启动。
  * 
  * @author coffee
  */
 public class ModbusIntegration extends IntegrationBase {
-    private final Map<String, ModbusSource> tcpSources = new HashMap<>();
-    private final Map<String, ModbusSource> serialSources = new HashMap<>();
+    private final ConcurrentMap<String, ModbusSource> tcpSources = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ModbusSource> serialSources = new ConcurrentHashMap<>();
     private final ModbusSlaveRegistry slaveRegistry = new ModbusSlaveRegistry();
 
     private SerialIntegration serialIntegration;
@@ -39,6 +48,10 @@ public class ModbusIntegration extends IntegrationBase {
 
     protected Integer maxWaiters; // 新建ModbusSource默认最大等待请求数
     protected Integer waitTimeoutMs; //  新建ModbusSource默认等待超时时间
+    protected Integer workerThreads; // 共享调度器工作线程数
+
+    private ModbusScheduler scheduler; // 所有 ModbusSource 共用的调度器，onInit 创建，onRelease 关闭
+    private ModbusPollScheduler pollScheduler; // 设备轮询组的统一定时器，onInit 创建，onRelease 关闭
 
     @Override
     public void onInit() {
@@ -49,13 +62,18 @@ public class ModbusIntegration extends IntegrationBase {
         if(isValid) {
             maxWaiters = (Integer) integrationConfig.getOrDefault("max_waiters", Const.DEFAULT_MAX_WAITERS);
             waitTimeoutMs = (Integer) integrationConfig.getOrDefault("wait_timeout", Const.DEFAULT_WAIT_TIMEOUT_MS);
+            workerThreads = (Integer) integrationConfig.getOrDefault("worker_threads", Const.DEFAULT_WORKER_THREADS);
         }
         else{
             log.error("ModbusIntegration configuration is invalid, using default values.");
             maxWaiters = Const.DEFAULT_MAX_WAITERS;
             waitTimeoutMs = Const.DEFAULT_WAIT_TIMEOUT_MS;
+            workerThreads = Const.DEFAULT_WORKER_THREADS;
         }
-        log.info("ModbusIntegration initialized with maxWaiters: " + maxWaiters + ", waitTimeoutMs: " + waitTimeoutMs);
+        scheduler = new ModbusScheduler(workerThreads);
+        pollScheduler = new ModbusPollScheduler();
+        log.info("ModbusIntegration initialized with maxWaiters: " + maxWaiters + ", waitTimeoutMs: " + waitTimeoutMs
+                + ", workerThreads: " + workerThreads);
 
         // Get serial integration for RTU path
         try {
@@ -81,6 +99,11 @@ public class ModbusIntegration extends IntegrationBase {
 
     @Override
     public void onRelease() {
+        // 先停止轮询，避免在资源销毁过程中继续发起读取
+        if (pollScheduler != null) {
+            pollScheduler.shutdown();
+            pollScheduler = null;
+        }
         // 销毁所有共享连接的底层资源（master、executor、serial port）
         // destroyResources() 由 ModbusMasterFactory 统一处理 TCP/RTU 传输资源释放
         tcpSources.values().forEach(source -> source.destroyResources());
@@ -88,6 +111,10 @@ public class ModbusIntegration extends IntegrationBase {
         tcpSources.clear();
         serialSources.clear();
         slaveRegistry.clear();
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
     }
 
     public ConfigDefinition getConfigDefinition() {
@@ -97,10 +124,12 @@ public class ModbusIntegration extends IntegrationBase {
             // 设置最大等待数验证范围，1-10
             IntegerValidator maxWaitersValidator = new IntegerValidator(1, 10);
             IntegerValidator waitTimeoutValidator = new IntegerValidator(1000, 10000);
+            IntegerValidator workerThreadsValidator = new IntegerValidator(1, 256);
 
             ConfigItemBuilder builder = new ConfigItemBuilder()
                 .add(new ConfigItem<>("max_waiters", Integer.class, false, Const.DEFAULT_MAX_WAITERS, maxWaitersValidator))
-                .add(new ConfigItem<>("wait_timeout", Integer.class, false, Const.DEFAULT_WAIT_TIMEOUT_MS, waitTimeoutValidator));
+                .add(new ConfigItem<>("wait_timeout", Integer.class, false, Const.DEFAULT_WAIT_TIMEOUT_MS, waitTimeoutValidator))
+                .add(new ConfigItem<>("worker_threads", Integer.class, false, Const.DEFAULT_WORKER_THREADS, workerThreadsValidator));
 
             configDefinition.define(builder);
         }
@@ -109,6 +138,9 @@ public class ModbusIntegration extends IntegrationBase {
 
     /**
      * 注册Modbus资源（自动区分协议类型）
+     *
+     * <p>线程安全，可并发调用；返回时 master 可能仍在初始化（{@link ModbusSource#isOpening()}），
+     * 期间提交的请求在初始化完成后发送，需要等待时使用 {@link ModbusSource#whenOpen()}。
      * 
      * @param info     Modbus设备信息（TCP或串行）
      * @param identity 资源标识（如设备编号）
@@ -123,53 +155,56 @@ public class ModbusIntegration extends IntegrationBase {
     private ModbusSource createOrGetSource(ModbusInfo info, String identity) {
         // 统一处理：获取共享的底层source，然后返回设备特定的包装器
         String connectionIdentity = getConnectionIdentity(info);
-
-        // 清理已销毁的 source（最后一个设备 release 后 executor 已 shutdown，
-        // 但 source 仍留在 map 中，导致 computeIfAbsent 返回死 source）
-        Map<String, ModbusSource> sourceMap = (info instanceof ModbusSerialInfo) ? serialSources : tcpSources;
-        ModbusSource existing = sourceMap.get(connectionIdentity);
-        if (existing != null && !existing.isModbusOpen()) {
-            sourceMap.remove(connectionIdentity);
-            existing = null;
+        if (info instanceof ModbusSerialInfo && serialIntegration == null) {
+            // RTU 模式：必须通过 serial integration 管理串口
+            throw new IllegalStateException("Serial integration is required for RTU devices but is not available");
         }
 
-        // TCP 模式：同一 TCP 连接只能使用一种帧格式（MBAP 或 RTU over TCP），
-        // 如果已存在连接但协议不匹配，直接拒绝注册，避免帧格式冲突导致通信失败。
-        if (existing != null && info instanceof ModbusTcpInfo) {
-            ModbusProtocol existingProtocol = existing.getModbusInfo().getProtocol();
-            ModbusProtocol newProtocol = info.getProtocol();
-            if (existingProtocol != newProtocol) {
-                throw new IllegalStateException(String.format(
-                    "Modbus TCP 协议冲突: 连接 %s 已被注册为 %s 协议，无法再用 %s 协议注册。"
-                        + "同一 IP:Port 只能使用一种帧格式，请检查设备配置或删除冲突的 ConfigEntry。",
-                    connectionIdentity, existingProtocol, newProtocol));
+        // compute 对同一连接的注册串行执行，并发注册只创建一个 source；不同连接互不等待。
+        // master 在 source 的 executor 上初始化，compute 中不建立连接，不会长时间占用 map 的锁。
+        ConcurrentMap<String, ModbusSource> sourceMap = (info instanceof ModbusSerialInfo) ? serialSources : tcpSources;
+        ModbusSource sharedSource = sourceMap.compute(connectionIdentity, (key, existing) -> {
+            // 清理已销毁的 source（最后一个设备 release 后 executor 已 shutdown，
+            // 但 source 仍留在 map 中，导致返回死 source）；仍在初始化的 source 不是死 source
+            if (existing != null && !existing.isModbusOpen() && !existing.isOpening()) {
+                existing = null;
+            }
+            if (existing == null) {
+                return createSharedSource(info, key);
             }
-        }
 
-        ModbusSource sharedSource;
-        if (info instanceof ModbusSerialInfo) {
-            // RTU 模式：必须通过 serial integration 管理串口
-            if (serialIntegration == null) {
-                throw new IllegalStateException("Serial integration is required for RTU devices but is not available");
+            // TCP 模式：同一 TCP 连接只能使用一种帧格式（MBAP 或 RTU over TCP），
+            // 如果已存在连接但协议不匹配，直接拒绝注册，避免帧格式冲突导致通信失败。
+            if (info instanceof ModbusTcpInfo) {
+                ModbusProtocol existingProtocol = existing.getModbusInfo().getProtocol();
+                ModbusProtocol newProtocol = info.getProtocol();
+                if (existingProtocol != newProtocol) {
+                    throw new IllegalStateException(String.format(
+                        "Modbus TCP 协议冲突: 连接 %s 已被注册为 %s 协议，无法再用 %s 协议注册。"
+                            + "同一 IP:Port 只能使用一种帧格式，请检查设备配置或删除冲突的 ConfigEntry。",
+                        key, existingProtocol, newProtocol));
+                }
             }
-            sharedSource = serialSources.computeIfAbsent(connectionIdentity, k -> {
-                ModbusSerialInfo serialInfo = (ModbusSerialInfo) info;
-                SerialSource serialSource = serialIntegration.register(
-                    convertToSerialInfo(serialInfo), "modbus-" + connectionIdentity);
-                ModbusSource source = new ModbusSource(serialInfo, maxWaiters, waitTimeoutMs, true, false);
-                source.initSerialMaster(serialInfo, serialSource);
-                return source;
-            });
-        } else {
-            // TCP 模式
-            sharedSource = tcpSources.computeIfAbsent(connectionIdentity,
-                k -> new ModbusSource(info, maxWaiters, waitTimeoutMs));
-        }
+            return existing;
+        });
 
         // 统一返回设备特定的DeviceSpecificModbusSource（传入 identity 用于正确的 close/release）
         return new DeviceSpecificModbusSource(sharedSource, info, identity);
     }
 
+    private ModbusSource createSharedSource(ModbusInfo info, String connectionIdentity) {
+        if (info instanceof ModbusSerialInfo) {
+            ModbusSerialInfo serialInfo = (ModbusSerialInfo) info;
+            SerialSource serialSource = serialIntegration.register(
+                convertToSerialInfo(serialInfo), "modbus-" + connectionIdentity);
+            ModbusSource source = new ModbusSource(serialInfo, maxWaiters, waitTimeoutMs, true, false, scheduler);
+            source.initSerialMaster(serialInfo, serialSource);
+            return source;
+        }
+        // TCP 模式
+        return new ModbusSource(info, maxWaiters, waitTimeoutMs, false, false, scheduler);
+    }
+
     private SerialInfo convertToSerialInfo(ModbusSerialInfo info) {
         return new SerialInfo(
             info.getPortName(), info.getBaudrate(), info.getDataBits(),
@@ -206,6 +241,118 @@ public class ModbusIntegration extends IntegrationBase {
         return serialSources.get(identity);
     }
 
+    /**
+     * 向一条总线（TCP 连接或串口）上的所有从站广播写多个寄存器，例如对时、统一使能
+     *
+     * <p>只发送一帧（从站 0），不等待应答；串口上发送后等待转换延时
+     * （{@link Const#DEFAULT_BROADCAST_TURNAROUND_MS}）再发送下一个请求。N 个设备由 N 次一问一答变为一次。
+     *
+     * @param info 总线上任一已注册设备的连接信息（slaveId 不使用）
+     * @param startAddress 写入起始地址
+     * @param values 写入值
+     * @return 已发送为 true，发送失败为 false
+     * @throws IllegalStateException 该连接上没有已注册的设备
+     */
+    public CompletableFuture<Boolean> broadcastWriteRegisters(ModbusInfo info, int startAddress, short[] values) {
+        return getSharedSource(info).broadcastWriteRegisters(startAddress, values);
+    }
+
+    /**
+     * 向一条总线上的所有从站广播写多个线圈
+     *
+     * @see #broadcastWriteRegisters(ModbusInfo, int, short[])
+     */
+    public CompletableFuture<Boolean> broadcastWriteCoils(ModbusInfo info, int startAddress, boolean[] values) {
+        return getSharedSource(info).broadcastWriteCoils(startAddress, values);
+    }
+
+    private ModbusSource getSharedSource(ModbusInfo info) {
+        String connectionIdentity = getConnectionIdentity(info);
+        ModbusSource source = (info instanceof ModbusSerialInfo ? serialSources : tcpSources).get(connectionIdentity);
+        if (source == null || !source.isModbusOpen() && !source.isOpening()) {
+            throw new IllegalStateException("No Modbus device registered on " + connectionIdentity);
+        }
+        return source;
+    }
+
+    /**
+     * 获取各连接的事务指标
+     *
+     * @return 连接标识（TCP 为 ip:port，串口为端口名）到指标的映射
+     */
+    public Map<String, ModbusMetrics> getSourceMetrics() {
+        Map<String, ModbusMetrics> metrics = new LinkedHashMap<>();
+        tcpSources.forEach((identity, source) -> metrics.put(identity, source.getMetrics()));
+        serialSources.forEach((identity, source) -> metrics.put(identity, source.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * 汇总所有连接的事务指标（快照，累计值不随之后的事务变化，队列长度等实时值随时读取）
+     *
+     * @return 汇总指标
+     */
+    public ModbusMetrics getMetrics() {
+        List<ModbusMetrics> metrics = new ArrayList<>(getSourceMetrics().values());
+        return ModbusMetrics.aggregate(metrics);
+    }
+
+    /**
+     * 获取共享调度器
+     *
+     * @return 调度器，onInit 之前或 onRelease 之后为 null
+     */
+    public ModbusScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 注册轮询组，由集成统一按周期读取，取代设备集成中各自的定时任务
+     *
+     * <pre>
+     * {@code
+     * ModbusReadPlanner planner = new ModbusReadPlanner();
+     * planner.add(ModbusReadPlanner.RegisterType.HOLDING, tempAttr);
+     * ModbusPollGroup group = modbusIntegration.registerPollGroup("device-001/fast", source, planner, 1000);
+     * // 设备移除时
+     * modbusIntegration.unregisterPollGroup(group);
+     * }
+     * </pre>
+     *
+     * @param name 轮询组名称（用于日志和监控）
+     * @param source 设备的 ModbusSource
+     * @param planner 要读取的寄存器区间
+     * @param periodMs 轮询周期（毫秒）
+     * @return 轮询组，可用于取消和查看统计
+     * @see ModbusPollScheduler
+     */
+    public ModbusPollGroup registerPollGroup(String name, ModbusSource source, ModbusReadPlanner planner, long periodMs) {
+        return getPollScheduler().register(name, source, planner, periodMs);
+    }
+
+    /**
+     * 取消轮询组
+     *
+     * @param group registerPollGroup 返回的轮询组
+     * @return 是否取消成功
+     */
+    public boolean unregisterPollGroup(ModbusPollGroup group) {
+        return pollScheduler != null && pollScheduler.unregister(group);
+    }
+
+    /**
+     * 获取轮询调度器（可注册带完成回调的轮询组、查看所有轮询组的统计）
+     *
+     * @return 轮询调度器
+     * @throws IllegalStateException onInit 之前或 onRelease 之后调用
+     */
+    public ModbusPollScheduler getPollScheduler() {
+        if (pollScheduler == null) {
+            throw new IllegalStateException("ModbusIntegration is not initialized");
+        }
+        return pollScheduler;
+    }
+
     // ==================== Slave API ====================
 
     /**
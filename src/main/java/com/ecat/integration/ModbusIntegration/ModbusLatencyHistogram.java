@@ -0,0 +1,133 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁、记录时不分配对象的时延直方图
+ *
+ * <p>以微秒为单位按对数分桶：每个 2 的幂区间再均分为 4 个子桶，相对误差不超过 25%，
+ * 覆盖 0us 到约 1.2 小时。记录只有一次数组元素自增和两次 LongAdder 累加，可以在生产环境常开。
+ *
+ * @author coffee
+ */
+public class ModbusLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 32;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0L, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶的下界（微秒，含）
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        totalMicros.add(micros);
+        if (micros > maxMicros.get()) {
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+    }
+
+    /**
+     * 把本直方图的数据累加到 target，用于汇总多个直方图
+     */
+    public void addTo(ModbusLatencyHistogram target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long bucket = buckets.get(i);
+            if (bucket != 0L) {
+                target.buckets.addAndGet(i, bucket);
+            }
+        }
+        target.count.add(count.sum());
+        target.totalMicros.add(totalMicros.sum());
+        target.maxMicros.accumulateAndGet(maxMicros.get(), Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * 平均耗时（毫秒），无样本时为 0
+     */
+    public double getMeanMs() {
+        long samples = count.sum();
+        return samples == 0L ? 0.0 : totalMicros.sum() / 1000.0 / samples;
+    }
+
+    /**
+     * 最大耗时（毫秒）
+     */
+    public double getMaxMs() {
+        return maxMicros.get() / 1000.0;
+    }
+
+    /**
+     * 分位数耗时（毫秒），取所在桶的上界，不超过最大耗时；无样本时为 0
+     *
+     * @param percentile 分位数，例如 99 表示 P99
+     */
+    public double getPercentileMs(double percentile) {
+        long total = 0L;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0L) {
+            return 0.0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long upper = i + 1 < BUCKET_COUNT ? bucketLowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.min(upper, maxMicros.get()) / 1000.0;
+            }
+        }
+        return getMaxMs();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%.2fms, p50=%.2fms, p99=%.2fms, max=%.2fms",
+                getCount(), getMeanMs(), getPercentileMs(50), getPercentileMs(99), getMaxMs());
+    }
+}
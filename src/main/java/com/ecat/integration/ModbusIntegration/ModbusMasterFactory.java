@@ -50,7 +50,8 @@ public class ModbusMasterFactory {
     /**
      * 创建串行 ModbusMaster（通过 serial integration 管理串口）
      *
-     * <p>创建后自动注册 master → SerialSource 映射，
+     * <p>serialInfo 启用 nativeFraming 时创建 {@link ModbusRtuMaster}，否则使用 modbus4j 的 RTU master。
+     * 创建后自动注册 master → SerialSource 映射，
      * 销毁时通过 {@link #destroyMaster(ModbusMaster)} 统一释放。
      *
      * @param serialInfo 串口配置
@@ -61,7 +62,13 @@ public class ModbusMasterFactory {
     public static ModbusMaster createSerialMaster(ModbusSerialInfo serialInfo, SerialSource serialSource) throws ModbusInitException {
         ModbusFactory factory = new ModbusFactory();
         ModbusSerialPortWrapper serialPortWrapper = new ModbusSerialPortWrapper(serialInfo, serialSource);
-        ModbusMaster modbusMaster = factory.createRtuMaster(serialPortWrapper);
+        ModbusMaster modbusMaster;
+        if (serialInfo.isNativeFraming()) {
+            // 帧间隔按波特率计算，收齐预期长度即返回
+            modbusMaster = new ModbusRtuMaster(serialPortWrapper, ModbusRtuTiming.of(serialInfo));
+        } else {
+            modbusMaster = factory.createRtuMaster(serialPortWrapper);
+        }
         modbusMaster.setTimeout(serialInfo.getTimeout());
         // 注册映射：销毁时需要恢复 event adapter + 释放 SerialSource
         serialMasterRegistry.put(modbusMaster, serialSource);
@@ -104,7 +111,21 @@ public class ModbusMasterFactory {
         } else {
             ipParams.setEncapsulated(false); // 标准 Modbus TCP
         }
-        ModbusMaster master = factory.createTcpMaster(ipParams, false); // false表示非保持连接
+        ModbusMaster master;
+        if (tcpInfo.isNio()) {
+            // 非阻塞连接，所有 NIO master 共用少量 I/O 线程；maxInFlight 大于 1 时同样按事务 ID 流水线
+            master = new ModbusNioTcpMaster(tcpInfo.getIpAddress(), tcpInfo.getPort(),
+                    Math.max(1, tcpInfo.getMaxInFlight() == null ? 1 : tcpInfo.getMaxInFlight()));
+        } else if (tcpInfo.isPipelined()) {
+            // 多个请求共用一条长连接，按 MBAP 事务 ID 匹配响应
+            master = new ModbusPipelinedTcpMaster(tcpInfo.getIpAddress(), tcpInfo.getPort(), tcpInfo.getMaxInFlight());
+        } else if (tcpInfo.isKeepAlive()) {
+            // 长连接池：连接在事务之间保持，断开后下一次请求时重连
+            master = new ModbusTcpConnectionPool(tcpInfo.getIpAddress(), tcpInfo.getPort(), tcpInfo.getConcurrency(),
+                    () -> factory.createTcpMaster(ipParams, true));
+        } else {
+            master = factory.createTcpMaster(ipParams, false); // false表示非保持连接
+        }
         master.setTimeout(tcpInfo.getTimeout()); // 设置 TCP 事务超时（毫秒）
         return master;
     }
@@ -0,0 +1,281 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * ModbusSource 的事务指标
+ *
+ * <ul>
+ *   <li>时延直方图：总体、按功能码、按从站，每个都分为排队等待时间和线上往返时间</li>
+ *   <li>计数：事务、超时、传输错误、各 Modbus 异常码、锁获取被拒绝（超时或超出 max_waiters）、熔断拒绝</li>
+ *   <li>实时值：请求队列长度、锁等待数</li>
+ * </ul>
+ * 记录全部使用原子数组和 LongAdder，不加锁；按功能码/从站的直方图在首次出现时创建，之后记录不分配对象。
+ * {@link ModbusIntegration#getMetrics()} 汇总所有连接的指标。
+ *
+ * @author coffee
+ */
+public class ModbusMetrics {
+
+    /**
+     * 一组排队等待 + 线上往返时延
+     */
+    public static final class Latency {
+        private final ModbusLatencyHistogram queueWait = new ModbusLatencyHistogram();
+        private final ModbusLatencyHistogram wire = new ModbusLatencyHistogram();
+
+        /**
+         * 从提交请求到开始发送的时间
+         */
+        public ModbusLatencyHistogram getQueueWait() {
+            return queueWait;
+        }
+
+        /**
+         * 从发送请求到收到应答的时间
+         */
+        public ModbusLatencyHistogram getWire() {
+            return wire;
+        }
+
+        void addTo(Latency target) {
+            queueWait.addTo(target.queueWait);
+            wire.addTo(target.wire);
+        }
+
+        @Override
+        public String toString() {
+            return "queueWait{" + queueWait + "}, wire{" + wire + "}";
+        }
+    }
+
+    private final Latency total = new Latency();
+    private final AtomicReferenceArray<Latency> byFunction = new AtomicReferenceArray<>(128);
+    private final AtomicReferenceArray<Latency> bySlave = new AtomicReferenceArray<>(256);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+    private final LongAdder exceptionResponses = new LongAdder();
+    private final AtomicLongArray exceptionCodes = new AtomicLongArray(256);
+    private final LongAdder rejectedAcquires = new LongAdder();
+    private final LongAdder circuitRejected = new LongAdder();
+    private final LongAdder reconnectRejected = new LongAdder();
+    private final IntSupplier queueDepth;
+    private final IntSupplier lockWaiters;
+
+    /**
+     * @param queueDepth 请求队列长度
+     * @param lockWaiters 锁等待数
+     */
+    public ModbusMetrics(IntSupplier queueDepth, IntSupplier lockWaiters) {
+        this.queueDepth = queueDepth;
+        this.lockWaiters = lockWaiters;
+    }
+
+    private static Latency latency(AtomicReferenceArray<Latency> latencies, int index) {
+        Latency latency = latencies.get(index);
+        if (latency == null) {
+            latencies.compareAndSet(index, null, new Latency());
+            latency = latencies.get(index);
+        }
+        return latency;
+    }
+
+    /**
+     * 记录一次收到应答（包括异常应答）的事务
+     *
+     * @param slaveId 从站 ID
+     * @param functionCode 功能码
+     * @param queueNanos 排队等待时间（纳秒）
+     * @param wireNanos 线上往返时间（纳秒）
+     */
+    public void recordTransaction(int slaveId, int functionCode, long queueNanos, long wireNanos) {
+        total.queueWait.record(queueNanos);
+        total.wire.record(wireNanos);
+        Latency function = latency(byFunction, functionCode & 0x7F);
+        function.queueWait.record(queueNanos);
+        function.wire.record(wireNanos);
+        Latency slave = latency(bySlave, slaveId & 0xFF);
+        slave.queueWait.record(queueNanos);
+        slave.wire.record(wireNanos);
+    }
+
+    public void recordException(int exceptionCode) {
+        exceptionResponses.increment();
+        exceptionCodes.incrementAndGet(exceptionCode & 0xFF);
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    public void recordTransportError() {
+        transportErrors.increment();
+    }
+
+    public void recordRejectedAcquire() {
+        rejectedAcquires.increment();
+    }
+
+    public void recordCircuitRejected() {
+        circuitRejected.increment();
+    }
+
+    public void recordReconnectRejected() {
+        reconnectRejected.increment();
+    }
+
+    /**
+     * 总体时延
+     */
+    public Latency getLatency() {
+        return total;
+    }
+
+    /**
+     * 指定功能码的时延，未出现过时返回 null
+     */
+    public Latency getFunctionLatency(int functionCode) {
+        return byFunction.get(functionCode & 0x7F);
+    }
+
+    /**
+     * 指定从站的时延，未出现过时返回 null
+     */
+    public Latency getSlaveLatency(int slaveId) {
+        return bySlave.get(slaveId & 0xFF);
+    }
+
+    /**
+     * 收到应答的事务数
+     */
+    public long getTransactionCount() {
+        return total.wire.getCount();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * 超时以外的传输错误（连接断开、CRC 错误等）
+     */
+    public long getTransportErrorCount() {
+        return transportErrors.sum();
+    }
+
+    /**
+     * Modbus 异常应答总数
+     */
+    public long getExceptionCount() {
+        return exceptionResponses.sum();
+    }
+
+    /**
+     * 指定异常码（如 2 = 非法数据地址）的异常应答数
+     */
+    public long getExceptionCount(int exceptionCode) {
+        return exceptionCodes.get(exceptionCode & 0xFF);
+    }
+
+    /**
+     * 获取锁超时或超出 max_waiters 被拒绝的次数
+     */
+    public long getRejectedAcquireCount() {
+        return rejectedAcquires.sum();
+    }
+
+    /**
+     * 从站熔断期间被立即拒绝的请求数
+     */
+    public long getCircuitRejectedCount() {
+        return circuitRejected.sum();
+    }
+
+    /**
+     * 连接失败后退避期间被立即拒绝的请求数
+     */
+    public long getReconnectRejectedCount() {
+        return reconnectRejected.sum();
+    }
+
+    /**
+     * 当前排队（尚未发送）的请求数
+     */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    /**
+     * 当前等待锁的数量
+     */
+    public int getLockWaiters() {
+        return lockWaiters.getAsInt();
+    }
+
+    /**
+     * 把本指标累加到 target（实时值不累加，由 target 的 supplier 决定）
+     */
+    public void addTo(ModbusMetrics target) {
+        total.addTo(target.total);
+        for (int i = 0; i < byFunction.length(); i++) {
+            Latency latency = byFunction.get(i);
+            if (latency != null) {
+                latency.addTo(latency(target.byFunction, i));
+            }
+        }
+        for (int i = 0; i < bySlave.length(); i++) {
+            Latency latency = bySlave.get(i);
+            if (latency != null) {
+                latency.addTo(latency(target.bySlave, i));
+            }
+        }
+        target.timeouts.add(timeouts.sum());
+        target.transportErrors.add(transportErrors.sum());
+        target.exceptionResponses.add(exceptionResponses.sum());
+        for (int i = 0; i < exceptionCodes.length(); i++) {
+            long codeCount = exceptionCodes.get(i);
+            if (codeCount != 0L) {
+                target.exceptionCodes.addAndGet(i, codeCount);
+            }
+        }
+        target.rejectedAcquires.add(rejectedAcquires.sum());
+        target.circuitRejected.add(circuitRejected.sum());
+        target.reconnectRejected.add(reconnectRejected.sum());
+    }
+
+    /**
+     * 汇总多个指标（快照），实时值为各指标之和
+     *
+     * @param metrics 要汇总的指标
+     * @return 汇总后的新指标
+     */
+    public static ModbusMetrics aggregate(Collection<ModbusMetrics> metrics) {
+        ModbusMetrics sum = new ModbusMetrics(
+                () -> metrics.stream().mapToInt(ModbusMetrics::getQueueDepth).sum(),
+                () -> metrics.stream().mapToInt(ModbusMetrics::getLockWaiters).sum());
+        for (ModbusMetrics m : metrics) {
+            m.addTo(sum);
+        }
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusMetrics{" +
+                "transactions=" + getTransactionCount() +
+                ", timeouts=" + getTimeoutCount() +
+                ", transportErrors=" + getTransportErrorCount() +
+                ", exceptions=" + getExceptionCount() +
+                ", rejectedAcquires=" + getRejectedAcquireCount() +
+                ", circuitRejected=" + getCircuitRejectedCount() +
+                ", reconnectRejected=" + getReconnectRejectedCount() +
+                ", queueDepth=" + getQueueDepth() +
+                ", lockWaiters=" + getLockWaiters() +
+                ", " + total +
+                '}';
+    }
+}
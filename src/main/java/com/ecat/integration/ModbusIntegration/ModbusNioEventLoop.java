@@ -0,0 +1,119 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+
+/**
+ * NIO I/O 线程：一个 Selector 多路复用多个 {@link ModbusNioTcpMaster} 的连接
+ *
+ * <p>全局只创建 {@link Const#DEFAULT_NIO_IO_THREADS} 个（首次使用时），master 按轮询分配到各线程，
+ * 连接的注册、连接完成、读写都在所属线程上执行。其他线程通过 {@link #execute(Runnable)} 提交任务。
+ *
+ * @author coffee
+ */
+final class ModbusNioEventLoop implements Runnable {
+
+    private static final Log log = LogFactory.getLogger(ModbusNioEventLoop.class);
+    private static final AtomicInteger NEXT = new AtomicInteger();
+    private static volatile ModbusNioEventLoop[] loops;
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    private ModbusNioEventLoop(int index) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, "modbus-nio-" + index);
+        thread.setDaemon(true);
+    }
+
+    /**
+     * 轮询分配一个 I/O 线程
+     */
+    static ModbusNioEventLoop next() {
+        ModbusNioEventLoop[] current = loops;
+        if (current == null) {
+            synchronized (ModbusNioEventLoop.class) {
+                current = loops;
+                if (current == null) {
+                    current = new ModbusNioEventLoop[Math.max(1, Const.DEFAULT_NIO_IO_THREADS)];
+                    try {
+                        for (int i = 0; i < current.length; i++) {
+                            current[i] = new ModbusNioEventLoop(i);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to open NIO selector", e);
+                    }
+                    for (ModbusNioEventLoop loop : current) {
+                        loop.thread.start();
+                    }
+                    loops = current;
+                }
+            }
+        }
+        return current[(NEXT.getAndIncrement() & Integer.MAX_VALUE) % current.length];
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 在 I/O 线程上执行任务（任务应很快返回，不得阻塞）
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (!inEventLoop()) {
+            selector.wakeup();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    ModbusNioTcpMaster master = (ModbusNioTcpMaster) key.attachment();
+                    try {
+                        master.handle(key);
+                    } catch (CancelledKeyException e) {
+                        // 连接已被其他线程关闭
+                    }
+                }
+                // 处理事件时提交的任务（如收到响应后补发的请求）也在本轮执行
+                runTasks();
+            } catch (IOException | RuntimeException e) {
+                log.error("Unexpected error in Modbus NIO event loop " + thread.getName(), e);
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Error running task in Modbus NIO event loop " + thread.getName(), e);
+            }
+        }
+    }
+}
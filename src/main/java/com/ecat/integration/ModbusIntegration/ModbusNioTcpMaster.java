@@ -0,0 +1,323 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+
+/**
+ * 非阻塞 Modbus TCP Master（NIO）
+ *
+ * <p>与 {@link ModbusPipelinedTcpMaster} 的请求、事务 ID 与超时处理相同，区别在传输：
+ * 连接使用非阻塞 SocketChannel，所有 NIO master 共用 {@link Const#DEFAULT_NIO_IO_THREADS} 个 I/O 线程
+ * （{@link ModbusNioEventLoop}），建立连接、发送和接收都不占用调用方或 executor 的线程，
+ * 适合单个实例连接成百上千台 TCP 设备的场景。
+ *
+ * <ul>
+ *   <li>连接在首次发送时以非阻塞方式发起，连接超时为 master 的 timeout（含主机名解析）；断开后下次发送自动重连</li>
+ *   <li>主机名在共用的解析线程（{@link Const#DEFAULT_NIO_RESOLVER_THREADS} 个）上解析，不持有 master 的锁，
+ *       解析慢或失败的设备不会阻塞 I/O 线程上的其他连接</li>
+ *   <li>发起连接期间到达的请求先写入发送队列，连接建立后依次发出；每个请求从进入发送队列起计时；
+ *       连接失败时这些请求和本地排队的请求一起失败，不逐个重试连接</li>
+ *   <li>maxInFlight 为 1 时一问一答，大于 1 时按 MBAP 事务 ID 流水线</li>
+ *   <li>仅支持标准 Modbus TCP（MBAP 帧）</li>
+ * </ul>
+ *
+ * <p>响应和连接失败在 I/O 线程上完成 future，直接挂在 future 上的回调不得阻塞（ModbusSource 会切回自己的 executor）。
+ *
+ * @see ModbusTcpInfo#isNio()
+ * @author coffee
+ */
+public class ModbusNioTcpMaster extends ModbusAsyncTcpMaster {
+
+    private static final int MBAP_HEADER_LENGTH = ModbusPduCodec.MBAP_PREFIX_LENGTH + 1;
+    private static final int READ_BUFFER_SIZE = ModbusPduCodec.MAX_ADU_LENGTH * 4;
+    private static final ExecutorService RESOLVER = createResolver();
+
+    private final ModbusNioEventLoop loop;
+    private final Runnable flushTask = this::flush;
+    private final Queue<ByteBuffer> writeQueue = new ArrayDeque<>(); // guarded by this
+    private boolean flushScheduled; // guarded by this
+    private SocketChannel channel; // guarded by this
+    private SelectionKey key; // guarded by this
+    private boolean connected; // guarded by this
+    private ScheduledFuture<?> connectTimeoutTask; // guarded by this
+    private ByteBuffer readBuffer; // 仅 I/O 线程访问，首次连接成功时创建
+
+    /**
+     * @param host 设备 IP
+     * @param port 端口
+     * @param maxInFlight 同时在途的最大请求数，1 表示一问一答
+     */
+    public ModbusNioTcpMaster(String host, int port, int maxInFlight) {
+        super(host, port, maxInFlight);
+        this.loop = ModbusNioEventLoop.next();
+    }
+
+    private static ExecutorService createResolver() {
+        int threads = Math.max(1, Const.DEFAULT_NIO_RESOLVER_THREADS);
+        ThreadPoolExecutor resolver = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "modbus-dns-resolver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        resolver.allowCoreThreadTimeOut(true);
+        return resolver;
+    }
+
+    // guarded by this
+    @Override
+    protected void transmit(ByteBuffer adu) throws IOException {
+        if (channel == null) {
+            try {
+                connect();
+            } catch (IOException e) {
+                releaseBuffer(adu);
+                log.warn("NIO Modbus TCP connection failed: " + host + ":" + port + ", " + e.getMessage());
+                onConnectFailed(new ModbusTransportException(e));
+                return;
+            }
+        }
+        writeQueue.add(adu);
+        scheduleFlush();
+    }
+
+    // guarded by this
+    private void scheduleFlush() {
+        if (connected && !flushScheduled) {
+            flushScheduled = true;
+            loop.execute(flushTask);
+        }
+    }
+
+    // guarded by this
+    private void connect() throws IOException {
+        SocketChannel newChannel = SocketChannel.open();
+        try {
+            newChannel.configureBlocking(false);
+            newChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        } catch (IOException e) {
+            newChannel.close();
+            throw e;
+        }
+        channel = newChannel;
+        connected = false;
+        // 连接超时从解析主机名之前开始计时
+        connectTimeoutTask = getTimeoutTimer().schedule(() -> onConnectTimeout(newChannel), getTimeout(),
+                TimeUnit.MILLISECONDS);
+        // new InetSocketAddress(host, port) 会同步查询 DNS，不能在持有锁的调用方线程或 I/O 线程上执行
+        RESOLVER.execute(() -> resolveAndConnect(newChannel));
+    }
+
+    // 解析线程，解析时不持有锁
+    private void resolveAndConnect(SocketChannel newChannel) {
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        synchronized (this) {
+            if (channel != newChannel) {
+                return; // 解析期间连接已超时或被关闭
+            }
+            if (address.isUnresolved()) {
+                connectionFailed(newChannel, new UnknownHostException(host));
+                return;
+            }
+            boolean done;
+            try {
+                done = newChannel.connect(address);
+            } catch (IOException e) {
+                connectionFailed(newChannel, e);
+                return;
+            }
+            // Selector 上的注册必须在 I/O 线程上进行，否则会与 select() 互相阻塞
+            loop.execute(() -> register(newChannel, done));
+        }
+    }
+
+    // I/O 线程
+    private synchronized void register(SocketChannel newChannel, boolean done) {
+        if (channel != newChannel) {
+            return; // 注册前连接已被关闭
+        }
+        try {
+            key = newChannel.register(loop.getSelector(), done ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+        } catch (ClosedChannelException e) {
+            connectionFailed(newChannel, e);
+            return;
+        }
+        if (done) {
+            onConnected();
+        }
+    }
+
+    // I/O 线程，guarded by this
+    private void onConnected() {
+        connected = true;
+        if (connectTimeoutTask != null) {
+            connectTimeoutTask.cancel(false);
+            connectTimeoutTask = null;
+        }
+        if (readBuffer == null) {
+            readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        }
+        readBuffer.clear(); // 丢弃上一条连接残留的半帧
+        key.interestOps(SelectionKey.OP_READ);
+        log.info("NIO Modbus TCP connection established: " + host + ":" + port + ", maxInFlight: " + getMaxInFlight());
+        scheduleFlush();
+    }
+
+    private synchronized void onConnectTimeout(SocketChannel timedOut) {
+        if (channel == timedOut && !connected) {
+            connectionFailed(timedOut, new SocketTimeoutException("Connect timed out after " + getTimeout() + " ms"));
+        }
+    }
+
+    /**
+     * I/O 线程处理就绪事件
+     */
+    void handle(SelectionKey selected) {
+        if (selected.isConnectable()) {
+            finishConnect(selected);
+        }
+        if (selected.isValid() && selected.isReadable()) {
+            read((SocketChannel) selected.channel());
+        }
+        if (selected.isValid() && selected.isWritable()) {
+            flush();
+        }
+    }
+
+    private synchronized void finishConnect(SelectionKey selected) {
+        SocketChannel connecting = (SocketChannel) selected.channel();
+        if (channel != connecting) {
+            return;
+        }
+        try {
+            if (connecting.finishConnect()) {
+                onConnected();
+            }
+        } catch (IOException e) {
+            connectionFailed(connecting, e);
+        }
+    }
+
+    // I/O 线程，不持有锁：onFrame 只在补发排队请求时加锁
+    private void read(SocketChannel source) {
+        int read;
+        try {
+            read = source.read(readBuffer);
+        } catch (IOException e) {
+            connectionFailed(source, e);
+            return;
+        }
+        if (read < 0) {
+            connectionFailed(source, new EOFException("Connection closed by peer"));
+            return;
+        }
+        readBuffer.flip();
+        while (readBuffer.remaining() >= MBAP_HEADER_LENGTH) {
+            int start = readBuffer.position();
+            int length = readBuffer.getShort(start + 4) & 0xFFFF;
+            if (length < 2 || length > ModbusPduCodec.MAX_FRAME_LENGTH) {
+                readBuffer.clear();
+                connectionFailed(source, new IOException("Invalid MBAP length: " + length));
+                return;
+            }
+            int end = start + ModbusPduCodec.MBAP_PREFIX_LENGTH + length;
+            if (end > readBuffer.limit()) {
+                break; // 半帧，等待后续数据
+            }
+            int limit = readBuffer.limit();
+            int transactionId = readBuffer.getShort(start) & 0xFFFF;
+            readBuffer.limit(end).position(start + ModbusPduCodec.MBAP_PREFIX_LENGTH);
+            onFrame(transactionId, readBuffer);
+            readBuffer.limit(limit).position(end);
+        }
+        readBuffer.compact();
+    }
+
+    // I/O 线程
+    private synchronized void flush() {
+        flushScheduled = false;
+        if (!connected) {
+            return;
+        }
+        try {
+            ByteBuffer adu;
+            while ((adu = writeQueue.peek()) != null) {
+                channel.write(adu);
+                if (adu.hasRemaining()) {
+                    // 发送缓冲区已满，等待可写
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writeQueue.poll();
+                releaseBuffer(adu);
+            }
+            key.interestOps(SelectionKey.OP_READ);
+        } catch (IOException e) {
+            connectionFailed(channel, e);
+        }
+    }
+
+    private synchronized void connectionFailed(SocketChannel failed, IOException e) {
+        if (channel != failed) {
+            return; // 旧连接的迟到事件
+        }
+        log.warn("NIO Modbus TCP connection " + (connected ? "lost" : "failed") + ": " + host + ":" + port + ", "
+                + e.getMessage());
+        if (connected) {
+            onConnectionLost(new ModbusTransportException(e));
+        } else {
+            onConnectFailed(new ModbusTransportException(e));
+        }
+    }
+
+    /**
+     * 当前是否已建立连接
+     */
+    public synchronized boolean isConnected() {
+        return connected;
+    }
+
+    // guarded by this
+    @Override
+    protected void closeConnection() {
+        if (channel == null) {
+            return;
+        }
+        if (connectTimeoutTask != null) {
+            connectTimeoutTask.cancel(false);
+            connectTimeoutTask = null;
+        }
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Error closing NIO Modbus TCP connection: " + e.getMessage());
+        }
+        channel = null;
+        key = null;
+        connected = false;
+        ByteBuffer adu;
+        while ((adu = writeQueue.poll()) != null) {
+            releaseBuffer(adu);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.nio.ByteBuffer;
+
+import com.serotonin.modbus4j.code.FunctionCode;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+
+/**
+ * 轻量 Modbus PDU/ADU 编解码
+ *
+ * <p>覆盖本集成实际使用的 9 个功能码（FC01/02/03/04 读，FC05/06/15/16 写，FC23 读写多个寄存器）：
+ * 请求直接编码进调用方提供的 {@link ByteBuffer}（通常来自 {@link ModbusBufferPool}），
+ * 响应直接解析进调用方提供的 short[]/boolean[]，不创建 modbus4j 的请求、响应对象和 ByteQueue。
+ *
+ * <p>帧（frame）指单元标识 + PDU，即 MBAP 头后面的部分，也是 RTU 帧去掉 CRC 后的部分。
+ * 编码方法从 buffer 的当前位置写入帧并推进位置；解码方法读取 position 到 limit 之间的帧，使用绝对下标，不改变 position。
+ *
+ * <p>解码方法返回读写的数量，从站返回异常响应时返回异常码的相反数（负数），
+ * 响应功能码、长度或回显与请求不符时抛出 ModbusTransportException。
+ *
+ * @author coffee
+ */
+public final class ModbusPduCodec {
+
+    public static final int MBAP_PREFIX_LENGTH = 6; // 事务 ID、协议标识、长度，不含单元标识
+    public static final int MAX_PDU_LENGTH = 253;
+    public static final int MAX_FRAME_LENGTH = 1 + MAX_PDU_LENGTH; // 单元标识 + PDU
+    public static final int MAX_ADU_LENGTH = MBAP_PREFIX_LENGTH + MAX_FRAME_LENGTH; // 260
+
+    public static final int MAX_READ_BITS = 2000;
+    public static final int MAX_READ_REGISTERS = 125;
+    public static final int MAX_WRITE_BITS = 1968;
+    public static final int MAX_WRITE_REGISTERS = 123;
+    public static final int MAX_READ_WRITE_REGISTERS = 121; // FC23 写入部分的上限，读取部分仍为 125
+
+    /**
+     * 读写多个寄存器（FC23），modbus4j 未提供该功能码的请求和响应类
+     */
+    public static final int READ_WRITE_REGISTERS = 23;
+
+    private static final int EXCEPTION_FLAG = 0x80;
+    private static final int COIL_ON = 0xFF00;
+
+    private ModbusPduCodec() {
+    }
+
+    // ---------------------------------------------------------------- 编码
+
+    /**
+     * 编码读请求（FC01/02/03/04）
+     *
+     * @param buffer 目标缓冲区，从当前位置写入 6 字节
+     * @param slaveId 从站 ID
+     * @param functionCode 功能码
+     * @param startOffset 起始地址
+     * @param count 读取数量（位或寄存器）
+     */
+    public static void encodeRead(ByteBuffer buffer, int slaveId, int functionCode, int startOffset, int count) {
+        if (!isBitRead(functionCode) && !isRegisterRead(functionCode)) {
+            throw new IllegalArgumentException("Not a read function code: " + functionCode);
+        }
+        checkRange(startOffset, count, isBitRead(functionCode) ? MAX_READ_BITS : MAX_READ_REGISTERS);
+        putHeader(buffer, slaveId, functionCode, startOffset);
+        buffer.putShort((short) count);
+    }
+
+    /**
+     * 编码写单个线圈请求（FC05）
+     */
+    public static void encodeWriteCoil(ByteBuffer buffer, int slaveId, int offset, boolean value) {
+        checkRange(offset, 1, 1);
+        putHeader(buffer, slaveId, FunctionCode.WRITE_COIL, offset);
+        buffer.putShort((short) (value ? COIL_ON : 0));
+    }
+
+    /**
+     * 编码写单个寄存器请求（FC06）
+     */
+    public static void encodeWriteRegister(ByteBuffer buffer, int slaveId, int offset, int value) {
+        checkRange(offset, 1, 1);
+        putHeader(buffer, slaveId, FunctionCode.WRITE_REGISTER, offset);
+        buffer.putShort((short) value);
+    }
+
+    /**
+     * 编码写多个线圈请求（FC15）
+     *
+     * @param values 线圈值
+     * @param valuesOffset 第一个值在 values 中的下标
+     * @param count 写入数量
+     */
+    public static void encodeWriteCoils(ByteBuffer buffer, int slaveId, int startOffset, boolean[] values, int valuesOffset,
+            int count) {
+        checkRange(startOffset, count, MAX_WRITE_BITS);
+        putHeader(buffer, slaveId, FunctionCode.WRITE_COILS, startOffset);
+        int byteCount = (count + 7) >>> 3;
+        buffer.putShort((short) count);
+        buffer.put((byte) byteCount);
+        for (int i = 0; i < byteCount; i++) {
+            int packed = 0;
+            int bits = Math.min(8, count - (i << 3));
+            for (int bit = 0; bit < bits; bit++) {
+                if (values[valuesOffset + (i << 3) + bit]) {
+                    packed |= 1 << bit;
+                }
+            }
+            buffer.put((byte) packed);
+        }
+    }
+
+    /**
+     * 编码写多个寄存器请求（FC16）
+     *
+     * @param values 寄存器值
+     * @param valuesOffset 第一个值在 values 中的下标
+     * @param count 写入数量
+     */
+    public static void encodeWriteRegisters(ByteBuffer buffer, int slaveId, int startOffset, short[] values, int valuesOffset,
+            int count) {
+        checkRange(startOffset, count, MAX_WRITE_REGISTERS);
+        putHeader(buffer, slaveId, FunctionCode.WRITE_REGISTERS, startOffset);
+        buffer.putShort((short) count);
+        buffer.put((byte) (count << 1));
+        for (int i = 0; i < count; i++) {
+            buffer.putShort(values[valuesOffset + i]);
+        }
+    }
+
+    /**
+     * 编码读写多个寄存器请求（FC23）：从站先写入 [writeStart, writeStart + writeCount)，
+     * 再读取 [readStart, readStart + readCount) 返回
+     *
+     * @param readStart 读取起始地址
+     * @param readCount 读取数量（1~125）
+     * @param writeStart 写入起始地址
+     * @param values 写入值
+     * @param valuesOffset 第一个值在 values 中的下标
+     * @param writeCount 写入数量（1~121）
+     */
+    public static void encodeReadWriteRegisters(ByteBuffer buffer, int slaveId, int readStart, int readCount,
+            int writeStart, short[] values, int valuesOffset, int writeCount) {
+        checkRange(readStart, readCount, MAX_READ_REGISTERS);
+        checkRange(writeStart, writeCount, MAX_READ_WRITE_REGISTERS);
+        putHeader(buffer, slaveId, READ_WRITE_REGISTERS, readStart);
+        buffer.putShort((short) readCount);
+        buffer.putShort((short) writeStart);
+        buffer.putShort((short) writeCount);
+        buffer.put((byte) (writeCount << 1));
+        for (int i = 0; i < writeCount; i++) {
+            buffer.putShort(values[valuesOffset + i]);
+        }
+    }
+
+    /**
+     * 填写 MBAP 头（事务 ID、协议标识、长度）
+     *
+     * <p>调用方先在 aduStart 处预留 {@link #MBAP_PREFIX_LENGTH} 字节，编码完帧后再调用本方法，
+     * 长度按 buffer 当前位置计算。只写绝对位置，不改变 position。
+     *
+     * @param adu 已写入帧的缓冲区
+     * @param aduStart ADU 在缓冲区中的起始下标
+     * @param transactionId 事务 ID
+     */
+    public static void putMbapHeader(ByteBuffer adu, int aduStart, int transactionId) {
+        adu.putShort(aduStart, (short) transactionId);
+        adu.putShort(aduStart + 2, (short) 0); // 协议标识，Modbus 固定为 0
+        adu.putShort(aduStart + 4, (short) (adu.position() - aduStart - MBAP_PREFIX_LENGTH));
+    }
+
+    private static void putHeader(ByteBuffer buffer, int slaveId, int functionCode, int offset) {
+        if (slaveId < 0 || slaveId > 255) {
+            throw new IllegalArgumentException("Invalid slave id: " + slaveId);
+        }
+        buffer.put((byte) slaveId);
+        buffer.put((byte) functionCode);
+        buffer.putShort((short) offset);
+    }
+
+    private static void checkRange(int startOffset, int count, int maxCount) {
+        if (count < 1 || count > maxCount) {
+            throw new IllegalArgumentException("Invalid quantity: " + count + ", expected 1.." + maxCount);
+        }
+        if (startOffset < 0 || startOffset + count > 0x10000) {
+            throw new IllegalArgumentException("Invalid address range: " + startOffset + ", quantity: " + count);
+        }
+    }
+
+    private static boolean isBitRead(int functionCode) {
+        return functionCode == FunctionCode.READ_COILS || functionCode == FunctionCode.READ_DISCRETE_INPUTS;
+    }
+
+    private static boolean isRegisterRead(int functionCode) {
+        return functionCode == FunctionCode.READ_HOLDING_REGISTERS || functionCode == FunctionCode.READ_INPUT_REGISTERS;
+    }
+
+    // ---------------------------------------------------------------- 解码
+
+    /**
+     * 帧的从站 ID（单元标识）
+     */
+    public static int slaveId(ByteBuffer frame) {
+        return frame.get(frame.position()) & 0xFF;
+    }
+
+    /**
+     * 帧的功能码（异常响应带 0x80 标志）
+     */
+    public static int functionCode(ByteBuffer frame) {
+        return frame.get(frame.position() + 1) & 0xFF;
+    }
+
+    /**
+     * 异常响应的异常码，正常响应返回 0
+     */
+    public static int exceptionCode(ByteBuffer frame) {
+        if ((functionCode(frame) & EXCEPTION_FLAG) == 0 || frame.remaining() < 3) {
+            return 0;
+        }
+        return frame.get(frame.position() + 2) & 0xFF;
+    }
+
+    /**
+     * 解析读寄存器响应（FC03/04/23）到 dest
+     *
+     * @param frame 响应帧
+     * @param functionCode 请求的功能码
+     * @param count 请求的寄存器数量
+     * @param dest 目标数组
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @return 寄存器数量，异常响应时为异常码的相反数
+     * @throws ModbusTransportException 响应与请求不符
+     */
+    public static int decodeRegisters(ByteBuffer frame, int functionCode, int count, short[] dest, int destOffset)
+            throws ModbusTransportException {
+        int exception = checkResponse(frame, functionCode);
+        if (exception != 0) {
+            return -exception;
+        }
+        int base = frame.position();
+        checkByteCount(frame, count << 1);
+        for (int i = 0; i < count; i++) {
+            dest[destOffset + i] = frame.getShort(base + 3 + (i << 1));
+        }
+        return count;
+    }
+
+    /**
+     * 解析读位响应（FC01/02）到 dest
+     *
+     * @param frame 响应帧
+     * @param functionCode 请求的功能码
+     * @param count 请求的位数量
+     * @param dest 目标数组
+     * @param destOffset 第一个位在 dest 中的下标
+     * @return 位数量，异常响应时为异常码的相反数
+     * @throws ModbusTransportException 响应与请求不符
+     */
+    public static int decodeBits(ByteBuffer frame, int functionCode, int count, boolean[] dest, int destOffset)
+            throws ModbusTransportException {
+        int exception = checkResponse(frame, functionCode);
+        if (exception != 0) {
+            return -exception;
+        }
+        int base = frame.position() + 3;
+        checkByteCount(frame, (count + 7) >>> 3);
+        for (int i = 0; i < count; i++) {
+            dest[destOffset + i] = (frame.get(base + (i >>> 3)) & (1 << (i & 7))) != 0;
+        }
+        return count;
+    }
+
+    /**
+     * 校验写响应（FC05/06/15/16）的回显
+     *
+     * @param frame 响应帧
+     * @param functionCode 请求的功能码
+     * @param startOffset 请求的起始地址
+     * @param count 请求的写入数量，单个写入为 1
+     * @return 写入数量，异常响应时为异常码的相反数
+     * @throws ModbusTransportException 响应与请求不符
+     */
+    public static int decodeWrite(ByteBuffer frame, int functionCode, int startOffset, int count)
+            throws ModbusTransportException {
+        int exception = checkResponse(frame, functionCode);
+        if (exception != 0) {
+            return -exception;
+        }
+        if (frame.remaining() < 6) {
+            throw new ModbusTransportException("Write response too short: " + frame.remaining(), slaveId(frame));
+        }
+        int base = frame.position();
+        int echoedOffset = frame.getShort(base + 2) & 0xFFFF;
+        boolean multiple = functionCode == FunctionCode.WRITE_COILS || functionCode == FunctionCode.WRITE_REGISTERS;
+        if (echoedOffset != startOffset || (multiple && (frame.getShort(base + 4) & 0xFFFF) != count)) {
+            throw new ModbusTransportException("Write response does not match request, offset: " + echoedOffset
+                    + ", expected: " + startOffset, slaveId(frame));
+        }
+        return count;
+    }
+
+    /**
+     * 校验功能码，返回异常码（正常响应为 0）
+     */
+    private static int checkResponse(ByteBuffer frame, int functionCode) throws ModbusTransportException {
+        if (frame.remaining() < 3) {
+            throw new ModbusTransportException("Response too short: " + frame.remaining());
+        }
+        int responseCode = functionCode(frame);
+        if (responseCode == (functionCode | EXCEPTION_FLAG)) {
+            return frame.get(frame.position() + 2) & 0xFF;
+        }
+        if (responseCode != functionCode) {
+            throw new ModbusTransportException("Unexpected function code in response: " + responseCode
+                    + ", expected: " + functionCode, slaveId(frame));
+        }
+        return 0;
+    }
+
+    private static void checkByteCount(ByteBuffer frame, int expected) throws ModbusTransportException {
+        int byteCount = frame.get(frame.position() + 2) & 0xFF;
+        if (byteCount != expected || frame.remaining() < 3 + byteCount) {
+            throw new ModbusTransportException("Unexpected byte count in response: " + byteCount + ", expected: " + expected
+                    + ", frame length: " + frame.remaining(), slaveId(frame));
+        }
+    }
+}
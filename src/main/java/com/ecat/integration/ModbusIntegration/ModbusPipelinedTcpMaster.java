@@ -0,0 +1,181 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+
+/**
+ * 流水线 Modbus TCP Master
+ *
+ * <p>多个请求共用一条长连接，每个请求带独立的 MBAP 事务 ID，
+ * 响应按事务 ID 匹配回各自的 {@link java.util.concurrent.CompletableFuture}，允许乱序返回。
+ * 同时在途的请求数不超过 maxInFlight，超出的请求在本地排队，有请求完成后依次发出。
+ *
+ * <p>与 modbus4j 的 TcpMaster 的区别：
+ * <ul>
+ *   <li>连接在首次发送时由读线程建立（不阻塞提交请求的线程，也不持有锁），断开后下次发送自动重连；
+ *       连接建立前的请求先放入待发送队列，连接失败时与本地排队的请求一起失败</li>
+ *   <li>超时按请求单独计时（从发出时开始），超时不重试，迟到的响应直接丢弃</li>
+ *   <li>仅支持标准 Modbus TCP（MBAP 帧），RTU over TCP 没有事务 ID，无法流水线</li>
+ * </ul>
+ *
+ * <p>使用阻塞 Socket，每条连接一个读线程；设备数量很多时使用 {@link ModbusNioTcpMaster}。
+ *
+ * @see ModbusTcpInfo#isPipelined()
+ * @author coffee
+ */
+public class ModbusPipelinedTcpMaster extends ModbusAsyncTcpMaster {
+
+    private static final int MBAP_HEADER_LENGTH = ModbusPduCodec.MBAP_PREFIX_LENGTH + 1;
+    private static final int MAX_MBAP_LENGTH = ModbusPduCodec.MAX_FRAME_LENGTH; // unit id + 最大 253 字节 PDU
+
+    private Socket socket; // guarded by this，连接建立后才赋值
+    private OutputStream out; // guarded by this
+    private Socket connecting; // guarded by this，读线程正在建立的连接
+    private final Queue<ByteBuffer> pendingWrites = new ArrayDeque<>(); // guarded by this，连接建立前待写出的 ADU
+
+    /**
+     * @param host 设备 IP
+     * @param port 端口
+     * @param maxInFlight 同时在途的最大请求数
+     */
+    public ModbusPipelinedTcpMaster(String host, int port, int maxInFlight) {
+        super(host, port, maxInFlight);
+    }
+
+    // guarded by this
+    @Override
+    protected void transmit(ByteBuffer adu) throws IOException {
+        if (socket == null) {
+            pendingWrites.add(adu);
+            if (connecting == null) {
+                startConnect();
+            }
+            return;
+        }
+        out.write(adu.array(), adu.arrayOffset(), adu.limit());
+        out.flush();
+        releaseBuffer(adu);
+    }
+
+    // guarded by this
+    private void startConnect() {
+        Socket newSocket = new Socket();
+        connecting = newSocket;
+        Thread reader = new Thread(() -> connectAndRead(newSocket), "modbus-pipelined-reader-" + host + ":" + port);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * 读线程：建立连接（不持有锁，连接超时为 master 的 timeout），写出待发送队列，然后读取响应
+     */
+    private void connectAndRead(Socket newSocket) {
+        try {
+            newSocket.setTcpNoDelay(true);
+            newSocket.connect(new InetSocketAddress(host, port), getTimeout());
+        } catch (IOException e) {
+            closeQuietly(newSocket);
+            synchronized (this) {
+                if (connecting == newSocket) {
+                    connecting = null;
+                    log.warn("Pipelined Modbus TCP connection failed: " + host + ":" + port + ", " + e.getMessage());
+                    onConnectFailed(new ModbusTransportException(e));
+                }
+            }
+            return;
+        }
+        synchronized (this) {
+            if (connecting != newSocket) {
+                closeQuietly(newSocket); // 连接期间已关闭或销毁
+                return;
+            }
+            connecting = null;
+            try {
+                out = newSocket.getOutputStream();
+                socket = newSocket;
+                log.info("Pipelined Modbus TCP connection established: " + host + ":" + port + ", maxInFlight: "
+                        + getMaxInFlight());
+                ByteBuffer adu;
+                while ((adu = pendingWrites.peek()) != null) {
+                    out.write(adu.array(), adu.arrayOffset(), adu.limit());
+                    pendingWrites.poll();
+                    releaseBuffer(adu);
+                }
+                out.flush();
+            } catch (IOException e) {
+                socket = newSocket; // 由 closeConnection 关闭并归还待发送的缓冲区
+                log.warn("Pipelined Modbus TCP connection lost: " + host + ":" + port + ", " + e.getMessage());
+                onConnectionLost(new ModbusTransportException(e));
+                return;
+            }
+        }
+        readLoop(newSocket);
+    }
+
+    private void readLoop(Socket connection) {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            // 每条连接复用一个缓冲区，响应在读线程上解析完才读下一帧
+            ByteBuffer buffer = ByteBuffer.allocate(ModbusPduCodec.MAX_ADU_LENGTH);
+            byte[] bytes = buffer.array();
+            while (true) {
+                in.readFully(bytes, 0, MBAP_HEADER_LENGTH);
+                int transactionId = buffer.getShort(0) & 0xFFFF;
+                int length = buffer.getShort(4) & 0xFFFF;
+                if (length < 2 || length > MAX_MBAP_LENGTH) {
+                    throw new IOException("Invalid MBAP length: " + length);
+                }
+                in.readFully(bytes, MBAP_HEADER_LENGTH, length - 1);
+                buffer.limit(ModbusPduCodec.MBAP_PREFIX_LENGTH + length).position(ModbusPduCodec.MBAP_PREFIX_LENGTH);
+                onFrame(transactionId, buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            synchronized (this) {
+                if (socket == connection) {
+                    log.warn("Pipelined Modbus TCP connection lost: " + host + ":" + port + ", " + e.getMessage());
+                    onConnectionLost(new ModbusTransportException(e));
+                }
+            }
+        }
+    }
+
+    // guarded by this
+    @Override
+    protected void closeConnection() {
+        if (connecting != null) {
+            closeQuietly(connecting); // 中断读线程上正在进行的连接
+            connecting = null;
+        }
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.warn("Error closing pipelined Modbus TCP connection: " + e.getMessage());
+            }
+            socket = null;
+            out = null;
+        }
+        ByteBuffer adu;
+        while ((adu = pendingWrites.poll()) != null) {
+            releaseBuffer(adu);
+        }
+    }
+
+    private static void closeQuietly(Socket target) {
+        try {
+            target.close();
+        } catch (IOException e) {
+            // 连接未建立或已关闭
+        }
+    }
+}
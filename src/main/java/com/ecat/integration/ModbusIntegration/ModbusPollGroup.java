@@ -0,0 +1,195 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+
+/**
+ * 轮询组：一个设备上按同一周期读取的一组寄存器区间
+ *
+ * <p>由 {@link ModbusPollScheduler#register} 创建。每个周期通过
+ * {@link ModbusTransactionStrategy#executeWithLambdaAsync} 执行一次 {@link ModbusReadPlanner}，
+ * 上一周期尚未完成时跳过本周期而不是排队，并统计超时完成的周期数。
+ *
+ * @author coffee
+ */
+public class ModbusPollGroup {
+
+    @Getter
+    private final String name;
+    @Getter
+    private final ModbusSource source;
+    @Getter
+    private final ModbusReadPlanner planner;
+    @Getter
+    private final long periodMs;
+    @Getter
+    private final long phaseMs; // 首次执行相对注册时刻的偏移，用于错开同一总线上的轮询组
+    private final int phaseSlot; // 在同一总线上占用的相位序号 k，相位为 frac(k * 0.618) * 周期
+    private final Consumer<Boolean> onCycleComplete;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong cycleCount = new AtomicLong();
+    private final AtomicLong failedCycleCount = new AtomicLong();
+    private final AtomicLong skippedCycleCount = new AtomicLong();
+    private final AtomicLong missedDeadlineCount = new AtomicLong();
+    private final AtomicLong lastDurationNanos = new AtomicLong();
+    private final AtomicLong maxDurationNanos = new AtomicLong();
+    private volatile long lastTickNanos;
+    private volatile boolean cancelled; // cancel() 后置位，定时器已进入的 tick 不再开始新周期
+    private volatile ScheduledFuture<?> future;
+
+    ModbusPollGroup(String name, ModbusSource source, ModbusReadPlanner planner, long periodMs, long phaseMs,
+            int phaseSlot, Consumer<Boolean> onCycleComplete) {
+        this.name = name;
+        this.source = source;
+        this.planner = planner;
+        this.periodMs = periodMs;
+        this.phaseMs = phaseMs;
+        this.phaseSlot = phaseSlot;
+        this.onCycleComplete = onCycleComplete;
+    }
+
+    int getPhaseSlot() {
+        return phaseSlot;
+    }
+
+    void setFuture(ScheduledFuture<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * 定时器触发一个周期
+     */
+    void tick() {
+        if (cancelled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        // 定时器线程被拖慢后会连续补发，距上次触发不足半个周期的视为过期周期
+        if (lastTickNanos != 0L && now - lastTickNanos < periodNanos / 2) {
+            skippedCycleCount.incrementAndGet();
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            skippedCycleCount.incrementAndGet(); // 上一周期仍在进行，跳过而不排队
+            return;
+        }
+        if (cancelled) {
+            // 在 CAS 之后再检查：cancel() 之后看到 isRunning() 为 false，就不会再有周期开始或完成
+            running.set(false);
+            return;
+        }
+        lastTickNanos = now;
+        long deadline = now + periodNanos;
+        CompletableFuture<Boolean> cycle;
+        try {
+            cycle = ModbusTransactionStrategy.executeWithLambdaAsync(source, planner::execute);
+        } catch (RuntimeException e) {
+            cycle = new CompletableFuture<>();
+            cycle.completeExceptionally(e);
+        }
+        cycle.whenComplete((ok, ex) -> complete(now, deadline, ex == null && Boolean.TRUE.equals(ok)));
+    }
+
+    private void complete(long start, long deadline, boolean ok) {
+        long end = System.nanoTime();
+        long duration = end - start;
+        lastDurationNanos.set(duration);
+        maxDurationNanos.accumulateAndGet(duration, Math::max);
+        cycleCount.incrementAndGet();
+        if (!ok) {
+            failedCycleCount.incrementAndGet();
+        }
+        if (end - deadline > 0L) {
+            missedDeadlineCount.incrementAndGet();
+        }
+        running.set(false);
+        if (onCycleComplete != null) {
+            onCycleComplete.accept(ok);
+        }
+    }
+
+    /**
+     * 停止该轮询组，正在进行的周期继续执行完；定时器已触发但尚未开始的周期不再执行
+     */
+    public void cancel() {
+        cancelled = true;
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 是否有周期正在进行
+     */
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * 已完成的周期数（含失败）
+     */
+    public long getCycleCount() {
+        return cycleCount.get();
+    }
+
+    /**
+     * 读取失败（锁获取失败、请求失败或异常响应）的周期数
+     */
+    public long getFailedCycleCount() {
+        return failedCycleCount.get();
+    }
+
+    /**
+     * 因上一周期未完成或定时器补发而跳过的周期数
+     */
+    public long getSkippedCycleCount() {
+        return skippedCycleCount.get();
+    }
+
+    /**
+     * 完成时间晚于下一个周期起点的周期数
+     */
+    public long getMissedDeadlineCount() {
+        return missedDeadlineCount.get();
+    }
+
+    /**
+     * 最近一个周期的耗时（毫秒）
+     */
+    public long getLastDurationMs() {
+        return TimeUnit.NANOSECONDS.toMillis(lastDurationNanos.get());
+    }
+
+    /**
+     * 最长周期耗时（毫秒）
+     */
+    public long getMaxDurationMs() {
+        return TimeUnit.NANOSECONDS.toMillis(maxDurationNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusPollGroup{" +
+                "name='" + name + '\'' +
+                ", periodMs=" + periodMs +
+                ", phaseMs=" + phaseMs +
+                ", cycles=" + getCycleCount() +
+                ", failed=" + getFailedCycleCount() +
+                ", skipped=" + getSkippedCycleCount() +
+                ", missedDeadlines=" + getMissedDeadlineCount() +
+                '}';
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+
+/**
+ * Modbus 轮询调度器，由 ModbusIntegration 持有
+ *
+ * <p>设备注册轮询组（{@link ModbusReadPlanner} 描述的寄存器区间 + 周期），由调度器统一定时读取，
+ * 设备集成不再各自维护 ScheduledExecutorService：
+ * <ul>
+ *   <li>同一总线（同一个底层 ModbusSource）上的轮询组按黄金分割比例错开首次执行时间，避免同时争抢总线；
+ *       相位序号按该总线上仍注册的轮询组计算，取消的轮询组让出序号</li>
+ *   <li>上一周期未完成时跳过本周期，不排队堆积</li>
+ *   <li>每个轮询组统计完成、失败、跳过和超过周期才完成（错过截止时间）的周期数</li>
+ * </ul>
+ *
+ * <p>定时器只有一个线程，每个周期通过 {@link ModbusTransactionStrategy#executeWithLambdaAsync} 异步执行，
+ * 等锁和等设备应答都不占用定时器线程。
+ *
+ * @author coffee
+ */
+public class ModbusPollScheduler {
+
+    private static final double GOLDEN_RATIO_FRACTION = 0.6180339887498949;
+
+    private final Log log = LogFactory.getLogger(getClass());
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final List<ModbusPollGroup> groups = new CopyOnWriteArrayList<>();
+
+    public ModbusPollScheduler() {
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "modbus-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 注册轮询组
+     *
+     * @param name 轮询组名称（用于日志和监控）
+     * @param source 设备的 ModbusSource（可以是 DeviceSpecificModbusSource）
+     * @param planner 要读取的寄存器区间
+     * @param periodMs 轮询周期（毫秒）
+     * @return 轮询组，可用于取消和查看统计
+     */
+    public ModbusPollGroup register(String name, ModbusSource source, ModbusReadPlanner planner, long periodMs) {
+        return register(name, source, planner, periodMs, null);
+    }
+
+    /**
+     * 注册轮询组
+     *
+     * @param name 轮询组名称（用于日志和监控）
+     * @param source 设备的 ModbusSource（可以是 DeviceSpecificModbusSource）
+     * @param planner 要读取的寄存器区间
+     * @param periodMs 轮询周期（毫秒）
+     * @param onCycleComplete 每个周期完成后回调，参数表示本周期是否全部读取成功；可为 null
+     * @return 轮询组，可用于取消和查看统计
+     */
+    public ModbusPollGroup register(String name, ModbusSource source, ModbusReadPlanner planner, long periodMs,
+            Consumer<Boolean> onCycleComplete) {
+        if (periodMs < 1) {
+            throw new IllegalArgumentException("periodMs must be positive: " + periodMs);
+        }
+        ModbusPollGroup group;
+        synchronized (this) {
+            // 选取序号与加入 groups 原子完成，并发注册同一总线的轮询组不会拿到相同序号
+            int phaseSlot = freePhaseSlot(source.getModbusInfo());
+            long phaseMs = (long) ((phaseSlot * GOLDEN_RATIO_FRACTION) % 1.0 * periodMs);
+            ModbusPollGroup created = new ModbusPollGroup(name, source, planner, periodMs, phaseMs, phaseSlot,
+                    onCycleComplete);
+            created.setFuture(timer.scheduleAtFixedRate(() -> {
+                try {
+                    created.tick();
+                } catch (Throwable e) {
+                    // 异常会终止 scheduleAtFixedRate 的后续执行，这里只记录
+                    log.error("Poll group tick failed: " + name, e);
+                }
+            }, phaseMs, periodMs, TimeUnit.MILLISECONDS));
+            groups.add(created);
+            group = created;
+        }
+        log.info("Poll group registered: " + group);
+        return group;
+    }
+
+    /**
+     * 同一总线上序号为 k 的轮询组相位为 frac(k * 0.618) * 周期，新注册的组总是落在已有相位之间的最大间隙附近
+     *
+     * <p>序号从该总线上仍注册的轮询组中重新计算，取最小的未占用序号，不为已取消的轮询组或已销毁的 source 保留状态。
+     */
+    private int freePhaseSlot(ModbusInfo bus) {
+        BitSet used = new BitSet();
+        for (ModbusPollGroup group : groups) {
+            if (group.getSource().getModbusInfo() == bus) {
+                used.set(group.getPhaseSlot());
+            }
+        }
+        return used.nextClearBit(0);
+    }
+
+    /**
+     * 取消轮询组
+     *
+     * @param group 要取消的轮询组
+     * @return 该轮询组是否由本调度器管理
+     */
+    public boolean unregister(ModbusPollGroup group) {
+        group.cancel();
+        boolean removed = groups.remove(group);
+        if (removed) {
+            log.info("Poll group unregistered: " + group);
+        }
+        return removed;
+    }
+
+    /**
+     * 当前注册的轮询组
+     */
+    public Collection<ModbusPollGroup> getGroups() {
+        return new ArrayList<>(groups);
+    }
+
+    /**
+     * 取消所有轮询组并停止定时器
+     */
+    public void shutdown() {
+        for (ModbusPollGroup group : groups) {
+            group.cancel();
+        }
+        groups.clear();
+        timer.shutdown();
+    }
+
+    public boolean isShutdown() {
+        return timer.isShutdown();
+    }
+}
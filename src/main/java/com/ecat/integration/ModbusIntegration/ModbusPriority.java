@@ -0,0 +1,59 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.function.Supplier;
+
+/**
+ * Modbus 请求优先级
+ *
+ * <p>同一个 ModbusSource（同一条总线/连接）上排队的请求按优先级出队，同一优先级内保持提交顺序。
+ * 默认写请求为 {@link #HIGH}，读请求为 {@link #NORMAL}，{@link ModbusReadPlanner} 的周期轮询为 {@link #BULK}。
+ * 低优先级请求等待时间每超过一个老化周期（Const.DEFAULT_PRIORITY_AGING_MS）就提升一级，避免被饿死。
+ *
+ * <p>单个请求可通过 {@link #with(ModbusPriority, Supplier)} 指定优先级，例如告警线圈读取：
+ * <pre>
+ * {@code
+ * ModbusPriority.with(ModbusPriority.HIGH, () -> source.readCoils(0, 8));
+ * }
+ * </pre>
+ *
+ * @author coffee
+ */
+public enum ModbusPriority {
+    HIGH,   // 写操作、告警、人工交互
+    NORMAL, // 普通读取
+    BULK;   // 批量周期轮询
+
+    private static final ThreadLocal<ModbusPriority> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 在指定优先级下执行操作，操作中（同一线程上）提交的 Modbus 请求使用该优先级
+     *
+     * @param priority 优先级
+     * @param action 提交请求的操作
+     * @return 操作的返回值
+     */
+    public static <T> T with(ModbusPriority priority, Supplier<T> action) {
+        ModbusPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 当前线程指定的优先级
+     *
+     * @param defaultPriority 未指定时使用的优先级
+     * @return 指定的优先级或默认值
+     */
+    public static ModbusPriority currentOr(ModbusPriority defaultPriority) {
+        ModbusPriority priority = CURRENT.get();
+        return priority == null ? defaultPriority : priority;
+    }
+}
@@ -0,0 +1,286 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+import com.ecat.integration.ModbusIntegration.Attribute.ModbusFloatAttribute;
+import com.ecat.integration.ModbusIntegration.Attribute.ModbusLinearConversionAttribute;
+import com.ecat.integration.ModbusIntegration.Attribute.ModbusScalableFloatDRAttribute;
+import com.ecat.integration.ModbusIntegration.Attribute.ModbusScalableFloatSRAttribute;
+import com.ecat.integration.ModbusIntegration.Attribute.ModbusShortAttribute;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+
+import lombok.Getter;
+
+/**
+ * 寄存器块合并读取规划器
+ *
+ * <p>收集一个设备上所有属性的寄存器地址，按寄存器类型（保持寄存器 FC03 / 输入寄存器 FC04）
+ * 排序后合并为尽量少的读请求（每个请求最多 125 个寄存器），读取完成后把返回的 short[]
+ * 按偏移分发给各属性的 updateValue。
+ *
+ * <p>相邻区间之间允许存在不超过 maxGap 个未使用的寄存器，多读几个寄存器通常比多一次总线往返便宜得多。
+ * 对于读取未定义地址会返回异常码的设备，可将 maxGap 设为 0。
+ *
+ * <p>使用示例：
+ * <pre>
+ * {@code
+ * ModbusReadPlanner planner = new ModbusReadPlanner();
+ * planner.add(ModbusReadPlanner.RegisterType.HOLDING, tempAttr);
+ * planner.add(ModbusReadPlanner.RegisterType.HOLDING, pressureAttr);
+ *
+ * // 每个轮询周期只占用一次锁
+ * ModbusTransactionStrategy.executeWithLambda(modbusSource, planner::execute);
+ * }
+ * </pre>
+ *
+ * @author coffee
+ */
+public class ModbusReadPlanner {
+
+    /**
+     * 单个 FC03/FC04 请求允许读取的最大寄存器数量（Modbus 协议规定）
+     */
+    public static final int MAX_REGISTERS_PER_READ = 125;
+
+    private final Log log = LogFactory.getLogger(getClass());
+
+    /**
+     * 寄存器类型
+     */
+    public enum RegisterType {
+        HOLDING,    // 保持寄存器，FC03
+        INPUT       // 输入寄存器，FC04
+    }
+
+    /**
+     * 读取结果接收者
+     */
+    @FunctionalInterface
+    public interface RegisterSink {
+        /**
+         * @param registers 当前块读取到的全部寄存器
+         * @param offset 本接收者第一个寄存器在 registers 中的下标
+         */
+        void accept(short[] registers, int offset);
+    }
+
+    /**
+     * 合并后的一次读请求
+     */
+    @Getter
+    public static class ReadBlock {
+        private final RegisterType registerType;
+        private final int startAddress;
+        private int quantity;
+        private final List<Entry> entries = new ArrayList<>();
+
+        ReadBlock(RegisterType registerType, int startAddress) {
+            this.registerType = registerType;
+            this.startAddress = startAddress;
+        }
+
+        /**
+         * 把读取结果分发给块内所有接收者
+         *
+         * @param registers 本块读取到的寄存器
+         */
+        void dispatch(short[] registers) {
+            for (Entry entry : entries) {
+                entry.sink.accept(registers, entry.address - startAddress);
+            }
+        }
+    }
+
+    /**
+     * 一个需要读取的寄存器区间
+     */
+    @Getter
+    public static class Entry {
+        private final RegisterType registerType;
+        private final int address;
+        private final int count;
+        private final RegisterSink sink;
+
+        Entry(RegisterType registerType, int address, int count, RegisterSink sink) {
+            this.registerType = registerType;
+            this.address = address;
+            this.count = count;
+            this.sink = sink;
+        }
+    }
+
+    @Getter
+    private final int maxGap;
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile List<ReadBlock> plan;
+    @Getter
+    private volatile ModbusPriority priority = ModbusPriority.BULK; // 周期轮询默认让位于写操作和交互请求
+
+    public ModbusReadPlanner() {
+        this(Const.DEFAULT_READ_PLAN_MAX_GAP);
+    }
+
+    /**
+     * @param maxGap 合并时允许跨越的最大空闲寄存器数量，0 表示只合并连续区间
+     */
+    public ModbusReadPlanner(int maxGap) {
+        if (maxGap < 0 || maxGap >= MAX_REGISTERS_PER_READ) {
+            throw new IllegalArgumentException("maxGap must be between 0 and " + (MAX_REGISTERS_PER_READ - 1) + ": " + maxGap);
+        }
+        this.maxGap = maxGap;
+    }
+
+    /**
+     * 设置读取请求的优先级，默认 {@link ModbusPriority#BULK}
+     *
+     * @param priority 优先级，例如告警点位可设为 {@link ModbusPriority#HIGH}
+     */
+    public ModbusReadPlanner setPriority(ModbusPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * 添加一个寄存器区间
+     *
+     * @param registerType 寄存器类型
+     * @param address 起始地址（0-65535，short 类型地址按无符号处理）
+     * @param count 寄存器数量
+     * @param sink 读取结果接收者
+     */
+    public synchronized ModbusReadPlanner add(RegisterType registerType, int address, int count, RegisterSink sink) {
+        int unsignedAddress = address & 0xFFFF;
+        if (count < 1 || count > MAX_REGISTERS_PER_READ || unsignedAddress + count > 0x10000) {
+            throw new IllegalArgumentException("Invalid register range, address: " + unsignedAddress + ", count: " + count);
+        }
+        entries.add(new Entry(registerType, unsignedAddress, count, sink));
+        plan = null;
+        return this;
+    }
+
+    public ModbusReadPlanner add(RegisterType registerType, ModbusFloatAttribute attribute) {
+        return add(registerType, attribute.getRegisterAddress(), 2, attribute::updateValue);
+    }
+
+    public ModbusReadPlanner add(RegisterType registerType, ModbusScalableFloatDRAttribute attribute) {
+        return add(registerType, attribute.getRegisterAddress(), 2, attribute::updateValue);
+    }
+
+    public ModbusReadPlanner add(RegisterType registerType, ModbusScalableFloatSRAttribute attribute) {
+        return add(registerType, attribute.getRegisterAddress(), 1, attribute::updateValue);
+    }
+
+    public ModbusReadPlanner add(RegisterType registerType, ModbusShortAttribute attribute) {
+        return add(registerType, attribute.getRegisterAddress(), 1,
+                (registers, offset) -> attribute.updateValue(registers[offset]));
+    }
+
+    public ModbusReadPlanner add(RegisterType registerType, ModbusLinearConversionAttribute attribute) {
+        return add(registerType, attribute.getRegisterAddress(), 1,
+                (registers, offset) -> attribute.updateValue(registers[offset]));
+    }
+
+    /**
+     * 获取合并后的读请求列表，结果会被缓存直到再次调用 add
+     *
+     * @return 按寄存器类型和起始地址排序的读请求
+     */
+    public List<ReadBlock> getPlan() {
+        List<ReadBlock> current = plan;
+        if (current == null) {
+            synchronized (this) {
+                current = plan;
+                if (current == null) {
+                    current = Collections.unmodifiableList(buildPlan());
+                    plan = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private List<ReadBlock> buildPlan() {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparing(Entry::getRegisterType).thenComparingInt(Entry::getAddress));
+
+        List<ReadBlock> blocks = new ArrayList<>();
+        ReadBlock block = null;
+        for (Entry entry : sorted) {
+            int end = entry.address + entry.count;
+            if (block != null && block.registerType == entry.registerType) {
+                int blockEnd = block.startAddress + block.quantity;
+                // 与当前块重叠、相邻或间隔不超过 maxGap，且合并后不超过 125 个寄存器时并入当前块
+                if (entry.address - blockEnd <= maxGap && end - block.startAddress <= MAX_REGISTERS_PER_READ) {
+                    block.quantity = Math.max(blockEnd, end) - block.startAddress;
+                    block.entries.add(entry);
+                    continue;
+                }
+            }
+            block = new ReadBlock(entry.registerType, entry.address);
+            block.quantity = entry.count;
+            block.entries.add(entry);
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    /**
+     * 依次执行所有读请求并分发结果
+     *
+     * <p>各请求顺序执行，不额外获取锁，调用方应在
+     * {@link ModbusTransactionStrategy#executeWithLambda} 中调用以保证整个周期的原子性。
+     * 某个块读取失败不影响其他块，失败块内的属性保持原值。
+     *
+     * @param source Modbus 源，通常为 DeviceSpecificModbusSource
+     * @return 所有块都读取成功时为 true
+     */
+    public CompletableFuture<Boolean> execute(ModbusSource source) {
+        CompletableFuture<Boolean> result = CompletableFuture.completedFuture(true);
+        for (ReadBlock block : getPlan()) {
+            result = result.thenCompose(allOk -> readBlock(source, block)
+                    .handle((ok, ex) -> {
+                        if (ex != null) {
+                            log.error("Error reading register block, type: " + block.registerType
+                                    + ", start: " + block.startAddress + ", quantity: " + block.quantity, ex);
+                            return false;
+                        }
+                        return allOk && ok;
+                    }));
+        }
+        return result;
+    }
+
+    private CompletableFuture<Boolean> readBlock(ModbusSource source, ReadBlock block) {
+        // 后续块在前一个块的回调线程上提交，因此每个块都要重新指定优先级
+        if (block.registerType == RegisterType.HOLDING) {
+            return ModbusPriority.with(priority, () -> source.readHoldingRegisters(block.startAddress, block.quantity))
+                    .thenApply(response -> dispatch(block, response,
+                            response == null ? null : response.getShortData()));
+        }
+        return ModbusPriority.with(priority, () -> source.readInputRegisters(block.startAddress, block.quantity))
+                .thenApply(response -> dispatch(block, response,
+                        response == null ? null : response.getShortData()));
+    }
+
+    private boolean dispatch(ReadBlock block, ModbusResponse response, short[] registers) {
+        if (response == null || response.isException()) {
+            log.warn("Register block read failed, type: " + block.registerType + ", start: " + block.startAddress
+                    + ", quantity: " + block.quantity
+                    + (response == null ? "" : ", exception: " + response.getExceptionMessage()));
+            return false;
+        }
+        if (registers == null || registers.length < block.quantity) {
+            log.warn("Register block response too short, start: " + block.startAddress + ", expected: " + block.quantity
+                    + ", actual: " + (registers == null ? 0 : registers.length));
+            return false;
+        }
+        block.dispatch(registers);
+        return true;
+    }
+}
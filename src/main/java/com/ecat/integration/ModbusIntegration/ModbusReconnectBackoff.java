@@ -0,0 +1,95 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * 按连接（ip:port）退避重连
+ *
+ * <p>设备或网关不可达时，阻塞 master（长连接池、短连接）的每个请求都要在工作线程上等满连接超时，
+ * 且连接失败不是应答超时，{@link ModbusCircuitBreaker} 不会熔断。多个不可达的网关会占满共享调度器的工作线程，
+ * 拖慢同一集成下所有正常的连接。
+ *
+ * <p>连接失败后进入退避：退避期间该连接的请求立即失败，不再尝试连接；退避结束后的第一个请求重新尝试连接，
+ * 再次失败时退避时间加倍，直到 maxBackoffMs；收到任何应答后恢复。
+ *
+ * @author coffee
+ */
+public class ModbusReconnectBackoff {
+
+    @Getter
+    private final long minBackoffMs;
+    @Getter
+    private final long maxBackoffMs;
+    private int consecutiveFailures; // guarded by this
+    private long backoffMs; // guarded by this
+    private volatile long retryAtNanos; // 退避结束时间，0 表示未退避
+
+    /**
+     * @param minBackoffMs 首次连接失败后的退避时间（毫秒）
+     * @param maxBackoffMs 最长退避时间（毫秒）
+     */
+    public ModbusReconnectBackoff(long minBackoffMs, long maxBackoffMs) {
+        if (minBackoffMs < 1 || maxBackoffMs < minBackoffMs) {
+            throw new IllegalArgumentException("Invalid reconnect backoff, minBackoffMs: " + minBackoffMs
+                    + ", maxBackoffMs: " + maxBackoffMs);
+        }
+        this.minBackoffMs = minBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    /**
+     * 请求是否应立即失败
+     *
+     * @return true 表示连接失败后的退避时间未到
+     */
+    public boolean isBackingOff() {
+        long retryAt = retryAtNanos;
+        return retryAt != 0 && retryAt - System.nanoTime() > 0;
+    }
+
+    /**
+     * 记录一次连接失败（连接被拒绝、连接超时、主机不可达等）
+     *
+     * @return true 表示由正常进入退避
+     */
+    public synchronized boolean recordConnectFailure() {
+        consecutiveFailures++;
+        backoffMs = backoffMs == 0 ? minBackoffMs : Math.min(maxBackoffMs, backoffMs * 2);
+        retryAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+        return consecutiveFailures == 1;
+    }
+
+    /**
+     * 记录一次收到应答（包括异常应答），结束退避
+     *
+     * @return true 表示由退避恢复
+     */
+    public boolean recordSuccess() {
+        if (retryAtNanos == 0) {
+            return false;
+        }
+        synchronized (this) {
+            boolean recovered = consecutiveFailures > 0;
+            consecutiveFailures = 0;
+            backoffMs = 0;
+            retryAtNanos = 0;
+            return recovered;
+        }
+    }
+
+    /**
+     * 当前连续连接失败次数，用于健康检查
+     */
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * 当前退避时间（毫秒），未退避时为 0，用于健康检查
+     */
+    public synchronized long getBackoffMs() {
+        return backoffMs;
+    }
+}
@@ -0,0 +1,265 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+
+/**
+ * 寄存器读缓存，按 (从站, 寄存器类型, 地址) 保存原始寄存器值及读取时间
+ *
+ * <p>调用方按自己的时效要求（如"500ms 内的值即可"）读取，所有寄存器都在时效内时直接返回缓存值，不占用总线。
+ * 总条目数有上限，超出时淘汰最久未访问的寄存器（LRU），上千个从站时内存占用也是确定的。
+ *
+ * <p>由 {@link ModbusSource} 在首次带时效读取时创建：之后该源上所有成功的 FC03/FC04 读取都会写入缓存，
+ * 写寄存器（FC06/FC16）成功后更新对应条目，FC22 掩码写入和广播写入后失效对应条目。
+ *
+ * <p>长连接池、流水线和 NIO 下读写可以并行，先发出的读取可能在写入完成后才返回写入前的值。
+ * 缓存维护一个递增的写入代数（generation）：每次失效或写入都增加代数并记在对应寄存器上（失效的寄存器保留为无效条目），
+ * 读取在发出前通过 {@link #currentGeneration()} 取得代数，返回后用 {@link #putRead} 写入，
+ * 发出之后被写入或失效过的寄存器不再写入。无效条目被淘汰后无法再比较，该寄存器上发出早于淘汰时代数的读取同样不写入。
+ *
+ * @author coffee
+ */
+public class ModbusRegisterCache {
+
+    @Getter
+    private final int maxEntries;
+    private final LinkedHashMap<Long, CachedRegister> entries; // 访问顺序，含失效后保留代数的无效条目，guarded by this
+    private long generation; // 写入代数，每次失效或写入加一，guarded by this
+    private long evictedGeneration; // 被淘汰条目的最大写入代数，缺失的寄存器按此比较，guarded by this
+    private int validCount; // 有效条目数，guarded by this
+    private long hitCount; // guarded by this
+    private long missCount; // guarded by this
+
+    private static final class CachedRegister {
+        private short value;
+        private long readNanos;
+        private boolean valid; // false 表示已失效，只保留 writeGeneration
+        private long writeGeneration; // 最近一次写入或失效时的代数
+    }
+
+    /**
+     * @param maxEntries 最多缓存的寄存器数量
+     */
+    public ModbusRegisterCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<Long, CachedRegister>(Math.min(maxEntries, 1024), 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedRegister> eldest) {
+                if (size() <= ModbusRegisterCache.this.maxEntries) {
+                    return false;
+                }
+                CachedRegister evicted = eldest.getValue();
+                if (evicted.valid) {
+                    validCount--;
+                }
+                evictedGeneration = Math.max(evictedGeneration, evicted.writeGeneration);
+                return true;
+            }
+        };
+    }
+
+    private static Long key(int slaveId, ModbusReadPlanner.RegisterType type, int address) {
+        return ((long) (slaveId & 0xFF) << 20) | ((long) type.ordinal() << 16) | (address & 0xFFFF);
+    }
+
+    /**
+     * 保存寄存器值，读取时间为当前时间，不检查写入代数（用于预置或测试）
+     *
+     * @param slaveId 从站 ID
+     * @param type 寄存器类型
+     * @param startAddress 起始地址
+     * @param values 寄存器值
+     */
+    public void put(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, short[] values) {
+        put(slaveId, type, startAddress, values, 0, values.length);
+    }
+
+    /**
+     * 保存寄存器值（数组的一段），读取时间为当前时间，不检查写入代数
+     *
+     * @param values 寄存器值
+     * @param offset 第一个寄存器在 values 中的下标
+     * @param count 寄存器数量
+     */
+    public synchronized void put(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, short[] values, int offset,
+            int count) {
+        store(slaveId, type, startAddress, values, offset, count, Long.MAX_VALUE, -1L);
+    }
+
+    /**
+     * 当前写入代数，读取发出前调用，返回后传给 {@link #putRead}
+     */
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+
+    /**
+     * 保存读取到的寄存器值；读取发出后被写入或失效过的寄存器跳过，保留写入的值或保持失效
+     *
+     * @param values 寄存器值
+     * @param offset 第一个寄存器在 values 中的下标
+     * @param count 寄存器数量
+     * @param readGeneration 读取发出前 {@link #currentGeneration()} 的返回值
+     */
+    public synchronized void putRead(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, short[] values,
+            int offset, int count, long readGeneration) {
+        store(slaveId, type, startAddress, values, offset, count, readGeneration, -1L);
+    }
+
+    /**
+     * 保存写入成功的寄存器值并增加写入代数，写入完成前发出的读取不会再覆盖这些寄存器；
+     * 写入发出后又被其他写入失效过的寄存器无法确定哪次写入在后，保持失效
+     *
+     * @param values 写入值
+     * @param writeGeneration 写入发出前 {@link #invalidate} 的返回值
+     */
+    public synchronized void putWritten(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, short[] values,
+            long writeGeneration) {
+        store(slaveId, type, startAddress, values, 0, values.length, writeGeneration, ++generation);
+    }
+
+    /**
+     * @param readGeneration 读取发出时的代数，Long.MAX_VALUE 表示不检查
+     * @param writeGeneration 写入代数，-1 表示不是写入（不修改条目的代数）
+     */
+    private void store(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, short[] values, int offset,
+            int count, long readGeneration, long writeGeneration) {
+        long now = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Long key = key(slaveId, type, startAddress + i);
+            CachedRegister entry = entries.get(key);
+            if (entry == null) {
+                if (evictedGeneration > readGeneration) {
+                    continue; // 可能是被淘汰的无效条目，无法确认读取之后没有写入
+                }
+                entry = new CachedRegister();
+                entry.writeGeneration = -1L;
+                entries.put(key, entry);
+            } else if (entry.writeGeneration > readGeneration) {
+                continue; // 读取发出后该寄存器被写入或失效过
+            }
+            if (!entry.valid) {
+                entry.valid = true;
+                validCount++;
+            }
+            entry.value = values[offset + i];
+            entry.readNanos = now;
+            if (writeGeneration >= 0L) {
+                entry.writeGeneration = writeGeneration;
+            }
+        }
+    }
+
+    /**
+     * 读取时效内的寄存器值
+     *
+     * @param slaveId 从站 ID
+     * @param type 寄存器类型
+     * @param startAddress 起始地址
+     * @param count 寄存器数量
+     * @param maxAgeMs 可接受的最大时效（毫秒）
+     * @return 寄存器值；任一寄存器缺失或超过时效时返回 null
+     */
+    public synchronized short[] get(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, int count, long maxAgeMs) {
+        long oldest = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        short[] values = new short[count];
+        for (int i = 0; i < count; i++) {
+            CachedRegister entry = entries.get(key(slaveId, type, startAddress + i));
+            if (entry == null || !entry.valid || entry.readNanos - oldest < 0L) {
+                missCount++;
+                return null;
+            }
+            values[i] = entry.value;
+        }
+        hitCount++;
+        return values;
+    }
+
+    /**
+     * 失效指定区间并增加写入代数，此前发出的读取不再写入这些寄存器
+     *
+     * @param slaveId 从站 ID
+     * @param type 寄存器类型
+     * @param startAddress 起始地址
+     * @param count 寄存器数量
+     * @return 失效后的写入代数
+     */
+    public synchronized long invalidate(int slaveId, ModbusReadPlanner.RegisterType type, int startAddress, int count) {
+        long stamp = ++generation;
+        for (int i = 0; i < count; i++) {
+            Long key = key(slaveId, type, startAddress + i);
+            CachedRegister entry = entries.get(key);
+            if (entry == null) {
+                entry = new CachedRegister();
+                entries.put(key, entry);
+            } else if (entry.valid) {
+                entry.valid = false;
+                validCount--;
+            }
+            entry.writeGeneration = stamp;
+        }
+        return stamp;
+    }
+
+    /**
+     * 失效所有从站的指定区间（广播写入后使用）
+     *
+     * @param type 寄存器类型
+     * @param startAddress 起始地址
+     * @param count 寄存器数量
+     * @return 失效后的写入代数
+     */
+    public synchronized long invalidateAllSlaves(ModbusReadPlanner.RegisterType type, int startAddress, int count) {
+        long stamp = ++generation;
+        for (Map.Entry<Long, CachedRegister> mapping : entries.entrySet()) {
+            long key = mapping.getKey();
+            int address = (int) (key & 0xFFFF);
+            if (((key >>> 16) & 0xF) == type.ordinal() && address >= startAddress && address < startAddress + count) {
+                CachedRegister entry = mapping.getValue();
+                if (entry.valid) {
+                    entry.valid = false;
+                    validCount--;
+                }
+                entry.writeGeneration = stamp;
+            }
+        }
+        // 未缓存的从站无法逐个记录，按淘汰处理：此前发出的读取都不写入缺失的寄存器
+        evictedGeneration = stamp;
+        return stamp;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        validCount = 0;
+        evictedGeneration = ++generation;
+    }
+
+    /**
+     * 当前缓存的有效寄存器数量（不含失效后保留代数的条目）
+     */
+    public synchronized int size() {
+        return validCount;
+    }
+
+    /**
+     * 命中（未访问总线）的读取次数，仅用于监控
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 未命中的读取次数，仅用于监控
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
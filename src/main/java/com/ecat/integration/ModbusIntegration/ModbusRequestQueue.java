@@ -0,0 +1,93 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayDeque;
+
+/**
+ * 按优先级出队的请求队列，带老化
+ *
+ * <p>每个优先级一个 FIFO 队列。出队时只比较各队列队首：有效级别 = 优先级序号 - 已等待的老化周期数，
+ * 取有效级别最小者，相同时取入队更早者。因此低优先级请求等待足够久后会排到高优先级请求之前。
+ *
+ * @author coffee
+ */
+class ModbusRequestQueue {
+
+    private final long agingNanos;
+    private final ArrayDeque<Entry>[] queues; // guarded by this
+    private int size; // guarded by this
+
+    /**
+     * 队列中的请求
+     */
+    static final class Entry {
+        private final Runnable task;
+        private final long enqueuedAt;
+
+        private Entry(Runnable task, long enqueuedAt) {
+            this.task = task;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * @param agingMs 老化周期（毫秒），等待每超过一个周期提升一级
+     */
+    @SuppressWarnings("unchecked")
+    ModbusRequestQueue(long agingMs) {
+        this.agingNanos = Math.max(1L, agingMs) * 1_000_000L;
+        ModbusPriority[] priorities = ModbusPriority.values();
+        this.queues = new ArrayDeque[priorities.length];
+        for (int i = 0; i < priorities.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    synchronized Entry add(ModbusPriority priority, Runnable task) {
+        Entry entry = new Entry(task, System.nanoTime());
+        queues[priority.ordinal()].add(entry);
+        size++;
+        return entry;
+    }
+
+    synchronized boolean remove(Entry entry) {
+        for (ArrayDeque<Entry> queue : queues) {
+            if (queue.remove(entry)) {
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 取出下一个要执行的请求
+     *
+     * @return 请求，队列为空时返回 null
+     */
+    synchronized Runnable poll() {
+        long now = System.nanoTime();
+        int best = -1;
+        long bestLevel = 0L;
+        for (int i = 0; i < queues.length; i++) {
+            Entry head = queues[i].peek();
+            if (head == null) {
+                continue;
+            }
+            long level = i - (now - head.enqueuedAt) / agingNanos;
+            if (best < 0 || level < bestLevel
+                    || (level == bestLevel && head.enqueuedAt - queues[best].peek().enqueuedAt < 0)) {
+                best = i;
+                bestLevel = level;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+        size--;
+        return queues[best].poll().task;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
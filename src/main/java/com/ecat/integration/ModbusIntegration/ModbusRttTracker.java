@@ -0,0 +1,157 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lombok.Getter;
+
+/**
+ * 按从站统计往返时延（RTT）并计算自适应超时
+ *
+ * <p>算法与 TCP 重传超时（RFC 6298）相同：
+ * <ul>
+ *   <li>平滑 RTT：srtt = 7/8 * srtt + 1/8 * rtt</li>
+ *   <li>RTT 偏差：rttvar = 3/4 * rttvar + 1/4 * |srtt - rtt|</li>
+ *   <li>超时 = srtt + 4 * rttvar（约为 RTT 分布的高分位），限制在 [minTimeoutMs, maxTimeoutMs] 之间</li>
+ * </ul>
+ * 样本数不足 {@link #MIN_SAMPLES} 时使用配置的最大超时。
+ * 应答超时不作为样本（实际 RTT 未知），而是让该从站的超时翻倍，收到应答后恢复，
+ * 这样时延突然变大的设备不会因为超时过短而一直失败。
+ *
+ * <p>每个从站的状态在首次使用时创建，之后更新不分配对象。
+ *
+ * @author coffee
+ */
+public class ModbusRttTracker {
+
+    /**
+     * 开始使用自适应超时所需的最少样本数
+     */
+    public static final int MIN_SAMPLES = 3;
+    private static final int MAX_BACKOFF_SHIFT = 6;
+
+    @Getter
+    private final int minTimeoutMs;
+    @Getter
+    private final int maxTimeoutMs;
+    private final AtomicReferenceArray<SlaveRtt> slaves = new AtomicReferenceArray<>(256);
+
+    /**
+     * 单个从站的统计，guarded by this
+     */
+    private static final class SlaveRtt {
+        private long samples;
+        private double srttNanos;
+        private double rttvarNanos;
+        private int backoffShift; // 连续超时次数，超时按 2^n 放大
+        private long timeoutCount;
+    }
+
+    /**
+     * @param minTimeoutMs 自适应超时下限（毫秒）
+     * @param maxTimeoutMs 自适应超时上限（毫秒），通常为设备配置的 timeout
+     */
+    public ModbusRttTracker(int minTimeoutMs, int maxTimeoutMs) {
+        if (minTimeoutMs < 1 || maxTimeoutMs < minTimeoutMs) {
+            throw new IllegalArgumentException("Invalid timeout bounds, min: " + minTimeoutMs + ", max: " + maxTimeoutMs);
+        }
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = maxTimeoutMs;
+    }
+
+    private SlaveRtt slave(int slaveId) {
+        int index = slaveId & 0xFF;
+        SlaveRtt rtt = slaves.get(index);
+        if (rtt == null) {
+            slaves.compareAndSet(index, null, new SlaveRtt());
+            rtt = slaves.get(index);
+        }
+        return rtt;
+    }
+
+    /**
+     * 记录一次收到应答（包括异常应答）的往返时延
+     *
+     * @param slaveId 从站 ID
+     * @param rttNanos 从发出请求到收到应答的时间（纳秒）
+     */
+    public void recordSuccess(int slaveId, long rttNanos) {
+        SlaveRtt rtt = slave(slaveId);
+        synchronized (rtt) {
+            if (rtt.samples == 0) {
+                rtt.srttNanos = rttNanos;
+                rtt.rttvarNanos = rttNanos / 2.0;
+            } else {
+                rtt.rttvarNanos = 0.75 * rtt.rttvarNanos + 0.25 * Math.abs(rtt.srttNanos - rttNanos);
+                rtt.srttNanos = 0.875 * rtt.srttNanos + 0.125 * rttNanos;
+            }
+            rtt.samples++;
+            rtt.backoffShift = 0;
+        }
+    }
+
+    /**
+     * 记录一次应答超时
+     *
+     * @param slaveId 从站 ID
+     */
+    public void recordTimeout(int slaveId) {
+        SlaveRtt rtt = slave(slaveId);
+        synchronized (rtt) {
+            rtt.timeoutCount++;
+            if (rtt.backoffShift < MAX_BACKOFF_SHIFT) {
+                rtt.backoffShift++;
+            }
+        }
+    }
+
+    /**
+     * 获取该从站当前的自适应超时
+     *
+     * @param slaveId 从站 ID
+     * @return 超时时间（毫秒），在 [minTimeoutMs, maxTimeoutMs] 之间
+     */
+    public int getTimeoutMs(int slaveId) {
+        SlaveRtt rtt = slaves.get(slaveId & 0xFF);
+        if (rtt == null) {
+            return maxTimeoutMs;
+        }
+        double timeoutNanos;
+        int shift;
+        synchronized (rtt) {
+            if (rtt.samples < MIN_SAMPLES) {
+                return maxTimeoutMs;
+            }
+            timeoutNanos = rtt.srttNanos + 4 * rtt.rttvarNanos;
+            shift = rtt.backoffShift;
+        }
+        long timeoutMs = (long) Math.ceil(timeoutNanos / TimeUnit.MILLISECONDS.toNanos(1)) << shift;
+        return (int) Math.max(minTimeoutMs, Math.min(maxTimeoutMs, timeoutMs));
+    }
+
+    /**
+     * 平滑 RTT（毫秒），无样本时返回 -1，仅用于监控
+     */
+    public double getSmoothedRttMs(int slaveId) {
+        SlaveRtt rtt = slaves.get(slaveId & 0xFF);
+        if (rtt == null) {
+            return -1;
+        }
+        synchronized (rtt) {
+            return rtt.samples == 0 ? -1 : rtt.srttNanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * 累计超时次数，仅用于监控
+     */
+    public long getTimeoutCount(int slaveId) {
+        SlaveRtt rtt = slaves.get(slaveId & 0xFF);
+        if (rtt == null) {
+            return 0;
+        }
+        synchronized (rtt) {
+            return rtt.timeoutCount;
+        }
+    }
+}
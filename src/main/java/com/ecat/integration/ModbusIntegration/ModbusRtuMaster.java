@@ -0,0 +1,315 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.serial.SerialPortWrapper;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+import com.serotonin.modbus4j.sero.util.queue.ByteQueue;
+
+/**
+ * 原生 Modbus RTU Master：按波特率计算帧间时序，按响应长度判定帧结束
+ *
+ * <p>与 modbus4j 的 RtuMaster 的区别：
+ * <ul>
+ *   <li>发送前只等待线路静默 t3.5（{@link ModbusRtuTiming}），不再使用固定的帧间延时</li>
+ *   <li>按功能码和字节数字段计算响应长度，收齐即返回；长度未知的功能码按静默判定帧结束</li>
+ *   <li>串口在 init 时打开一次，事务之间不再反复 open/close</li>
+ *   <li>支持 modbus4j 没有的 FC23（{@link #readWriteRegisters}），写入后回读只占用一次总线事务</li>
+ * </ul>
+ *
+ * <p>USB 转串口等驱动会成批交付数据，帧内允许的静默取 t3.5 与
+ * {@link Const#DEFAULT_RTU_FRAME_GAP_TOLERANCE_MS} 中的较大者，超过后按不完整帧处理。
+ * 超时、CRC 错误和不完整帧按 {@link #getRetries()} 重试，串口 I/O 异常不重试。
+ *
+ * @see ModbusSerialInfo#isNativeFraming()
+ * @author coffee
+ */
+public class ModbusRtuMaster extends ModbusMaster {
+
+    private static final int MAX_RTU_FRAME_LENGTH = 256; // 地址 + 最大 253 字节 PDU + CRC
+    private static final long MIN_POLL_NANOS = 50_000L;
+
+    private final Log log = LogFactory.getLogger(ModbusRtuMaster.class);
+    private final SerialPortWrapper port;
+    private final ModbusRtuTiming timing;
+    private final long frameGapNanos;
+    private final long pollNanos;
+    private final byte[] requestFrame = new byte[MAX_RTU_FRAME_LENGTH];
+    private final byte[] responseFrame = new byte[MAX_RTU_FRAME_LENGTH];
+    private InputStream in;
+    private OutputStream out;
+    private long lineActiveNanos; // 线路上最后一个字节结束的时刻（发送或接收）
+
+    /**
+     * @param port 串口
+     * @param timing 由串口参数计算的帧间时序
+     */
+    public ModbusRtuMaster(SerialPortWrapper port, ModbusRtuTiming timing) {
+        this.port = port;
+        this.timing = timing;
+        this.frameGapNanos = Math.max(timing.getT35Nanos(),
+                TimeUnit.MILLISECONDS.toNanos(Const.DEFAULT_RTU_FRAME_GAP_TOLERANCE_MS));
+        this.pollNanos = Math.max(MIN_POLL_NANOS, timing.getCharNanos());
+    }
+
+    public ModbusRtuTiming getTiming() {
+        return timing;
+    }
+
+    @Override
+    public synchronized void init() throws ModbusInitException {
+        try {
+            port.open();
+        } catch (Exception e) {
+            throw new ModbusInitException(e);
+        }
+        in = port.getInputStream();
+        out = port.getOutputStream();
+        lineActiveNanos = System.nanoTime() - timing.getT35Nanos();
+        initialized = true;
+        log.info("Native Modbus RTU master initialized: " + timing);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        initialized = false;
+        try {
+            port.close();
+        } catch (Exception e) {
+            log.warn("Error closing Modbus RTU port: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+        int slaveId = request.getSlaveId();
+        checkInitialized(slaveId);
+        int received = exchange(slaveId, encode(request));
+        if (received == 0) {
+            return null; // 广播没有应答
+        }
+        return ModbusResponse.createModbusResponse(new ByteQueue(responseFrame, 0, received - 2));
+    }
+
+    /**
+     * 读写多个寄存器（FC23），编解码不经过 modbus4j 的请求和响应对象
+     *
+     * @param slaveId 从站 ID
+     * @param readStart 读取起始地址
+     * @param readCount 读取数量（1~125）
+     * @param dest 读取结果的目标数组
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @param writeStart 写入起始地址
+     * @param values 写入值
+     * @param valuesOffset 第一个值在 values 中的下标
+     * @param writeCount 写入数量（1~121）
+     * @return 读取的寄存器数量，从站返回异常响应时为异常码的相反数
+     * @throws ModbusTransportException 参数非法、超时、CRC 错误或串口异常
+     */
+    public synchronized int readWriteRegisters(int slaveId, int readStart, int readCount, short[] dest, int destOffset,
+            int writeStart, short[] values, int valuesOffset, int writeCount) throws ModbusTransportException {
+        checkInitialized(slaveId);
+        ByteBuffer request = ByteBuffer.wrap(requestFrame);
+        try {
+            ModbusPduCodec.encodeReadWriteRegisters(request, slaveId, readStart, readCount, writeStart, values,
+                    valuesOffset, writeCount);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ModbusTransportException(e, slaveId);
+        }
+        ModbusCrc16.append(request, 0);
+        int received = exchange(slaveId, request.position());
+        if (received == 0) {
+            return 0; // 广播没有应答
+        }
+        return ModbusPduCodec.decodeRegisters(ByteBuffer.wrap(responseFrame, 0, received - 2),
+                ModbusPduCodec.READ_WRITE_REGISTERS, readCount, dest, destOffset);
+    }
+
+    private void checkInitialized(int slaveId) throws ModbusTransportException {
+        if (!initialized) {
+            throw new ModbusTransportException("Master not initialized", slaveId);
+        }
+    }
+
+    /**
+     * 发送 requestFrame 中的请求帧并接收应答到 responseFrame，超时、CRC 错误和不完整帧按重试次数重发
+     *
+     * @param length 请求帧长度（含 CRC）
+     * @return 应答帧长度（含 CRC），广播时为 0
+     */
+    private int exchange(int slaveId, int length) throws ModbusTransportException {
+        int attempts = Math.max(0, getRetries()) + 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transact(slaveId, length);
+            } catch (ModbusTransportException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Retry Modbus RTU request, slaveId: " + slaveId + ", attempt: " + attempt + ", "
+                            + e.getMessage());
+                }
+            } catch (IOException e) {
+                throw new ModbusTransportException(e, slaveId);
+            }
+        }
+    }
+
+    /**
+     * 把请求编码为 RTU 帧（地址 + PDU + CRC）写入 requestFrame
+     */
+    private int encode(ModbusRequest request) throws ModbusTransportException {
+        ByteQueue queue = new ByteQueue();
+        request.write(queue);
+        int length = queue.size();
+        if (length + 2 > MAX_RTU_FRAME_LENGTH) {
+            throw new ModbusTransportException("RTU frame too long: " + (length + 2), request.getSlaveId());
+        }
+        queue.pop(requestFrame, 0, length);
+        return ModbusCrc16.append(requestFrame, 0, length);
+    }
+
+    private int transact(int slaveId, int length) throws ModbusTransportException, IOException {
+        waitForIdleLine();
+        long writeStart = System.nanoTime();
+        out.write(requestFrame, 0, length);
+        out.flush();
+        // write 返回时数据可能仍在驱动缓冲区中，按字符时间估算最后一个字节离开线路的时刻
+        lineActiveNanos = Math.max(System.nanoTime(), writeStart + timing.transmitNanos(length));
+        if (slaveId == 0) {
+            return 0; // 广播没有应答
+        }
+        int received = receive(slaveId);
+        if (!ModbusCrc16.check(responseFrame, 0, received)) {
+            throw new ModbusTransportException("RTU response CRC mismatch, length: " + received, slaveId);
+        }
+        if ((responseFrame[0] & 0xFF) != slaveId) {
+            throw new ModbusTransportException("RTU response from unexpected slave: " + (responseFrame[0] & 0xFF),
+                    slaveId);
+        }
+        return received;
+    }
+
+    /**
+     * 丢弃残留数据，等待线路静默 t3.5
+     */
+    private void waitForIdleLine() throws IOException {
+        discardInput();
+        long wait;
+        while ((wait = lineActiveNanos + timing.getT35Nanos() - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            discardInput();
+        }
+    }
+
+    /**
+     * 丢弃上一个事务之后到达的数据（迟到的应答、线路干扰），有数据时线路重新计时
+     */
+    private void discardInput() throws IOException {
+        int available;
+        while ((available = in.available()) > 0) {
+            in.read(responseFrame, 0, Math.min(available, responseFrame.length));
+            lineActiveNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 接收应答帧到 responseFrame
+     *
+     * @return 帧长度（含 CRC）
+     */
+    private int receive(int slaveId) throws ModbusTransportException, IOException {
+        long deadline = lineActiveNanos + TimeUnit.MILLISECONDS.toNanos(getTimeout());
+        int received = 0;
+        int expected = 0;
+        long lastByteNanos = 0;
+        while (true) {
+            int available = in.available();
+            if (available > 0) {
+                int read = in.read(responseFrame, received, Math.min(available, MAX_RTU_FRAME_LENGTH - received));
+                if (read < 0) {
+                    throw new EOFException("Serial port closed");
+                }
+                received += read;
+                lastByteNanos = System.nanoTime();
+                if (expected == 0) {
+                    expected = expectedResponseLength(responseFrame, received);
+                }
+                if ((expected > 0 && received >= expected) || received == MAX_RTU_FRAME_LENGTH) {
+                    break;
+                }
+                continue;
+            }
+            long now = System.nanoTime();
+            if (received == 0) {
+                if (now - deadline >= 0) {
+                    throw new ModbusTransportException(new TimeoutException(
+                            "No RTU response received in " + getTimeout() + " ms"), slaveId);
+                }
+            } else if (now - lastByteNanos > frameGapNanos) {
+                if (expected > 0) {
+                    lineActiveNanos = lastByteNanos;
+                    throw new ModbusTransportException(new TimeoutException(
+                            "Incomplete RTU response: " + received + " of " + expected + " bytes"), slaveId);
+                }
+                break; // 长度未知的功能码以静默作为帧结束
+            }
+            LockSupport.parkNanos(pollNanos);
+        }
+        lineActiveNanos = lastByteNanos;
+        return expected > 0 ? Math.min(expected, received) : received;
+    }
+
+    /**
+     * 按已收到的头部计算应答帧总长度（含 CRC）
+     *
+     * @return 帧长度；头部不足或功能码的应答长度不固定时返回 0
+     */
+    static int expectedResponseLength(byte[] frame, int received) {
+        if (received < 2) {
+            return 0;
+        }
+        int functionCode = frame[1] & 0xFF;
+        if ((functionCode & 0x80) != 0) {
+            return 5; // 地址 + 功能码 + 异常码 + CRC
+        }
+        switch (functionCode) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 12:
+            case 17:
+            case 20:
+            case 21:
+            case 23:
+                return received < 3 ? 0 : 3 + (frame[2] & 0xFF) + 2;
+            case 5:
+            case 6:
+            case 11:
+            case 15:
+            case 16:
+                return 8;
+            case 7:
+                return 5;
+            case 22:
+                return 10;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecat.integration.ModbusIntegration;
+
+/**
+ * Modbus RTU 帧间时序，由串口参数计算
+ *
+ * <p>一个字符 = 1 起始位 + 数据位 + 校验位（有校验时 1 位）+ 停止位。
+ * 按 Modbus over Serial Line 规范：
+ * <ul>
+ *   <li>t1.5：帧内字符之间允许的最大静默，1.5 个字符时间</li>
+ *   <li>t3.5：帧之间的最小静默，3.5 个字符时间；线路静默 t3.5 后才能发出下一帧</li>
+ *   <li>波特率高于 19200 时使用固定值 t1.5 = 750µs、t3.5 = 1750µs</li>
+ * </ul>
+ *
+ * @see ModbusRtuMaster
+ * @author coffee
+ */
+public final class ModbusRtuTiming {
+
+    private static final int FIXED_TIMING_BAUDRATE = 19200;
+    private static final long FIXED_T15_NANOS = 750_000L;
+    private static final long FIXED_T35_NANOS = 1_750_000L;
+
+    private final int baudrate;
+    private final int halfBitsPerChar; // 以半位计，1.5 停止位时为奇数
+    private final long charNanos;
+    private final long t15Nanos;
+    private final long t35Nanos;
+
+    /**
+     * @param baudrate 波特率
+     * @param dataBits 数据位（5~8）
+     * @param stopBits 停止位，取值见 {@link ModbusSerialInfo#ONE_STOP_BIT} 等常量
+     * @param parity 校验位，取值见 {@link ModbusSerialInfo#NO_PARITY} 等常量
+     */
+    public ModbusRtuTiming(int baudrate, int dataBits, int stopBits, int parity) {
+        if (baudrate <= 0) {
+            throw new IllegalArgumentException("Invalid baudrate: " + baudrate);
+        }
+        this.baudrate = baudrate;
+        int stopHalfBits;
+        switch (stopBits) {
+            case ModbusSerialInfo.ONE_POINT_FIVE_STOP_BITS:
+                stopHalfBits = 3;
+                break;
+            case ModbusSerialInfo.TWO_STOP_BITS:
+                stopHalfBits = 4;
+                break;
+            default:
+                stopHalfBits = 2;
+                break;
+        }
+        int parityBits = parity == ModbusSerialInfo.NO_PARITY ? 0 : 1;
+        this.halfBitsPerChar = 2 * (1 + dataBits + parityBits) + stopHalfBits;
+        this.charNanos = halfBitsPerChar * 1_000_000_000L / (2L * baudrate);
+        if (baudrate > FIXED_TIMING_BAUDRATE) {
+            this.t15Nanos = FIXED_T15_NANOS;
+            this.t35Nanos = FIXED_T35_NANOS;
+        } else {
+            this.t15Nanos = charNanos * 3 / 2;
+            this.t35Nanos = charNanos * 7 / 2;
+        }
+    }
+
+    /**
+     * 按串口配置计算
+     */
+    public static ModbusRtuTiming of(ModbusSerialInfo info) {
+        return new ModbusRtuTiming(info.getBaudrate(), info.getDataBits(), info.getStopBits(), info.getParity());
+    }
+
+    public int getBaudrate() {
+        return baudrate;
+    }
+
+    /**
+     * 每个字符的位数（1.5 停止位时为小数）
+     */
+    public double getBitsPerChar() {
+        return halfBitsPerChar / 2.0;
+    }
+
+    /**
+     * 一个字符在线路上的传输时间（纳秒）
+     */
+    public long getCharNanos() {
+        return charNanos;
+    }
+
+    /**
+     * 帧内字符间最大静默 t1.5（纳秒）
+     */
+    public long getT15Nanos() {
+        return t15Nanos;
+    }
+
+    /**
+     * 帧间最小静默 t3.5（纳秒）
+     */
+    public long getT35Nanos() {
+        return t35Nanos;
+    }
+
+    /**
+     * 发送 bytes 个字节占用线路的时间（纳秒）
+     */
+    public long transmitNanos(int bytes) {
+        return bytes * charNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ModbusRtuTiming{baudrate=" + baudrate + ", bitsPerChar=" + getBitsPerChar()
+                + ", charNanos=" + charNanos + ", t15Nanos=" + t15Nanos + ", t35Nanos=" + t35Nanos + '}';
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+
+import lombok.Getter;
+
+/**
+ * Modbus 共享调度器，由 ModbusIntegration 持有
+ *
+ * <p>所有 ModbusSource 共用一个有界工作线程池，线程数与 CPU 核数相关，而不是与设备数量相关。
+ * 每个 ModbusSource 通过 {@link #newSerialExecutor()} 获得一个串行执行器：
+ * 同一个源的任务严格按提交顺序逐个执行（与原来的单线程 executor 语义一致），
+ * 不同源的任务在工作线程上交替执行，每轮只执行一个任务，避免繁忙的源独占线程。
+ *
+ * <p>注意：modbus4j 的 send 是阻塞调用，同一时刻最多有 threadCount 个源在等待设备应答，
+ * 设备数量很多且应答很慢时可通过 worker_threads 配置增大线程数。
+ *
+ * @author coffee
+ */
+public class ModbusScheduler {
+
+    private final Log log = LogFactory.getLogger(getClass());
+
+    @Getter
+    private final int threadCount;
+    private final ThreadPoolExecutor workers;
+
+    public ModbusScheduler() {
+        this(Const.DEFAULT_WORKER_THREADS);
+    }
+
+    /**
+     * @param threadCount 工作线程数
+     */
+    public ModbusScheduler(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount must be at least 1: " + threadCount);
+        }
+        this.threadCount = threadCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threadCount, threadCount, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "modbus-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers.allowCoreThreadTimeOut(true); // 空闲时不占线程
+    }
+
+    /**
+     * 创建一个串行执行器，提交到其中的任务按顺序逐个在共享线程池上执行
+     *
+     * @return 串行执行器，shutdown 后拒绝新任务，已提交的任务继续执行完
+     */
+    public ExecutorService newSerialExecutor() {
+        return new SerialExecutor(1);
+    }
+
+    /**
+     * 创建一个限流执行器，最多 maxConcurrency 个任务同时在共享线程池上执行（用于长连接池）
+     *
+     * @param maxConcurrency 最大并发任务数，为 1 时等同于 {@link #newSerialExecutor()}
+     * @return 限流执行器，任务按提交顺序开始执行
+     */
+    public ExecutorService newBoundedExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+        }
+        return new SerialExecutor(maxConcurrency);
+    }
+
+    /**
+     * 关闭共享线程池，已排队的任务继续执行完
+     */
+    public void shutdown() {
+        workers.shutdown();
+        log.info("Modbus scheduler shut down, threads: " + threadCount);
+    }
+
+    public boolean isShutdown() {
+        return workers.isShutdown();
+    }
+
+    /**
+     * 当前正在执行任务的工作线程数（近似值，用于监控）
+     */
+    public int getActiveCount() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * 串行执行器：任务队列 + 最多 maxConcurrency 个正在运行的排空任务
+     */
+    private final class SerialExecutor extends AbstractExecutorService {
+        private final int maxConcurrency;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>(); // guarded by this
+        private int scheduled; // 已在线程池中的排空任务数，guarded by this
+        private boolean shutdown; // guarded by this
+
+        private SerialExecutor(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            synchronized (this) {
+                if (shutdown) {
+                    throw new RejectedExecutionException("Serial executor has been shut down");
+                }
+                tasks.add(command);
+                if (scheduled >= maxConcurrency) {
+                    return;
+                }
+                scheduled++;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                workers.execute(this::runNext);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    scheduled--;
+                    tasks.clear();
+                    shutdown = true;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+
+        private void runNext() {
+            Runnable task;
+            synchronized (this) {
+                task = tasks.poll();
+            }
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                boolean more;
+                synchronized (this) {
+                    more = !tasks.isEmpty();
+                    if (!more) {
+                        scheduled--;
+                        notifyAll();
+                    }
+                }
+                if (more) {
+                    // 每轮只执行一个任务后让出线程，保证各源公平
+                    schedule();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void shutdown() {
+            shutdown = true;
+            notifyAll();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            synchronized (this) {
+                shutdown = true;
+                List<Runnable> pending = new ArrayList<>(tasks);
+                tasks.clear();
+                notifyAll();
+                return pending;
+            }
+        }
+
+        @Override
+        public synchronized boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public synchronized boolean isTerminated() {
+            return shutdown && scheduled == 0 && tasks.isEmpty();
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                wait(remainingMs);
+            }
+            return true;
+        }
+    }
+}
@@ -25,9 +25,21 @@ public class ModbusSerialInfo extends ModbusInfo {
     private final int stopBits;
     private final int parity;
     private final int timeout;  // 新增：超时设置（毫秒）
+    private final boolean nativeFraming; // 是否使用原生 RTU 帧处理（ModbusRtuMaster）
 
     public ModbusSerialInfo(String portName, int baudrate, int dataBits, 
                            int stopBits, int parity, int timeout, Integer slaveId) {
+        this(portName, baudrate, dataBits, stopBits, parity, timeout, slaveId, Const.DEFAULT_RTU_NATIVE_FRAMING);
+    }
+
+    /**
+     * 构造函数，允许指定是否使用原生 RTU 帧处理
+     *
+     * @param nativeFraming true 时使用 {@link ModbusRtuMaster}：帧间隔由波特率、数据位、校验位和停止位计算，
+     *                      按响应长度判定帧结束；对应 ModbusRtuCommConfigSchema 中 rtu_framing 字段为 NATIVE
+     */
+    public ModbusSerialInfo(String portName, int baudrate, int dataBits,
+                           int stopBits, int parity, int timeout, Integer slaveId, boolean nativeFraming) {
         super(slaveId, ModbusProtocol.SERIAL);
         validateParameters(portName, baudrate, dataBits, stopBits, parity, timeout);
         
@@ -37,6 +49,7 @@ public class ModbusSerialInfo extends ModbusInfo {
         this.stopBits = stopBits;
         this.parity = parity;
         this.timeout = timeout;
+        this.nativeFraming = nativeFraming;
     }
 
     @Override
@@ -48,6 +61,7 @@ public class ModbusSerialInfo extends ModbusInfo {
                 ", stopBits=" + stopBits +
                 ", parity=" + parity +
                 ", timeout=" + timeout +
+                ", nativeFraming=" + nativeFraming +
                 ", slaveId=" + getSlaveId() +
                 ", protocol=" + getProtocol() +
                 '}';
@@ -93,4 +107,5 @@ public class ModbusSerialInfo extends ModbusInfo {
     public int getStopBits() { return stopBits; }
     public int getParity() { return parity; }
     public int getTimeout() { return timeout; }
+    public boolean isNativeFraming() { return nativeFraming; }
 }
@@ -12,8 +12,12 @@ package com.ecat.integration.ModbusIntegration;
  * @author coffee
  */
 import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.code.ExceptionCode;
+import com.serotonin.modbus4j.code.FunctionCode;
 import com.serotonin.modbus4j.exception.ModbusInitException;
 import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
 import com.serotonin.modbus4j.msg.ReadCoilsRequest;
 import com.serotonin.modbus4j.msg.ReadCoilsResponse;
 import com.serotonin.modbus4j.msg.ReadDiscreteInputsRequest;
@@ -24,6 +28,7 @@ import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
 import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
 import com.serotonin.modbus4j.msg.ReadInputRegistersRequest;
 import com.serotonin.modbus4j.msg.ReadInputRegistersResponse;
+import com.serotonin.modbus4j.msg.ReadResponse;
 import com.serotonin.modbus4j.msg.ReportSlaveIdRequest;
 import com.serotonin.modbus4j.msg.ReportSlaveIdResponse;
 import com.serotonin.modbus4j.msg.WriteCoilRequest;
@@ -36,41 +41,71 @@ import com.serotonin.modbus4j.msg.WriteRegisterRequest;
 import com.serotonin.modbus4j.msg.WriteRegisterResponse;
 import com.serotonin.modbus4j.msg.WriteRegistersRequest;
 import com.serotonin.modbus4j.msg.WriteRegistersResponse;
+import com.serotonin.modbus4j.sero.util.queue.ByteQueue;
 
 import lombok.Getter;
+import lombok.Setter;
 
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 import com.ecat.core.Utils.Log;
 import com.ecat.core.Utils.LogFactory;
 import com.ecat.core.Utils.Mdc.MdcExecutorService;
 
 public class ModbusSource {
     private final Log log = LogFactory.getLogger(getClass());
-    private final Lock lock = new ReentrantLock();
-    private final Condition condition = lock.newCondition();
     @Getter
     private final int maxWaiters; // 最大等待请求数
     @Getter
     private final int waitTimeoutMs; // 等待超时时间（毫秒）
-    private String currentKey;    // 当前持有锁的key
-    private final Queue<String> waitQueue = new LinkedList<>(); // 等待队列（保存请求标识）
+    @Getter
+    private final int maxInFlight; // 同时持有锁的最大数量，见 ModbusTcpInfo#getConcurrency()，串口为 1
+    private final ModbusTicketLock ticketLock; // FIFO 票据锁，许可数为 maxInFlight
 
     private ModbusMaster modbusMaster;
     @Getter
     private ModbusInfo modbusInfo;
     private List<String> registeredIntegrations;
-    private final ExecutorService executor; // delegateMode 下为 null（不创建线程）
+    private final ExecutorService executor; // delegateMode 下为 null（不创建线程）；有共享调度器时为其串行执行器
+    private final ModbusRequestQueue requestQueue; // 按优先级出队的请求队列，delegateMode 下为 null
+    @Getter
+    private final ModbusRttTracker rttTracker; // 按从站统计 RTT、计算自适应超时，delegateMode 下为 null
+    @Getter
+    private final ModbusCircuitBreaker circuitBreaker; // 按从站熔断无应答的设备，delegateMode 下为 null
+    @Getter
+    private final ModbusReconnectBackoff reconnectBackoff; // 阻塞 TCP master 连接失败后退避重连，串口、异步 master 和 delegateMode 下为 null
+    private final ConcurrentHashMap<Long, CompletableFuture<? extends ModbusResponse>> inflightReads = new ConcurrentHashMap<>(); // 在途读请求，用于合并相同读取
+    private final AtomicLong coalescedReadCount = new AtomicLong();
+    private final Set<Integer> readWriteUnsupported = ConcurrentHashMap.newKeySet(); // 返回 ILLEGAL_FUNCTION、不支持 FC23 的从站
+    @Getter
+    private final ModbusMetrics metrics; // 事务指标，delegateMode 下为 null
+    private volatile ModbusRegisterCache registerCache; // 首次带时效读取时创建，之前为 null（不缓存）
+    private final boolean perRequestTimeout; // 短连接 TCP 每次发送都新建连接、读取超时设置；原生 RTU master 见 applyRequestTimeout
+    @Getter
+    @Setter
+    private volatile boolean adaptiveTimeout = true; // 是否使用按从站自适应的超时
+    @Getter
+    @Setter
+    private volatile int broadcastTurnaroundMs = Const.DEFAULT_BROADCAST_TURNAROUND_MS; // 广播写入后总线保持静默的时间
+    private final boolean serialLine; // 串口或 RTU over TCP（透传网关），广播后由本端等待转换延时
+    private volatile CompletableFuture<Void> opening = CompletableFuture.completedFuture(null); // master 在 executor 上初始化，完成前提交的请求推迟到初始化之后
+    private volatile boolean destroyed; // destroyResources 已调用，尚未执行的初始化不再进行
 
     protected ModbusSource(ModbusInfo modbusInfo) {
         this(modbusInfo, Const.DEFAULT_MAX_WAITERS, Const.DEFAULT_WAIT_TIMEOUT_MS); // 默认最大等待请求数为1，等待超时时间为Const.WAIT_TIMEOUT_MS
@@ -90,19 +125,74 @@ public class ModbusSource {
      * @param delegateMode  是否为委托模式（DeviceSpecificModbusSource 使用，不创建 executor）
      */
     protected ModbusSource(ModbusInfo modbusInfo, int maxWaiters, int waitTimeoutMs, boolean skipOpen, boolean delegateMode) {
+        this(modbusInfo, maxWaiters, waitTimeoutMs, skipOpen, delegateMode, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param modbusInfo    Modbus 设备信息
+     * @param maxWaiters    最大等待请求数
+     * @param waitTimeoutMs 等待超时时间（毫秒）
+     * @param skipOpen      是否跳过 openModbus()（RTU 新模式跳过，由 initSerialMaster 初始化）；不跳过时 master 在 executor 上初始化，构造函数不等待
+     * @param delegateMode  是否为委托模式（DeviceSpecificModbusSource 使用，不创建 executor）
+     * @param scheduler     共享调度器，请求在其串行执行器上按序执行（长连接池按连接数并行）；为 null 时创建独立的 executor
+     */
+    protected ModbusSource(ModbusInfo modbusInfo, int maxWaiters, int waitTimeoutMs, boolean skipOpen, boolean delegateMode,
+            ModbusScheduler scheduler) {
         this.maxWaiters = maxWaiters; // 设置资源最大等待请求数
         this.waitTimeoutMs = waitTimeoutMs; // 设置资源等待超时时间
         this.modbusInfo = modbusInfo;
-        this.registeredIntegrations = new ArrayList<>();
-        this.executor = delegateMode ? null : MdcExecutorService.wrap(Executors.newSingleThreadExecutor());
+        this.maxInFlight = modbusInfo instanceof ModbusTcpInfo ? Math.max(1, ((ModbusTcpInfo) modbusInfo).getConcurrency()) : 1;
+        this.ticketLock = new ModbusTicketLock(maxInFlight, maxWaiters);
+        this.registeredIntegrations = new ArrayList<>(); // 访问均在 this 上同步，设备可并发注册和释放
+        int configuredTimeoutMs = configuredTimeoutMs(modbusInfo);
+        this.rttTracker = delegateMode ? null
+                : new ModbusRttTracker(Math.min(Const.DEFAULT_ADAPTIVE_TIMEOUT_MIN_MS, configuredTimeoutMs), configuredTimeoutMs);
+        this.circuitBreaker = delegateMode ? null
+                : new ModbusCircuitBreaker(Const.DEFAULT_CIRCUIT_FAILURE_THRESHOLD, Const.DEFAULT_CIRCUIT_PROBE_INTERVAL_MS);
+        // 阻塞 TCP master（短连接、长连接池）在工作线程上建立连接，连接失败时退避；异步 master 自行在后台连接
+        this.reconnectBackoff = delegateMode || !(modbusInfo instanceof ModbusTcpInfo) || ((ModbusTcpInfo) modbusInfo).isAsync()
+                ? null
+                : new ModbusReconnectBackoff(Const.DEFAULT_RECONNECT_BACKOFF_MIN_MS, Const.DEFAULT_RECONNECT_BACKOFF_MAX_MS);
+        this.perRequestTimeout = modbusInfo instanceof ModbusTcpInfo && !((ModbusTcpInfo) modbusInfo).isKeepAlive()
+                && !((ModbusTcpInfo) modbusInfo).isAsync();
+        this.serialLine = modbusInfo instanceof ModbusSerialInfo || modbusInfo.getProtocol() == ModbusProtocol.RTU_OVER_TCP;
+        this.metrics = delegateMode ? null : new ModbusMetrics(this::getQueuedRequestCount, this::getWaitingCount);
+        if (delegateMode) {
+            this.executor = null;
+            this.requestQueue = null;
+        } else {
+            this.requestQueue = new ModbusRequestQueue(Const.DEFAULT_PRIORITY_AGING_MS);
+            // 长连接池的阻塞 send 可在多个连接上并行，流水线和 NIO master 本身异步，其余一问一答
+            boolean pooled = modbusInfo instanceof ModbusTcpInfo && !((ModbusTcpInfo) modbusInfo).isAsync() && maxInFlight > 1;
+            int concurrency = pooled ? maxInFlight : 1;
+            if (scheduler != null) {
+                this.executor = MdcExecutorService.wrap(scheduler.newBoundedExecutor(concurrency));
+            } else if (concurrency > 1) {
+                this.executor = MdcExecutorService.wrap(Executors.newFixedThreadPool(concurrency));
+            } else {
+                this.executor = MdcExecutorService.wrap(Executors.newSingleThreadExecutor());
+            }
+        }
         if (!skipOpen) {
             openModbus();
         }
     }
 
+    private static int configuredTimeoutMs(ModbusInfo modbusInfo) {
+        Integer timeout = null;
+        if (modbusInfo instanceof ModbusTcpInfo) {
+            timeout = ((ModbusTcpInfo) modbusInfo).getTimeout();
+        } else if (modbusInfo instanceof ModbusSerialInfo) {
+            timeout = ((ModbusSerialInfo) modbusInfo).getTimeout();
+        }
+        return timeout == null || timeout < 1 ? Const.DEFAULT_TCP_TIMEOUT_MS : timeout;
+    }
+
     /**
      * 通过 ModbusMasterFactory 创建 master 并初始化（用于 RTU 新模式）。
-     * 工厂内部跟踪 SerialSource 生命周期。
+     * 工厂内部跟踪 SerialSource 生命周期。初始化在 executor 上进行，不阻塞调用方，见 {@link #initMaster}。
      *
      * @param serialInfo 串口配置
      * @param serialSource 来自 serial integration 的串口资源
@@ -110,152 +200,845 @@ public class ModbusSource {
     protected void initSerialMaster(ModbusSerialInfo serialInfo, com.ecat.integration.SerialIntegration.SerialSource serialSource) {
         try {
             this.modbusMaster = ModbusMasterFactory.createSerialMaster(serialInfo, serialSource);
-            modbusMaster.init();
         } catch (ModbusInitException e) {
             log.error( "Failed to initialize RTU master with SerialSource. serialInfo: " + serialInfo.toString(), e);
+            return;
         }
+        initMaster(modbusMaster, () -> "Failed to initialize RTU master with SerialSource. serialInfo: " + serialInfo.toString());
+    }
+
+    /**
+     * 在 executor 上初始化 master，调用方（注册设备的线程）不等待打开串口、建立连接
+     *
+     * <p>初始化完成前提交的请求先挂起，完成后再按原优先级进入队列或发送；初始化失败时记录日志，
+     * 之后 {@link #isModbusOpen()} 为 false，与同步初始化失败时一致。
+     *
+     * @param master 已创建、尚未初始化的 master
+     * @param errorMessage 初始化失败时的日志内容
+     */
+    void initMaster(ModbusMaster master, Supplier<String> errorMessage) {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        opening = pending;
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!destroyed) {
+                        master.init();
+                        if (destroyed) {
+                            master.destroy(); // 初始化期间已销毁，destroyResources 没有销毁未初始化的 master
+                        }
+                    }
+                } catch (ModbusInitException | RuntimeException e) {
+                    log.error(errorMessage.get(), e);
+                } finally {
+                    pending.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.complete(null);
+        }
+    }
+
+    /**
+     * master 初始化完成后再执行 request；推迟执行时保留调用方通过 {@link ModbusPriority#with} 指定的优先级
+     */
+    private <T> CompletableFuture<T> afterOpen(Supplier<CompletableFuture<T>> request) {
+        ModbusPriority priority = ModbusPriority.currentOr(null);
+        return opening.thenCompose(ignored -> ModbusPriority.with(priority, request));
     }
 
     // 新增：带slaveId参数的内部方法
     protected CompletableFuture<ReadCoilsResponse> readCoilsWithSlaveId(Integer slaveId, int startAddress, int numberOfBits) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReadCoilsRequest request = new ReadCoilsRequest(slaveId, startAddress, numberOfBits);
-                return (ReadCoilsResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reading coils. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", numberOfBits: " + numberOfBits + ")", e);
-                return null;
-            }
-        }, executor);
+        return coalesceRead(slaveId, FunctionCode.READ_COILS, startAddress, numberOfBits, () -> sendRequest(slaveId, ModbusPriority.NORMAL,
+                () -> new ReadCoilsRequest(slaveId, startAddress, numberOfBits),
+                () -> "Error reading coils. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", numberOfBits: " + numberOfBits + ")"));
     }
 
     protected CompletableFuture<ReadDiscreteInputsResponse> readDiscreteInputsWithSlaveId(Integer slaveId, int startAddress, int numberOfBits) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReadDiscreteInputsRequest request = new ReadDiscreteInputsRequest(slaveId, startAddress, numberOfBits);
-                return (ReadDiscreteInputsResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reading discrete inputs. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", numberOfBits: " + numberOfBits + ")", e);
-                return null;
-            }
-        }, executor);
+        return coalesceRead(slaveId, FunctionCode.READ_DISCRETE_INPUTS, startAddress, numberOfBits, () -> sendRequest(slaveId, ModbusPriority.NORMAL,
+                () -> new ReadDiscreteInputsRequest(slaveId, startAddress, numberOfBits),
+                () -> "Error reading discrete inputs. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", numberOfBits: " + numberOfBits + ")"));
     }
 
     protected CompletableFuture<ReadExceptionStatusResponse> readExceptionStatusWithSlaveId(Integer slaveId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReadExceptionStatusRequest request = new ReadExceptionStatusRequest(slaveId);
-                return (ReadExceptionStatusResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reading exception status. slaveId: " + slaveId, e);
-                return null;
-            }
-        }, executor);
+        return sendRequest(slaveId, ModbusPriority.NORMAL, () -> new ReadExceptionStatusRequest(slaveId),
+                () -> "Error reading exception status. slaveId: " + slaveId);
     }
 
     protected CompletableFuture<ReadHoldingRegistersResponse> readHoldingRegistersWithSlaveId(Integer slaveId, int startAddress, int numberOfRegisters) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReadHoldingRegistersRequest request = new ReadHoldingRegistersRequest(slaveId, startAddress, numberOfRegisters);
-                return (ReadHoldingRegistersResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reading holding registers. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", numberOfRegisters: " + numberOfRegisters + ")", e);
-                return null;
-            }
-        }, executor);
+        return coalesceRead(slaveId, FunctionCode.READ_HOLDING_REGISTERS, startAddress, numberOfRegisters, () -> cacheRead(slaveId,
+                ModbusReadPlanner.RegisterType.HOLDING, startAddress, () -> sendRequest(slaveId, ModbusPriority.NORMAL,
+                () -> new ReadHoldingRegistersRequest(slaveId, startAddress, numberOfRegisters),
+                () -> "Error reading holding registers. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", numberOfRegisters: " + numberOfRegisters + ")")));
+    }
+
+    protected CompletableFuture<ReadHoldingRegistersResponse> readHoldingRegistersWithSlaveId(Integer slaveId, int startAddress, int numberOfRegisters,
+            long maxAgeMs) {
+        ReadHoldingRegistersResponse cached = cachedResponse(slaveId, ModbusReadPlanner.RegisterType.HOLDING,
+                FunctionCode.READ_HOLDING_REGISTERS, startAddress, numberOfRegisters, maxAgeMs);
+        return cached != null ? CompletableFuture.completedFuture(cached)
+                : readHoldingRegistersWithSlaveId(slaveId, startAddress, numberOfRegisters);
     }
 
     protected CompletableFuture<ReadInputRegistersResponse> readInputRegistersWithSlaveId(Integer slaveId, int startAddress, int numberOfRegisters) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReadInputRegistersRequest request = new ReadInputRegistersRequest(slaveId, startAddress, numberOfRegisters);
-                return (ReadInputRegistersResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reading input registers. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", numberOfRegisters: " + numberOfRegisters + ")", e);
-                return null;
+        return coalesceRead(slaveId, FunctionCode.READ_INPUT_REGISTERS, startAddress, numberOfRegisters, () -> cacheRead(slaveId,
+                ModbusReadPlanner.RegisterType.INPUT, startAddress, () -> sendRequest(slaveId, ModbusPriority.NORMAL,
+                () -> new ReadInputRegistersRequest(slaveId, startAddress, numberOfRegisters),
+                () -> "Error reading input registers. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", numberOfRegisters: " + numberOfRegisters + ")")));
+    }
+
+    protected CompletableFuture<ReadInputRegistersResponse> readInputRegistersWithSlaveId(Integer slaveId, int startAddress, int numberOfRegisters,
+            long maxAgeMs) {
+        ReadInputRegistersResponse cached = cachedResponse(slaveId, ModbusReadPlanner.RegisterType.INPUT,
+                FunctionCode.READ_INPUT_REGISTERS, startAddress, numberOfRegisters, maxAgeMs);
+        return cached != null ? CompletableFuture.completedFuture(cached)
+                : readInputRegistersWithSlaveId(slaveId, startAddress, numberOfRegisters);
+    }
+
+    /**
+     * 读取寄存器到调用方数组
+     *
+     * <p>异步 TCP master（流水线或 NIO）使用 {@link ModbusPduCodec} 原生编解码，请求编码进共享缓冲池、响应直接解析进 dest，
+     * 不创建 modbus4j 的请求/响应对象；其他 master 退回普通读取后复制。该路径不参与相同读请求的合并。
+     *
+     * @return 寄存器数量；从站返回异常响应时为异常码的相反数；发送失败或从站已熔断时为 null
+     */
+    protected CompletableFuture<Integer> readRegistersWithSlaveId(Integer slaveId, ModbusReadPlanner.RegisterType type,
+            int startAddress, int count, short[] dest, int destOffset) {
+        if (isOpening()) {
+            return afterOpen(() -> readRegistersWithSlaveId(slaveId, type, startAddress, count, dest, destOffset));
+        }
+        if (!(modbusMaster instanceof ModbusAsyncTcpMaster) || slaveId == null) {
+            CompletableFuture<? extends ReadResponse> read = type == ModbusReadPlanner.RegisterType.HOLDING
+                    ? readHoldingRegistersWithSlaveId(slaveId, startAddress, count)
+                    : readInputRegistersWithSlaveId(slaveId, startAddress, count);
+            return read.thenApply(response -> copyRegisters(response, count, dest, destOffset));
+        }
+        if (circuitBreaker.isRejecting(slaveId) || !circuitBreaker.tryAcquire(slaveId)) {
+            return rejected(slaveId);
+        }
+        ModbusAsyncTcpMaster asyncMaster = (ModbusAsyncTcpMaster) modbusMaster;
+        int functionCode = type == ModbusReadPlanner.RegisterType.HOLDING
+                ? FunctionCode.READ_HOLDING_REGISTERS : FunctionCode.READ_INPUT_REGISTERS;
+        int timeoutMs = adaptiveTimeout ? rttTracker.getTimeoutMs(slaveId) : asyncMaster.getTimeout();
+        ModbusRegisterCache cache = registerCache;
+        long generation = cache != null ? cache.currentGeneration() : 0L; // 发出前取得，返回前被写入的寄存器不覆盖
+        long start = System.nanoTime();
+        return asyncMaster.readRegistersAsync(slaveId, functionCode, startAddress, count, dest, destOffset, timeoutMs)
+                .handleAsync((result, ex) -> {
+                    if (ex != null) {
+                        recordFailure(slaveId, ex);
+                        log.error("Error reading registers. slaveId: " + slaveId + " (type: " + type
+                                + ", startAddress: " + startAddress + ", numberOfRegisters: " + count + ")", ex);
+                        return null;
+                    }
+                    recordResponse(slaveId, functionCode, 0L, System.nanoTime() - start, result < 0 ? -result : 0);
+                    if (cache != null && result > 0) {
+                        cache.putRead(slaveId, type, startAddress, dest, destOffset, result, generation);
+                    }
+                    return result;
+                }, executor);
+    }
+
+    private static Integer copyRegisters(ReadResponse response, int count, short[] dest, int destOffset) {
+        if (response == null) {
+            return null;
+        }
+        if (response.isException()) {
+            return -(response.getExceptionCode() & 0xFF);
+        }
+        short[] data = response.getShortData();
+        int copied = Math.min(count, data.length);
+        System.arraycopy(data, 0, dest, destOffset, copied);
+        return copied;
+    }
+
+    /**
+     * 写入寄存器后回读（FC23 读写多个寄存器），读取结果写入调用方数组
+     *
+     * <p>异步 TCP master 和原生 RTU master 使用 {@link ModbusPduCodec} 编码的 FC23，写入和回读只占用一次总线事务；
+     * modbus4j 没有 FC23 的请求和响应类，其他 master 以及返回 ILLEGAL_FUNCTION（不支持 FC23）的从站
+     * 退回 FC16 写入 + FC03 读取两次事务，写入失败时不再读取。退回方式下两次事务之间可能插入其他请求，不是原子操作。
+     *
+     * @param writeStart 写入起始地址
+     * @param values 写入值（1~121 个），方法返回后调用方即可修改
+     * @param readStart 回读起始地址
+     * @param readCount 回读数量（1~125）
+     * @param dest 回读结果的目标数组，future 完成前不应读取或复用该区间
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @return 回读的寄存器数量；从站返回异常响应时为异常码的相反数；发送失败或从站已熔断时为 null
+     */
+    protected CompletableFuture<Integer> readWriteRegistersWithSlaveId(Integer slaveId, int writeStart, short[] values,
+            int readStart, int readCount, short[] dest, int destOffset) {
+        short[] written = values.clone(); // 调用方可能在写入完成前修改数组
+        if (isOpening()) {
+            return afterOpen(() -> readWriteRegistersWithSlaveId(slaveId, writeStart, written, readStart, readCount, dest,
+                    destOffset));
+        }
+        boolean nativeMaster = modbusMaster instanceof ModbusAsyncTcpMaster || modbusMaster instanceof ModbusRtuMaster;
+        if (!nativeMaster || slaveId == null || readWriteUnsupported.contains(slaveId)) {
+            return writeThenRead(slaveId, writeStart, written, readStart, readCount, dest, destOffset);
+        }
+        detachInflightReads(slaveId, FunctionCode.READ_HOLDING_REGISTERS, writeStart, written.length);
+        ModbusRegisterCache cache = registerCache;
+        long generation = cache != null
+                ? cache.invalidate(slaveId, ModbusReadPlanner.RegisterType.HOLDING, writeStart, written.length) : 0L;
+        CompletableFuture<Integer> sent = modbusMaster instanceof ModbusAsyncTcpMaster
+                ? sendReadWriteAsync(slaveId, writeStart, written, readStart, readCount, dest, destOffset)
+                : queueReadWrite(slaveId, writeStart, written, readStart, readCount, dest, destOffset);
+        return sent.thenCompose(result -> {
+            if (result != null && result == -ExceptionCode.ILLEGAL_FUNCTION) {
+                // 不支持 FC23 的从站不会执行写入，记住后直接使用两次事务
+                if (readWriteUnsupported.add(slaveId)) {
+                    log.info("Slave " + slaveId + " does not support FC23, falling back to FC16 + FC03. modbusInfo: "
+                            + modbusInfo);
+                }
+                return writeThenRead(slaveId, writeStart, written, readStart, readCount, dest, destOffset);
             }
-        }, executor);
+            if (cache != null) {
+                if (result != null && result > 0) {
+                    cache.putRead(slaveId, ModbusReadPlanner.RegisterType.HOLDING, readStart, dest, destOffset, result,
+                            generation);
+                    cache.putWritten(slaveId, ModbusReadPlanner.RegisterType.HOLDING, writeStart, written, generation);
+                } else {
+                    // 写入结果未知，期间发出的读取可能已缓存写入前的值
+                    cache.invalidate(slaveId, ModbusReadPlanner.RegisterType.HOLDING, writeStart, written.length);
+                }
+            }
+            return CompletableFuture.completedFuture(result);
+        });
     }
 
-    protected CompletableFuture<ReportSlaveIdResponse> reportSlaveIdWithSlaveId(Integer slaveId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                ReportSlaveIdRequest request = new ReportSlaveIdRequest(slaveId);
-                return (ReportSlaveIdResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error reporting slave ID. slaveId: " + slaveId, e);
+    private CompletableFuture<Integer> sendReadWriteAsync(int slaveId, int writeStart, short[] values, int readStart,
+            int readCount, short[] dest, int destOffset) {
+        if (circuitBreaker.isRejecting(slaveId) || !circuitBreaker.tryAcquire(slaveId)) {
+            return rejected(slaveId);
+        }
+        ModbusAsyncTcpMaster asyncMaster = (ModbusAsyncTcpMaster) modbusMaster;
+        int timeoutMs = adaptiveTimeout ? rttTracker.getTimeoutMs(slaveId) : asyncMaster.getTimeout();
+        long start = System.nanoTime();
+        CompletableFuture<Integer> sent;
+        try {
+            sent = asyncMaster.readWriteRegistersAsync(slaveId, readStart, readCount, dest, destOffset, writeStart, values, 0,
+                    values.length, timeoutMs);
+        } catch (IndexOutOfBoundsException e) {
+            log.error(readWriteError(slaveId, writeStart, values, readStart, readCount), e);
+            return CompletableFuture.completedFuture(null);
+        }
+        return sent.handleAsync((result, ex) -> {
+            if (ex != null) {
+                recordFailure(slaveId, ex);
+                log.error(readWriteError(slaveId, writeStart, values, readStart, readCount), ex);
                 return null;
             }
+            recordResponse(slaveId, ModbusPduCodec.READ_WRITE_REGISTERS, 0L, System.nanoTime() - start,
+                    result < 0 ? -result : 0);
+            return result;
         }, executor);
     }
 
-    protected CompletableFuture<WriteCoilResponse> writeCoilWithSlaveId(Integer slaveId, int address, boolean value) {
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * 原生 RTU master 的 FC23 与其他请求一样进入优先级队列，在 executor 上一问一答
+     */
+    private CompletableFuture<Integer> queueReadWrite(int slaveId, int writeStart, short[] values, int readStart,
+            int readCount, short[] dest, int destOffset) {
+        if (circuitBreaker.isRejecting(slaveId)) {
+            return rejected(slaveId);
+        }
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        long enqueuedNanos = System.nanoTime();
+        enqueue(ModbusPriority.HIGH, () -> {
+            if (!circuitBreaker.tryAcquire(slaveId)) {
+                metrics.recordCircuitRejected();
+                future.complete(null);
+                return;
+            }
+            applyRequestTimeout(slaveId);
+            long start = System.nanoTime();
             try {
-                WriteCoilRequest request = new WriteCoilRequest(slaveId, address, value);
-                return (WriteCoilResponse) modbusMaster.send(request);
+                int result = ((ModbusRtuMaster) modbusMaster).readWriteRegisters(slaveId, readStart, readCount, dest,
+                        destOffset, writeStart, values, 0, values.length);
+                recordResponse(slaveId, ModbusPduCodec.READ_WRITE_REGISTERS, start - enqueuedNanos,
+                        System.nanoTime() - start, result < 0 ? -result : 0);
+                future.complete(result);
             } catch (ModbusTransportException e) {
-                log.error( "Error writing coil. slaveId: " + slaveId +
-                        " (address: " + address + ", value: " + value + ")", e);
-                return null;
+                recordFailure(slaveId, e);
+                log.error(readWriteError(slaveId, writeStart, values, readStart, readCount), e);
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
             }
-        }, executor);
+        });
+        return future;
     }
 
-    protected CompletableFuture<WriteCoilsResponse> writeCoilsWithSlaveId(Integer slaveId, int startAddress, boolean[] values) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                WriteCoilsRequest request = new WriteCoilsRequest(slaveId, startAddress, values);
-                return (WriteCoilsResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error writing coils. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", values: " + Arrays.toString(values) + ")", e);
-                return null;
+    /**
+     * FC16 写入成功后用 FC03 回读；回读不与在途读请求合并，避免拿到写入前发出的读取结果
+     */
+    private CompletableFuture<Integer> writeThenRead(Integer slaveId, int writeStart, short[] values, int readStart,
+            int readCount, short[] dest, int destOffset) {
+        return writeRegistersWithSlaveId(slaveId, writeStart, values).thenCompose(response -> {
+            if (response == null) {
+                return CompletableFuture.completedFuture(null);
             }
-        }, executor);
+            if (response.isException()) {
+                return CompletableFuture.completedFuture(-(response.getExceptionCode() & 0xFF));
+            }
+            CompletableFuture<ReadHoldingRegistersResponse> read = cacheRead(slaveId, ModbusReadPlanner.RegisterType.HOLDING,
+                    readStart, () -> sendRequest(slaveId, ModbusPriority.HIGH,
+                    () -> new ReadHoldingRegistersRequest(slaveId, readStart, readCount),
+                    () -> "Error reading back holding registers. slaveId: " + slaveId +
+                            " (startAddress: " + readStart + ", numberOfRegisters: " + readCount + ")"));
+            return read.thenApply(readResponse -> copyRegisters(readResponse, readCount, dest, destOffset));
+        });
+    }
+
+    private static String readWriteError(int slaveId, int writeStart, short[] values, int readStart, int readCount) {
+        return "Error reading/writing registers. slaveId: " + slaveId + " (writeStart: " + writeStart + ", values: "
+                + Arrays.toString(values) + ", readStart: " + readStart + ", readCount: " + readCount + ")";
+    }
+
+    protected CompletableFuture<ReportSlaveIdResponse> reportSlaveIdWithSlaveId(Integer slaveId) {
+        return sendRequest(slaveId, ModbusPriority.NORMAL, () -> new ReportSlaveIdRequest(slaveId),
+                () -> "Error reporting slave ID. slaveId: " + slaveId);
+    }
+
+    protected CompletableFuture<WriteCoilResponse> writeCoilWithSlaveId(Integer slaveId, int address, boolean value) {
+        if (slaveId != null) {
+            detachInflightReads(slaveId, FunctionCode.READ_COILS, address, 1);
+        }
+        return sendRequest(slaveId, ModbusPriority.HIGH, () -> new WriteCoilRequest(slaveId, address, value),
+                () -> "Error writing coil. slaveId: " + slaveId +
+                        " (address: " + address + ", value: " + value + ")");
+    }
+
+    protected CompletableFuture<WriteCoilsResponse> writeCoilsWithSlaveId(Integer slaveId, int startAddress, boolean[] values) {
+        if (slaveId != null) {
+            detachInflightReads(slaveId, FunctionCode.READ_COILS, startAddress, values.length);
+        }
+        return sendRequest(slaveId, ModbusPriority.HIGH, () -> new WriteCoilsRequest(slaveId, startAddress, values),
+                () -> "Error writing coils. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", values: " + Arrays.toString(values) + ")");
     }
 
     protected CompletableFuture<WriteMaskRegisterResponse> writeMaskRegisterWithSlaveId(Integer slaveId, int address, int andMask, int orMask) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                WriteMaskRegisterRequest request = new WriteMaskRegisterRequest(slaveId, address, andMask, orMask);
-                return (WriteMaskRegisterResponse) modbusMaster.send(request);
-            } catch (ModbusTransportException e) {
-                log.error( "Error writing mask register. slaveId: " + slaveId +
-                        " (address: " + address + ", andMask: " + andMask + ", orMask: " + orMask + ")", e);
-                return null;
-            }
-        }, executor);
+        // 写入结果取决于设备上的当前值，只失效不更新
+        return cacheWrite(slaveId, address, 1, () -> sendRequest(slaveId, ModbusPriority.HIGH,
+                () -> new WriteMaskRegisterRequest(slaveId, address, andMask, orMask),
+                () -> "Error writing mask register. slaveId: " + slaveId +
+                        " (address: " + address + ", andMask: " + andMask + ", orMask: " + orMask + ")"), null);
     }
 
     protected CompletableFuture<WriteRegisterResponse> writeRegisterWithSlaveId(Integer slaveId, int address, int value) {
-        return CompletableFuture.supplyAsync(() -> {
+        return cacheWrite(slaveId, address, 1, () -> sendRequest(slaveId, ModbusPriority.HIGH,
+                () -> new WriteRegisterRequest(slaveId, address, value),
+                () -> "Error writing register. slaveId: " + slaveId +
+                        " (address: " + address + ", value: " + value + ")"),
+                new short[] { (short) value });
+    }
+
+    protected CompletableFuture<WriteRegistersResponse> writeRegistersWithSlaveId(Integer slaveId, int startAddress, short[] values) {
+        short[] written = values.clone(); // 调用方可能在写入完成前修改数组
+        return cacheWrite(slaveId, startAddress, values.length, () -> sendRequest(slaveId, ModbusPriority.HIGH,
+                () -> new WriteRegistersRequest(slaveId, startAddress, values),
+                () -> "Error writing registers. slaveId: " + slaveId +
+                        " (startAddress: " + startAddress + ", values: " + Arrays.toString(values) + ")"),
+                written);
+    }
+
+    /**
+     * 合并相同的在途读请求（single-flight）
+     *
+     * <p>多个集成共享同一个源时，常在几毫秒内读取同一从站的同一区间。
+     * (slaveId, 功能码, 起始地址, 数量) 相同的读请求在前一个请求完成前只发送一次，
+     * 所有调用方拿到同一个 future（调用方不应对其 complete/cancel）。
+     * 后加入的调用方沿用首个请求的优先级；请求完成后立即移除，不缓存结果。
+     * 写入发出前通过 {@link #detachInflightReads} 摘除区间重叠的在途读取，之后的读取重新发送，不会拿到写入前的值。
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends ModbusResponse> CompletableFuture<T> coalesceRead(Integer slaveId, int functionCode, int startAddress,
+            int count, Supplier<CompletableFuture<T>> send) {
+        if (slaveId == null) {
+            return send.get();
+        }
+        Long key = ((long) (slaveId & 0xFF) << 40) | ((long) (functionCode & 0xFF) << 32)
+                | ((long) (startAddress & 0xFFFF) << 16) | (count & 0xFFFF);
+        CompletableFuture<T> shared = new CompletableFuture<>();
+        CompletableFuture<T> existing = (CompletableFuture<T>) inflightReads.putIfAbsent(key, shared);
+        if (existing != null) {
+            coalescedReadCount.incrementAndGet();
+            return existing;
+        }
+        CompletableFuture<T> sent;
+        try {
+            sent = send.get();
+        } catch (RuntimeException e) {
+            inflightReads.remove(key, shared);
+            shared.completeExceptionally(e); // 已加入的调用方同样失败
+            throw e;
+        }
+        sent.whenComplete((response, ex) -> {
+            inflightReads.remove(key, shared);
+            if (ex != null) {
+                shared.completeExceptionally(ex);
+            } else {
+                shared.complete(response);
+            }
+        });
+        return shared;
+    }
+
+    /**
+     * 摘除与写入区间重叠的在途读取：已加入的调用方仍拿到原请求的结果，之后的读取不再加入
+     *
+     * @param slaveId 从站 ID，为 null 时摘除所有从站（广播）
+     * @param functionCode 受写入影响的读功能码（FC01 或 FC03）
+     * @param startAddress 写入起始地址
+     * @param count 写入数量
+     */
+    private void detachInflightReads(Integer slaveId, int functionCode, int startAddress, int count) {
+        if (inflightReads.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Long, CompletableFuture<? extends ModbusResponse>> entry : inflightReads.entrySet()) {
+            long key = entry.getKey();
+            int readStart = (int) ((key >>> 16) & 0xFFFF);
+            int readCount = (int) (key & 0xFFFF);
+            if ((int) ((key >>> 32) & 0xFF) == (functionCode & 0xFF)
+                    && (slaveId == null || (int) ((key >>> 40) & 0xFF) == (slaveId & 0xFF))
+                    && readStart < startAddress + count && startAddress < readStart + readCount) {
+                inflightReads.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 获取寄存器读缓存，首次调用时创建
+     * @return 该源（整条连接）共用的寄存器缓存
+     */
+    public ModbusRegisterCache getRegisterCache() {
+        ModbusRegisterCache cache = registerCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = registerCache;
+                if (cache == null) {
+                    cache = new ModbusRegisterCache(Const.DEFAULT_REGISTER_CACHE_MAX_ENTRIES);
+                    registerCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 缓存已启用时，把成功读取的寄存器值写入缓存
+     *
+     * <p>写入代数在发送前取得，读取返回前已被写入或失效的寄存器不会被写入前的值覆盖。
+     */
+    private <T extends ModbusResponse> CompletableFuture<T> cacheRead(Integer slaveId, ModbusReadPlanner.RegisterType type,
+            int startAddress, Supplier<CompletableFuture<T>> send) {
+        ModbusRegisterCache cache = registerCache;
+        if (cache == null || slaveId == null) {
+            return send.get();
+        }
+        long generation = cache.currentGeneration();
+        return send.get().thenApply(response -> {
+            if (response instanceof ReadResponse && !response.isException()) {
+                short[] values = ((ReadResponse) response).getShortData();
+                cache.putRead(slaveId, type, startAddress, values, 0, values.length, generation);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * 写入发出前摘除重叠的在途读取；缓存已启用时失效对应寄存器，写入成功后按写入值更新
+     *
+     * <p>写入期间发出的读取可能返回写入前的值，只失效不更新或写入失败时，完成后再失效一次。
+     *
+     * @param send 发送写入请求，在失效之后调用
+     * @param written 写入成功后缓存的值，为 null 时只失效
+     */
+    private <T extends ModbusResponse> CompletableFuture<T> cacheWrite(Integer slaveId, int startAddress, int count,
+            Supplier<CompletableFuture<T>> send, short[] written) {
+        if (slaveId != null) {
+            detachInflightReads(slaveId, FunctionCode.READ_HOLDING_REGISTERS, startAddress, count);
+        }
+        ModbusRegisterCache cache = registerCache;
+        if (cache == null || slaveId == null) {
+            return send.get();
+        }
+        long generation = cache.invalidate(slaveId, ModbusReadPlanner.RegisterType.HOLDING, startAddress, count);
+        return send.get().whenComplete((response, ex) -> {
+            if (written != null && response != null && !response.isException()) {
+                cache.putWritten(slaveId, ModbusReadPlanner.RegisterType.HOLDING, startAddress, written, generation);
+            } else {
+                cache.invalidate(slaveId, ModbusReadPlanner.RegisterType.HOLDING, startAddress, count);
+            }
+        });
+    }
+
+    /**
+     * 从缓存构造读响应（与设备返回的响应报文相同），缓存未命中时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends ModbusResponse> T cachedResponse(Integer slaveId, ModbusReadPlanner.RegisterType type, int functionCode,
+            int startAddress, int count, long maxAgeMs) {
+        if (slaveId == null) {
+            return null;
+        }
+        short[] values = getRegisterCache().get(slaveId, type, startAddress, count, maxAgeMs);
+        if (values == null) {
+            return null;
+        }
+        ByteQueue queue = new ByteQueue(3 + values.length * 2);
+        queue.push((byte) (int) slaveId);
+        queue.push((byte) functionCode);
+        queue.push((byte) (values.length * 2));
+        for (short value : values) {
+            queue.pushU2B(value);
+        }
+        try {
+            return (T) ModbusResponse.createModbusResponse(queue);
+        } catch (ModbusTransportException e) {
+            log.warn("Failed to build cached response, reading from device. slaveId: " + slaveId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 被合并（未单独发送）的读请求数量，仅用于监控
+     * @return 合并次数
+     */
+    public long getCoalescedReadCount() {
+        return coalescedReadCount.get();
+    }
+
+    /**
+     * 请求构造器，modbus4j 请求构造函数会校验参数并抛出 ModbusTransportException
+     */
+    @FunctionalInterface
+    private interface RequestFactory {
+        ModbusRequest create() throws ModbusTransportException;
+    }
+
+    /**
+     * 统一的请求发送入口
+     *
+     * <p>异步 TCP master（流水线或 NIO）直接异步发送，多个请求可同时在途，响应回调切回 executor 执行；
+     * 其他 master（RTU、阻塞 TCP）先进入按优先级出队的请求队列，再在 executor 上一问一答。
+     * 发送失败时记录日志并以 null 完成，与原有行为一致；从站已熔断时不发送，直接以 null 完成。
+     *
+     * @param slaveId 从站 ID，用于熔断判断
+     * @param defaultPriority 调用方未通过 {@link ModbusPriority#with} 指定时使用的优先级
+     * @param requestFactory 请求构造器
+     * @param errorMessage 失败时的日志内容（延迟构造）
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends ModbusResponse> CompletableFuture<T> sendRequest(Integer slaveId, ModbusPriority defaultPriority,
+            RequestFactory requestFactory, Supplier<String> errorMessage) {
+        if (slaveId != null && circuitBreaker.isRejecting(slaveId)) {
+            return rejected(slaveId);
+        }
+        if (isOpening()) {
+            return afterOpen(() -> sendRequest(slaveId, defaultPriority, requestFactory, errorMessage));
+        }
+        if (modbusMaster instanceof ModbusAsyncTcpMaster) {
+            ModbusRequest request;
             try {
-                WriteRegisterRequest request = new WriteRegisterRequest(slaveId, address, value);
-                return (WriteRegisterResponse) modbusMaster.send(request);
+                request = requestFactory.create();
             } catch (ModbusTransportException e) {
-                log.error( "Error writing register. slaveId: " + slaveId +
-                        " (address: " + address + ", value: " + value + ")", e);
-                return null;
+                log.error(errorMessage.get(), e);
+                return CompletableFuture.completedFuture(null);
             }
-        }, executor);
+            int requestSlaveId = request.getSlaveId();
+            if (!circuitBreaker.tryAcquire(requestSlaveId)) {
+                return rejected(requestSlaveId);
+            }
+            ModbusAsyncTcpMaster asyncMaster = (ModbusAsyncTcpMaster) modbusMaster;
+            int timeoutMs = adaptiveTimeout ? rttTracker.getTimeoutMs(requestSlaveId) : asyncMaster.getTimeout();
+            long start = System.nanoTime(); // 含本地排队时间，偏保守
+            return asyncMaster.sendAsync(request, timeoutMs).handleAsync((response, ex) -> {
+                if (ex != null) {
+                    recordFailure(requestSlaveId, ex);
+                    log.error(errorMessage.get(), ex);
+                    return null;
+                }
+                recordResponse(requestSlaveId, request.getFunctionCode(), 0L, System.nanoTime() - start, response);
+                return (T) response;
+            }, executor);
+        }
+        if (isBackingOff()) {
+            return reconnectRejected();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long enqueuedNanos = System.nanoTime();
+        enqueue(defaultPriority, () -> {
+            // 排队期间连接可能已失败，不再逐个等待连接超时
+            if (isBackingOff()) {
+                metrics.recordReconnectRejected();
+                future.complete(null);
+                return;
+            }
+            // 排队期间从站可能已熔断，发送前再判断一次（到达探测时间时作为探测请求放行）
+            if (slaveId != null && !circuitBreaker.tryAcquire(slaveId)) {
+                metrics.recordCircuitRejected();
+                future.complete(null);
+                return;
+            }
+            try {
+                future.complete((T) sendTracked(requestFactory.create(), enqueuedNanos));
+            } catch (ModbusTransportException e) {
+                log.error(errorMessage.get(), e);
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
     }
 
-    protected CompletableFuture<WriteRegistersResponse> writeRegistersWithSlaveId(Integer slaveId, int startAddress, short[] values) {
-        return CompletableFuture.supplyAsync(() -> {
+    /**
+     * 放入按优先级出队的请求队列，并在 executor 上调度一次出队
+     *
+     * @param defaultPriority 调用方未通过 {@link ModbusPriority#with} 指定时使用的优先级
+     * @param task 出队后在 executor 上执行的任务
+     */
+    private void enqueue(ModbusPriority defaultPriority, Runnable task) {
+        ModbusRequestQueue.Entry entry = requestQueue.add(ModbusPriority.currentOr(defaultPriority), task);
+        try {
+            // executor 中的任务不绑定具体请求，每次执行时取出当前优先级最高的请求
+            executor.execute(this::runNextRequest);
+        } catch (RejectedExecutionException e) {
+            requestQueue.remove(entry);
+            throw e;
+        }
+    }
+
+    /**
+     * 广播写入（从站 0）：总线上只发送一帧，所有从站执行但都不应答
+     *
+     * <p>异步 TCP master 写出后立即完成；其他 master 经请求队列发送，串口和 RTU over TCP 发送后在 executor 上
+     * 等待 {@link #getBroadcastTurnaroundMs()} 再处理下一个请求，让从站有时间处理广播。
+     * 广播不记录 RTT、不参与熔断（没有应答可判断）；发送前和完成后都失效所有从站缓存中的对应区间，
+     * 广播期间发出的读取不会留下写入前的值。
+     *
+     * @param startAddress 写入起始地址（用于失效缓存）
+     * @param count 写入数量
+     * @param type 写入的数据区，线圈为 null（不缓存）
+     * @return 已发送为 true；发送失败为 false
+     */
+    private CompletableFuture<Boolean> broadcast(int startAddress, int count, ModbusReadPlanner.RegisterType type,
+            RequestFactory requestFactory, Supplier<String> errorMessage) {
+        detachInflightReads(null, type != null ? FunctionCode.READ_HOLDING_REGISTERS : FunctionCode.READ_COILS, startAddress,
+                count);
+        ModbusRegisterCache cache = registerCache;
+        if (cache == null || type == null) {
+            return sendBroadcast(requestFactory, errorMessage);
+        }
+        cache.invalidateAllSlaves(type, startAddress, count);
+        return sendBroadcast(requestFactory, errorMessage)
+                .whenComplete((sent, ex) -> cache.invalidateAllSlaves(type, startAddress, count));
+    }
+
+    private CompletableFuture<Boolean> sendBroadcast(RequestFactory requestFactory, Supplier<String> errorMessage) {
+        if (isOpening()) {
+            return afterOpen(() -> sendBroadcast(requestFactory, errorMessage));
+        }
+        if (modbusMaster instanceof ModbusAsyncTcpMaster) {
+            ModbusRequest request;
             try {
-                WriteRegistersRequest request = new WriteRegistersRequest(slaveId, startAddress, values);
-                return (WriteRegistersResponse) modbusMaster.send(request);
+                request = requestFactory.create();
             } catch (ModbusTransportException e) {
-                log.error( "Error writing registers. slaveId: " + slaveId +
-                        " (startAddress: " + startAddress + ", values: " + Arrays.toString(values) + ")", e);
-                return null;
+                log.error(errorMessage.get(), e);
+                return CompletableFuture.completedFuture(false);
             }
-        }, executor);
+            return ((ModbusAsyncTcpMaster) modbusMaster).sendAsync(request).handle((response, ex) -> {
+                if (ex != null) {
+                    log.error(errorMessage.get(), ex);
+                    return false;
+                }
+                return true;
+            });
+        }
+        if (isBackingOff()) {
+            metrics.recordReconnectRejected();
+            return CompletableFuture.completedFuture(false);
+        }
+        CompletableFuture<Boolean> future = new CompletableFuture<>();
+        enqueue(ModbusPriority.HIGH, () -> {
+            if (isBackingOff()) {
+                metrics.recordReconnectRejected();
+                future.complete(false);
+                return;
+            }
+            try {
+                modbusMaster.send(requestFactory.create());
+            } catch (ModbusTransportException e) {
+                log.error(errorMessage.get(), e);
+                future.complete(false);
+                return;
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            if (serialLine) {
+                awaitTurnaround();
+            }
+            future.complete(true);
+        });
+        return future;
+    }
+
+    /**
+     * 在 executor 上等待转换延时，期间队列中的请求不会发送
+     */
+    private void awaitTurnaround() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(broadcastTurnaroundMs);
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private boolean isBackingOff() {
+        return reconnectBackoff != null && reconnectBackoff.isBackingOff();
+    }
+
+    private <T> CompletableFuture<T> reconnectRejected() {
+        metrics.recordReconnectRejected();
+        if (log.isDebugEnabled()) {
+            log.debug("Connection failed recently, request rejected until next reconnect attempt. modbusInfo: " + modbusInfo);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private <T> CompletableFuture<T> rejected(int slaveId) {
+        metrics.recordCircuitRejected();
+        if (log.isDebugEnabled()) {
+            log.debug("Slave " + slaveId + " circuit open, request rejected. modbusInfo: " + modbusInfo);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 阻塞发送并记录 RTT；master 支持时按从站设置自适应超时
+     */
+    private ModbusResponse sendTracked(ModbusRequest request, long enqueuedNanos) throws ModbusTransportException {
+        int slaveId = request.getSlaveId();
+        applyRequestTimeout(slaveId);
+        long start = System.nanoTime();
+        try {
+            ModbusResponse response = modbusMaster.send(request);
+            recordResponse(slaveId, request.getFunctionCode(), start - enqueuedNanos, System.nanoTime() - start, response);
+            return response;
+        } catch (ModbusTransportException e) {
+            recordFailure(slaveId, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 按从站设置本次发送的超时
+     *
+     * <p>短连接 TCP 每次发送都新建连接，原生 RTU master（{@link ModbusRtuMaster}）每次等待应答都读取超时设置，
+     * 两者都在 executor 上逐个发送，设置超时与发送之间没有其他请求。modbus4j 的长连接（含 {@link ModbusTcpConnectionPool}）
+     * 和 RTU master 在打开连接时固定超时，设置无效，不在这里设置。
+     */
+    private void applyRequestTimeout(int slaveId) {
+        if (perRequestTimeout || modbusMaster instanceof ModbusRtuMaster) {
+            modbusMaster.setTimeout(adaptiveTimeout ? rttTracker.getTimeoutMs(slaveId) : rttTracker.getMaxTimeoutMs());
+        }
+    }
+
+    private void recordResponse(int slaveId, int functionCode, long queueNanos, long rttNanos, ModbusResponse response) {
+        recordResponse(slaveId, functionCode, queueNanos, rttNanos,
+                response != null && response.isException() ? response.getExceptionCode() : 0);
+    }
+
+    /**
+     * @param exceptionCode 从站返回的异常码，正常响应为 0
+     */
+    private void recordResponse(int slaveId, int functionCode, long queueNanos, long rttNanos, int exceptionCode) {
+        metrics.recordTransaction(slaveId, functionCode, queueNanos, rttNanos);
+        if (exceptionCode != 0) {
+            metrics.recordException(exceptionCode);
+        }
+        rttTracker.recordSuccess(slaveId, rttNanos);
+        if (reconnectBackoff != null && reconnectBackoff.recordSuccess()) {
+            log.info("Connection recovered, reconnect backoff cleared. modbusInfo: " + modbusInfo);
+        }
+        if (circuitBreaker.recordSuccess(slaveId)) {
+            log.info("Slave " + slaveId + " responded, circuit closed. modbusInfo: " + modbusInfo);
+        }
+    }
+
+    private void recordFailure(int slaveId, Throwable e) {
+        if (!isTimeout(e)) {
+            metrics.recordTransportError();
+            circuitBreaker.recordError(slaveId);
+            if (reconnectBackoff != null && isConnectFailure(e)) {
+                boolean started = reconnectBackoff.recordConnectFailure();
+                if (started) {
+                    log.warn("Connection failed, requests fail fast for " + reconnectBackoff.getBackoffMs()
+                            + "ms before next reconnect attempt (backoff doubles up to " + reconnectBackoff.getMaxBackoffMs()
+                            + "ms). modbusInfo: " + modbusInfo);
+                }
+            }
+            return;
+        }
+        metrics.recordTimeout();
+        rttTracker.recordTimeout(slaveId);
+        if (circuitBreaker.recordTimeout(slaveId)) {
+            log.warn("Slave " + slaveId + " timed out " + circuitBreaker.getFailureThreshold()
+                    + " times in a row, circuit opened, probing every " + circuitBreaker.getProbeIntervalMs()
+                    + "ms. modbusInfo: " + modbusInfo);
+        }
+    }
+
+    /**
+     * 连接被拒绝、连接超时、主机不可达等建立连接阶段的失败（短连接每次发送、长连接池打开连接时）
+     */
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ModbusInitException || cause instanceof ConnectException
+                    || cause instanceof SocketTimeoutException || cause instanceof NoRouteToHostException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof com.serotonin.modbus4j.sero.messaging.TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runNextRequest() {
+        Runnable task = requestQueue.poll();
+        if (task != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * 粗略获取排队中（尚未发送）的请求数量，仅用于监控
+     * @return 请求队列长度
+     */
+    public int getQueuedRequestCount() {
+        return requestQueue == null ? 0 : requestQueue.size();
     }
 
     public CompletableFuture<ReadCoilsResponse> readCoils(int startAddress, int numberOfBits) {
@@ -278,6 +1061,64 @@ public class ModbusSource {
         return readInputRegistersWithSlaveId(modbusInfo.getSlaveId(), startAddress, numberOfRegisters);
     }
 
+    /**
+     * 读取保持寄存器，缓存中所有寄存器都在时效内时直接返回缓存值，不访问总线
+     * @param startAddress 起始地址
+     * @param numberOfRegisters 寄存器数量
+     * @param maxAgeMs 可接受的最大时效（毫秒）
+     */
+    public CompletableFuture<ReadHoldingRegistersResponse> readHoldingRegisters(int startAddress, int numberOfRegisters, long maxAgeMs) {
+        return readHoldingRegistersWithSlaveId(modbusInfo.getSlaveId(), startAddress, numberOfRegisters, maxAgeMs);
+    }
+
+    /**
+     * 读取输入寄存器，缓存中所有寄存器都在时效内时直接返回缓存值，不访问总线
+     * @param startAddress 起始地址
+     * @param numberOfRegisters 寄存器数量
+     * @param maxAgeMs 可接受的最大时效（毫秒）
+     */
+    public CompletableFuture<ReadInputRegistersResponse> readInputRegisters(int startAddress, int numberOfRegisters, long maxAgeMs) {
+        return readInputRegistersWithSlaveId(modbusInfo.getSlaveId(), startAddress, numberOfRegisters, maxAgeMs);
+    }
+
+    /**
+     * 读取保持寄存器到调用方数组，异步 TCP 下不创建 modbus4j 请求/响应对象，适合高频轮询
+     * @param startAddress 起始地址
+     * @param numberOfRegisters 寄存器数量
+     * @param dest 目标数组，future 完成前不应读取或复用该区间
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @return 寄存器数量；异常响应时为异常码的相反数；失败时为 null
+     */
+    public CompletableFuture<Integer> readHoldingRegisters(int startAddress, int numberOfRegisters, short[] dest, int destOffset) {
+        return readRegistersWithSlaveId(modbusInfo.getSlaveId(), ModbusReadPlanner.RegisterType.HOLDING, startAddress,
+                numberOfRegisters, dest, destOffset);
+    }
+
+    /**
+     * 读取输入寄存器到调用方数组，异步 TCP 下不创建 modbus4j 请求/响应对象，适合高频轮询
+     * @see #readHoldingRegisters(int, int, short[], int)
+     */
+    public CompletableFuture<Integer> readInputRegisters(int startAddress, int numberOfRegisters, short[] dest, int destOffset) {
+        return readRegistersWithSlaveId(modbusInfo.getSlaveId(), ModbusReadPlanner.RegisterType.INPUT, startAddress,
+                numberOfRegisters, dest, destOffset);
+    }
+
+    /**
+     * 写入保持寄存器后回读（FC23），写入后确认状态时只占用一次总线事务；从站不支持时退回 FC16 + FC03
+     * @param writeStart 写入起始地址
+     * @param values 写入值
+     * @param readStart 回读起始地址
+     * @param readCount 回读数量
+     * @param dest 回读结果的目标数组，future 完成前不应读取或复用该区间
+     * @param destOffset 第一个寄存器在 dest 中的下标
+     * @return 回读的寄存器数量；异常响应时为异常码的相反数；失败时为 null
+     */
+    public CompletableFuture<Integer> readWriteRegisters(int writeStart, short[] values, int readStart, int readCount,
+            short[] dest, int destOffset) {
+        return readWriteRegistersWithSlaveId(modbusInfo.getSlaveId(), writeStart, values, readStart, readCount, dest,
+                destOffset);
+    }
+
     public CompletableFuture<ReportSlaveIdResponse> reportSlaveId() {
         return reportSlaveIdWithSlaveId(modbusInfo.getSlaveId());
     }
@@ -302,11 +1143,52 @@ public class ModbusSource {
         return writeRegistersWithSlaveId(modbusInfo.getSlaveId(), startAddress, values);
     }
 
-    public void registerIntegration(String identity) {
+    /**
+     * 广播写单个寄存器（FC06，从站 0），连接上所有从站执行，不等待应答
+     * @param address 寄存器地址
+     * @param value 写入值
+     * @return 已发送（串口上已等待转换延时）为 true，发送失败为 false
+     */
+    public CompletableFuture<Boolean> broadcastWriteRegister(int address, int value) {
+        return broadcast(address, 1, ModbusReadPlanner.RegisterType.HOLDING, () -> new WriteRegisterRequest(0, address, value),
+                () -> "Error broadcasting register. (address: " + address + ", value: " + value + ")");
+    }
+
+    /**
+     * 广播写多个寄存器（FC16，从站 0），例如对时、统一使能，N 个设备只占用一次总线时间
+     * @see #broadcastWriteRegister(int, int)
+     */
+    public CompletableFuture<Boolean> broadcastWriteRegisters(int startAddress, short[] values) {
+        short[] written = values.clone(); // 调用方可能在发送前修改数组
+        return broadcast(startAddress, values.length, ModbusReadPlanner.RegisterType.HOLDING,
+                () -> new WriteRegistersRequest(0, startAddress, written),
+                () -> "Error broadcasting registers. (startAddress: " + startAddress + ", values: " + Arrays.toString(written) + ")");
+    }
+
+    /**
+     * 广播写单个线圈（FC05，从站 0）
+     * @see #broadcastWriteRegister(int, int)
+     */
+    public CompletableFuture<Boolean> broadcastWriteCoil(int address, boolean value) {
+        return broadcast(address, 1, null, () -> new WriteCoilRequest(0, address, value),
+                () -> "Error broadcasting coil. (address: " + address + ", value: " + value + ")");
+    }
+
+    /**
+     * 广播写多个线圈（FC15，从站 0）
+     * @see #broadcastWriteRegister(int, int)
+     */
+    public CompletableFuture<Boolean> broadcastWriteCoils(int startAddress, boolean[] values) {
+        boolean[] written = values.clone();
+        return broadcast(startAddress, values.length, null, () -> new WriteCoilsRequest(0, startAddress, written),
+                () -> "Error broadcasting coils. (startAddress: " + startAddress + ", values: " + Arrays.toString(written) + ")");
+    }
+
+    public synchronized void registerIntegration(String identity) {
         registeredIntegrations.add(identity);
     }
 
-    protected void removeIntegration(String identity) {
+    protected synchronized void removeIntegration(String identity) {
         registeredIntegrations.remove(identity);
     }
 
@@ -325,58 +1207,34 @@ public class ModbusSource {
      * @return 锁标识（成功获取/唤醒或进入等待），null表示超时或超出等待队列容量
      */
     public String acquire(long timeout, TimeUnit unit) {
-        String requestKey = generateRequestKey(); // 生成唯一请求标识
-        lock.lock();
-        try {
-            if (currentKey == null) {
-                // 直接获取锁
-                currentKey = requestKey;
-                log.info( "Lock acquired: " + requestKey);
-                return requestKey;
-            } else {
-                // 检查等待队列是否未满
-                if (waitQueue.size() < maxWaiters) {
-                    waitQueue.add(requestKey);
-                    log.info( "Enter wait queue: " + requestKey + ", queue size: " + waitQueue.size());
-                    boolean isAwoken = false;
-                    try {
-                        // 等待唤醒或超时
-                        isAwoken = condition.await(timeout, unit);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt(); // 恢复中断状态
-                        log.error( "Wait interrupted: " + requestKey + ", modbusInfo: " + modbusInfo.toString(), e);
-                        waitQueue.remove(requestKey); // 从队列移除
-                        return null;
-                    }
+        long token = acquireToken(timeout, unit);
+        return token == ModbusTicketLock.NO_TOKEN ? null : Long.toString(token);
+    }
 
-                    if (isAwoken) {
-                        // 被唤醒后检查是否轮到自己
-                        if (waitQueue.peek() != null && waitQueue.peek().equals(requestKey)) {
-                            currentKey = requestKey;
-                            waitQueue.poll();
-                            log.info( "Lock acquired after waiting: " + requestKey);
-                            return requestKey;
-                        } else {
-                            log.info( "Wait queue changed, skip acquisition: " + requestKey);
-                            return null;
-                        }
-                    } else {
-                        // 超时处理
-                        waitQueue.remove(requestKey); // 从队列移除超时请求
-                        // if (requestKey.equals(currentKey)) {
-                        //     currentKey = null;
-                        // }
-                        log.error( "Acquire timeout: " + requestKey + ", modbusInfo: " + modbusInfo.toString());
-                        return null;
-                    }
-                } else {
-                    log.warn( "Max waiters exceeded, request rejected: " + requestKey);
-                    return null; // 超出最大等待数，直接返回不可用
-                }
+    /**
+     * 异步获取锁，排队期间不占用调用线程
+     * @return 以锁标识完成的 future，null 表示超时或超出等待队列容量
+     */
+    public CompletableFuture<String> acquireAsync() {
+        return acquireAsync(waitTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 异步获取锁，排队期间不占用调用线程
+     * <p>future 由释放锁的线程完成，后续阶段中不应执行阻塞操作
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @return 以锁标识完成的 future，null 表示超时或超出等待队列容量
+     */
+    public CompletableFuture<String> acquireAsync(long timeout, TimeUnit unit) {
+        return ticketLock.acquireAsync(timeout, unit).thenApply(token -> {
+            if (token == ModbusTicketLock.NO_TOKEN) {
+                metrics.recordRejectedAcquire();
+                log.warn("Acquire timeout or max waiters " + maxWaiters + " exceeded, modbusInfo: " + modbusInfo);
+                return null;
             }
-        } finally {
-            lock.unlock();
-        }
+            return Long.toString(token);
+        });
     }
 
     /**
@@ -385,36 +1243,51 @@ public class ModbusSource {
      * @return 释放是否成功
      */
     public boolean release(String releaseKey) {
-        lock.lock();
+        long token;
         try {
-            if (currentKey != null && currentKey.equals(releaseKey)) {
-                currentKey = null;
-                log.info( "Lock released: " + releaseKey);
-                // 唤醒下一个等待的请求
-                if (!waitQueue.isEmpty()) {
-                    condition.signal(); // 唤醒等待队列中的第一个线程
-                }
-                return true;
-            }
-            log.warn( "Invalid release key: " + releaseKey);
-            return false;
-        } finally {
-            lock.unlock();
+            token = releaseKey == null ? ModbusTicketLock.NO_TOKEN : Long.parseLong(releaseKey);
+        } catch (NumberFormatException e) {
+            token = ModbusTicketLock.NO_TOKEN;
         }
+        return releaseToken(token);
     }
 
-    private String generateRequestKey() {
-        // 生成唯一请求标识（示例：时间戳+线程ID）
-        return System.currentTimeMillis() + "-" + Thread.currentThread().getId();
+    /**
+     * 获取锁（无分配版本），按到达顺序 FIFO 放行
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @return 令牌，{@link ModbusTicketLock#NO_TOKEN} 表示超时、被中断或超出等待队列容量
+     */
+    public long acquireToken(long timeout, TimeUnit unit) {
+        long token = ticketLock.acquire(timeout, unit);
+        if (token == ModbusTicketLock.NO_TOKEN) {
+            metrics.recordRejectedAcquire();
+            log.warn("Acquire timeout or max waiters " + maxWaiters + " exceeded, modbusInfo: " + modbusInfo);
+        }
+        return token;
+    }
+
+    /**
+     * 释放锁（无分配版本）
+     * @param token acquireToken 返回的令牌
+     * @return 释放是否成功
+     */
+    public boolean releaseToken(long token) {
+        if (ticketLock.release(token)) {
+            return true;
+        }
+        log.warn("Invalid release token: " + token);
+        return false;
     }
 
     private void openModbus() {
         try {
             this.modbusMaster = ModbusMasterFactory.createModbusMaster(modbusInfo);
-            modbusMaster.init();
         } catch (ModbusInitException e) {
             log.error( "Failed to initialize Modbus master. modbusInfo: " + modbusInfo.toString(), e);
+            return;
         }
+        initMaster(modbusMaster, () -> "Failed to initialize Modbus master. modbusInfo: " + modbusInfo.toString());
     }
 
     /**
@@ -429,7 +1302,7 @@ public class ModbusSource {
         throw new UnsupportedOperationException("Subclasses must implement closeModbus()");
     }
 
-    public void closeModbus(String identity) {
+    public synchronized void closeModbus(String identity) {
         // Check if identity exists in registered integrations
         if (!registeredIntegrations.contains(identity)) {
             throw new IllegalArgumentException("Identity not found: " + identity);
@@ -453,6 +1326,7 @@ public class ModbusSource {
      * TCP/RTU 传输资源差异由 {@link ModbusMasterFactory#destroyMaster(ModbusMaster)} 统一处理。
      */
     protected void destroyResources() {
+        destroyed = true;
         ModbusMasterFactory.destroyMaster(modbusMaster);
         if (executor != null) {
             executor.shutdown();
@@ -463,13 +1337,31 @@ public class ModbusSource {
         return modbusMaster != null && modbusMaster.isInitialized();
     }
 
+    /**
+     * master 是否正在后台初始化。此时 {@link #isModbusOpen()} 为 false，但 source 可用，提交的请求在初始化完成后发送
+     *
+     * @return 正在初始化为 true
+     */
+    public boolean isOpening() {
+        return !opening.isDone();
+    }
+
+    /**
+     * 等待 master 初始化完成（例如启动后统计无法打开的连接），已完成时返回已完成的 future
+     *
+     * @return 初始化完成后以 {@link #isModbusOpen()} 完成
+     */
+    public CompletableFuture<Boolean> whenOpen() {
+        return opening.thenApply(ignored -> isModbusOpen());
+    }
+
     /**
      * 粗略获取当前等待队列的大小
      * 适合监控队列长度场景使用，不能作为抢占锁精准计数
      * @return
      */
     public int getWaitingCount() {
-        return waitQueue.size();
+        return ticketLock.getWaitingCount();
     }
 
 
@@ -0,0 +1,12 @@
+package com.ecat.integration.ModbusIntegration;
+
+/**
+ * Modbus TCP 连接模式枚举
+ *
+ * @author coffee
+ */
+public enum ModbusTcpConnectionMode {
+    SHORT,      // 短连接：每个事务建立并关闭一次 TCP 连接
+    KEEP_ALIVE, // 长连接：连接建立后复用，断开后在下一次请求时自动重连
+    NIO         // 非阻塞长连接：所有连接共用少量 I/O 线程，适合大量 TCP 设备；RTU over TCP 按 KEEP_ALIVE 处理
+}
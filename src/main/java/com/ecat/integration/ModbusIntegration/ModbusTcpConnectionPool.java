@@ -0,0 +1,182 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.ecat.core.Utils.Log;
+import com.ecat.core.Utils.LogFactory;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import lombok.Getter;
+
+/**
+ * 同一 ip:port 的 Modbus TCP 长连接池
+ *
+ * <p>池中每个连接是一个保持连接（keepAlive）的 modbus4j TcpMaster，事务之间不再重复 TCP 握手：
+ * <ul>
+ *   <li>连接在首次使用时建立，设备离线时 init 不会失败，请求以 ModbusTransportException 失败</li>
+ *   <li>发生非超时的传输错误（连接被重置、网关关闭空闲连接等）时丢弃该连接，下一次使用时重新建立</li>
+ *   <li>从站应答超时不代表连接断开，连接保留</li>
+ *   <li>poolSize 大于 1 时多个事务可在不同连接上并行，适用于允许多个会话的网关</li>
+ *   <li>modbus4j 长连接的应答超时在建立连接时确定，池中的连接始终使用配置的 timeout，不跟随 ModbusSource 的按从站自适应超时</li>
+ * </ul>
+ *
+ * <p>并发数由 ModbusSource 的锁控制（许可数为 poolSize），这里等待空闲连接只作为兜底。
+ *
+ * @author coffee
+ */
+public class ModbusTcpConnectionPool extends ModbusMaster {
+
+    private final Log log = LogFactory.getLogger(getClass());
+
+    @Getter
+    private final String host;
+    @Getter
+    private final int port;
+    @Getter
+    private final int poolSize;
+    private final Supplier<ModbusMaster> connectionFactory;
+    private final List<Connection> connections;
+    private final BlockingQueue<Connection> idle;
+    private volatile boolean destroyed;
+
+    /**
+     * 连接槽位，master 为 null 表示尚未建立或已断开
+     */
+    private static final class Connection {
+        private volatile ModbusMaster master; // 只在借出期间修改
+    }
+
+    /**
+     * @param host 网关地址
+     * @param port 网关端口
+     * @param poolSize 连接数
+     * @param connectionFactory 创建保持连接的 master（未初始化）
+     */
+    public ModbusTcpConnectionPool(String host, int port, int poolSize, Supplier<ModbusMaster> connectionFactory) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("poolSize must be at least 1: " + poolSize);
+        }
+        this.host = host;
+        this.port = port;
+        this.poolSize = poolSize;
+        this.connectionFactory = connectionFactory;
+        this.connections = new ArrayList<>(poolSize);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            Connection connection = new Connection();
+            connections.add(connection);
+            idle.add(connection);
+        }
+    }
+
+    @Override
+    public void init() throws ModbusInitException {
+        // 连接在首次使用时建立
+        destroyed = false;
+        initialized = true;
+    }
+
+    @Override
+    public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+        if (destroyed) {
+            throw new ModbusTransportException("Connection pool has been destroyed", request.getSlaveId());
+        }
+        Connection connection;
+        try {
+            connection = idle.poll(getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModbusTransportException(e, request.getSlaveId());
+        }
+        if (connection == null) {
+            throw new ModbusTransportException("No idle connection to " + host + ":" + port, request.getSlaveId());
+        }
+        try {
+            ModbusMaster master = open(connection, request.getSlaveId());
+            try {
+                return master.send(request);
+            } catch (ModbusTransportException e) {
+                if (!(e.getCause() instanceof TimeoutException)) {
+                    log.warn("Connection to " + host + ":" + port + " dropped, will reconnect on next request: " + e.getMessage());
+                    close(connection);
+                }
+                throw e;
+            }
+        } finally {
+            if (destroyed) {
+                close(connection);
+            }
+            idle.offer(connection);
+        }
+    }
+
+    private ModbusMaster open(Connection connection, int slaveId) throws ModbusTransportException {
+        if (connection.master != null && connection.master.isInitialized()) {
+            return connection.master;
+        }
+        ModbusMaster master = connectionFactory.get();
+        master.setTimeout(getTimeout());
+        try {
+            master.init();
+        } catch (ModbusInitException e) {
+            master.destroy();
+            throw new ModbusTransportException(e, slaveId);
+        }
+        connection.master = master;
+        log.debug("Connection to " + host + ":" + port + " established");
+        return master;
+    }
+
+    private static void close(Connection connection) {
+        ModbusMaster master = connection.master;
+        connection.master = null;
+        if (master != null) {
+            master.destroy();
+        }
+    }
+
+    /**
+     * 关闭所有空闲连接，借出中的连接在归还时关闭
+     */
+    @Override
+    public void destroy() {
+        destroyed = true;
+        initialized = false;
+        List<Connection> drained = new ArrayList<>(poolSize);
+        idle.drainTo(drained);
+        for (Connection connection : drained) {
+            close(connection);
+        }
+        idle.addAll(drained);
+    }
+
+    /**
+     * 当前已建立的连接数，仅用于监控
+     */
+    public int getOpenConnectionCount() {
+        int count = 0;
+        for (Connection connection : connections) {
+            if (connection.master != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 当前空闲（未借出）的连接数，仅用于监控
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
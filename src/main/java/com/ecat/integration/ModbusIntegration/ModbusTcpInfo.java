@@ -3,7 +3,8 @@ package com.ecat.integration.ModbusIntegration;
 /**
  * Represents the information required to connect to a Modbus TCP device.
  * This includes the IP address, port number, slave ID, protocol type(Modbus TCP or RTU over TCP),
- * and transaction timeout.
+ * transaction timeout, the number of pipelined requests allowed in flight, the connection mode
+ * (short-lived or keep-alive) and the size of the keep-alive connection pool.
  *
  * @author coffee
  */
@@ -11,6 +12,9 @@ public class ModbusTcpInfo extends ModbusInfo {
     private final String ipAddress;  // IP地址
     private final Integer port;      // 端口号
     private final Integer timeout;   // Modbus 事务超时时间（毫秒）
+    private final Integer maxInFlight; // 同时在途的最大请求数（仅 Modbus TCP 帧格式有效）
+    private final ModbusTcpConnectionMode connectionMode; // 连接模式：短连接或长连接
+    private final Integer poolSize; // 长连接模式下同一 ip:port 的连接数
 
     /**
      * 构造函数，默认使用 Modbus over TCP 帧格式，timeout 使用默认值
@@ -46,10 +50,52 @@ public class ModbusTcpInfo extends ModbusInfo {
      * @see ModbusProtocol
      */
     public ModbusTcpInfo(String ipAddress, Integer port, Integer slaveId, ModbusProtocol frameFormat, Integer timeout) {
+        this(ipAddress, port, slaveId, frameFormat, timeout, Const.DEFAULT_TCP_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * 构造函数，允许指定帧格式、事务超时时间和流水线深度
+     * @param ipAddress IP地址
+     * @param port 端口号
+     * @param slaveId 从站ID
+     * @param frameFormat 帧格式, ModbusProtocol.TCP 或 ModbusProtocol.RTU_OVER_TCP
+     * @param timeout Modbus 事务超时时间（毫秒），对应 ModbusTcpCommConfigSchema 中的 timeout 字段
+     * @param maxInFlight 同时在途的最大请求数，大于 1 时启用流水线（按 MBAP 事务 ID 匹配响应），
+     *                    对应 ModbusTcpCommConfigSchema 中的 max_in_flight 字段；RTU over TCP 没有事务 ID，始终按 1 处理
+     *
+     * @see ModbusProtocol
+     * @see ModbusPipelinedTcpMaster
+     */
+    public ModbusTcpInfo(String ipAddress, Integer port, Integer slaveId, ModbusProtocol frameFormat, Integer timeout, Integer maxInFlight) {
+        this(ipAddress, port, slaveId, frameFormat, timeout, maxInFlight,
+                Const.DEFAULT_TCP_CONNECTION_MODE, Const.DEFAULT_TCP_POOL_SIZE);
+    }
+
+    /**
+     * 构造函数，允许指定全部连接参数
+     * @param ipAddress IP地址
+     * @param port 端口号
+     * @param slaveId 从站ID
+     * @param frameFormat 帧格式, ModbusProtocol.TCP 或 ModbusProtocol.RTU_OVER_TCP
+     * @param timeout Modbus 事务超时时间（毫秒），对应 ModbusTcpCommConfigSchema 中的 timeout 字段
+     * @param maxInFlight 同时在途的最大请求数，对应 ModbusTcpCommConfigSchema 中的 max_in_flight 字段
+     * @param connectionMode 连接模式，对应 ModbusTcpCommConfigSchema 中的 connection_mode 字段
+     * @param poolSize 长连接模式下同一 ip:port 的连接数，大于 1 时多个事务可在不同连接上并行，
+     *                 对应 ModbusTcpCommConfigSchema 中的 pool_size 字段；流水线模式下忽略
+     *
+     * @see ModbusProtocol
+     * @see ModbusTcpConnectionMode
+     * @see ModbusTcpConnectionPool
+     */
+    public ModbusTcpInfo(String ipAddress, Integer port, Integer slaveId, ModbusProtocol frameFormat, Integer timeout, Integer maxInFlight,
+            ModbusTcpConnectionMode connectionMode, Integer poolSize) {
         super(slaveId, frameFormat);
         this.ipAddress = ipAddress;
         this.port = port;
         this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.connectionMode = connectionMode;
+        this.poolSize = poolSize;
     }
 
     @Override
@@ -60,6 +106,9 @@ public class ModbusTcpInfo extends ModbusInfo {
                 ", slaveId=" + getSlaveId() +
                 ", protocol=" + getProtocol() +
                 ", timeout=" + timeout +
+                ", maxInFlight=" + maxInFlight +
+                ", connectionMode=" + connectionMode +
+                ", poolSize=" + poolSize +
                 '}';
     }
 
@@ -78,4 +127,77 @@ public class ModbusTcpInfo extends ModbusInfo {
     public Integer getTimeout() {
         return timeout;
     }
+
+    /**
+     * 获取同时在途的最大请求数
+     * @return 配置的流水线深度
+     */
+    public Integer getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * 是否启用流水线：仅 Modbus TCP（MBAP 帧）且 maxInFlight 大于 1 时启用
+     * @return true 表示使用 {@link ModbusPipelinedTcpMaster}（NIO 模式下由 {@link ModbusNioTcpMaster} 流水线发送）
+     */
+    public boolean isPipelined() {
+        return getProtocol() == ModbusProtocol.TCP && maxInFlight != null && maxInFlight > 1;
+    }
+
+    /**
+     * 获取连接模式
+     * @return 短连接或长连接
+     */
+    public ModbusTcpConnectionMode getConnectionMode() {
+        return connectionMode;
+    }
+
+    /**
+     * 获取长连接模式下的连接数
+     * @return 配置的连接池大小
+     */
+    public Integer getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 是否使用长连接（流水线模式和 NIO 模式本身即为长连接）
+     * @return true 表示连接在事务之间保持
+     */
+    public boolean isKeepAlive() {
+        return connectionMode == ModbusTcpConnectionMode.KEEP_ALIVE || connectionMode == ModbusTcpConnectionMode.NIO;
+    }
+
+    /**
+     * 是否使用非阻塞 NIO 传输：仅 Modbus TCP（MBAP 帧）且连接模式为 NIO 时启用
+     * @return true 表示使用 {@link ModbusNioTcpMaster}
+     */
+    public boolean isNio() {
+        return getProtocol() == ModbusProtocol.TCP && connectionMode == ModbusTcpConnectionMode.NIO;
+    }
+
+    /**
+     * 请求是否异步发送（流水线或 NIO），不占用 executor 线程等待响应
+     * @return true 表示 master 为 {@link ModbusAsyncTcpMaster}
+     */
+    public boolean isAsync() {
+        return isPipelined() || isNio();
+    }
+
+    /**
+     * 同一 ip:port 上可同时进行的事务数
+     * @return 流水线模式（含 NIO 且 maxInFlight 大于 1）为 maxInFlight，长连接池为 poolSize，其余为 1
+     */
+    public int getConcurrency() {
+        if (isPipelined()) {
+            return maxInFlight;
+        }
+        if (isNio()) {
+            return 1;
+        }
+        if (isKeepAlive() && poolSize != null && poolSize > 1) {
+            return poolSize;
+        }
+        return 1;
+    }
 }
@@ -0,0 +1,344 @@
+package com.ecat.integration.ModbusIntegration;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import lombok.Getter;
+
+/**
+ * 无锁 FIFO 票据锁
+ *
+ * <p>替代原来的 ReentrantLock + Condition + LinkedList&lt;String&gt; 等待队列：
+ * <ul>
+ *   <li>每个请求领取一个递增的票据（ticket），票据号小于 serving 的请求获得许可，严格按领取顺序放行</li>
+ *   <li>同时持有许可的数量不超过 permits（流水线 TCP 可大于 1），排队数量不超过 maxWaiters</li>
+ *   <li>释放时直接唤醒下一个票据对应的线程，不再共用一个 Condition，也就不会出现被唤醒后发现"不是自己"而放弃的情况</li>
+ *   <li>等待者状态保存在预分配的环形数组中，获取/释放过程不分配对象，超时基于 {@link System#nanoTime()}</li>
+ * </ul>
+ *
+ * <p>槽位状态编码为 {@code ticket << 2 | status}，等待者与释放者通过 CAS 竞争同一个槽位：
+ * 释放者把 WAITING 改为 GRANTED 即完成交接，等待者超时时把 WAITING 改为 CANCELLED 即放弃，
+ * 两者只有一个能成功。被放弃的票据在下一次释放时被跳过。
+ *
+ * <p>放弃的票据位于队尾时（之后没有再发出票据）立即收回：等待者把 CANCELLED 改为 RECLAIMING 后回退 nextTicket，
+ * 连同前面连续放弃的票据一起收回，收回的票据号由后续请求重新领取。因此持有者长时间不释放时，
+ * 超时的请求不会一直占用 maxWaiters 名额；只有排在仍在等待的请求之前的已放弃票据，才在下一次释放时被跳过之前计入排队数量。
+ * 释放者跳过已放弃的票据前同样通过 CAS（CANCELLED 改为 GRANTED）占有该票据，与收回互斥。
+ *
+ * <p>令牌（token）为 ticket + 1，0 表示获取失败。
+ *
+ * <p>{@link #acquireAsync(long, TimeUnit)} 与同步等待者共用同一个队列：槽位中保存的等待者可以是线程，
+ * 也可以是 CompletableFuture，轮到它时由释放者直接完成该 future，排队期间不占用任何线程。
+ *
+ * @author coffee
+ */
+public class ModbusTicketLock {
+
+    /**
+     * 获取失败时返回的令牌
+     */
+    public static final long NO_TOKEN = 0L;
+
+    private static final long WAITING = 0L;
+    private static final long GRANTED = 1L;
+    private static final long CANCELLED = 2L;
+    private static final long RECLAIMING = 3L; // 队尾的已放弃票据正在收回，释放者等待收回完成或失败
+    private static final long STALE = pack(-1L, CANCELLED); // 不对应任何票据的槽位值
+
+    private static volatile ScheduledThreadPoolExecutor timeoutTimer; // 异步等待者的超时定时器，首次使用时创建
+
+    @Getter
+    private final int permits;
+    @Getter
+    private final int maxWaiters;
+
+    private final AtomicLong nextTicket = new AtomicLong();
+    private final AtomicLong serving; // 票据号小于 serving 的请求已获得许可
+    private final int mask;
+    private final AtomicLongArray slots; // 等待者状态：ticket << 2 | status
+    private final Object[] waiters; // 等待者（Thread 或 CompletableFuture），写入后通过 slots 的 CAS 发布
+    private final AtomicLongArray holders; // 当前持有者的令牌，0 表示空闲
+
+    /**
+     * @param permits 同时持有许可的最大数量，至少为 1
+     * @param maxWaiters 最大排队数量
+     */
+    public ModbusTicketLock(int permits, int maxWaiters) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be at least 1: " + permits);
+        }
+        if (maxWaiters < 0) {
+            throw new IllegalArgumentException("maxWaiters must not be negative: " + maxWaiters);
+        }
+        this.permits = permits;
+        this.maxWaiters = maxWaiters;
+        this.serving = new AtomicLong(permits);
+        int size = Integer.highestOneBit(Math.max(maxWaiters + permits, 2) * 2 - 1);
+        this.mask = size - 1;
+        this.slots = new AtomicLongArray(size);
+        this.waiters = new Object[size];
+        for (int i = 0; i < size; i++) {
+            slots.set(i, STALE); // 初始值视为已失效的旧票据
+        }
+        this.holders = new AtomicLongArray(permits);
+    }
+
+    private static long pack(long ticket, long status) {
+        return (ticket << 2) | status;
+    }
+
+    /**
+     * 获取许可
+     *
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 令牌，{@link #NO_TOKEN} 表示排队已满、超时或被中断
+     */
+    public long acquire(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        long ticket = takeTicket();
+        if (ticket < 0L) {
+            return NO_TOKEN; // 排队已满
+        }
+        if (ticket >= serving.get() && !awaitTurn(ticket, deadline)) {
+            return NO_TOKEN;
+        }
+        return claimHolder(ticket);
+    }
+
+    /**
+     * 异步获取许可，排队期间不阻塞调用线程
+     *
+     * <p>返回的 future 由释放许可的线程（或超时定时器）完成，后续阶段若未指定执行器也会在该线程上执行，不应在其中做阻塞操作。
+     *
+     * @param timeout 最长等待时间
+     * @param unit 时间单位
+     * @return 以令牌完成的 future，{@link #NO_TOKEN} 表示排队已满或超时
+     */
+    public CompletableFuture<Long> acquireAsync(long timeout, TimeUnit unit) {
+        long ticket = takeTicket();
+        if (ticket < 0L) {
+            return CompletableFuture.completedFuture(NO_TOKEN);
+        }
+        if (ticket < serving.get()) {
+            return CompletableFuture.completedFuture(claimHolder(ticket));
+        }
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        int index = (int) (ticket & mask);
+        long waiting = pack(ticket, WAITING);
+        waiters[index] = future;
+        slots.set(index, waiting);
+        if (serving.get() > ticket) {
+            // 释放者在我们发布 WAITING 之前放行了本票据
+            if (slots.compareAndSet(index, waiting, pack(ticket, GRANTED))) {
+                future.complete(claimHolder(ticket));
+            }
+            return future; // CAS 失败说明释放者已完成交接
+        }
+        ScheduledFuture<?> timeoutTask = getTimeoutTimer().schedule(() -> {
+            if (cancel(index, waiting, ticket)) {
+                future.complete(NO_TOKEN);
+            }
+        }, unit.toNanos(timeout), TimeUnit.NANOSECONDS);
+        future.whenComplete((token, ex) -> timeoutTask.cancel(false));
+        return future;
+    }
+
+    /**
+     * 领取票据
+     *
+     * @return 票据号，-1 表示排队已满
+     */
+    private long takeTicket() {
+        for (;;) {
+            long next = nextTicket.get();
+            if (next - serving.get() >= maxWaiters) {
+                return -1L;
+            }
+            if (nextTicket.compareAndSet(next, next + 1)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * 已获得许可的票据登记为持有者
+     */
+    private long claimHolder(long ticket) {
+        long token = ticket + 1;
+        for (int i = 0; ; i = (i + 1) % permits) {
+            // 持有者数量不超过 permits，释放者先清空自己的位置再放行下一个，因此一定能找到空位
+            if (holders.get(i) == NO_TOKEN && holders.compareAndSet(i, NO_TOKEN, token)) {
+                return token;
+            }
+        }
+    }
+
+    /**
+     * 等待轮到自己
+     *
+     * @return true 表示已获得许可，false 表示超时或被中断（票据已标记为放弃）
+     */
+    private boolean awaitTurn(long ticket, long deadline) {
+        int index = (int) (ticket & mask);
+        long waiting = pack(ticket, WAITING);
+        waiters[index] = Thread.currentThread(); // 槽位复用时直接覆盖，不清空，避免与释放者读取竞争
+        // 环形数组容量大于排队上限，旧值一定是已完成（GRANTED/CANCELLED）的票据
+        slots.set(index, waiting);
+        for (;;) {
+            if (slots.get(index) != waiting) {
+                return true; // 释放者已交接
+            }
+            if (serving.get() > ticket) {
+                // 释放者在我们发布 WAITING 之前放行了本票据，自行完成交接
+                if (slots.compareAndSet(index, waiting, pack(ticket, GRANTED))) {
+                    return true;
+                }
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) {
+                return !cancel(index, waiting, ticket);
+            }
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt(); // 恢复中断状态
+                return !cancel(index, waiting, ticket);
+            }
+        }
+    }
+
+    /**
+     * 放弃等待中的票据；位于队尾时收回该票据及其前面连续放弃的票据
+     *
+     * @return false 表示释放者已交接，票据已获得许可
+     */
+    private boolean cancel(int index, long waiting, long ticket) {
+        if (!slots.compareAndSet(index, waiting, pack(ticket, CANCELLED))) {
+            return false;
+        }
+        for (long tail = ticket; reclaim(tail); tail--) {
+            // 继续收回前一个票据，直到遇到仍在等待、已获得许可或已被跳过的票据
+        }
+        return true;
+    }
+
+    /**
+     * 收回队尾已放弃的票据
+     *
+     * @return true 表示已收回，nextTicket 回退为 ticket
+     */
+    private boolean reclaim(long ticket) {
+        int index = (int) (ticket & mask);
+        long cancelled = pack(ticket, CANCELLED);
+        long reclaiming = pack(ticket, RECLAIMING);
+        if (ticket < 0L || nextTicket.get() != ticket + 1 || !slots.compareAndSet(index, cancelled, reclaiming)) {
+            return false; // 之后已发出新票据，或释放者已跳过该票据
+        }
+        if (!nextTicket.compareAndSet(ticket + 1, ticket)) {
+            slots.set(index, cancelled); // 期间发出了新票据，留给释放者跳过
+            return false;
+        }
+        // 票据号可能已被重新领取并发布 WAITING，只清除仍为 RECLAIMING 的槽位
+        slots.compareAndSet(index, reclaiming, STALE);
+        return true;
+    }
+
+    /**
+     * 释放许可并放行下一个未放弃的票据
+     *
+     * @param token acquire 返回的令牌
+     * @return false 表示令牌无效（未持有或已释放）
+     */
+    public boolean release(long token) {
+        if (token == NO_TOKEN || !clearHolder(token)) {
+            return false;
+        }
+        long ticket = serving.getAndIncrement();
+        for (;;) {
+            if (ticket >= nextTicket.get()) {
+                return true; // 该票据尚未发出，之后领取到它的请求直接获得许可
+            }
+            int index = (int) (ticket & mask);
+            long value = slots.get(index);
+            if (value == pack(ticket, WAITING)) {
+                Object waiter = waiters[index];
+                if (slots.compareAndSet(index, value, pack(ticket, GRANTED))) {
+                    handOver(waiter, ticket);
+                    return true;
+                }
+            } else if (value == pack(ticket, CANCELLED)) {
+                if (slots.compareAndSet(index, value, pack(ticket, GRANTED))) {
+                    ticket = serving.getAndIncrement(); // 跳过已放弃的票据
+                }
+            } else if (value == pack(ticket, RECLAIMING)) {
+                Thread.yield(); // 等待者正在收回该票据，收回后 nextTicket 回退到 ticket，该票据视为尚未发出
+            } else {
+                // 等待者尚未发布 WAITING，它发布后会发现 serving 已越过自己
+                return true;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handOver(Object waiter, long ticket) {
+        if (waiter instanceof Thread) {
+            LockSupport.unpark((Thread) waiter);
+        } else {
+            ((CompletableFuture<Long>) waiter).complete(claimHolder(ticket));
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor getTimeoutTimer() {
+        ScheduledThreadPoolExecutor timer = timeoutTimer;
+        if (timer == null) {
+            synchronized (ModbusTicketLock.class) {
+                timer = timeoutTimer;
+                if (timer == null) {
+                    timer = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread thread = new Thread(r, "modbus-lock-timeout");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    timer.setRemoveOnCancelPolicy(true);
+                    timeoutTimer = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    private boolean clearHolder(long token) {
+        for (int i = 0; i < permits; i++) {
+            if (holders.get(i) == token && holders.compareAndSet(i, token, NO_TOKEN)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 当前排队数量（含排在等待者之前、尚未被跳过的已放弃票据），仅用于监控
+     */
+    public int getWaitingCount() {
+        return (int) Math.max(0L, nextTicket.get() - serving.get());
+    }
+
+    /**
+     * 当前持有许可的数量，仅用于监控
+     */
+    public int getHolderCount() {
+        int count = 0;
+        for (int i = 0; i < permits; i++) {
+            if (holders.get(i) != NO_TOKEN) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -2,6 +2,7 @@ package com.ecat.integration.ModbusIntegration;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 import com.ecat.core.Utils.LogFactory;
 import com.ecat.core.Utils.Log;
@@ -47,7 +48,46 @@ public class ModbusTransactionStrategy {
     private static final Log log = LogFactory.getLogger(ModbusTransactionStrategy.class);
 
     public static CompletableFuture<Boolean> executeWithLambda(ModbusSource source, Function<ModbusSource, CompletableFuture<Boolean>> lambda) {
-        String key = source.acquire();
+        return executeWithKey(source, source.acquire(), lambda);
+    }
+
+    /**
+     * 异步版本：通过 {@link ModbusSource#acquireAsync()} 排队，等待锁期间不占用调用线程。
+     *
+     * <p>获得锁后 lambda 在释放上一个锁的线程上执行，因此 lambda 应只提交异步操作（如 ModbusSource 的读写方法），
+     * 不应在其中阻塞。
+     *
+     * @param source Modbus 源
+     * @param lambda 持有锁期间执行的操作
+     * @return 操作结果，获取锁失败时以 IllegalStateException 异常完成
+     */
+    public static CompletableFuture<Boolean> executeWithLambdaAsync(ModbusSource source, Function<ModbusSource, CompletableFuture<Boolean>> lambda) {
+        return source.acquireAsync().thenCompose(key -> executeWithKey(source, key, lambda));
+    }
+
+    /**
+     * 写入后校验：持有锁期间用 {@link ModbusSource#readWriteRegisters} 写入并回读，回读结果交给 verifier 判断。
+     *
+     * <p>从站支持 FC23 时写入和回读只占用一次总线事务，否则退回 FC16 + FC03，两次事务都在同一个锁内完成。
+     *
+     * @param source Modbus 源
+     * @param writeStart 写入起始地址
+     * @param values 写入值
+     * @param readStart 回读起始地址
+     * @param readCount 回读数量
+     * @param verifier 校验回读的寄存器值（长度为 readCount）
+     * @return 校验通过为 true；从站返回异常响应、发送失败或校验不通过为 false；获取锁失败时以 IllegalStateException 异常完成
+     */
+    public static CompletableFuture<Boolean> writeAndVerify(ModbusSource source, int writeStart, short[] values, int readStart,
+            int readCount, Predicate<short[]> verifier) {
+        return executeWithLambdaAsync(source, src -> {
+            short[] readBack = new short[readCount];
+            return src.readWriteRegisters(writeStart, values, readStart, readCount, readBack, 0)
+                    .thenApply(count -> count != null && count == readCount && verifier.test(readBack));
+        });
+    }
+
+    private static CompletableFuture<Boolean> executeWithKey(ModbusSource source, String key, Function<ModbusSource, CompletableFuture<Boolean>> lambda) {
         if (key!=null) {
 
             try {
@@ -76,4 +116,4 @@ public class ModbusTransactionStrategy {
             return failedFuture;
         }
     }
-}    
+}
@@ -176,6 +176,18 @@ public class ModbusScalableFloatDRAttributeTest {
         assertEquals(AttributeStatus.NORMAL, attr.getStatus());
     }
 
+    @Test
+    public void testUpdateValueFromRegisterBlock() {
+        // Test updating value from a register block at an offset, verifying the converter reads the block in place.
+        short[] registers = { 0, 0, 1, 2 };
+        when(mockConverter.shortsToInt(registers, 2)).thenReturn(250);
+        assertTrue(attr.updateValue(registers, 2));
+        assertEquals(Float.valueOf(250 / scaleFactor), attr.getValue());
+        assertTrue(attr.updateValue(registers, 2, AttributeStatus.NORMAL));
+        assertEquals(AttributeStatus.NORMAL, attr.getStatus());
+        verify(mockConverter, times(2)).shortsToInt(registers, 2);
+    }
+
 
     @Test
     public void testUpdateValueDirect() {
@@ -101,9 +101,10 @@ public class ModbusConfigSchemasTest {
         ModbusRtuCommConfigSchema schema = new ModbusRtuCommConfigSchema();
         ConfigSchema cs = schema.createSchema();
         assertNotNull(cs);
-        assertEquals(2, cs.getFields().size());
+        assertEquals(3, cs.getFields().size());
         assertEquals("serial_settings", cs.getFields().get(0).getKey());
         assertEquals("slave_id", cs.getFields().get(1).getKey());
+        assertEquals("rtu_framing", cs.getFields().get(2).getKey());
     }
 
     @Test
@@ -179,12 +180,15 @@ public class ModbusConfigSchemasTest {
         ModbusTcpCommConfigSchema schema = new ModbusTcpCommConfigSchema();
         ConfigSchema cs = schema.createSchema();
         assertNotNull(cs);
-        assertEquals(5, cs.getFields().size());
+        assertEquals(8, cs.getFields().size());
         assertEquals("tcp_protocol", cs.getFields().get(0).getKey());
         assertEquals("ip_address", cs.getFields().get(1).getKey());
         assertEquals("port", cs.getFields().get(2).getKey());
         assertEquals("slave_id", cs.getFields().get(3).getKey());
         assertEquals("timeout", cs.getFields().get(4).getKey());
+        assertEquals("max_in_flight", cs.getFields().get(5).getKey());
+        assertEquals("connection_mode", cs.getFields().get(6).getKey());
+        assertEquals("pool_size", cs.getFields().get(7).getKey());
     }
 
     @Test
@@ -269,4 +273,37 @@ public class ModbusConfigSchemasTest {
         Map<String, Object> errors = cs.validate(input);
         assertTrue("Validation errors: " + errors, errors.isEmpty());
     }
+
+    @Test
+    public void testTcpCommSchema_maxInFlightOutOfRange() {
+        ConfigSchema cs = new ModbusTcpCommConfigSchema().createSchema();
+        Map<String, Object> input = new HashMap<>();
+        input.put("tcp_protocol", "TCP");
+        input.put("ip_address", "192.168.1.100");
+        input.put("port", 502.0);
+        input.put("slave_id", 1.0);
+        input.put("max_in_flight", 64.0); // out of range 1-16
+        Map<String, Object> errors = cs.validate(input);
+        assertTrue("Should have max_in_flight error", errors.containsKey("max_in_flight"));
+    }
+
+    @Test
+    public void testTcpCommSchema_connectionModeAndPoolSize() {
+        ConfigSchema cs = new ModbusTcpCommConfigSchema().createSchema();
+        Map<String, Object> input = new HashMap<>();
+        input.put("tcp_protocol", "TCP");
+        input.put("ip_address", "192.168.1.100");
+        input.put("port", 502.0);
+        input.put("slave_id", 1.0);
+        input.put("connection_mode", "SHORT");
+        input.put("pool_size", 4.0);
+        Map<String, Object> errors = cs.validate(input);
+        assertTrue("Validation errors: " + errors, errors.isEmpty());
+
+        input.put("connection_mode", "UDP");
+        input.put("pool_size", 32.0); // out of range 1-8
+        errors = cs.validate(input);
+        assertTrue("Should have connection_mode error", errors.containsKey("connection_mode"));
+        assertTrue("Should have pool_size error", errors.containsKey("pool_size"));
+    }
 }
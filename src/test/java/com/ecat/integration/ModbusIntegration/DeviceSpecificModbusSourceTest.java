@@ -339,6 +339,28 @@ public class DeviceSpecificModbusSourceTest {
         verify(mockDelegate, times(2)).getWaitTimeoutMs(); // 一次在构造函数中，一次在测试中
     }
 
+    @Test
+    public void testAdaptiveTimeoutDelegation() {
+        when(mockDelegate.isAdaptiveTimeout()).thenReturn(false);
+
+        deviceSpecificSource.setAdaptiveTimeout(false);
+
+        assertFalse(deviceSpecificSource.isAdaptiveTimeout());
+        verify(mockDelegate).setAdaptiveTimeout(false);
+        verify(mockDelegate).isAdaptiveTimeout();
+    }
+
+    @Test
+    public void testBroadcastTurnaroundDelegation() {
+        when(mockDelegate.getBroadcastTurnaroundMs()).thenReturn(250);
+
+        deviceSpecificSource.setBroadcastTurnaroundMs(250);
+
+        assertEquals(250, deviceSpecificSource.getBroadcastTurnaroundMs());
+        verify(mockDelegate).setBroadcastTurnaroundMs(250);
+        verify(mockDelegate).getBroadcastTurnaroundMs();
+    }
+
     @Test
     public void testGetModbusInfo() {
         when(mockDelegate.getModbusInfo()).thenReturn(mockModbusInfo);
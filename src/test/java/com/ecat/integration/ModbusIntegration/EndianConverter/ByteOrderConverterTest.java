@@ -0,0 +1,121 @@
+package com.ecat.integration.ModbusIntegration.EndianConverter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.ecat.integration.ModbusIntegration.Tools;
+
+/**
+ * ByteOrderConverter 测试：按枚举名中的字母顺序校验每种字节顺序
+ *
+ * @author coffee
+ */
+public class ByteOrderConverterTest {
+
+    private static final int INT_VALUE = 0x01020304;           // 字节 A..D = 01..04
+    private static final long LONG_VALUE = 0x0102030405060708L; // 字节 A..H = 01..08
+
+    /**
+     * 按顺序名生成寄存器：第 i 个寄存器的两个字节为名称中第 2i、2i+1 个字母对应的字节
+     */
+    private static short[] registersOf(String name) {
+        short[] words = new short[name.length() / 2];
+        for (int i = 0; i < words.length; i++) {
+            int hi = name.charAt(2 * i) - 'A' + 1;
+            int lo = name.charAt(2 * i + 1) - 'A' + 1;
+            words[i] = (short) ((hi << 8) | lo);
+        }
+        return words;
+    }
+
+    /**
+     * 32 位四种顺序的解码和编码与名称一致
+     */
+    @Test
+    public void testByteOrder32MatchesName() {
+        for (ModbusByteOrder order : ModbusByteOrder.values()) {
+            ByteOrderConverter converter = AbstractEndianConverter.getConverter(order);
+            short[] expected = registersOf(order.name());
+            assertEquals(order.name(), INT_VALUE, converter.shortsToInt(expected, 0));
+            assertEquals(order.name(), INT_VALUE, converter.shortsToInt(expected[0], expected[1]));
+            assertArrayEquals(order.name(), expected, converter.intToShorts(INT_VALUE));
+
+            short[] words = new short[4];
+            converter.floatToShorts(-1.25f, words, 1);
+            assertEquals(-1.25f, converter.shortsToFloat(words, 1), 0f);
+            assertEquals(-1.25f, converter.shortsToFloat(words[1], words[2]), 0f);
+        }
+    }
+
+    /**
+     * 64 位八种顺序的解码和编码与名称一致
+     */
+    @Test
+    public void testByteOrder64MatchesName() {
+        for (ModbusByteOrder64 order64 : ModbusByteOrder64.values()) {
+            ByteOrderConverter converter = AbstractEndianConverter.getConverter(ModbusByteOrder.ABCD, order64);
+            short[] expected = registersOf(order64.name());
+            assertEquals(order64.name(), LONG_VALUE, converter.shortsToLong(expected, 0));
+
+            short[] words = new short[5];
+            converter.longToShorts(LONG_VALUE, words, 1);
+            assertArrayEquals(order64.name(), expected, new short[] { words[1], words[2], words[3], words[4] });
+
+            converter.doubleToShorts(Math.PI, words, 0);
+            assertEquals(Math.PI, converter.shortsToDouble(words, 0), 0d);
+        }
+    }
+
+    /**
+     * 与 Tools 中的大端、小端和字节交换方法结果一致
+     */
+    @Test
+    public void testMatchesTools() {
+        short first = (short) 0x4049;
+        short second = (short) 0x0FDB;
+        assertEquals(Tools.convertBigEndianToFloat(first, second),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.ABCD).shortsToFloat(first, second), 0f);
+        assertEquals(Tools.convertLittleEndianToFloat(first, second),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.CDAB).shortsToFloat(first, second), 0f);
+        assertEquals(Tools.convertBigEndianByteSwapToFloat(first, second),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.BADC).shortsToFloat(first, second), 0f);
+        assertEquals(Tools.convertLittleEndianByteSwapToFloat(first, second),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.DCBA).shortsToFloat(first, second), 0f);
+
+        short register = (short) 0x1234;
+        assertEquals(Tools.convertShortToIntBigEndian(register),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.CDAB).shortToInt(register));
+        assertEquals(Tools.convertShortToIntLittleEndian(register),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.DCBA).shortToInt(register));
+    }
+
+    /**
+     * 大端/小端转换器的 64 位方法分别对应 ABCDEFGH 和 GHEFCDAB
+     */
+    @Test
+    public void testBigAndLittle64MatchDefaultOrders() {
+        short[] words = new short[4];
+        AbstractEndianConverter.getBigEndianConverter().longToShorts(LONG_VALUE, words, 0);
+        assertArrayEquals(registersOf("ABCDEFGH"), words);
+        assertEquals(LONG_VALUE, AbstractEndianConverter.getBigEndianConverter().shortsToLong(words, 0));
+
+        AbstractEndianConverter.getLittleEndianConverter().longToShorts(LONG_VALUE, words, 0);
+        assertArrayEquals(registersOf("GHEFCDAB"), words);
+        assertEquals(LONG_VALUE, AbstractEndianConverter.getLittleEndianConverter().shortsToLong(words, 0));
+        assertEquals(LONG_VALUE, AbstractEndianConverter.getConverter(ModbusByteOrder.CDAB).shortsToLong(words, 0));
+    }
+
+    /**
+     * 同一顺序组合返回同一个缓存实例
+     */
+    @Test
+    public void testConvertersAreCached() {
+        assertSame(AbstractEndianConverter.getConverter(ModbusByteOrder.DCBA),
+                AbstractEndianConverter.getConverter(ModbusByteOrder.DCBA, ModbusByteOrder64.HGFEDCBA));
+        assertEquals(ModbusByteOrder64.CDABGHEF,
+                AbstractEndianConverter.getConverter(ModbusByteOrder.CDAB, ModbusByteOrder64.CDABGHEF).getOrder64());
+    }
+}
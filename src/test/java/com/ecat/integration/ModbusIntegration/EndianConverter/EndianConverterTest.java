@@ -0,0 +1,163 @@
+package com.ecat.integration.ModbusIntegration.EndianConverter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.ecat.integration.ModbusIntegration.Tools;
+
+/**
+ * 大端/小端转换器测试：与 Tools 结果一致，偏移版本在调用方数组上读写
+ *
+ * @author coffee
+ */
+public class EndianConverterTest {
+
+    private static final float[] FLOATS = { 0f, 1f, -2f, 3.14159f, Float.MAX_VALUE, Float.MIN_VALUE, Float.NaN };
+    private static final int[] INTS = { 0, 1, -1, 0x12345678, 0x8000FFFF, Integer.MAX_VALUE, Integer.MIN_VALUE };
+
+    private final BigEndianConverter big = AbstractEndianConverter.getBigEndianConverter();
+    private final LittleEndianConverter little = AbstractEndianConverter.getLittleEndianConverter();
+
+    /**
+     * 转换结果与 Tools 中对应方法一致
+     */
+    @Test
+    public void testMatchesTools() {
+        for (float value : FLOATS) {
+            short[] bigWords = Tools.convertFloatToBigEndianShorts(value);
+            short[] littleWords = Tools.convertFloatToLittleEndianShorts(value);
+            assertArrayEquals(bigWords, big.floatToShorts(value));
+            assertArrayEquals(littleWords, little.floatToShorts(value));
+            assertEquals(Tools.convertBigEndianToFloat(bigWords[0], bigWords[1]), big.shortsToFloat(bigWords[0], bigWords[1]), 0f);
+            assertEquals(Tools.convertLittleEndianToFloat(littleWords[0], littleWords[1]),
+                    little.shortsToFloat(littleWords[0], littleWords[1]), 0f);
+        }
+        for (int value : INTS) {
+            short[] bigWords = Tools.convertIntToBigEndianShorts(value);
+            short[] littleWords = Tools.convertIntToLittleEndianShorts(value);
+            assertArrayEquals(bigWords, big.intToShorts(value));
+            assertArrayEquals(littleWords, little.intToShorts(value));
+            assertEquals(Tools.convertBigEndianToInt(bigWords[0], bigWords[1]), big.shortsToInt(bigWords[0], bigWords[1]));
+            assertEquals(Tools.convertLittleEndianToInt(littleWords[0], littleWords[1]), little.shortsToInt(littleWords[0], littleWords[1]));
+        }
+    }
+
+    /**
+     * 偏移版本写入调用方数组的指定位置，不影响相邻寄存器，并能原样读回
+     */
+    @Test
+    public void testOffsetRoundTrip() {
+        for (EndianConverter converter : new EndianConverter[] { big, little }) {
+            short[] words = { 7, 7, 7, 7, 7 };
+            converter.intToShorts(0x12345678, words, 1);
+            assertEquals(7, words[0]);
+            assertEquals(7, words[3]);
+            assertArrayEquals(converter.intToShorts(0x12345678), new short[] { words[1], words[2] });
+            assertEquals(0x12345678, converter.shortsToInt(words, 1));
+
+            converter.floatToShorts(-123.5f, words, 2);
+            assertEquals(7, words[4]);
+            assertEquals(-123.5f, converter.shortsToFloat(words, 2), 0f);
+        }
+    }
+
+    /**
+     * 批量解码与逐个解码结果一致：连续存放、带间隔存放和偏移表三种方式
+     */
+    @Test
+    public void testBulkDecodeMatchesSingleDecode() {
+        for (EndianConverter converter : new EndianConverter[] { big, little }) {
+            short[] words = new short[1 + INTS.length * 3];
+            for (int i = 0; i < INTS.length; i++) {
+                converter.intToShorts(INTS[i], words, 1 + i * 3);
+                words[3 + i * 3] = (short) 0xFFFF; // 间隔寄存器
+            }
+
+            int[] ints = new int[INTS.length];
+            converter.shortsToInts(words, 1, 3, ints, INTS.length);
+            assertArrayEquals(INTS, ints);
+
+            long[] unsigned = new long[INTS.length];
+            converter.shortsToUnsignedInts(words, 1, 3, unsigned, INTS.length);
+            float[] floats = new float[INTS.length];
+            converter.shortsToFloats(words, 1, 3, floats, INTS.length);
+            float[] scaled = new float[INTS.length];
+            converter.shortsToScaledFloats(words, 1, 3, 100f, scaled, INTS.length);
+            for (int i = 0; i < INTS.length; i++) {
+                assertEquals(INTS[i] & 0xFFFFFFFFL, unsigned[i]);
+                assertEquals(Float.intBitsToFloat(INTS[i]), floats[i], 0f);
+                assertEquals(INTS[i] / 100f, scaled[i], 0f);
+            }
+
+            int[] offsets = { 1 + 3 * 3, 1, 1 + 5 * 3 };
+            int[] picked = new int[offsets.length];
+            converter.shortsToInts(words, offsets, picked);
+            assertArrayEquals(new int[] { INTS[3], INTS[0], INTS[5] }, picked);
+            long[] pickedUnsigned = new long[offsets.length];
+            converter.shortsToUnsignedInts(words, offsets, pickedUnsigned);
+            assertEquals(INTS[5] & 0xFFFFFFFFL, pickedUnsigned[2]);
+            float[] pickedFloats = new float[offsets.length];
+            converter.shortsToFloats(words, offsets, pickedFloats);
+            assertEquals(Float.intBitsToFloat(INTS[3]), pickedFloats[0], 0f);
+            float[] pickedScaled = new float[offsets.length];
+            converter.shortsToScaledFloats(words, offsets, 10f, pickedScaled);
+            assertEquals(INTS[0] / 10f, pickedScaled[1], 0f);
+        }
+    }
+
+    /**
+     * 未覆盖偏移方法的自定义转换器使用接口默认实现
+     */
+    @Test
+    public void testDefaultOffsetMethods() {
+        EndianConverter custom = new AbstractEndianConverter() {
+            @Override
+            public short[] floatToShorts(float value) {
+                return big.floatToShorts(value);
+            }
+
+            @Override
+            public float shortsToFloat(short word1, short word2) {
+                return big.shortsToFloat(word1, word2);
+            }
+
+            @Override
+            public short[] intToShorts(int value) {
+                return big.intToShorts(value);
+            }
+
+            @Override
+            public int shortsToInt(short word1, short word2) {
+                return big.shortsToInt(word1, word2);
+            }
+
+            @Override
+            public short intToShort(int value) {
+                return big.intToShort(value);
+            }
+
+            @Override
+            public int shortToInt(short value) {
+                return big.shortToInt(value);
+            }
+        };
+        short[] words = new short[3];
+        custom.floatToShorts(1.5f, words, 1);
+        assertEquals(1.5f, custom.shortsToFloat(words, 1), 0f);
+        custom.intToShorts(-42, words, 0);
+        assertEquals(-42, custom.shortsToInt(words, 0));
+
+        short[] block = new short[4];
+        big.intToShorts(-7, block, 0);
+        big.intToShorts(300, block, 2);
+        int[] ints = new int[2];
+        custom.shortsToInts(block, 0, 2, ints, 2);
+        assertArrayEquals(new int[] { -7, 300 }, ints);
+        float[] scaled = new float[2];
+        custom.shortsToScaledFloats(block, new int[] { 2, 0 }, 10f, scaled);
+        assertEquals(30f, scaled[0], 0f);
+        assertEquals(-0.7f, scaled[1], 0f);
+    }
+}
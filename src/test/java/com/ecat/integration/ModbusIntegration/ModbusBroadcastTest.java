@@ -0,0 +1,150 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.ecat.core.Utils.TestTools;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlave;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveBehavior;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveFarm;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+
+/**
+ * 广播写入（从站 0）测试用例
+ *
+ * @author coffee
+ */
+public class ModbusBroadcastTest {
+
+    private static final int SLAVES = 30;
+
+    private SimulatedSlaveFarm farm;
+    private SimulatedSlaveFarm.Endpoint endpoint;
+    private final List<ModbusSource> sources = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (ModbusSource source : sources) {
+            source.destroyResources();
+        }
+        if (farm != null) {
+            farm.close();
+        }
+    }
+
+    private void startFarm(ModbusProtocol protocol) throws Exception {
+        farm = new SimulatedSlaveFarm();
+        endpoint = farm.addEndpoint(protocol);
+        for (int slaveId = 1; slaveId <= SLAVES; slaveId++) {
+            endpoint.addSlave(slaveId, new SimulatedSlaveBehavior());
+        }
+    }
+
+    /**
+     * 异步 TCP master：一帧写入所有从站，写出即完成，不占用在途槽位、不计超时
+     */
+    @Test
+    public void testAsyncMasterBroadcast() throws Exception {
+        startFarm(ModbusProtocol.TCP);
+        ModbusSource source = new ModbusSource(new ModbusTcpInfo(endpoint.getHost(), endpoint.getPort(), 1,
+                ModbusProtocol.TCP, 500, 1, ModbusTcpConnectionMode.NIO, 1), 1, 1000);
+        sources.add(source);
+
+        assertTrue(source.broadcastWriteRegisters(200, new short[] { 7, 8 }).get(2, TimeUnit.SECONDS));
+        // 同一连接上的后续请求在广播之后处理
+        short[] dest = new short[2];
+        assertEquals(Integer.valueOf(2), source.readHoldingRegisters(200, 2, dest, 0).get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 7, 8 }, dest);
+        for (SimulatedSlave slave : endpoint.getSlaves()) {
+            assertEquals(8, slave.getHoldingRegister(201));
+        }
+        assertEquals(1L, source.getMetrics().getTransactionCount()); // 只有回读计入事务
+        assertEquals(0L, source.getMetrics().getTimeoutCount());
+        assertEquals(0, ((ModbusAsyncTcpMaster) TestTools.getPrivateField(source, "modbusMaster")).getInFlightCount());
+    }
+
+    /**
+     * 原生 RTU master：广播后等待转换延时才发送下一个请求，不记录 RTT、不影响熔断
+     */
+    @Test
+    public void testRtuBroadcastHoldsBusForTurnaround() throws Exception {
+        startFarm(ModbusProtocol.RTU_OVER_TCP);
+        try (Socket socket = new Socket(endpoint.getHost(), endpoint.getPort())) {
+            ModbusRtuMaster master = new ModbusRtuMaster(
+                    new ModbusRtuMasterTest.StreamPortWrapper(socket.getInputStream(), socket.getOutputStream()),
+                    new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY));
+            master.setTimeout(1000);
+            master.init();
+            ModbusSerialInfo serialInfo = mock(ModbusSerialInfo.class);
+            when(serialInfo.getSlaveId()).thenReturn(1);
+            ModbusSource source = new ModbusSource(serialInfo, 1, 1000, true, false);
+            sources.add(source);
+            TestTools.setPrivateField(source, "modbusMaster", master);
+            source.setBroadcastTurnaroundMs(80);
+
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> broadcast = source.broadcastWriteRegister(300, 42);
+            short[] dest = new short[1];
+            CompletableFuture<Integer> read = source.readHoldingRegisters(300, 1, dest, 0);
+            assertEquals(Integer.valueOf(1), read.get(2, TimeUnit.SECONDS));
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(broadcast.isDone() && broadcast.get());
+            assertTrue("Read sent before turnaround: " + elapsedMs + "ms", elapsedMs >= 80);
+            assertEquals(42, dest[0]);
+
+            for (SimulatedSlave slave : endpoint.getSlaves()) {
+                assertEquals(42, slave.getHoldingRegister(300));
+                assertEquals(slave.getSlaveId() == 1 ? 2 : 1, slave.getRequestCount());
+            }
+            assertEquals(1L, source.getMetrics().getTransactionCount());
+            assertEquals(ModbusCircuitState.CLOSED, source.getCircuitBreaker().getState(0));
+        }
+    }
+
+    /**
+     * modbus4j master 收到从站 0 的请求；TCP 不等待转换延时，发送失败返回 false；广播失效所有从站缓存中的对应区间
+     */
+    @Test
+    public void testModbus4jMasterBroadcast() throws Exception {
+        ModbusTcpInfo tcpInfo = mock(ModbusTcpInfo.class);
+        TestTools.setPrivateField(tcpInfo, "slaveId", 1);
+        ModbusSource source = new ModbusSource(tcpInfo, 2, 1000);
+        sources.add(source);
+        ModbusMaster master = mock(ModbusMaster.class);
+        TestTools.setPrivateField(source, "modbusMaster", master);
+        source.setBroadcastTurnaroundMs(10_000);
+        ModbusRegisterCache cache = source.getRegisterCache();
+        cache.put(1, ModbusReadPlanner.RegisterType.HOLDING, 10, new short[] { 1, 2, 3 });
+        cache.put(2, ModbusReadPlanner.RegisterType.HOLDING, 10, new short[] { 1, 2, 3 });
+        cache.put(2, ModbusReadPlanner.RegisterType.INPUT, 11, new short[] { 1 });
+
+        assertTrue(source.broadcastWriteCoil(5, true).get(2, TimeUnit.SECONDS));
+        assertTrue(source.broadcastWriteRegisters(11, new short[] { 9 }).get(2, TimeUnit.SECONDS));
+        ArgumentCaptor<ModbusRequest> requests = ArgumentCaptor.forClass(ModbusRequest.class);
+        verify(master, times(2)).send(requests.capture());
+        for (ModbusRequest request : requests.getAllValues()) {
+            assertEquals(0, request.getSlaveId());
+        }
+        assertNull(cache.get(1, ModbusReadPlanner.RegisterType.HOLDING, 11, 1, 60_000));
+        assertNull(cache.get(2, ModbusReadPlanner.RegisterType.HOLDING, 11, 1, 60_000));
+        assertNotNull(cache.get(2, ModbusReadPlanner.RegisterType.HOLDING, 10, 1, 60_000));
+        assertNotNull(cache.get(2, ModbusReadPlanner.RegisterType.INPUT, 11, 1, 60_000));
+
+        when(master.send(any())).thenThrow(new ModbusTransportException("port closed", 0));
+        assertFalse(source.broadcastWriteCoils(0, new boolean[] { true, false }).get(2, TimeUnit.SECONDS));
+        assertEquals(ModbusCircuitState.CLOSED, source.getCircuitBreaker().getState(0));
+    }
+}
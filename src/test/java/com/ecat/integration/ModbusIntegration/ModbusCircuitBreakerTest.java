@@ -0,0 +1,181 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ModbusCircuitBreaker 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusCircuitBreakerTest {
+
+    /**
+     * 连续超时达到阈值后熔断，熔断期间拒绝请求
+     */
+    @Test
+    public void testOpensAfterConsecutiveTimeouts() {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(3, 10000);
+        assertFalse(breaker.recordTimeout(1));
+        assertFalse(breaker.recordTimeout(1));
+        assertTrue(breaker.tryAcquire(1));
+        assertTrue(breaker.recordTimeout(1));
+
+        assertEquals(ModbusCircuitState.OPEN, breaker.getState(1));
+        assertEquals(3, breaker.getConsecutiveTimeouts(1));
+        assertTrue(breaker.isRejecting(1));
+        assertFalse(breaker.tryAcquire(1));
+        assertEquals(2, breaker.getRejectedCount(1));
+        assertEquals(Collections.singletonList(1), breaker.getOpenSlaveIds());
+    }
+
+    /**
+     * 中间收到应答则重新计数
+     */
+    @Test
+    public void testResponseResetsTimeoutCount() {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(3, 10000);
+        breaker.recordTimeout(1);
+        breaker.recordTimeout(1);
+        breaker.recordSuccess(1);
+        breaker.recordTimeout(1);
+        breaker.recordTimeout(1);
+        assertEquals(ModbusCircuitState.CLOSED, breaker.getState(1));
+        assertTrue(breaker.tryAcquire(1));
+    }
+
+    /**
+     * 非超时错误不计入连续超时
+     */
+    @Test
+    public void testErrorsDoNotOpenCircuit() {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(1, 10000);
+        for (int i = 0; i < 5; i++) {
+            breaker.recordError(1);
+        }
+        assertEquals(ModbusCircuitState.CLOSED, breaker.getState(1));
+        assertFalse(breaker.isRejecting(1));
+    }
+
+    /**
+     * 到达探测时间只放行一个探测请求，探测成功后恢复
+     */
+    @Test
+    public void testProbeClosesCircuit() throws Exception {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(1, 30);
+        breaker.recordTimeout(1);
+        assertFalse(breaker.tryAcquire(1));
+
+        Thread.sleep(50);
+        assertFalse(breaker.isRejecting(1));
+        assertTrue(breaker.tryAcquire(1));
+        assertEquals(ModbusCircuitState.HALF_OPEN, breaker.getState(1));
+        assertFalse(breaker.tryAcquire(1));
+
+        assertTrue(breaker.recordSuccess(1));
+        assertEquals(ModbusCircuitState.CLOSED, breaker.getState(1));
+        assertTrue(breaker.tryAcquire(1));
+        assertTrue(breaker.getOpenSlaveIds().isEmpty());
+    }
+
+    /**
+     * 探测超时继续熔断，探测遇到连接错误回到熔断等待下一次探测
+     */
+    @Test
+    public void testFailedProbeReopens() throws Exception {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(1, 30);
+        breaker.recordTimeout(1);
+        Thread.sleep(50);
+        assertTrue(breaker.tryAcquire(1));
+        assertFalse(breaker.recordTimeout(1));
+        assertEquals(ModbusCircuitState.OPEN, breaker.getState(1));
+        assertTrue(breaker.isRejecting(1));
+
+        Thread.sleep(50);
+        assertTrue(breaker.tryAcquire(1));
+        breaker.recordError(1);
+        assertEquals(ModbusCircuitState.OPEN, breaker.getState(1));
+    }
+
+    /**
+     * 各从站独立
+     */
+    @Test
+    public void testSlavesAreIndependent() {
+        ModbusCircuitBreaker breaker = new ModbusCircuitBreaker(1, 10000);
+        breaker.recordTimeout(3);
+        breaker.recordTimeout(7);
+        assertTrue(breaker.isRejecting(3));
+        assertFalse(breaker.isRejecting(4));
+        assertEquals(Arrays.asList(3, 7), breaker.getOpenSlaveIds());
+        breaker.reset(3);
+        assertEquals(Collections.singletonList(7), breaker.getOpenSlaveIds());
+    }
+
+    /**
+     * 共享总线上离线的从站熔断后不再占用总线，其他从站正常读取
+     */
+    @Test
+    public void testSharedSourceQuarantinesSilentSlave() throws Exception {
+        AtomicInteger sentToSilentSlave = new AtomicInteger();
+        ModbusMaster master = new ModbusMaster() {
+            @Override
+            public void init() throws ModbusInitException {
+                initialized = true;
+            }
+
+            @Override
+            public void destroy() {
+                initialized = false;
+            }
+
+            @Override
+            public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+                if (request.getSlaveId() == 2) {
+                    sentToSilentSlave.incrementAndGet();
+                    throw new ModbusTransportException(new TimeoutException("no response"), 2);
+                }
+                return mock(ModbusResponse.class);
+            }
+        };
+        master.init();
+        ModbusSerialInfo info = new ModbusSerialInfo("/dev/ttyS0", 9600, 8, 1, 0, 500, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100, true, false);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        ModbusInfo deviceInfo = mock(ModbusInfo.class);
+        when(deviceInfo.getSlaveId()).thenReturn(2);
+        DeviceSpecificModbusSource silentDevice = new DeviceSpecificModbusSource(source, deviceInfo, "silent");
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertNull(silentDevice.readHoldingRegisters(0, 1).get(2, TimeUnit.SECONDS));
+                assertNotNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(Const.DEFAULT_CIRCUIT_FAILURE_THRESHOLD.intValue(), sentToSilentSlave.get());
+            assertEquals(ModbusCircuitState.OPEN, silentDevice.getCircuitState());
+            assertEquals(ModbusCircuitState.CLOSED, source.getCircuitBreaker().getState(1));
+            assertEquals(7, source.getCircuitBreaker().getRejectedCount(2));
+
+            silentDevice.resetCircuit();
+            assertNull(silentDevice.readHoldingRegisters(0, 1).get(2, TimeUnit.SECONDS));
+            assertEquals(Const.DEFAULT_CIRCUIT_FAILURE_THRESHOLD + 1, sentToSilentSlave.get());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
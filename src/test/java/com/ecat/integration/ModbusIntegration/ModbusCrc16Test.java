@@ -0,0 +1,114 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * ModbusCrc16 测试用例：各实现与逐位计算的参考实现结果一致
+ *
+ * @author coffee
+ */
+public class ModbusCrc16Test {
+
+    /**
+     * 逐位移位异或的参考实现
+     */
+    private static int reference(byte[] data, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= data[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0xA001 : crc >>> 1;
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * 标准校验值与典型 Modbus 帧
+     */
+    @Test
+    public void testKnownValues() {
+        byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(0x4B37, ModbusCrc16.calculate(check, 0, check.length));
+        assertEquals(0x4B37, ModbusCrc16.calculateTable(check, 0, check.length));
+        assertEquals(0x4B37, ModbusCrc16.calculateSlicing4(check, 0, check.length));
+        assertEquals(0xFFFF, ModbusCrc16.calculate(check, 0, 0));
+
+        // 01 03 00 00 00 0A 的 CRC 为 C5 CD（低字节在前）
+        byte[] frame = { 1, 3, 0, 0, 0, 10, 0, 0 };
+        assertEquals(8, ModbusCrc16.append(frame, 0, 6));
+        assertEquals((byte) 0xC5, frame[6]);
+        assertEquals((byte) 0xCD, frame[7]);
+        assertTrue(ModbusCrc16.check(frame, 0, 8));
+        frame[3] ^= 0x10;
+        assertFalse(ModbusCrc16.check(frame, 0, 8));
+        assertFalse(ModbusCrc16.check(frame, 0, 2));
+    }
+
+    /**
+     * 各长度、各起始偏移下查表、slicing-by-4、slicing-by-8 与参考实现一致
+     */
+    @Test
+    public void testAllVariantsMatchReference() {
+        Random random = new Random(42);
+        byte[] data = new byte[300];
+        random.nextBytes(data);
+        for (int offset = 0; offset < 9; offset++) {
+            for (int length = 0; length <= 256; length++) {
+                int expected = reference(data, offset, length);
+                assertEquals(expected, ModbusCrc16.calculateTable(data, offset, length));
+                assertEquals(expected, ModbusCrc16.calculateSlicing4(data, offset, length));
+                assertEquals(expected, ModbusCrc16.calculateSlicing8(data, offset, length));
+            }
+        }
+    }
+
+    /**
+     * 直接与堆内 ByteBuffer、大端与小端字节序、带 arrayOffset 的切片结果一致，且不改变 position
+     */
+    @Test
+    public void testByteBufferVariants() {
+        Random random = new Random(7);
+        byte[] data = new byte[300];
+        random.nextBytes(data);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).position(5);
+        ByteBuffer directLittle = direct.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        ByteBuffer slice = ByteBuffer.wrap(data, 3, data.length - 3).slice();
+        for (int offset = 0; offset < 9; offset++) {
+            for (int length = 0; length <= 256; length++) {
+                int expected = reference(data, offset + 3, length);
+                assertEquals(expected, ModbusCrc16.calculate(direct, offset + 3, length));
+                assertEquals(expected, ModbusCrc16.calculate(directLittle, offset + 3, length));
+                assertEquals(expected, ModbusCrc16.calculate(heap, offset + 3, length));
+                assertEquals(expected, ModbusCrc16.calculate(slice, offset, length));
+            }
+        }
+        assertEquals(5, direct.position());
+    }
+
+    /**
+     * ByteBuffer 上追加与校验 CRC
+     */
+    @Test
+    public void testByteBufferAppendAndCheck() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(32);
+        buffer.put((byte) 0x7F); // 帧前的其他数据
+        buffer.put(new byte[] { 1, 3, 0, 0, 0, 10 });
+        ModbusCrc16.append(buffer, 1);
+        assertEquals(9, buffer.position());
+        assertEquals((byte) 0xC5, buffer.get(7));
+        assertEquals((byte) 0xCD, buffer.get(8));
+        assertTrue(ModbusCrc16.check(buffer, 1, 8));
+        buffer.put(2, (byte) 4);
+        assertFalse(ModbusCrc16.check(buffer, 1, 8));
+    }
+}
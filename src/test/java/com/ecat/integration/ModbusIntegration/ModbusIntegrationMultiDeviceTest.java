@@ -50,6 +50,7 @@ public class ModbusIntegrationMultiDeviceTest {
 
     private AutoCloseable mockitoCloseable;
     private org.mockito.MockedStatic<ModbusMasterFactory> factoryMock;
+    private ModbusMaster mockMaster;
 
     @Before
     public void setUp() throws Exception {
@@ -58,7 +59,7 @@ public class ModbusIntegrationMultiDeviceTest {
 
         // mock ModbusMasterFactory.createModbusMaster 和 ModbusMaster.init
         factoryMock = Mockito.mockStatic(ModbusMasterFactory.class);
-        ModbusMaster mockMaster = mock(ModbusMaster.class);
+        mockMaster = mock(ModbusMaster.class);
         doNothing().when(mockMaster).init();
         when(mockMaster.isInitialized()).thenReturn(true);
         factoryMock.when(() -> ModbusMasterFactory.createModbusMaster(any(ModbusInfo.class))).thenReturn(mockMaster);
@@ -146,6 +147,30 @@ public class ModbusIntegrationMultiDeviceTest {
         assertSame(delegate1, delegate2);
     }
 
+    /**
+     * 广播经共享连接只发送一帧（从站 0）；连接上没有已注册设备时拒绝
+     */
+    @Test
+    public void testBroadcastUsesSharedConnection() throws Exception {
+        modbusIntegration.register(mockSerialInfo1, "serial_device_1");
+        modbusIntegration.register(mockSerialInfo2, "serial_device_2");
+        ModbusSource shared = modbusIntegration.getSerialSource("COM1");
+        shared.setBroadcastTurnaroundMs(10);
+
+        assertTrue(modbusIntegration.broadcastWriteRegisters(mockSerialInfo2, 100, new short[] { 1, 2 })
+                .get(2, TimeUnit.SECONDS));
+        ArgumentCaptor<com.serotonin.modbus4j.msg.ModbusRequest> request =
+                ArgumentCaptor.forClass(com.serotonin.modbus4j.msg.ModbusRequest.class);
+        verify(mockMaster, times(1)).send(request.capture());
+        assertEquals(0, request.getValue().getSlaveId());
+
+        try {
+            modbusIntegration.broadcastWriteRegisters(mockTcpInfo1, 100, new short[] { 1 });
+            fail("Should reject broadcast on a connection without devices");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
     @Test
     public void testTcpDevicesShareConnection() {
         // 注册两个共享同一TCP连接的设备
@@ -0,0 +1,164 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ModbusMetrics / ModbusLatencyHistogram 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusMetricsTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 分桶上下界连续且覆盖所有取值
+     */
+    @Test
+    public void testBucketBounds() {
+        for (long micros : new long[] { 0, 1, 3, 4, 5, 7, 8, 1000, 1023, 1024, 123456789L }) {
+            int index = ModbusLatencyHistogram.bucketIndex(micros);
+            assertTrue(micros + " lower", ModbusLatencyHistogram.bucketLowerBound(index) <= micros);
+            assertTrue(micros + " upper", ModbusLatencyHistogram.bucketLowerBound(index + 1) > micros);
+        }
+        assertEquals(ModbusLatencyHistogram.BUCKET_COUNT - 1, ModbusLatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    /**
+     * 分位数误差不超过 25%
+     */
+    @Test
+    public void testPercentiles() {
+        ModbusLatencyHistogram histogram = new ModbusLatencyHistogram();
+        assertEquals(0.0, histogram.getPercentileMs(99), 0.0);
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * MS);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMeanMs(), 0.01);
+        assertEquals(100.0, histogram.getMaxMs(), 0.0);
+        assertEquals(50.0, histogram.getPercentileMs(50), 50 * 0.25);
+        assertEquals(99.0, histogram.getPercentileMs(99), 99 * 0.25);
+        assertEquals(100.0, histogram.getPercentileMs(100), 0.0);
+    }
+
+    /**
+     * 按功能码、从站分别记录，汇总时累加
+     */
+    @Test
+    public void testRecordAndAggregate() {
+        ModbusMetrics first = new ModbusMetrics(() -> 2, () -> 1);
+        ModbusMetrics second = new ModbusMetrics(() -> 3, () -> 0);
+        first.recordTransaction(1, 3, 1 * MS, 10 * MS);
+        first.recordTransaction(2, 4, 2 * MS, 20 * MS);
+        first.recordException(2);
+        first.recordTimeout();
+        second.recordTransaction(1, 3, 0, 30 * MS);
+        second.recordException(2);
+        second.recordException(6);
+        second.recordRejectedAcquire();
+        second.recordTransportError();
+
+        assertEquals(2, first.getTransactionCount());
+        assertEquals(1, first.getFunctionLatency(3).getWire().getCount());
+        assertEquals(10.0, first.getSlaveLatency(1).getWire().getMaxMs(), 0.0);
+        assertEquals(2.0, first.getSlaveLatency(2).getQueueWait().getMaxMs(), 0.0);
+        assertNull(first.getSlaveLatency(3));
+
+        ModbusMetrics sum = ModbusMetrics.aggregate(Arrays.asList(first, second));
+        assertEquals(3, sum.getTransactionCount());
+        assertEquals(2, sum.getFunctionLatency(3).getWire().getCount());
+        assertEquals(30.0, sum.getSlaveLatency(1).getWire().getMaxMs(), 0.0);
+        assertEquals(3, sum.getExceptionCount());
+        assertEquals(2, sum.getExceptionCount(2));
+        assertEquals(1, sum.getExceptionCount(6));
+        assertEquals(1, sum.getTimeoutCount());
+        assertEquals(1, sum.getTransportErrorCount());
+        assertEquals(1, sum.getRejectedAcquireCount());
+        assertEquals(5, sum.getQueueDepth());
+        assertEquals(1, sum.getLockWaiters());
+        // 汇总是快照
+        first.recordTimeout();
+        assertEquals(1, sum.getTimeoutCount());
+    }
+
+    /**
+     * ModbusSource 记录事务、异常应答、超时、传输错误和锁获取被拒绝
+     */
+    @Test
+    public void testSourceRecordsMetrics() throws Exception {
+        ModbusResponse exceptionResponse = mock(ModbusResponse.class);
+        when(exceptionResponse.isException()).thenReturn(true);
+        when(exceptionResponse.getExceptionCode()).thenReturn((byte) 2);
+        ModbusMaster master = new ModbusMaster() {
+            @Override
+            public void init() throws ModbusInitException {
+                initialized = true;
+            }
+
+            @Override
+            public void destroy() {
+                initialized = false;
+            }
+
+            @Override
+            public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+                switch (request.getSlaveId()) {
+                    case 1:
+                        return mock(ModbusResponse.class);
+                    case 2:
+                        return exceptionResponse;
+                    case 3:
+                        throw new ModbusTransportException(new TimeoutException("no response"), 3);
+                    default:
+                        throw new ModbusTransportException("connection reset");
+                }
+            }
+        };
+        master.init();
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.SHORT, 1);
+        ModbusSource source = new ModbusSource(info, 0, 10);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        try {
+            assertNotNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            assertNotNull(source.writeRegisterWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            assertSame(exceptionResponse, source.readInputRegistersWithSlaveId(2, 0, 1).get(2, TimeUnit.SECONDS));
+            assertNull(source.readCoilsWithSlaveId(3, 0, 1).get(2, TimeUnit.SECONDS));
+            assertNull(source.readCoilsWithSlaveId(4, 0, 1).get(2, TimeUnit.SECONDS));
+            String key = source.acquire();
+            assertNotNull(key);
+            assertNull(source.acquire(10, TimeUnit.MILLISECONDS));
+            source.release(key);
+
+            ModbusMetrics metrics = source.getMetrics();
+            assertEquals(3, metrics.getTransactionCount());
+            assertEquals(1, metrics.getFunctionLatency(3).getWire().getCount());
+            assertEquals(1, metrics.getFunctionLatency(6).getWire().getCount());
+            assertEquals(2, metrics.getSlaveLatency(1).getQueueWait().getCount());
+            assertNull(metrics.getSlaveLatency(3));
+            assertEquals(1, metrics.getExceptionCount(2));
+            assertEquals(1, metrics.getTimeoutCount());
+            assertEquals(1, metrics.getTransportErrorCount());
+            assertEquals(1, metrics.getRejectedAcquireCount());
+            assertEquals(0, metrics.getQueueDepth());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
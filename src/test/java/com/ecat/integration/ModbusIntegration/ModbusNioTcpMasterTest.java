@@ -0,0 +1,206 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveBehavior;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveFarm;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+/**
+ * ModbusNioTcpMaster 测试用例，使用 SimulatedSlaveFarm 作为设备
+ *
+ * @author coffee
+ */
+public class ModbusNioTcpMasterTest {
+
+    private SimulatedSlaveFarm farm;
+    private final List<ModbusNioTcpMaster> masters = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (ModbusNioTcpMaster master : masters) {
+            master.destroy();
+        }
+        if (farm != null) {
+            farm.close();
+        }
+    }
+
+    private ModbusNioTcpMaster master(SimulatedSlaveFarm.Endpoint endpoint, int maxInFlight, int timeoutMs) {
+        ModbusNioTcpMaster master = new ModbusNioTcpMaster(endpoint.getHost(), endpoint.getPort(), maxInFlight);
+        master.setTimeout(timeoutMs);
+        master.init();
+        masters.add(master);
+        return master;
+    }
+
+    private static int countIoThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("modbus-nio-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 大量端点共用固定数量的 I/O 线程，原生读取和 modbus4j 请求都能完成
+     */
+    @Test
+    public void testManyEndpointsShareIoThreads() throws Exception {
+        int endpoints = 40;
+        farm = SimulatedSlaveFarm.start(endpoints, ModbusProtocol.TCP, new SimulatedSlaveBehavior());
+        List<CompletableFuture<Integer>> reads = new ArrayList<>();
+        List<CompletableFuture<ModbusResponse>> objectReads = new ArrayList<>();
+        short[][] dests = new short[endpoints][2];
+        for (int i = 0; i < endpoints; i++) {
+            ModbusNioTcpMaster master = master(farm.getEndpoints().get(i), 1, 2000);
+            reads.add(master.readRegistersAsync(1, 3, 10 + i, 2, dests[i], 0, 2000));
+            objectReads.add(master.sendAsync(new ReadHoldingRegistersRequest(1, 100 + i, 1)));
+        }
+        for (int i = 0; i < endpoints; i++) {
+            assertEquals(Integer.valueOf(2), reads.get(i).get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new short[] { (short) (10 + i), (short) (11 + i) }, dests[i]);
+            ReadHoldingRegistersResponse response = (ReadHoldingRegistersResponse) objectReads.get(i).get(5, TimeUnit.SECONDS);
+            assertEquals(100 + i, response.getShortData()[0]);
+        }
+        assertTrue(masters.get(0).isConnected());
+        assertEquals((int) Const.DEFAULT_NIO_IO_THREADS, countIoThreads());
+    }
+
+    /**
+     * maxInFlight 大于 1 时多个请求在同一连接上同时在途
+     */
+    @Test
+    public void testPipelinedRequestsOnOneConnection() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior().latencyMs(50));
+        ModbusNioTcpMaster master = master(farm.getEndpoints().get(0), 4, 2000);
+        short[] dest = new short[8];
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            futures.add(master.readRegistersAsync(1, 4, 200 + i, 1, dest, i, 2000));
+        }
+        assertEquals(4, master.getInFlightCount());
+        assertEquals(4, master.getBacklogCount());
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(Integer.valueOf(1), future.get(5, TimeUnit.SECONDS));
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("8 requests at depth 4 should take about 2 round trips, took " + elapsedMs + "ms", elapsedMs < 350);
+        for (int i = 0; i < 8; i++) {
+            assertEquals(200 + i, dest[i]);
+        }
+    }
+
+    /**
+     * 端口未监听时请求以 ModbusTransportException 失败，不阻塞调用线程
+     */
+    @Test
+    public void testConnectFailureFailsRequest() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ModbusNioTcpMaster master = new ModbusNioTcpMaster("127.0.0.1", port, 1);
+        master.setTimeout(1000);
+        master.init();
+        masters.add(master);
+        CompletableFuture<Integer> future = master.writeRegisterAsync(1, 0, 1, 1000);
+        try {
+            future.get(3, TimeUnit.SECONDS);
+            fail("Should fail to connect");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ModbusTransportException);
+        }
+        assertFalse(master.isConnected());
+        assertEquals(0, master.getInFlightCount());
+    }
+
+    /**
+     * 主机名无法解析时请求在连接超时内失败，解析不在调用线程上进行
+     */
+    @Test
+    public void testUnresolvableHostFailsWithinTimeout() throws Exception {
+        ModbusNioTcpMaster master = new ModbusNioTcpMaster("modbus-test-host.invalid", 502, 1);
+        master.setTimeout(1000);
+        master.init();
+        masters.add(master);
+        long start = System.nanoTime();
+        CompletableFuture<Integer> future = master.writeRegisterAsync(1, 0, 1, 1000);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+        try {
+            future.get(3, TimeUnit.SECONDS);
+            fail("Should fail to resolve");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ModbusTransportException);
+        }
+        assertFalse(master.isConnected());
+        assertEquals(0, master.getInFlightCount());
+    }
+
+    /**
+     * 从站不应答时按请求超时；恢复后同一连接继续可用
+     */
+    @Test
+    public void testTimeoutThenRecover() throws Exception {
+        SimulatedSlaveBehavior behavior = new SimulatedSlaveBehavior().lossRate(1.0);
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, behavior);
+        ModbusNioTcpMaster master = master(farm.getEndpoints().get(0), 1, 200);
+        try {
+            master.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should time out");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getCause() instanceof com.serotonin.modbus4j.sero.messaging.TimeoutException);
+        }
+        behavior.lossRate(0);
+        short[] dest = new short[1];
+        assertEquals(Integer.valueOf(1), master.readRegistersAsync(1, 3, 7, 1, dest, 0, 1000).get(2, TimeUnit.SECONDS));
+        assertEquals(7, dest[0]);
+    }
+
+    /**
+     * 连接模式为 NIO 时工厂创建 ModbusNioTcpMaster，ModbusSource 走异步路径
+     */
+    @Test
+    public void testFactoryAndSourceUseNio() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior());
+        SimulatedSlaveFarm.Endpoint endpoint = farm.getEndpoints().get(0);
+        ModbusTcpInfo info = new ModbusTcpInfo(endpoint.getHost(), endpoint.getPort(), 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.NIO, 1);
+        assertTrue(info.isNio());
+        assertTrue(info.isAsync());
+        assertFalse(new ModbusTcpInfo(endpoint.getHost(), endpoint.getPort(), 1, ModbusProtocol.RTU_OVER_TCP, 2000, 1,
+                ModbusTcpConnectionMode.NIO, 1).isNio());
+
+        ModbusMaster created = ModbusMasterFactory.createModbusMaster(info);
+        assertTrue(created instanceof ModbusNioTcpMaster);
+
+        ModbusSource source = new ModbusSource(info, 1, 100);
+        try {
+            ReadHoldingRegistersResponse response = source.readHoldingRegisters(30, 2).get(2, TimeUnit.SECONDS);
+            assertEquals(31, response.getShortData()[1]);
+            short[] dest = new short[2];
+            assertEquals(Integer.valueOf(2), source.readInputRegisters(5, 2, dest, 0).get(2, TimeUnit.SECONDS));
+            assertEquals(6, dest[1]);
+            assertEquals(2L, source.getMetrics().getTransactionCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
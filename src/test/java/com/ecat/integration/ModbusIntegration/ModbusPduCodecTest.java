@@ -0,0 +1,191 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+
+/**
+ * ModbusPduCodec 与 ModbusBufferPool 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusPduCodecTest {
+
+    private static byte[] written(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        ((ByteBuffer) buffer.duplicate().flip()).get(bytes);
+        return bytes;
+    }
+
+    private static ByteBuffer frame(int... bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+        buffer.put((byte) 0x55); // 帧前的无关字节，解码不应依赖 position 为 0
+        for (int b : bytes) {
+            buffer.put((byte) b);
+        }
+        buffer.flip();
+        buffer.position(1);
+        return buffer;
+    }
+
+    /**
+     * 读请求与 MBAP 头按规范编码
+     */
+    @Test
+    public void testEncodeReadWithMbapHeader() {
+        ByteBuffer buffer = ByteBuffer.allocate(ModbusPduCodec.MAX_ADU_LENGTH);
+        buffer.position(ModbusPduCodec.MBAP_PREFIX_LENGTH);
+        ModbusPduCodec.encodeRead(buffer, 17, 3, 0x006B, 3);
+        ModbusPduCodec.putMbapHeader(buffer, 0, 0x1234);
+        assertArrayEquals(new byte[] { 0x12, 0x34, 0, 0, 0, 6, 17, 3, 0x00, 0x6B, 0x00, 0x03 }, written(buffer));
+    }
+
+    /**
+     * 写请求编码：FC05 线圈值为 0xFF00，FC15 按位打包（低位在前），FC16 带字节数
+     */
+    @Test
+    public void testEncodeWrites() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        ModbusPduCodec.encodeWriteCoil(buffer, 1, 0x00AC, true);
+        assertArrayEquals(new byte[] { 1, 5, 0x00, (byte) 0xAC, (byte) 0xFF, 0x00 }, written(buffer));
+
+        buffer.clear();
+        boolean[] coils = { false, true, false, true, true, false, false, true, true, false, true };
+        ModbusPduCodec.encodeWriteCoils(buffer, 1, 0x0013, coils, 1, 10);
+        // coils[1..10] = 1,0,1,1,0,0,1,1 | 0,1
+        assertArrayEquals(new byte[] { 1, 15, 0x00, 0x13, 0x00, 0x0A, 2, (byte) 0xCD, 0x02 }, written(buffer));
+
+        buffer.clear();
+        ModbusPduCodec.encodeWriteRegisters(buffer, 1, 1, new short[] { 0, 0x000A, 0x0102 }, 1, 2);
+        assertArrayEquals(new byte[] { 1, 16, 0x00, 0x01, 0x00, 0x02, 4, 0x00, 0x0A, 0x01, 0x02 }, written(buffer));
+    }
+
+    /**
+     * FC23 按读地址、读数量、写地址、写数量、字节数、写入值的顺序编码，响应与 FC03 格式相同
+     */
+    @Test
+    public void testReadWriteRegisters() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        ModbusPduCodec.encodeReadWriteRegisters(buffer, 1, 0x0003, 6, 0x000E, new short[] { 0, 0x00FF, 0x00FF, 0x00FF }, 1, 3);
+        assertArrayEquals(new byte[] { 1, 23, 0x00, 0x03, 0x00, 0x06, 0x00, 0x0E, 0x00, 0x03, 6,
+                0x00, (byte) 0xFF, 0x00, (byte) 0xFF, 0x00, (byte) 0xFF }, written(buffer));
+
+        buffer.clear();
+        try {
+            ModbusPduCodec.encodeReadWriteRegisters(buffer, 1, 0, 1, 0, new short[122], 0, 122);
+            fail("Should reject 122 written registers");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, buffer.position());
+
+        short[] dest = new short[2];
+        assertEquals(2, ModbusPduCodec.decodeRegisters(frame(1, 23, 4, 0x00, 0xFE, 0x0A, 0xCD), 23, 2, dest, 0));
+        assertArrayEquals(new short[] { 0x00FE, 0x0ACD }, dest);
+        assertEquals(-1, ModbusPduCodec.decodeRegisters(frame(1, 0x97, 1), 23, 2, dest, 0));
+    }
+
+    /**
+     * 数量或地址越界时拒绝编码
+     */
+    @Test
+    public void testEncodeRejectsInvalidRange() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        try {
+            ModbusPduCodec.encodeRead(buffer, 1, 3, 0, 126);
+            fail("Should reject 126 registers");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            ModbusPduCodec.encodeRead(buffer, 1, 3, 0xFFFF, 2);
+            fail("Should reject address overflow");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            ModbusPduCodec.encodeRead(buffer, 1, 6, 0, 1);
+            fail("Should reject non-read function code");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    /**
+     * 寄存器和位直接解析进调用方数组的指定位置
+     */
+    @Test
+    public void testDecodeIntoCallerArrays() throws Exception {
+        short[] registers = new short[4];
+        ByteBuffer response = frame(1, 3, 4, 0x12, 0x34, 0xFF, 0xFE);
+        assertEquals(2, ModbusPduCodec.decodeRegisters(response, 3, 2, registers, 1));
+        assertArrayEquals(new short[] { 0, 0x1234, (short) 0xFFFE, 0 }, registers);
+        assertEquals(1, response.position());
+
+        boolean[] bits = new boolean[11];
+        assertEquals(10, ModbusPduCodec.decodeBits(frame(1, 1, 2, 0xCD, 0x02), 1, 10, bits, 1));
+        assertArrayEquals(new boolean[] { false, true, false, true, true, false, false, true, true, false, true }, bits);
+
+        assertEquals(1, ModbusPduCodec.decodeWrite(frame(1, 6, 0x00, 0x01, 0x00, 0x03), 6, 1, 1));
+        assertEquals(2, ModbusPduCodec.decodeWrite(frame(1, 16, 0x00, 0x01, 0x00, 0x02), 16, 1, 2));
+    }
+
+    /**
+     * 异常响应返回异常码的相反数，功能码、字节数或回显不符时抛出异常
+     */
+    @Test
+    public void testDecodeExceptionAndMismatch() throws Exception {
+        ByteBuffer exception = frame(1, 0x83, 2);
+        assertEquals(2, ModbusPduCodec.exceptionCode(exception));
+        assertEquals(-2, ModbusPduCodec.decodeRegisters(exception, 3, 1, new short[1], 0));
+        assertEquals(-4, ModbusPduCodec.decodeWrite(frame(1, 0x90, 4), 16, 0, 1));
+        assertEquals(0, ModbusPduCodec.exceptionCode(frame(1, 3, 2, 0, 0)));
+
+        ByteBuffer[] invalid = {
+                frame(1, 4, 2, 0, 0),             // 功能码不符
+                frame(1, 3, 4, 0, 0),             // 字节数与请求数量不符
+                frame(1, 3, 2, 0),                // 帧长度不足
+        };
+        for (ByteBuffer response : invalid) {
+            try {
+                ModbusPduCodec.decodeRegisters(response, 3, 1, new short[1], 0);
+                fail("Should reject malformed response");
+            } catch (ModbusTransportException expected) {
+            }
+        }
+        try {
+            ModbusPduCodec.decodeWrite(frame(1, 16, 0x00, 0x01, 0x00, 0x03), 16, 1, 2);
+            fail("Should reject mismatched echo");
+        } catch (ModbusTransportException expected) {
+        }
+    }
+
+    /**
+     * 缓冲池复用已归还的缓冲区，池满或规格不符时丢弃
+     */
+    @Test
+    public void testBufferPoolReuse() {
+        ModbusBufferPool pool = new ModbusBufferPool(2);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        ByteBuffer third = pool.acquire();
+        assertEquals(3, pool.getAllocatedCount());
+        assertEquals(ModbusPduCodec.MAX_ADU_LENGTH, first.capacity());
+
+        first.put((byte) 1);
+        pool.release(first);
+        pool.release(second);
+        pool.release(third); // 池已满，丢弃
+        pool.release(ByteBuffer.allocate(16)); // 规格不符，丢弃
+        assertEquals(2, pool.getPooledCount());
+
+        ByteBuffer reused = pool.acquire();
+        assertTrue(reused == first || reused == second);
+        assertEquals(0, reused.position());
+        assertEquals(reused.capacity(), reused.limit());
+        pool.acquire();
+        assertEquals(0, pool.getPooledCount());
+        assertEquals(3, pool.getAllocatedCount());
+    }
+}
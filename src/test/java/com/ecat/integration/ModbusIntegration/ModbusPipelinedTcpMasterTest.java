@@ -0,0 +1,354 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import static org.junit.Assert.*;
+
+/**
+ * ModbusPipelinedTcpMaster 测试用例
+ *
+ * <p>使用本地 ServerSocket 模拟网关：先收齐一批请求，再倒序应答，验证按事务 ID 匹配。
+ *
+ * @author coffee
+ */
+public class ModbusPipelinedTcpMasterTest {
+
+    private ServerSocket server;
+    private ModbusPipelinedTcpMaster master;
+    private ExecutorService gatewayExecutor;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ServerSocket(0);
+        gatewayExecutor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (master != null) {
+            master.destroy();
+        }
+        server.close();
+        gatewayExecutor.shutdownNow();
+    }
+
+    /**
+     * 读取一个 MBAP 请求帧，返回 [事务ID, 起始地址]
+     */
+    private static int[] readRequest(DataInputStream in) throws Exception {
+        byte[] header = new byte[7];
+        in.readFully(header);
+        int length = ((header[4] & 0xFF) << 8) | (header[5] & 0xFF);
+        byte[] pdu = new byte[length - 1];
+        in.readFully(pdu);
+        int transactionId = ((header[0] & 0xFF) << 8) | (header[1] & 0xFF);
+        int start = ((pdu[1] & 0xFF) << 8) | (pdu[2] & 0xFF);
+        return new int[] { transactionId, start };
+    }
+
+    /**
+     * 应答 FC03，寄存器值等于起始地址
+     */
+    private static void writeResponse(OutputStream out, int transactionId, int value) throws Exception {
+        byte[] frame = { (byte) (transactionId >> 8), (byte) transactionId, 0, 0, 0, 5,
+                1, 3, 2, (byte) (value >> 8), (byte) value };
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * 按功能码应答指定数量的请求：FC03/04 寄存器值等于地址，FC16 回显，地址不小于 1000 时返回异常码 2
+     */
+    private void serveRegisters(int requests) {
+        gatewayExecutor.submit(() -> {
+            try (Socket socket = server.accept()) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                OutputStream out = socket.getOutputStream();
+                for (int i = 0; i < requests; i++) {
+                    byte[] header = new byte[7];
+                    in.readFully(header);
+                    byte[] pdu = new byte[(((header[4] & 0xFF) << 8) | (header[5] & 0xFF)) - 1];
+                    in.readFully(pdu);
+                    int functionCode = pdu[0];
+                    int start = ((pdu[1] & 0xFF) << 8) | (pdu[2] & 0xFF);
+                    int quantity = ((pdu[3] & 0xFF) << 8) | (pdu[4] & 0xFF);
+                    byte[] reply;
+                    if (start >= 1000) {
+                        reply = new byte[] { (byte) (functionCode | 0x80), 2 };
+                    } else if (functionCode == 16) {
+                        reply = new byte[] { 16, pdu[1], pdu[2], pdu[3], pdu[4] };
+                    } else {
+                        reply = new byte[2 + quantity * 2];
+                        reply[0] = (byte) functionCode;
+                        reply[1] = (byte) (quantity * 2);
+                        for (int r = 0; r < quantity; r++) {
+                            reply[2 + r * 2] = (byte) ((start + r) >> 8);
+                            reply[3 + r * 2] = (byte) (start + r);
+                        }
+                    }
+                    out.write(new byte[] { header[0], header[1], 0, 0, 0, (byte) (reply.length + 1), header[6] });
+                    out.write(reply);
+                    out.flush();
+                }
+                Thread.sleep(500);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 原生编解码的读写：响应直接解析进调用方数组，异常响应返回异常码的相反数
+     */
+    @Test
+    public void testRawRequestsDecodeIntoCallerArrays() throws Exception {
+        serveRegisters(3);
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), 4);
+        master.setTimeout(2000);
+        master.init();
+
+        short[] dest = new short[4];
+        CompletableFuture<Integer> read = master.readRegistersAsync(1, 3, 100, 2, dest, 1, 2000);
+        CompletableFuture<Integer> rejected = master.readRegistersAsync(1, 4, 1000, 1, dest, 0, 2000);
+        CompletableFuture<Integer> write = master.writeRegistersAsync(1, 200, new short[] { 7, 8, 9 }, 0, 3, 2000);
+
+        assertEquals(Integer.valueOf(2), read.get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 0, 100, 101, 0 }, dest);
+        assertEquals(Integer.valueOf(-2), rejected.get(2, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(3), write.get(2, TimeUnit.SECONDS));
+        assertEquals(0, master.getInFlightCount());
+
+        // 参数非法时不发送，直接异常完成
+        assertTrue(master.readRegistersAsync(1, 3, 0, 126, new short[126], 0, 2000).isCompletedExceptionally());
+    }
+
+    /**
+     * 请求缓冲区发出后归还缓冲池，稳定运行时不再分配
+     */
+    @Test
+    public void testRequestBuffersReturnedToPool() throws Exception {
+        int rounds = 20;
+        serveRegisters(rounds + 1);
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), 2);
+        master.setTimeout(2000);
+        master.init();
+
+        short[] dest = new short[1];
+        master.readRegistersAsync(1, 3, 0, 1, dest, 0, 2000).get(2, TimeUnit.SECONDS);
+        long allocated = ModbusPipelinedTcpMaster.getBufferPool().getAllocatedCount();
+        for (int i = 1; i <= rounds; i++) {
+            assertEquals(Integer.valueOf(1), master.readRegistersAsync(1, 3, i, 1, dest, 0, 2000).get(2, TimeUnit.SECONDS));
+            assertEquals(i, dest[0]);
+        }
+        assertEquals(allocated, ModbusPipelinedTcpMaster.getBufferPool().getAllocatedCount());
+    }
+
+    /**
+     * 流水线源读取到调用方数组
+     */
+    @Test
+    public void testSourceReadsIntoCallerArray() throws Exception {
+        serveRegisters(2);
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", server.getLocalPort(), 1, ModbusProtocol.TCP, 2000, 2);
+        ModbusSource source = new ModbusSource(info, 1, 100);
+        try {
+            short[] dest = new short[3];
+            assertEquals(Integer.valueOf(3), source.readHoldingRegisters(40, 3, dest, 0).get(2, TimeUnit.SECONDS));
+            assertArrayEquals(new short[] { 40, 41, 42 }, dest);
+            assertEquals(Integer.valueOf(-2), source.readInputRegisters(1000, 1, dest, 0).get(2, TimeUnit.SECONDS));
+            assertEquals(1L, source.getMetrics().getExceptionCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 多个请求同时在途，网关倒序应答，各 future 拿到各自的响应
+     */
+    @Test
+    public void testOutOfOrderResponsesMatchedByTransactionId() throws Exception {
+        int count = 4;
+        CountDownLatch allReceived = new CountDownLatch(count);
+        gatewayExecutor.submit(() -> {
+            try (Socket socket = server.accept()) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                List<int[]> requests = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    requests.add(readRequest(in));
+                    allReceived.countDown();
+                }
+                Collections.reverse(requests);
+                for (int[] request : requests) {
+                    writeResponse(socket.getOutputStream(), request[0], request[1]);
+                }
+                Thread.sleep(500);
+            }
+            return null;
+        });
+
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), count);
+        master.setTimeout(2000);
+        master.init();
+
+        List<CompletableFuture<ModbusResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(master.sendAsync(new ReadHoldingRegistersRequest(1, 100 + i, 1)));
+        }
+        // 所有请求在收到任何响应之前都已发出
+        assertTrue(allReceived.await(2, TimeUnit.SECONDS));
+        for (int i = 0; i < count; i++) {
+            ReadHoldingRegistersResponse response = (ReadHoldingRegistersResponse) futures.get(i).get(2, TimeUnit.SECONDS);
+            assertFalse(response.isException());
+            assertEquals(100 + i, response.getShortData()[0]);
+        }
+        assertEquals(0, master.getInFlightCount());
+    }
+
+    /**
+     * 超出 maxInFlight 的请求在本地排队，前一个完成后才发出
+     */
+    @Test
+    public void testBacklogWhenMaxInFlightReached() throws Exception {
+        CountDownLatch firstReceived = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        gatewayExecutor.submit(() -> {
+            try (Socket socket = server.accept()) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                int[] first = readRequest(in);
+                firstReceived.countDown();
+                releaseFirst.await(2, TimeUnit.SECONDS);
+                writeResponse(socket.getOutputStream(), first[0], first[1]);
+                int[] second = readRequest(in);
+                writeResponse(socket.getOutputStream(), second[0], second[1]);
+                Thread.sleep(500);
+            }
+            return null;
+        });
+
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), 1);
+        master.setTimeout(2000);
+        master.init();
+
+        CompletableFuture<ModbusResponse> first = master.sendAsync(new ReadHoldingRegistersRequest(1, 1, 1));
+        CompletableFuture<ModbusResponse> second = master.sendAsync(new ReadHoldingRegistersRequest(1, 2, 1));
+        assertTrue(firstReceived.await(2, TimeUnit.SECONDS));
+        assertEquals(1, master.getInFlightCount());
+        assertEquals(1, master.getBacklogCount());
+
+        releaseFirst.countDown();
+        assertEquals(1, ((ReadHoldingRegistersResponse) first.get(2, TimeUnit.SECONDS)).getShortData()[0]);
+        assertEquals(2, ((ReadHoldingRegistersResponse) second.get(2, TimeUnit.SECONDS)).getShortData()[0]);
+    }
+
+    /**
+     * 无响应时按请求超时，以 ModbusTransportException 完成
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        gatewayExecutor.submit(() -> {
+            try (Socket socket = server.accept()) {
+                readRequest(new DataInputStream(socket.getInputStream()));
+                Thread.sleep(1000);
+            }
+            return null;
+        });
+
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), 2);
+        master.setTimeout(200);
+        master.init();
+
+        try {
+            master.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should time out");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getCause() instanceof com.serotonin.modbus4j.sero.messaging.TimeoutException);
+        }
+        assertEquals(0, master.getInFlightCount());
+    }
+
+    /**
+     * 设备不可达：提交请求的线程不等待连接；连接失败时在途和本地排队的请求一起失败，不逐个重试连接
+     */
+    @Test
+    public void testConnectFailureFailsBacklogWithoutBlockingCaller() throws Exception {
+        master = new ModbusPipelinedTcpMaster("10.255.255.1", 502, 1); // 不可路由地址，连接超时或立即失败
+        master.setTimeout(500);
+        master.init();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<ModbusResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(master.sendAsync(new ReadHoldingRegistersRequest(1, i, 1), 5000));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 200);
+
+        for (CompletableFuture<ModbusResponse> future : futures) {
+            try {
+                future.get(3, TimeUnit.SECONDS);
+                fail("Should fail to connect");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof ModbusTransportException);
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Connect retried per request: " + elapsedMs + "ms", elapsedMs < 1500);
+        assertEquals(0, master.getInFlightCount());
+        assertEquals(0, master.getBacklogCount());
+    }
+
+    /**
+     * 未初始化或已销毁时直接失败
+     */
+    @Test
+    public void testSendAfterDestroyFails() throws Exception {
+        master = new ModbusPipelinedTcpMaster("127.0.0.1", server.getLocalPort(), 2);
+        master.init();
+        master.destroy();
+        assertFalse(master.isInitialized());
+        CompletableFuture<ModbusResponse> future = master.sendAsync(new ReadHoldingRegistersRequest(1, 0, 1));
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    /**
+     * 仅 TCP 帧格式且 maxInFlight 大于 1 时启用流水线
+     */
+    @Test
+    public void testTcpInfoPipelinedFlag() {
+        assertFalse(new ModbusTcpInfo("127.0.0.1", 502, 1).isPipelined());
+        assertTrue(new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 4).isPipelined());
+        assertFalse(new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.RTU_OVER_TCP, 2000, 4).isPipelined());
+    }
+
+    /**
+     * 流水线源的锁允许 maxInFlight 个持有者
+     */
+    @Test
+    public void testSourceAllowsMaxInFlightHolders() throws Exception {
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", server.getLocalPort(), 1, ModbusProtocol.TCP, 2000, 2);
+        ModbusSource source = new ModbusSource(info, 1, 100);
+        try {
+            assertEquals(2, source.getMaxInFlight());
+            String first = source.acquire();
+            String second = source.acquire();
+            assertNotNull(first);
+            assertNotNull(second);
+            assertNotEquals(first, second);
+            assertNull(source.acquire(50, TimeUnit.MILLISECONDS));
+            assertTrue(source.release(first));
+            assertTrue(source.release(second));
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ModbusPollScheduler 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusPollSchedulerTest {
+
+    private ModbusPollScheduler pollScheduler;
+    private ModbusSource source;
+    private ModbusReadPlanner planner;
+    private final AtomicInteger sinkCalls = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        pollScheduler = new ModbusPollScheduler();
+        source = mock(ModbusSource.class);
+        when(source.getModbusInfo()).thenReturn(mock(ModbusTcpInfo.class));
+        when(source.acquireAsync()).thenAnswer(invocation -> CompletableFuture.completedFuture("1"));
+        when(source.release(anyString())).thenReturn(true);
+        planner = new ModbusReadPlanner();
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0, 2, (registers, offset) -> sinkCalls.incrementAndGet());
+    }
+
+    @After
+    public void tearDown() {
+        pollScheduler.shutdown();
+    }
+
+    private static ReadHoldingRegistersResponse response() {
+        ReadHoldingRegistersResponse response = mock(ReadHoldingRegistersResponse.class);
+        when(response.isException()).thenReturn(false);
+        when(response.getShortData()).thenReturn(new short[] { 1, 2 });
+        return response;
+    }
+
+    /**
+     * 按周期读取并回调
+     */
+    @Test
+    public void testGroupPollsPeriodically() throws Exception {
+        ReadHoldingRegistersResponse response = response();
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenAnswer(invocation -> CompletableFuture.completedFuture(response));
+        CountDownLatch cycles = new CountDownLatch(3);
+        ModbusPollGroup group = pollScheduler.register("fast", source, planner, 20, ok -> {
+            assertTrue(ok);
+            cycles.countDown();
+        });
+        assertTrue(cycles.await(2, TimeUnit.SECONDS));
+        assertTrue(group.getCycleCount() >= 3);
+        assertEquals(0, group.getFailedCycleCount());
+        assertTrue(sinkCalls.get() >= 3);
+        verify(source, atLeast(3)).release("1");
+    }
+
+    /**
+     * 上一周期未完成时跳过后续周期，完成后统计错过截止时间
+     */
+    @Test
+    public void testSlowCycleSkipsAndMissesDeadline() throws Exception {
+        CompletableFuture<ReadHoldingRegistersResponse> slow = new CompletableFuture<>();
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenReturn(slow);
+        ModbusPollGroup group = pollScheduler.register("slow", source, planner, 20);
+
+        Thread.sleep(150);
+        assertTrue(group.isRunning());
+        assertEquals(0, group.getCycleCount());
+        assertTrue(group.getSkippedCycleCount() >= 2);
+        verify(source, times(1)).readHoldingRegisters(0, 2);
+
+        slow.complete(response());
+        assertEquals(1, group.getCycleCount());
+        assertEquals(1, group.getMissedDeadlineCount());
+        assertTrue(group.getLastDurationMs() >= 100);
+    }
+
+    /**
+     * 读取失败计入失败周期
+     */
+    @Test
+    public void testFailedCycleCounted() throws Exception {
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenAnswer(invocation -> CompletableFuture.completedFuture(null));
+        CountDownLatch cycles = new CountDownLatch(1);
+        ModbusPollGroup group = pollScheduler.register("failing", source, planner, 20, ok -> {
+            assertFalse(ok);
+            cycles.countDown();
+        });
+        assertTrue(cycles.await(2, TimeUnit.SECONDS));
+        assertTrue(group.getFailedCycleCount() >= 1);
+    }
+
+    /**
+     * 同一总线上的轮询组错开相位，不同总线互不影响
+     */
+    @Test
+    public void testPhaseSpreadingPerBus() {
+        CompletableFuture<ReadHoldingRegistersResponse> never = new CompletableFuture<>();
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenReturn(never);
+        ModbusPollGroup first = pollScheduler.register("a", source, planner, 1000);
+        ModbusPollGroup second = pollScheduler.register("b", source, planner, 1000);
+        ModbusPollGroup third = pollScheduler.register("c", source, planner, 1000);
+        assertEquals(0, first.getPhaseMs());
+        assertEquals(618, second.getPhaseMs());
+        assertEquals(236, third.getPhaseMs());
+
+        ModbusSource otherBus = mock(ModbusSource.class);
+        when(otherBus.getModbusInfo()).thenReturn(mock(ModbusTcpInfo.class));
+        assertEquals(0, pollScheduler.register("d", otherBus, planner, 1000).getPhaseMs());
+        assertEquals(4, pollScheduler.getGroups().size());
+    }
+
+    /**
+     * 取消的轮询组让出相位序号，反复注册、取消不会使序号一直增长
+     */
+    @Test
+    public void testUnregisterFreesPhase() {
+        CompletableFuture<ReadHoldingRegistersResponse> never = new CompletableFuture<>();
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenReturn(never);
+        ModbusPollGroup first = pollScheduler.register("a", source, planner, 1000);
+        ModbusPollGroup second = pollScheduler.register("b", source, planner, 1000);
+        assertEquals(618, second.getPhaseMs());
+
+        assertTrue(pollScheduler.unregister(second));
+        for (int i = 0; i < 5; i++) {
+            ModbusPollGroup replacement = pollScheduler.register("b" + i, source, planner, 1000);
+            assertEquals(618, replacement.getPhaseMs());
+            assertTrue(pollScheduler.unregister(replacement));
+        }
+
+        assertTrue(pollScheduler.unregister(first));
+        ModbusPollGroup third = pollScheduler.register("c", source, planner, 1000);
+        assertEquals(0, third.getPhaseMs()); // 总线上没有其他轮询组，从第一个相位开始
+        assertEquals(618, pollScheduler.register("d", source, planner, 1000).getPhaseMs());
+    }
+
+    /**
+     * 取消后不再轮询
+     */
+    @Test
+    public void testUnregisterStopsPolling() throws Exception {
+        ReadHoldingRegistersResponse response = response();
+        when(source.readHoldingRegisters(anyInt(), anyInt())).thenAnswer(invocation -> CompletableFuture.completedFuture(response));
+        ModbusPollGroup group = pollScheduler.register("stopped", source, planner, 10);
+        Thread.sleep(50);
+        assertTrue(pollScheduler.unregister(group));
+        assertTrue(group.isCancelled());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        // 取消时正在执行的周期允许执行完；定时器已进入但未开始的 tick 看到取消后不再开始周期
+        while (group.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(group.isRunning());
+        long cycles = group.getCycleCount();
+        Thread.sleep(50);
+        assertEquals(cycles, group.getCycleCount());
+        assertFalse(pollScheduler.unregister(group));
+        assertTrue(pollScheduler.getGroups().isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.msg.ReadInputRegistersResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * ModbusReadPlanner 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusReadPlannerTest {
+
+    private ModbusSource modbusSource;
+
+    @Before
+    public void setUp() {
+        modbusSource = mock(ModbusSource.class);
+    }
+
+    private static ReadHoldingRegistersResponse holdingResponse(short[] data) {
+        ReadHoldingRegistersResponse response = mock(ReadHoldingRegistersResponse.class);
+        when(response.isException()).thenReturn(false);
+        when(response.getShortData()).thenReturn(data);
+        return response;
+    }
+
+    private static short[] sequence(int start, int count) {
+        short[] data = new short[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = (short) (start + i);
+        }
+        return data;
+    }
+
+    /**
+     * 连续及小间隔的地址合并为一个请求
+     */
+    @Test
+    public void testAdjacentRangesMerged() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(4);
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0x10, 2, (r, o) -> {});
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0x12, 2, (r, o) -> {});
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0x18, 1, (r, o) -> {});
+
+        List<ModbusReadPlanner.ReadBlock> plan = planner.getPlan();
+        assertEquals(1, plan.size());
+        assertEquals(0x10, plan.get(0).getStartAddress());
+        assertEquals(9, plan.get(0).getQuantity());
+        assertEquals(3, plan.get(0).getEntries().size());
+    }
+
+    /**
+     * 间隔超过 maxGap 或寄存器类型不同则拆分
+     */
+    @Test
+    public void testGapAndTypeSplitBlocks() {
+        ModbusReadPlanner planner = new ModbusReadPlanner(0);
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0, 2, (r, o) -> {});
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 3, 1, (r, o) -> {});
+        planner.add(ModbusReadPlanner.RegisterType.INPUT, 0, 2, (r, o) -> {});
+
+        List<ModbusReadPlanner.ReadBlock> plan = planner.getPlan();
+        assertEquals(3, plan.size());
+        assertEquals(ModbusReadPlanner.RegisterType.HOLDING, plan.get(0).getRegisterType());
+        assertEquals(2, plan.get(0).getQuantity());
+        assertEquals(3, plan.get(1).getStartAddress());
+        assertEquals(ModbusReadPlanner.RegisterType.INPUT, plan.get(2).getRegisterType());
+    }
+
+    /**
+     * 单个请求不超过 125 个寄存器
+     */
+    @Test
+    public void testBlockLimitedTo125Registers() {
+        ModbusReadPlanner planner = new ModbusReadPlanner();
+        for (int address = 0; address < 200; address += 2) {
+            planner.add(ModbusReadPlanner.RegisterType.HOLDING, address, 2, (r, o) -> {});
+        }
+        List<ModbusReadPlanner.ReadBlock> plan = planner.getPlan();
+        assertEquals(2, plan.size());
+        assertEquals(124, plan.get(0).getQuantity());
+        assertEquals(124, plan.get(1).getStartAddress());
+        assertEquals(76, plan.get(1).getQuantity());
+    }
+
+    /**
+     * short 类型的高位地址按无符号处理
+     */
+    @Test
+    public void testShortAddressTreatedAsUnsigned() {
+        ModbusReadPlanner planner = new ModbusReadPlanner();
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, (short) 0x8000, 2, (r, o) -> {});
+        assertEquals(0x8000, planner.getPlan().get(0).getStartAddress());
+    }
+
+    /**
+     * 执行后按偏移把寄存器分发给各接收者
+     */
+    @Test
+    public void testExecuteDispatchesRegisters() throws Exception {
+        ModbusReadPlanner planner = new ModbusReadPlanner(4);
+        short[][] received = new short[3][];
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0x10, 2,
+                (r, o) -> received[0] = new short[] { r[o], r[o + 1] });
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0x14, 1,
+                (r, o) -> received[1] = new short[] { r[o] });
+        planner.add(ModbusReadPlanner.RegisterType.INPUT, 0x00, 1,
+                (r, o) -> received[2] = new short[] { r[o] });
+
+        ReadHoldingRegistersResponse holding = holdingResponse(sequence(100, 5));
+        when(modbusSource.readHoldingRegisters(0x10, 5)).thenReturn(CompletableFuture.completedFuture(holding));
+        ReadInputRegistersResponse input = mock(ReadInputRegistersResponse.class);
+        when(input.getShortData()).thenReturn(new short[] { 42 });
+        when(modbusSource.readInputRegisters(0, 1)).thenReturn(CompletableFuture.completedFuture(input));
+
+        assertTrue(planner.execute(modbusSource).get());
+        assertArrayEquals(new short[] { 100, 101 }, received[0]);
+        assertArrayEquals(new short[] { 104 }, received[1]);
+        assertArrayEquals(new short[] { 42 }, received[2]);
+        verify(modbusSource, times(1)).readHoldingRegisters(anyInt(), anyInt());
+        verify(modbusSource, times(1)).readInputRegisters(anyInt(), anyInt());
+    }
+
+    /**
+     * 某个块失败时返回 false，但其他块仍然分发
+     */
+    @Test
+    public void testExecuteFailedBlockDoesNotStopOthers() throws Exception {
+        ModbusReadPlanner planner = new ModbusReadPlanner(0);
+        boolean[] updated = new boolean[2];
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 0, 1, (r, o) -> updated[0] = true);
+        planner.add(ModbusReadPlanner.RegisterType.HOLDING, 10, 1, (r, o) -> updated[1] = true);
+
+        when(modbusSource.readHoldingRegisters(0, 1)).thenReturn(CompletableFuture.completedFuture(null));
+        ReadHoldingRegistersResponse ok = holdingResponse(new short[] { 1 });
+        when(modbusSource.readHoldingRegisters(10, 1)).thenReturn(CompletableFuture.completedFuture(ok));
+
+        assertFalse(planner.execute(modbusSource).get());
+        assertFalse(updated[0]);
+        assertTrue(updated[1]);
+    }
+
+    /**
+     * 非法参数校验
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRangeRejected() {
+        new ModbusReadPlanner().add(ModbusReadPlanner.RegisterType.HOLDING, 0xFFFF, 2, (r, o) -> {});
+    }
+}
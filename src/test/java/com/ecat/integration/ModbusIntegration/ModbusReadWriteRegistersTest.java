@@ -0,0 +1,202 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import com.ecat.core.Utils.TestTools;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlave;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveBehavior;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveFarm;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.msg.WriteRegistersRequest;
+import com.serotonin.modbus4j.msg.WriteRegistersResponse;
+
+/**
+ * FC23 读写多个寄存器测试用例：ModbusSource、DeviceSpecificModbusSource 与 ModbusTransactionStrategy#writeAndVerify
+ *
+ * @author coffee
+ */
+public class ModbusReadWriteRegistersTest {
+
+    private SimulatedSlaveFarm farm;
+    private final List<ModbusSource> sources = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        for (ModbusSource source : sources) {
+            source.destroyResources();
+        }
+        if (farm != null) {
+            farm.close();
+        }
+    }
+
+    private ModbusSource nioSource(SimulatedSlaveFarm.Endpoint endpoint, int slaveId) {
+        ModbusSource source = new ModbusSource(new ModbusTcpInfo(endpoint.getHost(), endpoint.getPort(), slaveId,
+                ModbusProtocol.TCP, 2000, 1, ModbusTcpConnectionMode.NIO, 1), 1, 1000);
+        sources.add(source);
+        return source;
+    }
+
+    /**
+     * 异步 TCP master 下写入和回读为一次事务，写入值和回读值进入缓存
+     */
+    @Test
+    public void testAsyncMasterUsesSingleTransaction() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior());
+        SimulatedSlaveFarm.Endpoint endpoint = farm.getEndpoints().get(0);
+        SimulatedSlave slave = endpoint.getSlave(1);
+        ModbusSource source = nioSource(endpoint, 1);
+        ModbusRegisterCache cache = source.getRegisterCache();
+
+        short[] values = { 500, 501 };
+        short[] dest = new short[3];
+        assertEquals(Integer.valueOf(3), source.readWriteRegisters(10, values, 50, 3, dest, 0).get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 50, 51, 52 }, dest);
+        assertEquals(501, slave.getHoldingRegister(11));
+        assertEquals(1, slave.getRequestCount());
+        assertEquals(1L, source.getMetrics().getTransactionCount());
+        assertArrayEquals(values, cache.get(1, ModbusReadPlanner.RegisterType.HOLDING, 10, 2, 60_000));
+        assertArrayEquals(dest, cache.get(1, ModbusReadPlanner.RegisterType.HOLDING, 50, 3, 60_000));
+
+        // 回读区间覆盖写入区间时读到的是写入后的值
+        assertEquals(Integer.valueOf(2), source.readWriteRegisters(10, new short[] { 7 }, 10, 2, dest, 1)
+                .get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 50, 7, 501 }, dest);
+    }
+
+    /**
+     * 从站返回 ILLEGAL_FUNCTION 时退回 FC16 + FC03，之后该从站直接使用两次事务
+     */
+    @Test
+    public void testUnsupportedSlaveFallsBack() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior().readWriteSupported(false));
+        SimulatedSlaveFarm.Endpoint endpoint = farm.getEndpoints().get(0);
+        SimulatedSlave slave = endpoint.getSlave(1);
+        ModbusSource source = nioSource(endpoint, 1);
+
+        short[] dest = new short[2];
+        assertEquals(Integer.valueOf(2), source.readWriteRegisters(20, new short[] { 42 }, 20, 2, dest, 0)
+                .get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 42, 21 }, dest);
+        assertEquals(3, slave.getRequestCount()); // FC23 被拒绝 + FC16 + FC03
+
+        assertEquals(Integer.valueOf(2), source.readWriteRegisters(20, new short[] { 43 }, 20, 2, dest, 0)
+                .get(2, TimeUnit.SECONDS));
+        assertEquals(43, dest[0]);
+        assertEquals(5, slave.getRequestCount());
+    }
+
+    /**
+     * 原生 RTU master 的 FC23 经请求队列发送，记录事务指标
+     */
+    @Test
+    public void testNativeRtuMasterUsesSingleTransaction() throws Exception {
+        farm = new SimulatedSlaveFarm();
+        SimulatedSlaveFarm.Endpoint endpoint = farm.addEndpoint(ModbusProtocol.RTU_OVER_TCP);
+        endpoint.addSlave(3, new SimulatedSlaveBehavior());
+        try (Socket socket = new Socket(endpoint.getHost(), endpoint.getPort())) {
+            ModbusRtuMaster master = new ModbusRtuMaster(
+                    new ModbusRtuMasterTest.StreamPortWrapper(socket.getInputStream(), socket.getOutputStream()),
+                    new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY));
+            master.setTimeout(1000);
+            master.init();
+            ModbusSerialInfo serialInfo = mock(ModbusSerialInfo.class);
+            when(serialInfo.getSlaveId()).thenReturn(3);
+            ModbusSource source = new ModbusSource(serialInfo, 1, 1000, true, false);
+            sources.add(source);
+            TestTools.setPrivateField(source, "modbusMaster", master);
+
+            short[] dest = new short[1];
+            assertEquals(Integer.valueOf(1), source.readWriteRegisters(0, new short[] { 99 }, 0, 1, dest, 0)
+                    .get(2, TimeUnit.SECONDS));
+            assertEquals(99, dest[0]);
+            assertEquals(1, endpoint.getSlave(3).getRequestCount());
+            assertEquals(1L, source.getMetrics().getTransactionCount());
+        }
+    }
+
+    /**
+     * modbus4j master 没有 FC23：先 FC16 写入，成功后 FC03 回读；写入失败时不再回读
+     */
+    @Test
+    public void testModbus4jMasterFallsBack() throws Exception {
+        ModbusTcpInfo tcpInfo = mock(ModbusTcpInfo.class);
+        TestTools.setPrivateField(tcpInfo, "slaveId", 1);
+        ModbusSource source = new ModbusSource(tcpInfo, 2, 1000);
+        sources.add(source);
+        ModbusMaster master = mock(ModbusMaster.class);
+        TestTools.setPrivateField(source, "modbusMaster", master);
+        TestTools.setPrivateField(source, "modbusInfo", tcpInfo);
+
+        WriteRegistersResponse writeResponse = mock(WriteRegistersResponse.class);
+        ReadHoldingRegistersResponse readResponse = mock(ReadHoldingRegistersResponse.class);
+        when(readResponse.getShortData()).thenReturn(new short[] { 11, 12 });
+        when(master.send(any(WriteRegistersRequest.class))).thenReturn(writeResponse);
+        when(master.send(any(ReadHoldingRegistersRequest.class))).thenReturn(readResponse);
+
+        short[] dest = new short[2];
+        assertEquals(Integer.valueOf(2), source.readWriteRegisters(5, new short[] { 1 }, 6, 2, dest, 0)
+                .get(2, TimeUnit.SECONDS));
+        assertArrayEquals(new short[] { 11, 12 }, dest);
+        InOrder order = inOrder(master);
+        order.verify(master).send(any(WriteRegistersRequest.class));
+        order.verify(master).send(any(ReadHoldingRegistersRequest.class));
+
+        when(writeResponse.isException()).thenReturn(true);
+        when(writeResponse.getExceptionCode()).thenReturn((byte) 2);
+        assertEquals(Integer.valueOf(-2), source.readWriteRegisters(5, new short[] { 1 }, 6, 2, dest, 0)
+                .get(2, TimeUnit.SECONDS));
+        verify(master, times(1)).send(any(ReadHoldingRegistersRequest.class));
+    }
+
+    /**
+     * 共享连接上的设备源按自身的 slaveId 发送 FC23
+     */
+    @Test
+    public void testDeviceSpecificSourceUsesDeviceSlaveId() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior());
+        SimulatedSlaveFarm.Endpoint endpoint = farm.getEndpoints().get(0);
+        endpoint.addSlave(2, new SimulatedSlaveBehavior());
+        ModbusSource shared = nioSource(endpoint, 1);
+        DeviceSpecificModbusSource device = new DeviceSpecificModbusSource(shared, endpoint.tcpInfo(2, 2000, 1), "dev-2");
+
+        short[] dest = new short[1];
+        assertEquals(Integer.valueOf(1), device.readWriteRegisters(30, new short[] { -1 }, 30, 1, dest, 0)
+                .get(2, TimeUnit.SECONDS));
+        assertEquals(-1, dest[0]);
+        assertEquals((short) -1, endpoint.getSlave(2).getHoldingRegister(30));
+        assertEquals(30, endpoint.getSlave(1).getHoldingRegister(30));
+    }
+
+    /**
+     * 写入后校验：回读值满足条件返回 true，不满足或异常响应返回 false，锁在完成后释放
+     */
+    @Test
+    public void testWriteAndVerify() throws Exception {
+        farm = SimulatedSlaveFarm.start(1, ModbusProtocol.TCP, new SimulatedSlaveBehavior());
+        SimulatedSlaveFarm.Endpoint endpoint = farm.getEndpoints().get(0);
+        ModbusSource source = nioSource(endpoint, 1);
+
+        assertTrue(ModbusTransactionStrategy.writeAndVerify(source, 100, new short[] { 1 }, 100, 2,
+                readBack -> readBack[0] == 1 && readBack[1] == 101).get(2, TimeUnit.SECONDS));
+        assertFalse(ModbusTransactionStrategy.writeAndVerify(source, 100, new short[] { 2 }, 100, 1,
+                readBack -> readBack[0] == 1).get(2, TimeUnit.SECONDS));
+        assertFalse(ModbusTransactionStrategy.writeAndVerify(source, 100, new short[] { 3 }, 2000, 1,
+                readBack -> true).get(2, TimeUnit.SECONDS)); // 地址越界，异常响应
+        assertEquals(0, source.getWaitingCount());
+        assertNotNull(source.acquire());
+    }
+}
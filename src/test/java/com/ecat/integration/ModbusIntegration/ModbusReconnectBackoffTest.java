@@ -0,0 +1,160 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import java.lang.reflect.Field;
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ModbusReconnectBackoff 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusReconnectBackoffTest {
+
+    /**
+     * 连接失败后进入退避，连续失败时退避时间加倍直到上限
+     */
+    @Test
+    public void testBackoffDoublesUpToMax() {
+        ModbusReconnectBackoff backoff = new ModbusReconnectBackoff(1000, 3000);
+        assertFalse(backoff.isBackingOff());
+        assertTrue(backoff.recordConnectFailure());
+        assertTrue(backoff.isBackingOff());
+        assertEquals(1000, backoff.getBackoffMs());
+        assertFalse(backoff.recordConnectFailure());
+        assertEquals(2000, backoff.getBackoffMs());
+        backoff.recordConnectFailure();
+        assertEquals(3000, backoff.getBackoffMs());
+        backoff.recordConnectFailure();
+        assertEquals(3000, backoff.getBackoffMs());
+        assertEquals(4, backoff.getConsecutiveFailures());
+    }
+
+    /**
+     * 退避时间到后放行重连；收到应答后恢复，再次失败时从最短退避重新开始
+     */
+    @Test
+    public void testSuccessResetsBackoff() throws Exception {
+        ModbusReconnectBackoff backoff = new ModbusReconnectBackoff(30, 1000);
+        assertFalse(backoff.recordSuccess());
+        backoff.recordConnectFailure();
+        backoff.recordConnectFailure();
+        assertTrue(backoff.isBackingOff());
+        Thread.sleep(100);
+        assertFalse(backoff.isBackingOff());
+
+        assertTrue(backoff.recordSuccess());
+        assertEquals(0, backoff.getConsecutiveFailures());
+        assertEquals(0, backoff.getBackoffMs());
+        assertTrue(backoff.recordConnectFailure());
+        assertEquals(30, backoff.getBackoffMs());
+    }
+
+    /**
+     * 非法参数
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidArguments() {
+        new ModbusReconnectBackoff(1000, 500);
+    }
+
+    /**
+     * 网关不可达时只尝试一次连接，退避期间排队和后续的请求立即失败，不再占用工作线程等待连接超时
+     */
+    @Test
+    public void testUnreachableEndpointFailsFast() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ModbusSource source = tcpSource(attempts,
+                request -> new ModbusTransportException(new ConnectException("Connection refused"), request.getSlaveId()));
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(1, attempts.get());
+            assertTrue(source.getReconnectBackoff().isBackingOff());
+            assertEquals(9, source.getMetrics().getReconnectRejectedCount());
+            assertEquals(1, source.getMetrics().getTransportErrorCount());
+            assertFalse(source.broadcastWriteRegister(0, 1).get(2, TimeUnit.SECONDS));
+            assertEquals(1, attempts.get());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 从站应答超时说明连接正常，不触发退避（由熔断器按从站处理）
+     */
+    @Test
+    public void testReplyTimeoutDoesNotBackOff() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        ModbusSource source = tcpSource(attempts,
+                request -> new ModbusTransportException(new TimeoutException("no response"), request.getSlaveId()));
+        try {
+            assertNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            assertNull(source.readHoldingRegistersWithSlaveId(2, 0, 1).get(2, TimeUnit.SECONDS));
+            assertEquals(2, attempts.get());
+            assertFalse(source.getReconnectBackoff().isBackingOff());
+            assertEquals(0, source.getMetrics().getReconnectRejectedCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 串口没有连接过程，不创建退避
+     */
+    @Test
+    public void testSerialSourceHasNoBackoff() throws Exception {
+        ModbusSerialInfo info = new ModbusSerialInfo("/dev/ttyS0", 9600, 8, 1, 0, 500, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100, true, false);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, mock(ModbusMaster.class));
+        try {
+            assertNull(source.getReconnectBackoff());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    private static ModbusSource tcpSource(AtomicInteger attempts,
+            Function<ModbusRequest, ModbusTransportException> failure) throws Exception {
+        ModbusMaster master = new ModbusMaster() {
+            @Override
+            public void init() throws ModbusInitException {
+                initialized = true;
+            }
+
+            @Override
+            public void destroy() {
+                initialized = false;
+            }
+
+            @Override
+            public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+                attempts.incrementAndGet();
+                throw failure.apply(request);
+            }
+        };
+        master.init();
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 500, 1,
+                ModbusTcpConnectionMode.SHORT, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100, true, false);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        return source;
+    }
+}
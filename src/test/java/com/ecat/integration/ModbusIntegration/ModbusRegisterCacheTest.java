@@ -0,0 +1,234 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.msg.WriteRegisterResponse;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * ModbusRegisterCache 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusRegisterCacheTest {
+
+    private static final ModbusReadPlanner.RegisterType HOLDING = ModbusReadPlanner.RegisterType.HOLDING;
+    private static final ModbusReadPlanner.RegisterType INPUT = ModbusReadPlanner.RegisterType.INPUT;
+
+    /**
+     * 时效内命中，超过时效或部分缺失时未命中
+     */
+    @Test
+    public void testHitWithinMaxAge() throws Exception {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        cache.put(1, HOLDING, 10, new short[] { 1, 2, 3 });
+        assertArrayEquals(new short[] { 2, 3 }, cache.get(1, HOLDING, 11, 2, 1000));
+        assertNull(cache.get(1, HOLDING, 10, 4, 1000));
+        Thread.sleep(30);
+        assertNull(cache.get(1, HOLDING, 10, 3, 10));
+        assertNotNull(cache.get(1, HOLDING, 10, 3, 1000));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * 从站和寄存器类型互不影响
+     */
+    @Test
+    public void testKeysIncludeSlaveAndType() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        cache.put(1, HOLDING, 0, new short[] { 7 });
+        assertNull(cache.get(2, HOLDING, 0, 1, 1000));
+        assertNull(cache.get(1, INPUT, 0, 1, 1000));
+        cache.put(1, INPUT, 0, new short[] { 8 });
+        assertArrayEquals(new short[] { 7 }, cache.get(1, HOLDING, 0, 1, 1000));
+        assertArrayEquals(new short[] { 8 }, cache.get(1, INPUT, 0, 1, 1000));
+    }
+
+    /**
+     * 失效指定区间
+     */
+    @Test
+    public void testInvalidate() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        cache.put(1, HOLDING, 0, new short[] { 1, 2, 3, 4 });
+        cache.invalidate(1, HOLDING, 1, 2);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(1, HOLDING, 0, 1, 1000));
+        assertNull(cache.get(1, HOLDING, 0, 2, 1000));
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 超出容量时淘汰最久未访问的寄存器
+     */
+    @Test
+    public void testLruEviction() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(4);
+        cache.put(1, HOLDING, 0, new short[] { 0, 1, 2, 3 });
+        assertNotNull(cache.get(1, HOLDING, 0, 1, 1000)); // 访问地址 0
+        cache.put(2, HOLDING, 0, new short[] { 9 });
+        assertEquals(4, cache.size());
+        assertNotNull(cache.get(1, HOLDING, 0, 1, 1000));
+        assertNull(cache.get(1, HOLDING, 1, 1, 1000));
+        assertNotNull(cache.get(2, HOLDING, 0, 1, 1000));
+
+        for (int slave = 0; slave < 200; slave++) {
+            cache.put(slave, INPUT, 0, new short[] { 1, 2, 3 });
+        }
+        assertEquals(4, cache.size());
+    }
+
+    /**
+     * 写入前发出、写入后返回的读取不覆盖写入的值，未被写入的寄存器照常缓存
+     */
+    @Test
+    public void testReadIssuedBeforeWriteDoesNotOverwrite() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        long readGeneration = cache.currentGeneration();
+        long writeGeneration = cache.invalidate(1, HOLDING, 0, 2);
+        cache.putWritten(1, HOLDING, 0, new short[] { 5, 6 }, writeGeneration);
+        cache.putRead(1, HOLDING, 0, new short[] { 1, 2, 3 }, 0, 3, readGeneration);
+        assertArrayEquals(new short[] { 5, 6, 3 }, cache.get(1, HOLDING, 0, 3, 1000));
+
+        // 写入后发出的读取正常更新
+        cache.putRead(1, HOLDING, 0, new short[] { 7 }, 0, 1, cache.currentGeneration());
+        assertArrayEquals(new short[] { 7 }, cache.get(1, HOLDING, 0, 1, 1000));
+    }
+
+    /**
+     * 失效前发出的读取不再写入，失效的寄存器不计入 size
+     */
+    @Test
+    public void testReadIssuedBeforeInvalidateIsDropped() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        cache.put(1, HOLDING, 0, new short[] { 1 });
+        long readGeneration = cache.currentGeneration();
+        cache.invalidate(1, HOLDING, 0, 1);
+        cache.invalidate(1, HOLDING, 5, 1); // 未缓存的寄存器同样记录代数
+        cache.putRead(1, HOLDING, 0, new short[] { 2 }, 0, 1, readGeneration);
+        cache.putRead(1, HOLDING, 5, new short[] { 2 }, 0, 1, readGeneration);
+        assertNull(cache.get(1, HOLDING, 0, 1, 1000));
+        assertNull(cache.get(1, HOLDING, 5, 1, 1000));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * 两次写入重叠时，先发出的写入在后发出的写入之后完成也不覆盖；后发出的写入先完成时先发出的写入保持失效
+     */
+    @Test
+    public void testOverlappingWrites() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(100);
+        long first = cache.invalidate(1, HOLDING, 0, 1);
+        long second = cache.invalidate(1, HOLDING, 0, 1);
+        cache.putWritten(1, HOLDING, 0, new short[] { 2 }, second);
+        cache.putWritten(1, HOLDING, 0, new short[] { 1 }, first);
+        assertArrayEquals(new short[] { 2 }, cache.get(1, HOLDING, 0, 1, 1000));
+
+        first = cache.invalidate(1, HOLDING, 0, 1);
+        cache.invalidate(1, HOLDING, 0, 1);
+        cache.putWritten(1, HOLDING, 0, new short[] { 3 }, first);
+        assertNull(cache.get(1, HOLDING, 0, 1, 1000));
+    }
+
+    /**
+     * 失效条目被淘汰、所有从站失效或清空后，此前发出的读取不写入缺失的寄存器
+     */
+    @Test
+    public void testOlderReadDroppedAfterEvictionAndBroadcast() {
+        ModbusRegisterCache cache = new ModbusRegisterCache(2);
+        long readGeneration = cache.currentGeneration();
+        cache.invalidate(1, HOLDING, 0, 1);
+        cache.put(2, HOLDING, 0, new short[] { 1, 2 }); // 淘汰失效条目
+        cache.putRead(1, HOLDING, 0, new short[] { 9 }, 0, 1, readGeneration);
+        assertNull(cache.get(1, HOLDING, 0, 1, 1000));
+
+        readGeneration = cache.currentGeneration();
+        cache.invalidateAllSlaves(INPUT, 0, 1);
+        cache.putRead(3, INPUT, 0, new short[] { 9 }, 0, 1, readGeneration);
+        assertNull(cache.get(3, INPUT, 0, 1, 1000));
+
+        readGeneration = cache.currentGeneration();
+        cache.clear();
+        cache.putRead(3, INPUT, 0, new short[] { 9 }, 0, 1, readGeneration);
+        assertEquals(0, cache.size());
+        cache.putRead(3, INPUT, 0, new short[] { 9 }, 0, 1, cache.currentGeneration());
+        assertEquals(1, cache.size());
+    }
+
+    /**
+     * 长连接池上读取先发出、写入先完成时，读取返回的写入前的值不覆盖缓存中写入的值
+     */
+    @Test
+    public void testSourceKeepsWrittenValueAgainstSlowerRead() throws Exception {
+        ReadHoldingRegistersResponse stale = mock(ReadHoldingRegistersResponse.class);
+        when(stale.getShortData()).thenReturn(new short[] { 11 });
+        WriteRegisterResponse written = mock(WriteRegisterResponse.class);
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch writeDone = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        ModbusMaster master = new ModbusMaster() {
+            @Override
+            public void init() throws ModbusInitException {
+                initialized = true;
+            }
+
+            @Override
+            public void destroy() {
+                initialized = false;
+            }
+
+            @Override
+            public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+                if (!(request instanceof ReadHoldingRegistersRequest)) {
+                    return written;
+                }
+                reads.incrementAndGet();
+                readStarted.countDown();
+                try {
+                    writeDone.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return stale;
+            }
+        };
+        master.init();
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 500, 1,
+                ModbusTcpConnectionMode.KEEP_ALIVE, 2);
+        ModbusSource source = new ModbusSource(info, 4, 1000, true, false);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        try {
+            ModbusRegisterCache cache = source.getRegisterCache();
+            CompletableFuture<ReadHoldingRegistersResponse> read = source.readHoldingRegistersWithSlaveId(1, 0, 1);
+            assertTrue(readStarted.await(2, TimeUnit.SECONDS));
+            assertNotNull(source.writeRegisterWithSlaveId(1, 0, 44).get(2, TimeUnit.SECONDS));
+            writeDone.countDown();
+            assertSame(stale, read.get(2, TimeUnit.SECONDS));
+
+            assertArrayEquals(new short[] { 44 }, cache.get(1, HOLDING, 0, 1, 60_000));
+            assertArrayEquals(new short[] { 44 },
+                    source.readHoldingRegistersWithSlaveId(1, 0, 1, 60_000).get(2, TimeUnit.SECONDS).getShortData());
+            assertEquals(1, reads.get());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
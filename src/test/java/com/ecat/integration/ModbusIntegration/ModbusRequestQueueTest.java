@@ -0,0 +1,157 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.WriteRegisterRequest;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ModbusRequestQueue 及 ModbusSource 请求优先级测试用例
+ *
+ * @author coffee
+ */
+public class ModbusRequestQueueTest {
+
+    private static Runnable named(List<String> order, String name) {
+        return () -> order.add(name);
+    }
+
+    private static void drain(ModbusRequestQueue queue) {
+        Runnable task;
+        while ((task = queue.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * 高优先级先出队，同一优先级内保持提交顺序
+     */
+    @Test
+    public void testPriorityOrder() {
+        ModbusRequestQueue queue = new ModbusRequestQueue(60_000);
+        List<String> order = new ArrayList<>();
+        queue.add(ModbusPriority.BULK, named(order, "bulk-1"));
+        queue.add(ModbusPriority.NORMAL, named(order, "normal-1"));
+        queue.add(ModbusPriority.BULK, named(order, "bulk-2"));
+        queue.add(ModbusPriority.HIGH, named(order, "high-1"));
+        queue.add(ModbusPriority.HIGH, named(order, "high-2"));
+        assertEquals(5, queue.size());
+        drain(queue);
+        assertEquals(Arrays.asList("high-1", "high-2", "normal-1", "bulk-1", "bulk-2"), order);
+        assertEquals(0, queue.size());
+        assertNull(queue.poll());
+    }
+
+    /**
+     * 等待超过老化周期的低优先级请求排到新的高优先级请求之前
+     */
+    @Test
+    public void testAgingPreventsStarvation() throws Exception {
+        ModbusRequestQueue queue = new ModbusRequestQueue(20);
+        List<String> order = new ArrayList<>();
+        queue.add(ModbusPriority.BULK, named(order, "bulk"));
+        Thread.sleep(60); // 超过两个老化周期，BULK 提升到 HIGH 级别
+        queue.add(ModbusPriority.HIGH, named(order, "high"));
+        drain(queue);
+        assertEquals(Arrays.asList("bulk", "high"), order);
+    }
+
+    /**
+     * 移除未执行的请求
+     */
+    @Test
+    public void testRemove() {
+        ModbusRequestQueue queue = new ModbusRequestQueue(1000);
+        List<String> order = new ArrayList<>();
+        ModbusRequestQueue.Entry entry = queue.add(ModbusPriority.NORMAL, named(order, "removed"));
+        queue.add(ModbusPriority.NORMAL, named(order, "kept"));
+        assertTrue(queue.remove(entry));
+        assertFalse(queue.remove(entry));
+        drain(queue);
+        assertEquals(Collections.singletonList("kept"), order);
+    }
+
+    /**
+     * 记录发送顺序的 master，第一个请求阻塞直到放行
+     */
+    private static class RecordingMaster extends ModbusMaster {
+        private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch firstStarted = new CountDownLatch(1);
+        private final CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        @Override
+        public void init() throws ModbusInitException {
+            initialized = true;
+        }
+
+        @Override
+        public void destroy() {
+            initialized = false;
+        }
+
+        @Override
+        public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+            String name = request instanceof WriteRegisterRequest ? "write"
+                    : "read-" + request.getSlaveId();
+            if (sent.isEmpty()) {
+                sent.add(name);
+                firstStarted.countDown();
+                try {
+                    releaseFirst.await(2, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else {
+                sent.add(name);
+            }
+            return mock(ModbusResponse.class);
+        }
+    }
+
+    /**
+     * 总线忙时排队的写请求和指定为 HIGH 的读请求先于普通读取和批量轮询发送
+     */
+    @Test
+    public void testSourceSendsHighPriorityFirst() throws Exception {
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.SHORT, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100);
+        RecordingMaster master = new RecordingMaster();
+        master.init();
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        try {
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            futures.add(source.readHoldingRegistersWithSlaveId(10, 0, 1));
+            assertTrue(master.firstStarted.await(2, TimeUnit.SECONDS));
+
+            futures.add(ModbusPriority.with(ModbusPriority.BULK, () -> source.readHoldingRegistersWithSlaveId(11, 0, 1)));
+            futures.add(source.readHoldingRegistersWithSlaveId(12, 0, 1));
+            futures.add(source.writeRegister(3, 1));
+            futures.add(ModbusPriority.with(ModbusPriority.HIGH, () -> source.readHoldingRegistersWithSlaveId(14, 0, 1)));
+            assertEquals(4, source.getQueuedRequestCount());
+
+            master.releaseFirst.countDown();
+            for (CompletableFuture<?> future : futures) {
+                assertNotNull(future.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(Arrays.asList("read-10", "write", "read-14", "read-12", "read-11"), master.sent);
+            assertEquals(0, source.getQueuedRequestCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
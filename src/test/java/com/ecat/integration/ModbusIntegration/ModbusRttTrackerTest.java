@@ -0,0 +1,207 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import org.mockito.ArgumentCaptor;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ModbusRttTracker 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusRttTrackerTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * 样本不足时使用配置的最大超时
+     */
+    @Test
+    public void testUsesMaxTimeoutUntilEnoughSamples() {
+        ModbusRttTracker tracker = new ModbusRttTracker(100, 2000);
+        assertEquals(2000, tracker.getTimeoutMs(1));
+        tracker.recordSuccess(1, 20 * MS);
+        tracker.recordSuccess(1, 20 * MS);
+        assertEquals(2000, tracker.getTimeoutMs(1));
+        tracker.recordSuccess(1, 20 * MS);
+        assertTrue(tracker.getTimeoutMs(1) < 2000);
+    }
+
+    /**
+     * 稳定时延收敛到接近 RTT，受下限约束
+     */
+    @Test
+    public void testConvergesAndClampsToMinimum() {
+        ModbusRttTracker tracker = new ModbusRttTracker(100, 2000);
+        for (int i = 0; i < 50; i++) {
+            tracker.recordSuccess(1, 20 * MS);
+        }
+        assertEquals(20.0, tracker.getSmoothedRttMs(1), 0.5);
+        assertEquals(100, tracker.getTimeoutMs(1));
+
+        for (int i = 0; i < 50; i++) {
+            tracker.recordSuccess(2, 300 * MS);
+        }
+        int timeout = tracker.getTimeoutMs(2);
+        assertTrue("timeout: " + timeout, timeout >= 300 && timeout < 400);
+    }
+
+    /**
+     * 时延抖动越大超时越长
+     */
+    @Test
+    public void testJitterWidensTimeout() {
+        ModbusRttTracker tracker = new ModbusRttTracker(1, 5000);
+        for (int i = 0; i < 50; i++) {
+            tracker.recordSuccess(1, 200 * MS);
+            tracker.recordSuccess(2, (i % 2 == 0 ? 100 : 300) * MS);
+        }
+        assertTrue(tracker.getTimeoutMs(2) > tracker.getTimeoutMs(1));
+    }
+
+    /**
+     * 连续超时按倍数放大，收到应答后恢复
+     */
+    @Test
+    public void testTimeoutBackoffAndRecovery() {
+        ModbusRttTracker tracker = new ModbusRttTracker(10, 2000);
+        for (int i = 0; i < 20; i++) {
+            tracker.recordSuccess(1, 50 * MS);
+        }
+        int base = tracker.getTimeoutMs(1);
+        tracker.recordTimeout(1);
+        assertEquals(Math.min(2000, base * 2), tracker.getTimeoutMs(1), 1);
+        for (int i = 0; i < 10; i++) {
+            tracker.recordTimeout(1);
+        }
+        assertEquals(2000, tracker.getTimeoutMs(1));
+        assertEquals(11, tracker.getTimeoutCount(1));
+
+        tracker.recordSuccess(1, 50 * MS);
+        assertTrue(tracker.getTimeoutMs(1) <= base + 1);
+    }
+
+    /**
+     * 各从站独立统计
+     */
+    @Test
+    public void testSlavesAreIndependent() {
+        ModbusRttTracker tracker = new ModbusRttTracker(100, 2000);
+        for (int i = 0; i < 10; i++) {
+            tracker.recordSuccess(1, 10 * MS);
+        }
+        assertEquals(100, tracker.getTimeoutMs(1));
+        assertEquals(2000, tracker.getTimeoutMs(2));
+        assertEquals(-1, tracker.getSmoothedRttMs(2), 0.0);
+    }
+
+    /**
+     * 短连接 TCP 源在每次发送前按从站设置超时，超时的从站不影响其他从站
+     */
+    @Test
+    public void testSourceAppliesPerSlaveTimeout() throws Exception {
+        List<Integer> appliedTimeouts = Collections.synchronizedList(new ArrayList<>());
+        ModbusResponse response = mock(ModbusResponse.class); // 首次创建 mock 较慢，不能计入 RTT 样本
+        ModbusMaster master = new ModbusMaster() {
+            @Override
+            public void init() throws ModbusInitException {
+                initialized = true;
+            }
+
+            @Override
+            public void destroy() {
+                initialized = false;
+            }
+
+            @Override
+            public void setTimeout(int timeout) {
+                super.setTimeout(timeout);
+                appliedTimeouts.add(timeout);
+            }
+
+            @Override
+            public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+                if (request.getSlaveId() == 2) {
+                    throw new ModbusTransportException(new TimeoutException("no response"), 2);
+                }
+                return response;
+            }
+        };
+        master.init();
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.SHORT, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            }
+            assertNull(source.readHoldingRegistersWithSlaveId(2, 0, 1).get(2, TimeUnit.SECONDS));
+
+            ModbusRttTracker tracker = source.getRttTracker();
+            assertEquals(Const.DEFAULT_ADAPTIVE_TIMEOUT_MIN_MS.intValue(), tracker.getTimeoutMs(1));
+            assertEquals(1, tracker.getTimeoutCount(2));
+            // 前 3 次使用配置值，之后使用自适应值
+            assertEquals(Integer.valueOf(2000), appliedTimeouts.get(0));
+            assertEquals(Const.DEFAULT_ADAPTIVE_TIMEOUT_MIN_MS, appliedTimeouts.get(4));
+            assertEquals(Integer.valueOf(2000), appliedTimeouts.get(5));
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 原生 RTU master 每次等待应答都读取超时设置，串口源在每次发送前（含 FC23）按从站设置超时
+     */
+    @Test
+    public void testSourceAppliesPerSlaveTimeoutToNativeRtuMaster() throws Exception {
+        ModbusRtuMaster master = mock(ModbusRtuMaster.class);
+        when(master.send(any(ModbusRequest.class))).thenReturn(mock(ModbusResponse.class));
+        when(master.readWriteRegisters(anyInt(), anyInt(), anyInt(), any(short[].class), anyInt(), anyInt(),
+                any(short[].class), anyInt(), anyInt())).thenReturn(1);
+        ModbusSerialInfo info = new ModbusSerialInfo("/dev/ttyS0", 9600, 8, 1, 0, 500, 1, true);
+        ModbusSource source = new ModbusSource(info, 1, 100, true, false);
+        Field field = ModbusSource.class.getDeclaredField("modbusMaster");
+        field.setAccessible(true);
+        field.set(source, master);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            }
+            assertEquals(Integer.valueOf(1), source.readWriteRegistersWithSlaveId(1, 0, new short[] { 1 }, 0, 1,
+                    new short[1], 0).get(2, TimeUnit.SECONDS));
+            ArgumentCaptor<Integer> applied = ArgumentCaptor.forClass(Integer.class);
+            verify(master, times(6)).setTimeout(applied.capture());
+            // 前 3 次使用配置值，之后使用自适应值
+            assertEquals(Integer.valueOf(500), applied.getAllValues().get(0));
+            assertEquals(Const.DEFAULT_ADAPTIVE_TIMEOUT_MIN_MS, applied.getAllValues().get(5));
+
+            source.setAdaptiveTimeout(false);
+            assertNotNull(source.readHoldingRegistersWithSlaveId(1, 0, 1).get(2, TimeUnit.SECONDS));
+            verify(master, times(7)).setTimeout(applied.capture());
+            assertEquals(Integer.valueOf(500), applied.getValue());
+        } finally {
+            source.destroyResources();
+        }
+    }
+}
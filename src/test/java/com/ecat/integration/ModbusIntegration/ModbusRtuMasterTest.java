@@ -0,0 +1,338 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlave;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveBehavior;
+import com.ecat.integration.ModbusIntegration.Simulation.SimulatedSlaveFarm;
+import com.ecat.integration.SerialIntegration.SerialSource;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.msg.WriteRegistersRequest;
+import com.serotonin.modbus4j.msg.WriteRegistersResponse;
+import com.serotonin.modbus4j.serial.SerialPortWrapper;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+/**
+ * ModbusRtuMaster 与 ModbusRtuTiming 测试用例
+ *
+ * <p>串口由连接到 SimulatedSlaveFarm RTU over TCP 端点的 Socket 代替，线路上是同样的 RTU 帧。
+ *
+ * @author coffee
+ */
+public class ModbusRtuMasterTest {
+
+    private SimulatedSlaveFarm farm;
+    private SimulatedSlaveFarm.Endpoint endpoint;
+    private Socket socket;
+    private ModbusRtuMaster master;
+
+    /**
+     * 以 Socket 的输入输出流模拟串口
+     */
+    static class StreamPortWrapper implements SerialPortWrapper {
+        private final InputStream in;
+        private final OutputStream out;
+
+        StreamPortWrapper(InputStream in, OutputStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return in;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return out;
+        }
+
+        @Override
+        public int getBaudRate() {
+            return 115200;
+        }
+
+        @Override
+        public int getDataBits() {
+            return 8;
+        }
+
+        @Override
+        public int getStopBits() {
+            return ModbusSerialInfo.ONE_STOP_BIT;
+        }
+
+        @Override
+        public int getParity() {
+            return ModbusSerialInfo.NO_PARITY;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        farm = new SimulatedSlaveFarm();
+        endpoint = farm.addEndpoint(ModbusProtocol.RTU_OVER_TCP);
+        endpoint.addSlave(1, new SimulatedSlaveBehavior());
+        socket = new Socket(endpoint.getHost(), endpoint.getPort());
+        socket.setTcpNoDelay(true);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (master != null) {
+            master.destroy();
+        }
+        socket.close();
+        farm.close();
+    }
+
+    private ModbusRtuMaster createMaster(ModbusRtuTiming timing, int timeoutMs, int retries) throws Exception {
+        master = new ModbusRtuMaster(new StreamPortWrapper(socket.getInputStream(), socket.getOutputStream()), timing);
+        master.setTimeout(timeoutMs);
+        master.setRetries(retries);
+        master.init();
+        return master;
+    }
+
+    /**
+     * 字符时间由起始位、数据位、校验位和停止位计算；19200 以上使用固定 t1.5/t3.5
+     */
+    @Test
+    public void testTimingFromSerialParameters() {
+        ModbusRtuTiming timing8N1 = new ModbusRtuTiming(9600, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY);
+        assertEquals(10.0, timing8N1.getBitsPerChar(), 0.0);
+        assertEquals(1_041_666L, timing8N1.getCharNanos());
+        assertEquals(1_562_499L, timing8N1.getT15Nanos());
+        assertEquals(3_645_831L, timing8N1.getT35Nanos());
+        assertEquals(8 * 1_041_666L, timing8N1.transmitNanos(8));
+
+        ModbusRtuTiming timing8E1 = new ModbusRtuTiming(19200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.EVEN_PARITY);
+        assertEquals(11.0, timing8E1.getBitsPerChar(), 0.0);
+        assertEquals(572_916L, timing8E1.getCharNanos());
+
+        ModbusRtuTiming timing7O15 = new ModbusRtuTiming(9600, 7, ModbusSerialInfo.ONE_POINT_FIVE_STOP_BITS,
+                ModbusSerialInfo.ODD_PARITY);
+        assertEquals(10.5, timing7O15.getBitsPerChar(), 0.0);
+
+        ModbusRtuTiming timing8N2 = ModbusRtuTiming.of(new ModbusSerialInfo("COM1", 9600, 8,
+                ModbusSerialInfo.TWO_STOP_BITS, ModbusSerialInfo.NO_PARITY, 1000, 1));
+        assertEquals(11.0, timing8N2.getBitsPerChar(), 0.0);
+
+        ModbusRtuTiming fast = new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY);
+        assertEquals(750_000L, fast.getT15Nanos());
+        assertEquals(1_750_000L, fast.getT35Nanos());
+    }
+
+    /**
+     * 按功能码和字节数字段计算应答帧长度
+     */
+    @Test
+    public void testExpectedResponseLength() {
+        assertEquals(0, ModbusRtuMaster.expectedResponseLength(new byte[] { 1 }, 1));
+        assertEquals(0, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 3 }, 2));
+        assertEquals(3 + 20 + 2, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 3, 20 }, 3));
+        assertEquals(3 + 1 + 2, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 1, 1 }, 3));
+        assertEquals(5, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, (byte) 0x83 }, 2));
+        assertEquals(8, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 16 }, 2));
+        assertEquals(8, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 6 }, 2));
+        assertEquals(10, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 22 }, 2));
+        assertEquals(0, ModbusRtuMaster.expectedResponseLength(new byte[] { 1, 43 }, 2));
+    }
+
+    /**
+     * 读写请求经 RTU 帧往返，异常应答按 modbus4j 异常响应返回
+     */
+    @Test
+    public void testReadWriteAndExceptionResponse() throws Exception {
+        endpoint.addSlave(2, new SimulatedSlaveBehavior().exceptionRate(1.0));
+        createMaster(new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY), 1000, 0);
+
+        ReadHoldingRegistersResponse read = (ReadHoldingRegistersResponse) master.send(
+                new ReadHoldingRegistersRequest(1, 40, 3));
+        assertFalse(read.isException());
+        assertArrayEquals(new short[] { 40, 41, 42 }, read.getShortData());
+
+        WriteRegistersResponse write = (WriteRegistersResponse) master.send(
+                new WriteRegistersRequest(1, 10, new short[] { 7, 8 }));
+        assertFalse(write.isException());
+        assertEquals(8, endpoint.getSlave(1).getHoldingRegister(11));
+
+        ReadHoldingRegistersResponse failed = (ReadHoldingRegistersResponse) master.send(
+                new ReadHoldingRegistersRequest(2, 0, 1));
+        assertTrue(failed.isException());
+        assertEquals(SimulatedSlaveBehavior.SLAVE_DEVICE_FAILURE, failed.getExceptionCode());
+    }
+
+    /**
+     * FC23 写入和回读在一次 RTU 事务内完成；不支持 FC23 的从站返回 ILLEGAL_FUNCTION，不执行写入
+     */
+    @Test
+    public void testReadWriteRegistersInOneTransaction() throws Exception {
+        endpoint.addSlave(2, new SimulatedSlaveBehavior().readWriteSupported(false));
+        createMaster(new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY), 1000, 0);
+        SimulatedSlave slave = endpoint.getSlave(1);
+        long requests = slave.getRequestCount();
+
+        short[] dest = new short[4];
+        assertEquals(3, master.readWriteRegisters(1, 19, 3, dest, 1, 20, new short[] { 9, 100, 101 }, 1, 2));
+        assertArrayEquals(new short[] { 0, 19, 100, 101 }, dest);
+        assertEquals(101, slave.getHoldingRegister(21));
+        assertEquals(requests + 1, slave.getRequestCount());
+
+        assertEquals(-1, master.readWriteRegisters(2, 0, 1, dest, 0, 0, new short[] { 5 }, 0, 1));
+        assertEquals(0, endpoint.getSlave(2).getHoldingRegister(0));
+        try {
+            master.readWriteRegisters(1, 0, 126, new short[126], 0, 0, new short[] { 1 }, 0, 1);
+            fail("Should reject 126 read registers");
+        } catch (ModbusTransportException expected) {
+        }
+    }
+
+    /**
+     * 连续请求之间只等待 t3.5 静默：低波特率下间隔不小于 t3.5，高波特率下不引入额外延时
+     */
+    @Test
+    public void testInterFrameDelayFollowsBaudrate() throws Exception {
+        ModbusRtuTiming slow = new ModbusRtuTiming(1200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY);
+        createMaster(slow, 1000, 0);
+        int requests = 5;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            master.send(new ReadHoldingRegistersRequest(1, i, 1));
+        }
+        long slowElapsed = System.nanoTime() - start;
+        assertTrue("elapsed " + slowElapsed, slowElapsed >= (requests - 1) * slow.getT35Nanos());
+        master.destroy();
+
+        createMaster(new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY), 1000, 0);
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            master.send(new ReadHoldingRegistersRequest(1, i, 1));
+        }
+        long fastElapsed = System.nanoTime() - start;
+        assertTrue("fast " + fastElapsed + " vs slow " + slowElapsed, fastElapsed < slowElapsed);
+    }
+
+    /**
+     * 从站不应答时超时，并按 retries 重发
+     */
+    @Test
+    public void testTimeoutWithRetries() throws Exception {
+        SimulatedSlave silent = endpoint.addSlave(3, new SimulatedSlaveBehavior().lossRate(1.0));
+        createMaster(new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY), 100, 1);
+        try {
+            master.send(new ReadHoldingRegistersRequest(3, 0, 1));
+            fail("Should time out");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertEquals(2, silent.getRequestCount());
+    }
+
+    /**
+     * CRC 错误的应答被拒绝
+     */
+    @Test
+    public void testCrcMismatchRejected() throws Exception {
+        byte[] response = { 1, 3, 2, 0, 5, 0, 0 };
+        ModbusCrc16.append(response, 0, 5);
+        response[6] ^= 0x01;
+        // 应答在请求发出后才可读，发送前的残留数据清理不会丢弃它
+        master = new ModbusRtuMaster(new StreamPortWrapper(new DelayedInputStream(response), new ByteArrayOutputStream()),
+                new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY));
+        master.setRetries(0);
+        master.setTimeout(100);
+        master.init();
+        try {
+            master.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should reject CRC mismatch");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getMessage().contains("CRC"));
+        }
+    }
+
+    /**
+     * 首次 available() 调用（发送前清理残留数据）返回 0，之后才交付数据
+     */
+    private static class DelayedInputStream extends ByteArrayInputStream {
+        private boolean released;
+
+        DelayedInputStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public synchronized int available() {
+            if (!released) {
+                released = true;
+                return 0;
+            }
+            return super.available();
+        }
+    }
+
+    /**
+     * 配置 nativeFraming 时工厂创建 ModbusRtuMaster
+     */
+    @Test
+    public void testFactoryCreatesNativeMaster() throws Exception {
+        ModbusSerialInfo info = new ModbusSerialInfo("COM1", 19200, 8, ModbusSerialInfo.ONE_STOP_BIT,
+                ModbusSerialInfo.EVEN_PARITY, 500, 1, true);
+        assertTrue(info.isNativeFraming());
+        assertFalse(new ModbusSerialInfo("COM1", 19200, 8, 1, 2, 500, 1).isNativeFraming());
+
+        ModbusMaster created = ModbusMasterFactory.createSerialMaster(info, mock(SerialSource.class));
+        try {
+            assertTrue(created instanceof ModbusRtuMaster);
+            assertEquals(500, created.getTimeout());
+            assertEquals(19200, ((ModbusRtuMaster) created).getTiming().getBaudrate());
+            assertEquals(11.0, ((ModbusRtuMaster) created).getTiming().getBitsPerChar(), 0.0);
+        } finally {
+            ModbusMasterFactory.destroyMaster(created);
+        }
+    }
+
+    /**
+     * 输入流在帧中途停止时按不完整帧处理，不会等到超时
+     */
+    @Test
+    public void testIncompleteFrameDetected() throws Exception {
+        byte[] partial = { 1, 3, 20, 0, 1 };
+        master = new ModbusRtuMaster(new StreamPortWrapper(new DelayedInputStream(partial), new ByteArrayOutputStream()),
+                new ModbusRtuTiming(115200, 8, ModbusSerialInfo.ONE_STOP_BIT, ModbusSerialInfo.NO_PARITY));
+        master.setRetries(0);
+        master.setTimeout(5000);
+        master.init();
+        long start = System.nanoTime();
+        try {
+            master.send(new ReadHoldingRegistersRequest(1, 0, 10));
+            fail("Should detect incomplete frame");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getCause().getMessage().contains("Incomplete"));
+        }
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+    }
+}
@@ -0,0 +1,167 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import static org.junit.Assert.*;
+
+/**
+ * ModbusScheduler 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusSchedulerTest {
+
+    private ModbusScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new ModbusScheduler(2);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * 同一个串行执行器内任务按提交顺序执行，且不会并发
+     */
+    @Test
+    public void testSerialExecutorKeepsOrder() throws Exception {
+        ExecutorService serial = scheduler.newSerialExecutor();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        int[] running = new int[1];
+        boolean[] overlapped = new boolean[1];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            futures.add(serial.submit(() -> {
+                synchronized (running) {
+                    if (++running[0] > 1) {
+                        overlapped[0] = true;
+                    }
+                }
+                order.add(index);
+                synchronized (running) {
+                    running[0]--;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.SECONDS);
+        }
+        assertFalse(overlapped[0]);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), order.get(i));
+        }
+    }
+
+    /**
+     * 大量串行执行器共用有限的工作线程
+     */
+    @Test
+    public void testThreadCountBoundedBySchedulerSize() throws Exception {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ExecutorService serial = scheduler.newSerialExecutor();
+            futures.add(serial.submit(() -> threadNames.add(Thread.currentThread().getName())));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.SECONDS);
+        }
+        assertTrue(threadNames.size() <= 2);
+        for (String name : threadNames) {
+            assertTrue(name.startsWith("modbus-worker-"));
+        }
+    }
+
+    /**
+     * 一个源阻塞时，其他源仍可在空闲线程上执行
+     */
+    @Test
+    public void testBlockedSourceDoesNotStallOthers() throws Exception {
+        ExecutorService slow = scheduler.newSerialExecutor();
+        ExecutorService fast = scheduler.newSerialExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> blocked = slow.submit(() -> {
+            release.await();
+            return null;
+        });
+        assertEquals("done", fast.submit(() -> "done").get(2, TimeUnit.SECONDS));
+        release.countDown();
+        blocked.get(2, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 限流执行器最多同时执行 maxConcurrency 个任务
+     */
+    @Test
+    public void testBoundedExecutorLimitsConcurrency() throws Exception {
+        ModbusScheduler wide = new ModbusScheduler(4);
+        try {
+            ExecutorService bounded = wide.newBoundedExecutor(2);
+            java.util.concurrent.atomic.AtomicInteger running = new java.util.concurrent.atomic.AtomicInteger();
+            java.util.concurrent.atomic.AtomicInteger maxRunning = new java.util.concurrent.atomic.AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                futures.add(bounded.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(10);
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.SECONDS);
+            }
+            assertEquals(2, maxRunning.get());
+        } finally {
+            wide.shutdown();
+        }
+    }
+
+    /**
+     * shutdown 后拒绝新任务，已提交任务执行完后终止
+     */
+    @Test
+    public void testSerialExecutorShutdown() throws Exception {
+        ExecutorService serial = scheduler.newSerialExecutor();
+        Future<String> pending = serial.submit(() -> {
+            Thread.sleep(100);
+            return "ok";
+        });
+        serial.shutdown();
+        try {
+            serial.submit(() -> "late");
+            fail("Should reject after shutdown");
+        } catch (RejectedExecutionException expected) {
+            // expected
+        }
+        assertEquals("ok", pending.get(2, TimeUnit.SECONDS));
+        assertTrue(serial.awaitTermination(2, TimeUnit.SECONDS));
+        assertTrue(serial.isTerminated());
+    }
+
+    /**
+     * 使用共享调度器的 ModbusSource 在工作线程上执行请求，销毁后不影响调度器
+     */
+    @Test
+    public void testSourceUsesSharedScheduler() throws Exception {
+        int closedPort;
+        try (java.net.ServerSocket socket = new java.net.ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        ModbusTcpInfo info = new ModbusTcpInfo("127.0.0.1", closedPort, 1);
+        ModbusSource source = new ModbusSource(info, 1, 100, false, false, scheduler);
+        // 端口无人监听，发送失败，按原有约定以 null 完成
+        assertNull(source.readHoldingRegisters(0, 1).get(2, TimeUnit.SECONDS));
+        source.destroyResources();
+        assertFalse(scheduler.isShutdown());
+    }
+}
@@ -0,0 +1,247 @@
+package com.ecat.integration.ModbusIntegration;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+
+import com.ecat.core.Integration.IntegrationManager;
+import com.ecat.core.Integration.IntegrationRegistry;
+import com.ecat.core.Utils.TestTools;
+import com.ecat.integration.SerialIntegration.SerialIntegration;
+import com.ecat.integration.SerialIntegration.SerialSource;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+/**
+ * master 后台初始化与并发注册测试用例
+ *
+ * @author coffee
+ */
+public class ModbusSourceOpenTest {
+
+    private final List<ModbusSource> sources = new ArrayList<>();
+    private ModbusIntegration modbusIntegration;
+    private MockedStatic<ModbusMasterFactory> factoryMock;
+
+    @After
+    public void tearDown() {
+        for (ModbusSource source : sources) {
+            source.destroyResources();
+        }
+        if (modbusIntegration != null) {
+            modbusIntegration.onRelease();
+        }
+        if (factoryMock != null) {
+            factoryMock.close();
+        }
+    }
+
+    private ModbusSource serialSource() {
+        ModbusSerialInfo serialInfo = mock(ModbusSerialInfo.class);
+        when(serialInfo.getSlaveId()).thenReturn(1);
+        ModbusSource source = new ModbusSource(serialInfo, 1, 1000, true, false);
+        sources.add(source);
+        return source;
+    }
+
+    private static ModbusMaster blockingMaster(CountDownLatch release) throws Exception {
+        ModbusMaster master = mock(ModbusMaster.class);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(master).init();
+        return master;
+    }
+
+    private ModbusIntegration startIntegration(SerialIntegration serialIntegration) throws Exception {
+        ModbusIntegration integration = new ModbusIntegration();
+        IntegrationManager integrationManager = mock(IntegrationManager.class);
+        when(integrationManager.loadConfig(anyString())).thenReturn(new HashMap<>());
+        IntegrationRegistry integrationRegistry = mock(IntegrationRegistry.class);
+        when(integrationRegistry.getIntegration("integration-serial")).thenReturn(serialIntegration);
+        TestTools.setPrivateField(integration, "integrationManager", integrationManager);
+        TestTools.setPrivateField(integration, "integrationRegistry", integrationRegistry);
+        integration.onInit();
+        return integration;
+    }
+
+    /**
+     * 初始化期间提交的请求挂起，初始化完成后才发送；调用方不等待初始化
+     */
+    @Test
+    public void testRequestsWaitForBackgroundInit() throws Exception {
+        ModbusSource source = serialSource();
+        CountDownLatch release = new CountDownLatch(1);
+        ModbusMaster master = blockingMaster(release);
+        ReadHoldingRegistersResponse response = mock(ReadHoldingRegistersResponse.class);
+        when(response.getShortData()).thenReturn(new short[] { 5 });
+        when(master.send(any(ModbusRequest.class))).thenReturn(response);
+        TestTools.setPrivateField(source, "modbusMaster", master);
+
+        long start = System.nanoTime();
+        source.initMaster(master, () -> "init failed");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(source.isOpening());
+        assertFalse(source.isModbusOpen());
+
+        CompletableFuture<ReadHoldingRegistersResponse> read = ModbusPriority.with(ModbusPriority.HIGH,
+                () -> source.readHoldingRegisters(0, 1));
+        CompletableFuture<Boolean> opened = source.whenOpen();
+        Thread.sleep(100);
+        assertFalse(read.isDone());
+        verify(master, never()).send(any(ModbusRequest.class));
+
+        when(master.isInitialized()).thenReturn(true);
+        release.countDown();
+        assertSame(response, read.get(2, TimeUnit.SECONDS));
+        assertTrue(opened.get(2, TimeUnit.SECONDS));
+        assertFalse(source.isOpening());
+        InOrder order = inOrder(master);
+        order.verify(master).init();
+        order.verify(master).send(any(ModbusRequest.class));
+    }
+
+    /**
+     * 初始化失败时记录日志，whenOpen 以 false 完成，isModbusOpen 为 false
+     */
+    @Test
+    public void testInitFailure() throws Exception {
+        ModbusSource source = serialSource();
+        ModbusMaster master = mock(ModbusMaster.class);
+        doThrow(new ModbusInitException("port busy")).when(master).init();
+        TestTools.setPrivateField(source, "modbusMaster", master);
+
+        source.initMaster(master, () -> "init failed");
+        assertFalse(source.whenOpen().get(2, TimeUnit.SECONDS));
+        assertFalse(source.isOpening());
+        assertFalse(source.isModbusOpen());
+    }
+
+    /**
+     * 初始化期间销毁 source：初始化完成后立即销毁 master，不泄漏连接；尚未开始的初始化不再进行
+     */
+    @Test
+    public void testDestroyWhileOpening() throws Exception {
+        ModbusSource source = serialSource();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ModbusMaster master = mock(ModbusMaster.class);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(master).init();
+        TestTools.setPrivateField(source, "modbusMaster", master);
+
+        source.initMaster(master, () -> "init failed");
+        CompletableFuture<Boolean> opened = source.whenOpen();
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        source.destroyResources();
+        release.countDown();
+        opened.get(2, TimeUnit.SECONDS);
+        verify(master).destroy();
+
+        ModbusSource destroyedFirst = serialSource();
+        ModbusMaster notStarted = mock(ModbusMaster.class);
+        TestTools.setPrivateField(destroyedFirst, "modbusMaster", notStarted);
+        destroyedFirst.destroyResources();
+        destroyedFirst.initMaster(notStarted, () -> "init failed");
+        destroyedFirst.whenOpen().get(2, TimeUnit.SECONDS);
+        verify(notStarted, never()).init();
+    }
+
+    /**
+     * 多个线程并发注册 1500 个设备（300 个连接）：每个连接只创建一个共享 source，所有设备都记入引用计数
+     */
+    @Test
+    public void testConcurrentRegistration() throws Exception {
+        modbusIntegration = startIntegration(null);
+        int endpoints = 300;
+        int devicesPerEndpoint = 5;
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<ModbusSource>> registered = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int device = 0; device < endpoints * devicesPerEndpoint; device++) {
+                int endpoint = device % endpoints;
+                ModbusTcpInfo info = new ModbusTcpInfo("10.0." + (endpoint / 250) + "." + (endpoint % 250 + 1), 502,
+                        device / endpoints + 1);
+                String identity = "device-" + device;
+                registered.add(pool.submit(() -> {
+                    start.await();
+                    return modbusIntegration.register(info, identity);
+                }));
+            }
+            start.countDown();
+            Map<String, ModbusInfo> sharedInfo = new HashMap<>();
+            for (Future<ModbusSource> future : registered) {
+                ModbusSource device = future.get(10, TimeUnit.SECONDS);
+                ModbusTcpInfo info = (ModbusTcpInfo) device.getModbusInfo();
+                ModbusInfo previous = sharedInfo.putIfAbsent(info.getIpAddress(), info);
+                assertSame(previous == null ? info : previous, info); // 同一连接的设备共享同一个 source
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(endpoints, modbusIntegration.getSourceMetrics().size());
+        ModbusSource shared = modbusIntegration.getTcpSource("10.0.0.1:502");
+        assertEquals(devicesPerEndpoint, ((List<?>) TestTools.getPrivateField(shared, "registeredIntegrations")).size());
+        assertTrue(shared.whenOpen().get(2, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 串口 master 初始化阻塞时注册立即返回，不影响其他连接的注册；初始化中的 source 不被当作死 source 替换
+     */
+    @Test
+    public void testBlockedEndpointDoesNotBlockRegistration() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ModbusMaster serialMaster = blockingMaster(release);
+        when(serialMaster.isInitialized()).thenReturn(false);
+        factoryMock = mockStatic(ModbusMasterFactory.class);
+        factoryMock.when(() -> ModbusMasterFactory.createSerialMaster(any(ModbusSerialInfo.class), any(SerialSource.class)))
+                .thenReturn(serialMaster);
+        SerialIntegration serialIntegration = mock(SerialIntegration.class);
+        when(serialIntegration.register(any(com.ecat.integration.SerialIntegration.SerialInfo.class), anyString()))
+                .thenReturn(mock(SerialSource.class));
+        modbusIntegration = startIntegration(serialIntegration);
+
+        ModbusSerialInfo serialInfo1 = mock(ModbusSerialInfo.class);
+        when(serialInfo1.getPortName()).thenReturn("COM1");
+        when(serialInfo1.getSlaveId()).thenReturn(1);
+        ModbusSerialInfo serialInfo2 = mock(ModbusSerialInfo.class);
+        when(serialInfo2.getPortName()).thenReturn("COM1");
+        when(serialInfo2.getSlaveId()).thenReturn(2);
+
+        long start = System.nanoTime();
+        ModbusSource device1 = modbusIntegration.register(serialInfo1, "serial-1");
+        ModbusSource device2 = modbusIntegration.register(serialInfo2, "serial-2");
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertTrue(device1.isOpening());
+        assertSame(device1.getModbusInfo(), device2.getModbusInfo()); // 未被当作死 source 重新创建
+        verify(serialIntegration, times(1)).register(any(com.ecat.integration.SerialIntegration.SerialInfo.class),
+                anyString());
+
+        when(serialMaster.isInitialized()).thenReturn(true);
+        release.countDown();
+        assertTrue(device2.whenOpen().get(2, TimeUnit.SECONDS));
+        assertFalse(device1.isOpening());
+    }
+}
@@ -97,6 +97,119 @@ public class ModbusSourceTest {
         assertEquals(response, future.get());
     }
 
+    /**
+     * 测试相同的在途读请求只发送一次，所有调用方拿到同一结果
+     */
+    @Test
+    public void testIdenticalInFlightReadsAreCoalesced() throws Exception {
+        ReadHoldingRegistersResponse response = mock(ReadHoldingRegistersResponse.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch reply = new CountDownLatch(1);
+        when(modbusMaster.send(any(ReadHoldingRegistersRequest.class))).thenAnswer(invocation -> {
+            sending.countDown();
+            reply.await(2, TimeUnit.SECONDS);
+            return response;
+        });
+
+        CompletableFuture<ReadHoldingRegistersResponse> first = modbusSource.readHoldingRegistersWithSlaveId(1, 10, 2);
+        assertTrue(sending.await(2, TimeUnit.SECONDS));
+        CompletableFuture<ReadHoldingRegistersResponse> second = modbusSource.readHoldingRegistersWithSlaveId(1, 10, 2);
+        CompletableFuture<ReadHoldingRegistersResponse> third = modbusSource.readHoldingRegistersWithSlaveId(1, 10, 2);
+        CompletableFuture<ReadHoldingRegistersResponse> otherRange = modbusSource.readHoldingRegistersWithSlaveId(1, 10, 3);
+        CompletableFuture<ReadHoldingRegistersResponse> otherSlave = modbusSource.readHoldingRegistersWithSlaveId(2, 10, 2);
+        assertSame(first, second);
+        assertSame(first, third);
+        assertNotSame(first, otherRange);
+        assertNotSame(first, otherSlave);
+        reply.countDown();
+
+        assertEquals(response, first.get(2, TimeUnit.SECONDS));
+        assertEquals(response, otherRange.get(2, TimeUnit.SECONDS));
+        assertEquals(response, otherSlave.get(2, TimeUnit.SECONDS));
+        verify(modbusMaster, times(3)).send(any(ReadHoldingRegistersRequest.class));
+        assertEquals(2, modbusSource.getCoalescedReadCount());
+
+        // 完成后不缓存结果，再次读取重新发送
+        assertEquals(response, modbusSource.readHoldingRegistersWithSlaveId(1, 10, 2).get(2, TimeUnit.SECONDS));
+        verify(modbusMaster, times(4)).send(any(ReadHoldingRegistersRequest.class));
+    }
+
+    /**
+     * 测试写入完成后发出的读取不加入写入前发出的在途读取，重新发送并拿到写入后的值
+     */
+    @Test
+    public void testReadAfterWriteDoesNotJoinEarlierInFlightRead() throws Exception {
+        ReadHoldingRegistersResponse stale = mock(ReadHoldingRegistersResponse.class);
+        ReadHoldingRegistersResponse fresh = mock(ReadHoldingRegistersResponse.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch reply = new CountDownLatch(1);
+        when(modbusMaster.send(any(ReadHoldingRegistersRequest.class))).thenAnswer(invocation -> {
+            sending.countDown();
+            reply.await(2, TimeUnit.SECONDS);
+            return stale;
+        }).thenReturn(fresh);
+        when(modbusMaster.send(any(WriteRegisterRequest.class))).thenReturn(mock(WriteRegisterResponse.class));
+        // 长连接池（2 个连接）上读写可并行
+        ModbusTcpInfo pooledInfo = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 1000, 1,
+                ModbusTcpConnectionMode.KEEP_ALIVE, 2);
+        ModbusSource source = new ModbusSource(pooledInfo, 4, 1000, true, false);
+        TestTools.setPrivateField(source, "modbusMaster", modbusMaster);
+        try {
+            CompletableFuture<ReadHoldingRegistersResponse> first = source.readHoldingRegistersWithSlaveId(1, 10, 2);
+            assertTrue(sending.await(2, TimeUnit.SECONDS));
+            assertNotNull(source.writeRegisterWithSlaveId(1, 11, 7).get(2, TimeUnit.SECONDS));
+
+            CompletableFuture<ReadHoldingRegistersResponse> second = source.readHoldingRegistersWithSlaveId(1, 10, 2);
+            assertNotSame(first, second);
+            assertSame(fresh, second.get(2, TimeUnit.SECONDS));
+            reply.countDown();
+            assertSame(stale, first.get(2, TimeUnit.SECONDS));
+            verify(modbusMaster, times(2)).send(any(ReadHoldingRegistersRequest.class));
+            assertEquals(0, source.getCoalescedReadCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 测试带时效读取命中缓存时不访问总线，写寄存器后更新缓存，掩码写入后失效
+     */
+    @Test
+    public void testReadWithMaxAgeUsesRegisterCache() throws Exception {
+        ReadHoldingRegistersResponse response = mock(ReadHoldingRegistersResponse.class);
+        when(response.getShortData()).thenReturn(new short[] { 11, 22, 33 });
+        when(modbusMaster.send(any(ReadHoldingRegistersRequest.class))).thenReturn(response);
+        when(modbusMaster.send(any(WriteRegisterRequest.class))).thenReturn(mock(WriteRegisterResponse.class));
+        when(modbusMaster.send(any(WriteMaskRegisterRequest.class))).thenReturn(mock(WriteMaskRegisterResponse.class));
+
+        assertSame(response, modbusSource.readHoldingRegistersWithSlaveId(1, 100, 3, 500).get(2, TimeUnit.SECONDS));
+        ReadHoldingRegistersResponse cached = modbusSource.readHoldingRegistersWithSlaveId(1, 101, 2, 500).get(2, TimeUnit.SECONDS);
+        assertNotSame(response, cached);
+        assertFalse(cached.isException());
+        assertEquals(1, cached.getSlaveId());
+        assertArrayEquals(new short[] { 22, 33 }, cached.getShortData());
+        verify(modbusMaster, times(1)).send(any(ReadHoldingRegistersRequest.class));
+
+        modbusSource.writeRegisterWithSlaveId(1, 102, 44).get(2, TimeUnit.SECONDS);
+        assertArrayEquals(new short[] { 11, 22, 44 },
+                modbusSource.readHoldingRegistersWithSlaveId(1, 100, 3, 500).get(2, TimeUnit.SECONDS).getShortData());
+        verify(modbusMaster, times(1)).send(any(ReadHoldingRegistersRequest.class));
+
+        modbusSource.writeMaskRegisterWithSlaveId(1, 101, 0xFF, 0).get(2, TimeUnit.SECONDS);
+        modbusSource.readHoldingRegistersWithSlaveId(1, 100, 3, 500).get(2, TimeUnit.SECONDS);
+        verify(modbusMaster, times(2)).send(any(ReadHoldingRegistersRequest.class));
+
+        // 输入寄存器与保持寄存器分开缓存
+        ReadInputRegistersResponse inputResponse = mock(ReadInputRegistersResponse.class);
+        when(inputResponse.getShortData()).thenReturn(new short[] { 5 });
+        when(modbusMaster.send(any(ReadInputRegistersRequest.class))).thenReturn(inputResponse);
+        modbusSource.readInputRegistersWithSlaveId(1, 100, 1, 500).get(2, TimeUnit.SECONDS);
+        assertArrayEquals(new short[] { 5 },
+                modbusSource.readInputRegistersWithSlaveId(1, 100, 1, 500).get(2, TimeUnit.SECONDS).getShortData());
+        verify(modbusMaster, times(1)).send(any(ReadInputRegistersRequest.class));
+        assertEquals(3, modbusSource.getRegisterCache().getHitCount());
+    }
+
     /**
      * 测试寄存器写（Write Registers）
      */
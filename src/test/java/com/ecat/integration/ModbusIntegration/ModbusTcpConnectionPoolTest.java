@@ -0,0 +1,222 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+import com.serotonin.modbus4j.ModbusMaster;
+import com.serotonin.modbus4j.exception.ModbusInitException;
+import com.serotonin.modbus4j.exception.ModbusTransportException;
+import com.serotonin.modbus4j.msg.ModbusRequest;
+import com.serotonin.modbus4j.msg.ModbusResponse;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersRequest;
+import com.serotonin.modbus4j.sero.messaging.TimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ModbusTcpConnectionPool 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusTcpConnectionPoolTest {
+
+    /**
+     * 模拟保持连接的 TcpMaster：记录 init/destroy 次数，send 行为由测试指定
+     */
+    private static class FakeConnection extends ModbusMaster {
+        private final AtomicInteger destroyCount = new AtomicInteger();
+        private volatile Callable<ModbusResponse> behavior = () -> mock(ModbusResponse.class);
+        private volatile boolean failInit;
+
+        @Override
+        public void init() throws ModbusInitException {
+            if (failInit) {
+                throw new ModbusInitException("connection refused");
+            }
+            initialized = true;
+        }
+
+        @Override
+        public void destroy() {
+            initialized = false;
+            destroyCount.incrementAndGet();
+        }
+
+        @Override
+        public ModbusResponse sendImpl(ModbusRequest request) throws ModbusTransportException {
+            try {
+                return behavior.call();
+            } catch (ModbusTransportException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ModbusTransportException(e, request.getSlaveId());
+            }
+        }
+    }
+
+    private final List<FakeConnection> created = new CopyOnWriteArrayList<>();
+    private volatile boolean offline;
+
+    private ModbusTcpConnectionPool createPool(int poolSize) throws Exception {
+        ModbusTcpConnectionPool pool = new ModbusTcpConnectionPool("127.0.0.1", 502, poolSize, () -> {
+            FakeConnection connection = new FakeConnection();
+            connection.failInit = offline;
+            created.add(connection);
+            return connection;
+        });
+        pool.setTimeout(500);
+        pool.init();
+        return pool;
+    }
+
+    /**
+     * 连接在事务之间复用，只建立一次
+     */
+    @Test
+    public void testConnectionReused() throws Exception {
+        ModbusTcpConnectionPool pool = createPool(1);
+        assertEquals(0, pool.getOpenConnectionCount());
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(pool.send(new ReadHoldingRegistersRequest(1, 0, 1)));
+        }
+        assertEquals(1, created.size());
+        assertEquals(1, pool.getOpenConnectionCount());
+        pool.destroy();
+        assertEquals(1, created.get(0).destroyCount.get());
+        assertFalse(pool.isInitialized());
+    }
+
+    /**
+     * 连接断开后丢弃，下一次请求重新建立
+     */
+    @Test
+    public void testReconnectAfterConnectionError() throws Exception {
+        ModbusTcpConnectionPool pool = createPool(1);
+        pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+        created.get(0).behavior = () -> {
+            throw new java.net.SocketException("Connection reset");
+        };
+        try {
+            pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should throw ModbusTransportException");
+        } catch (ModbusTransportException expected) {
+            // expected
+        }
+        assertEquals(1, created.get(0).destroyCount.get());
+        assertEquals(0, pool.getOpenConnectionCount());
+
+        assertNotNull(pool.send(new ReadHoldingRegistersRequest(1, 0, 1)));
+        assertEquals(2, created.size());
+        pool.destroy();
+    }
+
+    /**
+     * 从站应答超时不关闭连接
+     */
+    @Test
+    public void testTimeoutKeepsConnection() throws Exception {
+        ModbusTcpConnectionPool pool = createPool(1);
+        pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+        created.get(0).behavior = () -> {
+            throw new TimeoutException("no response");
+        };
+        try {
+            pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should throw ModbusTransportException");
+        } catch (ModbusTransportException expected) {
+            // expected
+        }
+        assertEquals(0, created.get(0).destroyCount.get());
+        assertEquals(1, pool.getOpenConnectionCount());
+        pool.destroy();
+    }
+
+    /**
+     * 设备离线时 init 不失败，请求失败，设备恢复后自动连接
+     */
+    @Test
+    public void testOfflineDeviceConnectsLater() throws Exception {
+        offline = true;
+        ModbusTcpConnectionPool pool = createPool(1);
+        assertTrue(pool.isInitialized());
+        try {
+            pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+            fail("Should throw ModbusTransportException");
+        } catch (ModbusTransportException e) {
+            assertTrue(e.getCause() instanceof ModbusInitException);
+        }
+        assertEquals(1, pool.getIdleCount());
+
+        offline = false;
+        assertNotNull(pool.send(new ReadHoldingRegistersRequest(1, 0, 1)));
+        assertEquals(1, pool.getOpenConnectionCount());
+        pool.destroy();
+    }
+
+    /**
+     * 多个连接时事务在不同连接上并行
+     */
+    @Test
+    public void testParallelRequestsUseSeparateConnections() throws Exception {
+        ModbusTcpConnectionPool pool = createPool(2);
+        CountDownLatch bothSending = new CountDownLatch(2);
+        Callable<ModbusResponse> slow = () -> {
+            bothSending.countDown();
+            assertTrue(bothSending.await(2, TimeUnit.SECONDS));
+            return mock(ModbusResponse.class);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 先建立两个连接并设置慢应答
+            List<Future<ModbusResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> {
+                    return pool.send(new ReadHoldingRegistersRequest(1, 0, 1));
+                }));
+            }
+            for (Future<ModbusResponse> future : futures) {
+                future.get(2, TimeUnit.SECONDS);
+            }
+            for (FakeConnection connection : created) {
+                connection.behavior = slow;
+            }
+            futures.clear();
+            for (int i = 0; i < 2; i++) {
+                futures.add(executor.submit(() -> pool.send(new ReadHoldingRegistersRequest(1, 0, 1))));
+            }
+            for (Future<ModbusResponse> future : futures) {
+                assertNotNull(future.get(3, TimeUnit.SECONDS));
+            }
+            assertTrue(created.size() <= 2);
+        } finally {
+            executor.shutdownNow();
+            pool.destroy();
+        }
+    }
+
+    /**
+     * 工厂根据连接模式选择长连接池或短连接
+     */
+    @Test
+    public void testFactorySelectsConnectionMode() throws Exception {
+        ModbusTcpInfo keepAlive = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.KEEP_ALIVE, 3);
+        ModbusMaster pooled = ModbusMasterFactory.createModbusMaster(keepAlive);
+        assertTrue(pooled instanceof ModbusTcpConnectionPool);
+        assertEquals(3, ((ModbusTcpConnectionPool) pooled).getPoolSize());
+        assertEquals(3, keepAlive.getConcurrency());
+
+        ModbusTcpInfo shortLived = new ModbusTcpInfo("127.0.0.1", 502, 1, ModbusProtocol.TCP, 2000, 1,
+                ModbusTcpConnectionMode.SHORT, 3);
+        assertFalse(ModbusMasterFactory.createModbusMaster(shortLived) instanceof ModbusTcpConnectionPool);
+        assertEquals(1, shortLived.getConcurrency());
+
+        // 默认使用短连接，长连接需显式配置
+        ModbusTcpInfo defaults = new ModbusTcpInfo("127.0.0.1", 502, 1);
+        assertEquals(ModbusTcpConnectionMode.SHORT, defaults.getConnectionMode());
+        assertFalse(defaults.isKeepAlive());
+    }
+}
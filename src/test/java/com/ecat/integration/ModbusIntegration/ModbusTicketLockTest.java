@@ -0,0 +1,230 @@
+package com.ecat.integration.ModbusIntegration;
+
+import org.junit.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import static org.junit.Assert.*;
+
+/**
+ * ModbusTicketLock 测试用例
+ *
+ * @author coffee
+ */
+public class ModbusTicketLockTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 等待者按到达顺序获得许可
+     */
+    @Test
+    public void testFifoOrder() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 10);
+        long first = lock.acquire(1, TimeUnit.SECONDS);
+        assertNotEquals(ModbusTicketLock.NO_TOKEN, first);
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                long token = lock.acquire(2, TimeUnit.SECONDS);
+                order.add(index);
+                lock.release(token);
+            }));
+            // 确保按顺序排队
+            while (lock.getWaitingCount() < i + 1) {
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(lock.release(first));
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.SECONDS);
+        }
+        assertEquals(java.util.Arrays.asList(0, 1, 2, 3, 4), order);
+        assertEquals(0, lock.getHolderCount());
+        assertEquals(0, lock.getWaitingCount());
+    }
+
+    /**
+     * 同时持有许可的数量不超过 permits
+     */
+    @Test
+    public void testPermitsBoundConcurrency() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(3, 64);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 50; j++) {
+                    long token = lock.acquire(5, TimeUnit.SECONDS);
+                    assertNotEquals(ModbusTicketLock.NO_TOKEN, token);
+                    int now = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(now, Math::max);
+                    running.decrementAndGet();
+                    assertTrue(lock.release(token));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertTrue(maxRunning.get() <= 3);
+        assertEquals(0, lock.getHolderCount());
+    }
+
+    /**
+     * 排队数量达到 maxWaiters 时立即拒绝
+     */
+    @Test
+    public void testRejectWhenMaxWaitersExceeded() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 1);
+        long holder = lock.acquire(1, TimeUnit.SECONDS);
+        Future<Long> waiter = executor.submit(() -> lock.acquire(2, TimeUnit.SECONDS));
+        while (lock.getWaitingCount() < 1) {
+            Thread.sleep(1);
+        }
+        long start = System.nanoTime();
+        assertEquals(ModbusTicketLock.NO_TOKEN, lock.acquire(1, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+
+        assertTrue(lock.release(holder));
+        long token = waiter.get(2, TimeUnit.SECONDS);
+        assertNotEquals(ModbusTicketLock.NO_TOKEN, token);
+        assertTrue(lock.release(token));
+    }
+
+    /**
+     * 排在等待者之前的已放弃票据在释放时被跳过，后面的等待者照常获得许可
+     */
+    @Test
+    public void testTimedOutWaiterIsSkipped() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 4);
+        long holder = lock.acquire(1, TimeUnit.SECONDS);
+        CompletableFuture<Long> timedOut = lock.acquireAsync(100, TimeUnit.MILLISECONDS);
+        Future<Long> waiter = executor.submit(() -> lock.acquire(2, TimeUnit.SECONDS));
+        while (lock.getWaitingCount() < 2) {
+            Thread.sleep(1);
+        }
+        assertEquals(ModbusTicketLock.NO_TOKEN, timedOut.get(2, TimeUnit.SECONDS).longValue());
+        assertEquals(2, lock.getWaitingCount()); // 不在队尾，不能收回
+
+        assertTrue(lock.release(holder));
+        long token = waiter.get(2, TimeUnit.SECONDS);
+        assertNotEquals(ModbusTicketLock.NO_TOKEN, token);
+        assertTrue(lock.release(token));
+        assertEquals(0, lock.getWaitingCount());
+    }
+
+    /**
+     * 队尾超时的票据立即收回、不占用排队名额：持有者不释放时，等待者超时后新请求仍可排队
+     */
+    @Test
+    public void testTimedOutWaitersFreeQueueCapacity() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 2);
+        long holder = lock.acquire(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(ModbusTicketLock.NO_TOKEN, lock.acquire(5, TimeUnit.MILLISECONDS));
+            assertEquals(ModbusTicketLock.NO_TOKEN, lock.acquireAsync(5, TimeUnit.MILLISECONDS).get(2, TimeUnit.SECONDS)
+                    .longValue());
+        }
+        assertEquals(0, lock.getWaitingCount());
+
+        CompletableFuture<Long> first = lock.acquireAsync(2, TimeUnit.SECONDS);
+        CompletableFuture<Long> second = lock.acquireAsync(2, TimeUnit.SECONDS);
+        assertEquals(2, lock.getWaitingCount());
+        assertEquals(ModbusTicketLock.NO_TOKEN, lock.acquire(1, TimeUnit.SECONDS)); // 仍在等待的请求达到上限
+
+        assertTrue(lock.release(holder));
+        long token = first.get(2, TimeUnit.SECONDS);
+        assertNotEquals(ModbusTicketLock.NO_TOKEN, token);
+        assertFalse(second.isDone());
+        assertTrue(lock.release(token));
+        token = second.get(2, TimeUnit.SECONDS);
+        assertTrue(lock.release(token));
+        assertEquals(0, lock.getWaitingCount());
+        assertEquals(0, lock.getHolderCount());
+    }
+
+    /**
+     * 大量等待者超时（收回与跳过交替发生）时仍严格限制并发数，结束后没有残留的持有者和排队
+     */
+    @Test
+    public void testConcurrentTimeouts() throws Exception {
+        ModbusTicketLock lock = new ModbusTicketLock(2, 8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger granted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 200; j++) {
+                    long token = (index + j) % 2 == 0 ? lock.acquire(1, TimeUnit.MILLISECONDS)
+                            : lock.acquireAsync(1, TimeUnit.MILLISECONDS).get();
+                    if (token == ModbusTicketLock.NO_TOKEN) {
+                        continue;
+                    }
+                    granted.incrementAndGet();
+                    int now = running.incrementAndGet();
+                    maxRunning.accumulateAndGet(now, Math::max);
+                    LockSupport.parkNanos(50_000L);
+                    running.decrementAndGet();
+                    assertTrue(lock.release(token));
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(20, TimeUnit.SECONDS);
+        }
+        assertTrue(maxRunning.get() <= 2);
+        assertTrue(granted.get() > 0);
+        assertEquals(0, lock.getHolderCount());
+        assertEquals(0, lock.getWaitingCount());
+        assertNotEquals(ModbusTicketLock.NO_TOKEN, lock.acquire(100, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 无效令牌或重复释放返回 false
+     */
+    @Test
+    public void testInvalidRelease() {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 1);
+        assertFalse(lock.release(ModbusTicketLock.NO_TOKEN));
+        assertFalse(lock.release(12345L));
+        long token = lock.acquire(1, TimeUnit.SECONDS);
+        assertTrue(lock.release(token));
+        assertFalse(lock.release(token));
+    }
+
+    /**
+     * 多次循环使用环形槽位后仍保持正确
+     */
+    @Test
+    public void testRingWrapAround() {
+        ModbusTicketLock lock = new ModbusTicketLock(1, 1);
+        for (int i = 0; i < 1000; i++) {
+            long token = lock.acquire(100, TimeUnit.MILLISECONDS);
+            assertNotEquals(ModbusTicketLock.NO_TOKEN, token);
+            assertTrue(lock.release(token));
+        }
+    }
+}
@@ -146,4 +146,94 @@ public class ModbusTransactionStrategyTest {
 
         executor.shutdown();
     }
+
+    /**
+     * 异步获取锁后执行 lambda 并释放锁
+     */
+    @Test
+    public void testExecuteWithLambdaAsyncSuccess() throws Exception {
+        String key = "lock-key";
+        when(modbusSource.acquireAsync()).thenReturn(CompletableFuture.completedFuture(key));
+        CompletableFuture<Boolean> future = ModbusTransactionStrategy.executeWithLambdaAsync(
+                modbusSource,
+                src -> CompletableFuture.completedFuture(true));
+        assertTrue(future.get());
+        verify(modbusSource, never()).acquire();
+        verify(modbusSource, times(1)).release(key);
+    }
+
+    /**
+     * 异步获取锁失败时返回异常 future
+     */
+    @Test
+    public void testExecuteWithLambdaAsyncLockFail() throws Exception {
+        when(modbusSource.acquireAsync()).thenReturn(CompletableFuture.completedFuture(null));
+        when(modbusSource.getModbusInfo()).thenReturn(mock(ModbusTcpInfo.class));
+        CompletableFuture<Boolean> future = ModbusTransactionStrategy.executeWithLambdaAsync(
+                modbusSource,
+                src -> CompletableFuture.completedFuture(true));
+        try {
+            future.get();
+            fail("Should throw ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        verify(modbusSource, never()).release(any());
+    }
+
+    /**
+     * 锁被占用时异步事务立即返回，不阻塞调用线程，锁释放后按顺序执行
+     */
+    @Test
+    public void testExecuteWithLambdaAsyncDoesNotBlockCaller() throws Exception {
+        ModbusTcpInfo tcpInfo = new ModbusTcpInfo("127.0.0.1", 502, 1);
+        ModbusSource source = new ModbusSource(tcpInfo, 10, 2000);
+        try {
+            String holder = source.acquire();
+            assertNotNull(holder);
+
+            java.util.List<Integer> order = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+            long start = System.nanoTime();
+            CompletableFuture<Boolean> first = ModbusTransactionStrategy.executeWithLambdaAsync(source, src -> {
+                order.add(1);
+                return CompletableFuture.completedFuture(true);
+            });
+            CompletableFuture<Boolean> second = ModbusTransactionStrategy.executeWithLambdaAsync(source, src -> {
+                order.add(2);
+                return CompletableFuture.completedFuture(true);
+            });
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500);
+            assertFalse(first.isDone());
+            assertEquals(2, source.getWaitingCount());
+
+            assertTrue(source.release(holder));
+            assertTrue(first.get(2, TimeUnit.SECONDS));
+            assertTrue(second.get(2, TimeUnit.SECONDS));
+            assertEquals(java.util.Arrays.asList(1, 2), order);
+            assertEquals(0, source.getWaitingCount());
+        } finally {
+            source.destroyResources();
+        }
+    }
+
+    /**
+     * 异步等待超时后以 null 完成
+     */
+    @Test
+    public void testAcquireAsyncTimeout() throws Exception {
+        ModbusTcpInfo tcpInfo = new ModbusTcpInfo("127.0.0.1", 502, 1);
+        ModbusSource source = new ModbusSource(tcpInfo, 2, 2000);
+        try {
+            String holder = source.acquire();
+            CompletableFuture<String> waiter = source.acquireAsync(50, TimeUnit.MILLISECONDS);
+            assertNull(waiter.get(2, TimeUnit.SECONDS));
+            assertTrue(source.release(holder));
+            // 超时的票据被跳过，锁可再次获取
+            String next = source.acquire(100, TimeUnit.MILLISECONDS);
+            assertNotNull(next);
+            assertTrue(source.release(next));
+        } finally {
+            source.destroyResources();
+        }
+    }
 }
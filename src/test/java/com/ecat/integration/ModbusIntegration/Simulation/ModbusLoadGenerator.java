@@ -0,0 +1,194 @@
+package com.ecat.integration.ModbusIntegration.Simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ecat.integration.ModbusIntegration.ModbusIntegration;
+import com.ecat.integration.ModbusIntegration.ModbusLatencyHistogram;
+import com.ecat.integration.ModbusIntegration.ModbusSource;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+
+/**
+ * 闭环读取压测：每个 ModbusSource 保持固定数量的在途读取，应答（或失败）后立即发下一个
+ *
+ * <p>配合 {@link SimulatedSlaveFarm} 估算一个站点的设备容量，例如：
+ *
+ * <pre>
+ * {@code
+ * try (SimulatedSlaveFarm farm = SimulatedSlaveFarm.start(2000, ModbusProtocol.TCP, new SimulatedSlaveBehavior().latencyMs(20))) {
+ *     List<ModbusSource> sources = ModbusLoadGenerator.registerAll(integration, farm, 1000, 1);
+ *     ModbusLoadGenerator.Report report = new ModbusLoadGenerator(sources, 0, 10, 1).run(30_000);
+ *     System.out.println(report);
+ * }
+ * }
+ * </pre>
+ *
+ * @author coffee
+ */
+public class ModbusLoadGenerator {
+
+    private final List<? extends ModbusSource> sources;
+    private final int startAddress;
+    private final int registers;
+    private final int concurrencyPerSource;
+
+    /**
+     * @param sources 压测的设备连接（通常是 ModbusIntegration.register 返回的设备源）
+     * @param startAddress 读取的起始保持寄存器地址
+     * @param registers 每次读取的寄存器数
+     * @param concurrencyPerSource 每个设备同时在途的读取数
+     */
+    public ModbusLoadGenerator(List<? extends ModbusSource> sources, int startAddress, int registers, int concurrencyPerSource) {
+        this.sources = sources;
+        this.startAddress = startAddress;
+        this.registers = registers;
+        this.concurrencyPerSource = concurrencyPerSource;
+    }
+
+    /**
+     * 把 farm 中的每个从站注册为一个设备
+     *
+     * @param integration 已 onInit 的 ModbusIntegration
+     * @param timeoutMs 事务超时（毫秒）
+     * @param maxInFlight 每条连接的最大在途请求数，大于 1 时 MBAP 端点使用流水线
+     * @return 设备源，顺序与 farm 的端点和从站一致
+     */
+    public static List<ModbusSource> registerAll(ModbusIntegration integration, SimulatedSlaveFarm farm,
+            int timeoutMs, int maxInFlight) {
+        List<ModbusSource> sources = new ArrayList<>();
+        for (SimulatedSlaveFarm.Endpoint endpoint : farm.getEndpoints()) {
+            for (SimulatedSlave slave : endpoint.getSlaves()) {
+                sources.add(integration.register(endpoint.tcpInfo(slave.getSlaveId(), timeoutMs, maxInFlight),
+                        "sim-" + endpoint.getPort() + "-" + slave.getSlaveId()));
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * 持续压测 {@code durationMs} 毫秒，等待所有在途读取结束后返回统计
+     */
+    public Report run(long durationMs) throws InterruptedException {
+        ModbusLatencyHistogram latency = new ModbusLatencyHistogram();
+        LongAdder successes = new LongAdder();
+        LongAdder exceptions = new LongAdder();
+        LongAdder failures = new LongAdder();
+        int chains = sources.size() * concurrencyPerSource;
+        CountDownLatch finished = new CountDownLatch(chains);
+        // 应答在 source 的线程上完成，续发放到独立线程池，避免同步完成时递归过深
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(durationMs);
+        try {
+            for (ModbusSource source : sources) {
+                for (int i = 0; i < concurrencyPerSource; i++) {
+                    executor.execute(() -> issue(source, deadline, executor, latency, successes, exceptions, failures, finished));
+                }
+            }
+            finished.await();
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return new Report(latency, successes.sum(), exceptions.sum(), failures.sum(), elapsedNanos);
+    }
+
+    private void issue(ModbusSource source, long deadline, ExecutorService executor, ModbusLatencyHistogram latency,
+            LongAdder successes, LongAdder exceptions, LongAdder failures, CountDownLatch finished) {
+        if (System.nanoTime() - deadline >= 0) {
+            finished.countDown();
+            return;
+        }
+        long sentNanos = System.nanoTime();
+        CompletableFuture<ReadHoldingRegistersResponse> future;
+        try {
+            future = source.readHoldingRegisters(startAddress, registers);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.completedFuture(null);
+        }
+        future.whenCompleteAsync((response, error) -> {
+            latency.record(System.nanoTime() - sentNanos);
+            if (response == null) {
+                failures.increment();
+            } else if (response.isException()) {
+                exceptions.increment();
+            } else {
+                successes.increment();
+            }
+            issue(source, deadline, executor, latency, successes, exceptions, failures, finished);
+        }, executor);
+    }
+
+    /**
+     * 压测结果，时延包含排队和传输
+     */
+    public static class Report {
+
+        private final ModbusLatencyHistogram latency;
+        private final long successes;
+        private final long exceptions;
+        private final long failures;
+        private final long elapsedNanos;
+
+        Report(ModbusLatencyHistogram latency, long successes, long exceptions, long failures, long elapsedNanos) {
+            this.latency = latency;
+            this.successes = successes;
+            this.exceptions = exceptions;
+            this.failures = failures;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getRequests() {
+            return successes + exceptions + failures;
+        }
+
+        /**
+         * 正常应答数
+         */
+        public long getSuccesses() {
+            return successes;
+        }
+
+        /**
+         * 异常应答数
+         */
+        public long getExceptions() {
+            return exceptions;
+        }
+
+        /**
+         * 超时、传输错误或被拒绝的请求数
+         */
+        public long getFailures() {
+            return failures;
+        }
+
+        /**
+         * 每秒完成的请求数（含失败）
+         */
+        public double getThroughput() {
+            return elapsedNanos > 0 ? getRequests() * 1e9 / elapsedNanos : 0;
+        }
+
+        public double getPercentileMs(double percentile) {
+            return latency.getPercentileMs(percentile);
+        }
+
+        public double getMaxMs() {
+            return latency.getMaxMs();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("requests=%d ok=%d exception=%d failed=%d throughput=%.1f/s p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                    getRequests(), successes, exceptions, failures, getThroughput(),
+                    getPercentileMs(50), getPercentileMs(90), getPercentileMs(99), getMaxMs());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.ecat.integration.ModbusIntegration.Simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ecat.integration.ModbusIntegration.Slave.AbstractModbusDataCallback;
+import com.ecat.integration.ModbusIntegration.Slave.CallbackProcessImage;
+
+/**
+ * 内存寄存器表模拟从站
+ *
+ * <p>四类数据区各 {@code size} 个地址，保持寄存器初始值等于地址，便于读取端校验。
+ * 数据访问经由 {@link CallbackProcessImage} 分发到本回调，与 ModbusSlaveServer 使用同一套接口。
+ *
+ * @author coffee
+ */
+public class SimulatedSlave extends AbstractModbusDataCallback {
+
+    private final int slaveId;
+    private final int size;
+    private final SimulatedSlaveBehavior behavior;
+    private final CallbackProcessImage processImage;
+
+    private final short[] holdingRegisters;
+    private final short[] inputRegisters;
+    private final boolean[] coils;
+    private final boolean[] discreteInputs;
+
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong exceptionCount = new AtomicLong();
+
+    public SimulatedSlave(int slaveId, int size, SimulatedSlaveBehavior behavior) {
+        this.slaveId = slaveId;
+        this.size = size;
+        this.behavior = behavior;
+        this.holdingRegisters = new short[size];
+        this.inputRegisters = new short[size];
+        this.coils = new boolean[size];
+        this.discreteInputs = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            holdingRegisters[i] = (short) i;
+            inputRegisters[i] = (short) i;
+        }
+        this.processImage = new CallbackProcessImage(slaveId, this);
+    }
+
+    public int getSlaveId() {
+        return slaveId;
+    }
+
+    /**
+     * 每类数据区的地址数，超出范围的请求返回异常码 02
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public SimulatedSlaveBehavior getBehavior() {
+        return behavior;
+    }
+
+    public CallbackProcessImage getProcessImage() {
+        return processImage;
+    }
+
+    /**
+     * 收到的请求数（含丢弃和注入异常的请求）
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * 按丢包率丢弃（不应答）的请求数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * 返回异常应答的请求数（注入的异常和地址越界等协议异常）
+     */
+    public long getExceptionCount() {
+        return exceptionCount.get();
+    }
+
+    void countRequest() {
+        requestCount.incrementAndGet();
+    }
+
+    void countDropped() {
+        droppedCount.incrementAndGet();
+    }
+
+    void countException() {
+        exceptionCount.incrementAndGet();
+    }
+
+    public synchronized void setInputRegister(int address, short value) {
+        inputRegisters[address] = value;
+    }
+
+    public synchronized void setDiscreteInput(int address, boolean value) {
+        discreteInputs[address] = value;
+    }
+
+    public synchronized short getHoldingRegister(int address) {
+        return holdingRegisters[address];
+    }
+
+    public synchronized boolean getCoil(int address) {
+        return coils[address];
+    }
+
+    @Override
+    public synchronized boolean onReadCoil(int slaveId, int address) {
+        return coils[address];
+    }
+
+    @Override
+    public synchronized boolean onReadDiscreteInput(int slaveId, int address) {
+        return discreteInputs[address];
+    }
+
+    @Override
+    public synchronized short onReadHoldingRegister(int slaveId, int address) {
+        return holdingRegisters[address];
+    }
+
+    @Override
+    public synchronized short onReadInputRegister(int slaveId, int address) {
+        return inputRegisters[address];
+    }
+
+    @Override
+    public synchronized boolean onWriteSingleCoil(int slaveId, int address, boolean value) {
+        if (address < 0 || address >= size) {
+            return FAILURE;
+        }
+        coils[address] = value;
+        return SUCCESS;
+    }
+
+    @Override
+    public synchronized boolean onWriteSingleRegister(int slaveId, int address, short value) {
+        if (address < 0 || address >= size) {
+            return FAILURE;
+        }
+        holdingRegisters[address] = value;
+        return SUCCESS;
+    }
+
+    @Override
+    public synchronized boolean onWriteMultipleCoils(int slaveId, int startAddress, byte[] packedBits, int quantity) {
+        if (startAddress < 0 || startAddress + quantity > size) {
+            return FAILURE;
+        }
+        for (int i = 0; i < quantity; i++) {
+            coils[startAddress + i] = (packedBits[i / 8] & (1 << (i % 8))) != 0;
+        }
+        return SUCCESS;
+    }
+
+    @Override
+    public synchronized boolean onWriteMultipleRegisters(int slaveId, int startAddress, short[] values) {
+        if (startAddress < 0 || startAddress + values.length > size) {
+            return FAILURE;
+        }
+        System.arraycopy(values, 0, holdingRegisters, startAddress, values.length);
+        return SUCCESS;
+    }
+}
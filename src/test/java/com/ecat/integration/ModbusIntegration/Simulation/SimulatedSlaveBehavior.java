@@ -0,0 +1,118 @@
+package com.ecat.integration.ModbusIntegration.Simulation;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 模拟从站的故障注入配置：应答时延、抖动、丢包、异常应答
+ *
+ * <p>运行中可以修改（例如压测中途让某个从站离线），下一个请求生效。
+ *
+ * <pre>
+ * {@code
+ * SimulatedSlaveBehavior slow = new SimulatedSlaveBehavior().latencyMs(20).jitterMs(10).lossRate(0.01);
+ * }
+ * </pre>
+ *
+ * @author coffee
+ */
+public class SimulatedSlaveBehavior {
+
+    /**
+     * Modbus 异常码 04：从站设备故障
+     */
+    public static final int SLAVE_DEVICE_FAILURE = 4;
+
+    private volatile long latencyMs;
+    private volatile long jitterMs;
+    private volatile double lossRate;
+    private volatile double exceptionRate;
+    private volatile int exceptionCode = SLAVE_DEVICE_FAILURE;
+    private volatile boolean readWriteSupported = true;
+
+    /**
+     * 每个请求的基础应答时延（毫秒）
+     */
+    public SimulatedSlaveBehavior latencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    /**
+     * 在基础时延上叠加 [0, jitterMs] 的均匀随机时延
+     */
+    public SimulatedSlaveBehavior jitterMs(long jitterMs) {
+        this.jitterMs = jitterMs;
+        return this;
+    }
+
+    /**
+     * 不应答的请求比例（0-1），1 表示从站离线
+     */
+    public SimulatedSlaveBehavior lossRate(double lossRate) {
+        this.lossRate = lossRate;
+        return this;
+    }
+
+    /**
+     * 返回异常应答的请求比例（0-1）
+     */
+    public SimulatedSlaveBehavior exceptionRate(double exceptionRate) {
+        this.exceptionRate = exceptionRate;
+        return this;
+    }
+
+    /**
+     * 注入的异常码，默认 {@link #SLAVE_DEVICE_FAILURE}
+     */
+    public SimulatedSlaveBehavior exceptionCode(int exceptionCode) {
+        this.exceptionCode = exceptionCode;
+        return this;
+    }
+
+    /**
+     * 是否支持 FC23（读写多个寄存器），不支持时返回 ILLEGAL_FUNCTION，用于模拟老设备
+     */
+    public SimulatedSlaveBehavior readWriteSupported(boolean readWriteSupported) {
+        this.readWriteSupported = readWriteSupported;
+        return this;
+    }
+
+    public long getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getJitterMs() {
+        return jitterMs;
+    }
+
+    public double getLossRate() {
+        return lossRate;
+    }
+
+    public double getExceptionRate() {
+        return exceptionRate;
+    }
+
+    public int getExceptionCode() {
+        return exceptionCode;
+    }
+
+    public boolean isReadWriteSupported() {
+        return readWriteSupported;
+    }
+
+    long nextDelayMs() {
+        long jitter = jitterMs;
+        return latencyMs + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+
+    boolean nextDropped() {
+        double rate = lossRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    boolean nextException() {
+        double rate = exceptionRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+}
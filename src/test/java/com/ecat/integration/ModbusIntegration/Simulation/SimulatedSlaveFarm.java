@@ -0,0 +1,589 @@
+package com.ecat.integration.ModbusIntegration.Simulation;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ecat.integration.ModbusIntegration.ModbusCrc16;
+import com.ecat.integration.ModbusIntegration.ModbusProtocol;
+import com.ecat.integration.ModbusIntegration.ModbusTcpInfo;
+import com.ecat.integration.ModbusIntegration.Slave.CallbackProcessImage;
+import com.serotonin.modbus4j.exception.IllegalDataAddressException;
+
+/**
+ * 本机模拟从站群：在 127.0.0.1 上启动若干 Modbus TCP / RTU over TCP 端点，每个端点挂一个或多个内存从站
+ *
+ * <p>每个端点相当于一台设备或一台串口网关（按单元 ID 区分从站）。请求按帧解析后交给
+ * {@link CallbackProcessImage} 读写 {@link SimulatedSlave} 的寄存器表，并按 {@link SimulatedSlaveBehavior}
+ * 注入时延、抖动、丢包和异常应答。故障按请求注入，所以在帧层处理，不经过 ProcessImage
+ * （Modbus4J 按寄存器逐个调用 ProcessImage，看不到请求边界）。
+ *
+ * <p>MBAP 端点的请求并发处理（与流水线主站配合，按事务 ID 应答）；RTU over TCP 没有事务 ID，
+ * 同一连接上的请求按总线语义逐个处理。单元 ID 0 为广播，端点上所有从站执行，都不应答。
+ *
+ * <pre>
+ * {@code
+ * try (SimulatedSlaveFarm farm = SimulatedSlaveFarm.start(100, ModbusProtocol.TCP, new SimulatedSlaveBehavior().latencyMs(5))) {
+ *     for (SimulatedSlaveFarm.Endpoint endpoint : farm.getEndpoints()) {
+ *         integration.register(endpoint.tcpInfo(1, 1000, 4), "dev-" + endpoint.getPort());
+ *     }
+ * }
+ * }
+ * </pre>
+ *
+ * @author coffee
+ */
+public class SimulatedSlaveFarm implements AutoCloseable {
+
+    /**
+     * 每个从站每类数据区的默认地址数
+     */
+    public static final int DEFAULT_SIZE = 1024;
+
+    private static final int EXCEPTION_ILLEGAL_FUNCTION = 1;
+    private static final int EXCEPTION_ILLEGAL_DATA_ADDRESS = 2;
+    private static final int EXCEPTION_ILLEGAL_DATA_VALUE = 3;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "modbus-sim-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * 启动 {@code count} 个端点，每个端点挂一个单元 ID 为 1 的从站，共用同一份故障配置
+     */
+    public static SimulatedSlaveFarm start(int count, ModbusProtocol protocol, SimulatedSlaveBehavior behavior)
+            throws IOException {
+        SimulatedSlaveFarm farm = new SimulatedSlaveFarm();
+        try {
+            for (int i = 0; i < count; i++) {
+                farm.addEndpoint(protocol).addSlave(1, behavior);
+            }
+        } catch (IOException | RuntimeException e) {
+            farm.close();
+            throw e;
+        }
+        return farm;
+    }
+
+    /**
+     * 新建一个监听随机端口的端点
+     *
+     * @param protocol ModbusProtocol.TCP（MBAP）或 ModbusProtocol.RTU_OVER_TCP
+     */
+    public Endpoint addEndpoint(ModbusProtocol protocol) throws IOException {
+        if (protocol != ModbusProtocol.TCP && protocol != ModbusProtocol.RTU_OVER_TCP) {
+            throw new IllegalArgumentException("Unsupported protocol for simulated endpoint: " + protocol);
+        }
+        if (closed) {
+            throw new IllegalStateException("Farm is closed");
+        }
+        Endpoint endpoint = new Endpoint(protocol, new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+        endpoints.add(endpoint);
+        executor.execute(endpoint::acceptLoop);
+        return endpoint;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * 所有端点上的全部从站
+     */
+    public List<SimulatedSlave> getSlaves() {
+        List<SimulatedSlave> slaves = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            slaves.addAll(endpoint.getSlaves());
+        }
+        return slaves;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Endpoint endpoint : endpoints) {
+            endpoint.close();
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一个监听端口，按单元 ID 分发到挂在其上的从站
+     */
+    public class Endpoint {
+
+        private final ModbusProtocol protocol;
+        private final ServerSocket serverSocket;
+        private final Map<Integer, SimulatedSlave> slaves = new ConcurrentHashMap<>();
+        private final List<Socket> connections = new CopyOnWriteArrayList<>();
+
+        private Endpoint(ModbusProtocol protocol, ServerSocket serverSocket) {
+            this.protocol = protocol;
+            this.serverSocket = serverSocket;
+        }
+
+        public ModbusProtocol getProtocol() {
+            return protocol;
+        }
+
+        public String getHost() {
+            return serverSocket.getInetAddress().getHostAddress();
+        }
+
+        public int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        /**
+         * 挂一个地址数为 {@link #DEFAULT_SIZE} 的从站
+         */
+        public SimulatedSlave addSlave(int slaveId, SimulatedSlaveBehavior behavior) {
+            return addSlave(slaveId, DEFAULT_SIZE, behavior);
+        }
+
+        public SimulatedSlave addSlave(int slaveId, int size, SimulatedSlaveBehavior behavior) {
+            SimulatedSlave slave = new SimulatedSlave(slaveId, size, behavior);
+            if (slaves.putIfAbsent(slaveId, slave) != null) {
+                throw new IllegalArgumentException("Slave " + slaveId + " already exists on port " + getPort());
+            }
+            return slave;
+        }
+
+        public SimulatedSlave getSlave(int slaveId) {
+            return slaves.get(slaveId);
+        }
+
+        public Collection<SimulatedSlave> getSlaves() {
+            return Collections.unmodifiableCollection(slaves.values());
+        }
+
+        /**
+         * 连接本端点的设备信息，帧格式与端点一致
+         *
+         * @param maxInFlight 大于 1 时主站使用流水线（仅 MBAP 有效）
+         */
+        public ModbusTcpInfo tcpInfo(int slaveId, int timeoutMs, int maxInFlight) {
+            return new ModbusTcpInfo(getHost(), getPort(), slaveId, protocol, timeoutMs, maxInFlight);
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                Socket connection;
+                try {
+                    connection = serverSocket.accept();
+                    connection.setTcpNoDelay(true);
+                } catch (IOException e) {
+                    return;
+                }
+                connections.add(connection);
+                try {
+                    executor.execute(() -> serve(connection));
+                } catch (RejectedExecutionException e) {
+                    closeQuietly(connection);
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket connection) {
+            try {
+                DataInputStream in = new DataInputStream(connection.getInputStream());
+                OutputStream out = connection.getOutputStream();
+                if (protocol == ModbusProtocol.TCP) {
+                    serveMbap(in, out);
+                } else {
+                    serveRtuOverTcp(in, out);
+                }
+            } catch (EOFException | SocketException e) {
+                // 主站断开或 farm 关闭
+            } catch (IOException e) {
+                // 帧错误，断开连接
+            } finally {
+                connections.remove(connection);
+                closeQuietly(connection);
+            }
+        }
+
+        private void serveMbap(DataInputStream in, OutputStream out) throws IOException {
+            byte[] header = new byte[7];
+            while (true) {
+                in.readFully(header);
+                int transactionId = readU16(header, 0);
+                int protocolId = readU16(header, 2);
+                int length = readU16(header, 4);
+                if (protocolId != 0 || length < 2 || length > 254) {
+                    throw new IOException("Invalid MBAP header");
+                }
+                int unitId = header[6] & 0xFF;
+                byte[] pdu = new byte[length - 1];
+                in.readFully(pdu);
+                if (unitId == 0) {
+                    broadcast(pdu);
+                    continue;
+                }
+                SimulatedSlave slave = slaves.get(unitId);
+                if (slave == null) {
+                    continue; // 网关后面没有这个单元，不应答
+                }
+                try {
+                    executor.execute(() -> {
+                        byte[] response = handle(slave, pdu);
+                        if (response != null) {
+                            writeFrame(out, encodeMbap(transactionId, unitId, response));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serveRtuOverTcp(DataInputStream in, OutputStream out) throws IOException {
+            while (true) {
+                byte[] frame = readRtuFrame(in);
+                if (frame == null || ModbusCrc16.calculate(frame, 0, frame.length - 2) != readCrc(frame)) {
+                    continue; // 功能码未知或 CRC 错误，按串口从站的行为不应答
+                }
+                byte[] pdu = new byte[frame.length - 3];
+                System.arraycopy(frame, 1, pdu, 0, pdu.length);
+                if (frame[0] == 0) {
+                    broadcast(pdu);
+                    continue;
+                }
+                SimulatedSlave slave = slaves.get(frame[0] & 0xFF);
+                if (slave == null) {
+                    continue;
+                }
+                byte[] response = handle(slave, pdu);
+                if (response != null) {
+                    writeFrame(out, encodeRtu(slave.getSlaveId(), response));
+                }
+            }
+        }
+
+        /**
+         * 广播（单元 ID 0）：所有从站按各自的故障配置执行，都不应答
+         */
+        private void broadcast(byte[] pdu) {
+            for (SimulatedSlave slave : slaves.values()) {
+                handle(slave, pdu);
+            }
+        }
+
+        private void writeFrame(OutputStream out, byte[] frame) {
+            synchronized (out) {
+                try {
+                    out.write(frame);
+                    out.flush();
+                } catch (IOException e) {
+                    // 主站已断开
+                }
+            }
+        }
+
+        private void close() {
+            closeQuietly(serverSocket);
+            for (Socket connection : connections) {
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    /**
+     * 按故障配置处理一个请求 PDU
+     *
+     * @return 应答 PDU，丢包时返回 null
+     */
+    static byte[] handle(SimulatedSlave slave, byte[] pdu) {
+        SimulatedSlaveBehavior behavior = slave.getBehavior();
+        slave.countRequest();
+        if (behavior.nextDropped()) {
+            slave.countDropped();
+            return null;
+        }
+        long delayMs = behavior.nextDelayMs();
+        if (delayMs > 0) {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        byte[] response = behavior.nextException()
+                ? exception(pdu[0], behavior.getExceptionCode())
+                : process(slave, pdu);
+        if ((response[0] & 0x80) != 0) {
+            slave.countException();
+        }
+        return response;
+    }
+
+    /**
+     * 执行一个请求 PDU，支持功能码 01/02/03/04/05/06/15/16/22/23
+     */
+    static byte[] process(SimulatedSlave slave, byte[] pdu) {
+        int functionCode = pdu[0] & 0xFF;
+        CallbackProcessImage image = slave.getProcessImage();
+        try {
+            switch (functionCode) {
+                case 1:
+                case 2: {
+                    if (pdu.length != 5) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    int start = readU16(pdu, 1);
+                    int quantity = readU16(pdu, 3);
+                    if (quantity < 1 || quantity > 2000) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    if (start + quantity > slave.getSize()) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_ADDRESS);
+                    }
+                    byte[] response = new byte[2 + (quantity + 7) / 8];
+                    response[0] = pdu[0];
+                    response[1] = (byte) (response.length - 2);
+                    for (int i = 0; i < quantity; i++) {
+                        boolean bit = functionCode == 1 ? image.getCoil(start + i) : image.getInput(start + i);
+                        if (bit) {
+                            response[2 + i / 8] |= (byte) (1 << (i % 8));
+                        }
+                    }
+                    return response;
+                }
+                case 3:
+                case 4: {
+                    if (pdu.length != 5) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    int start = readU16(pdu, 1);
+                    int quantity = readU16(pdu, 3);
+                    if (quantity < 1 || quantity > 125) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    if (start + quantity > slave.getSize()) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_ADDRESS);
+                    }
+                    byte[] response = new byte[2 + quantity * 2];
+                    response[0] = pdu[0];
+                    response[1] = (byte) (quantity * 2);
+                    for (int i = 0; i < quantity; i++) {
+                        short value = functionCode == 3 ? image.getHoldingRegister(start + i) : image.getInputRegister(start + i);
+                        writeU16(response, 2 + i * 2, value);
+                    }
+                    return response;
+                }
+                case 5: {
+                    if (pdu.length != 5) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    int value = readU16(pdu, 3);
+                    if (value != 0xFF00 && value != 0x0000) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    image.writeCoil(readU16(pdu, 1), value == 0xFF00);
+                    return pdu.clone();
+                }
+                case 6: {
+                    if (pdu.length != 5) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    image.writeHoldingRegister(readU16(pdu, 1), (short) readU16(pdu, 3));
+                    return pdu.clone();
+                }
+                case 15: {
+                    int quantity = pdu.length >= 6 ? readU16(pdu, 3) : 0;
+                    if (quantity < 1 || quantity > 1968 || (pdu[5] & 0xFF) != (quantity + 7) / 8
+                            || pdu.length != 6 + (quantity + 7) / 8) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    boolean[] values = new boolean[quantity];
+                    for (int i = 0; i < quantity; i++) {
+                        values[i] = (pdu[6 + i / 8] & (1 << (i % 8))) != 0;
+                    }
+                    image.writeCoils(readU16(pdu, 1), values);
+                    return writeMultipleResponse(pdu);
+                }
+                case 16: {
+                    int quantity = pdu.length >= 6 ? readU16(pdu, 3) : 0;
+                    if (quantity < 1 || quantity > 123 || (pdu[5] & 0xFF) != quantity * 2
+                            || pdu.length != 6 + quantity * 2) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    short[] values = new short[quantity];
+                    for (int i = 0; i < quantity; i++) {
+                        values[i] = (short) readU16(pdu, 6 + i * 2);
+                    }
+                    image.writeHoldingRegisters(readU16(pdu, 1), values);
+                    return writeMultipleResponse(pdu);
+                }
+                case 22: {
+                    if (pdu.length != 7) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    int address = readU16(pdu, 1);
+                    if (address >= slave.getSize()) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_ADDRESS);
+                    }
+                    int andMask = readU16(pdu, 3);
+                    int orMask = readU16(pdu, 5);
+                    synchronized (slave) {
+                        int current = image.getHoldingRegister(address) & 0xFFFF;
+                        image.writeHoldingRegister(address, (short) ((current & andMask) | (orMask & ~andMask)));
+                    }
+                    return pdu.clone();
+                }
+                case 23: {
+                    if (!slave.getBehavior().isReadWriteSupported()) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_FUNCTION);
+                    }
+                    int readQuantity = pdu.length >= 10 ? readU16(pdu, 3) : 0;
+                    int writeQuantity = pdu.length >= 10 ? readU16(pdu, 7) : 0;
+                    if (readQuantity < 1 || readQuantity > 125 || writeQuantity < 1 || writeQuantity > 121
+                            || (pdu[9] & 0xFF) != writeQuantity * 2 || pdu.length != 10 + writeQuantity * 2) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_VALUE);
+                    }
+                    int readStart = readU16(pdu, 1);
+                    int writeStart = readU16(pdu, 5);
+                    if (readStart + readQuantity > slave.getSize() || writeStart + writeQuantity > slave.getSize()) {
+                        return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_ADDRESS);
+                    }
+                    short[] values = new short[writeQuantity];
+                    for (int i = 0; i < writeQuantity; i++) {
+                        values[i] = (short) readU16(pdu, 10 + i * 2);
+                    }
+                    byte[] response = new byte[2 + readQuantity * 2];
+                    response[0] = pdu[0];
+                    response[1] = (byte) (readQuantity * 2);
+                    synchronized (slave) { // 先写后读，作为一个整体执行
+                        image.writeHoldingRegisters(writeStart, values);
+                        for (int i = 0; i < readQuantity; i++) {
+                            writeU16(response, 2 + i * 2, image.getHoldingRegister(readStart + i));
+                        }
+                    }
+                    return response;
+                }
+                default:
+                    return exception(pdu[0], EXCEPTION_ILLEGAL_FUNCTION);
+            }
+        } catch (IllegalDataAddressException e) {
+            return exception(pdu[0], EXCEPTION_ILLEGAL_DATA_ADDRESS);
+        }
+    }
+
+    private static byte[] writeMultipleResponse(byte[] pdu) {
+        byte[] response = new byte[5];
+        System.arraycopy(pdu, 0, response, 0, 5);
+        return response;
+    }
+
+    private static byte[] exception(byte functionCode, int exceptionCode) {
+        return new byte[] { (byte) (functionCode | 0x80), (byte) exceptionCode };
+    }
+
+    /**
+     * 按功能码确定 RTU 请求帧长度并读取整帧（含 CRC）
+     *
+     * @return 整帧；功能码未知时丢弃已到达的数据并返回 null
+     */
+    private static byte[] readRtuFrame(DataInputStream in) throws IOException {
+        byte[] head = new byte[2];
+        in.readFully(head);
+        int remaining;
+        switch (head[1] & 0xFF) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 5:
+            case 6:
+                remaining = 4 + 2;
+                break;
+            case 15:
+            case 16:
+            case 23: {
+                byte[] fixed = new byte[(head[1] & 0xFF) == 23 ? 9 : 5]; // 字节数字段之前（含）的部分
+                in.readFully(fixed);
+                byte[] rest = new byte[(fixed[fixed.length - 1] & 0xFF) + 2];
+                in.readFully(rest);
+                byte[] frame = new byte[2 + fixed.length + rest.length];
+                System.arraycopy(head, 0, frame, 0, 2);
+                System.arraycopy(fixed, 0, frame, 2, fixed.length);
+                System.arraycopy(rest, 0, frame, 2 + fixed.length, rest.length);
+                return frame;
+            }
+            case 22:
+                remaining = 6 + 2;
+                break;
+            default:
+                in.skip(in.available());
+                return null;
+        }
+        byte[] frame = new byte[2 + remaining];
+        System.arraycopy(head, 0, frame, 0, 2);
+        in.readFully(frame, 2, remaining);
+        return frame;
+    }
+
+    private static byte[] encodeMbap(int transactionId, int unitId, byte[] pdu) {
+        byte[] frame = new byte[7 + pdu.length];
+        writeU16(frame, 0, transactionId);
+        writeU16(frame, 4, pdu.length + 1);
+        frame[6] = (byte) unitId;
+        System.arraycopy(pdu, 0, frame, 7, pdu.length);
+        return frame;
+    }
+
+    private static byte[] encodeRtu(int unitId, byte[] pdu) {
+        byte[] frame = new byte[1 + pdu.length + 2];
+        frame[0] = (byte) unitId;
+        System.arraycopy(pdu, 0, frame, 1, pdu.length);
+        int crc = ModbusCrc16.calculate(frame, 0, frame.length - 2);
+        frame[frame.length - 2] = (byte) crc; // CRC 低字节在前
+        frame[frame.length - 1] = (byte) (crc >>> 8);
+        return frame;
+    }
+
+    private static int readCrc(byte[] frame) {
+        return (frame[frame.length - 2] & 0xFF) | ((frame[frame.length - 1] & 0xFF) << 8);
+    }
+
+    private static int readU16(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private static void writeU16(byte[] data, int offset, int value) {
+        data[offset] = (byte) (value >>> 8);
+        data[offset + 1] = (byte) value;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // ignore
+        }
+    }
+}
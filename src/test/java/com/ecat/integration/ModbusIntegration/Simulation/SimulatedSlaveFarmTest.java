@@ -0,0 +1,192 @@
+package com.ecat.integration.ModbusIntegration.Simulation;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ecat.core.Integration.IntegrationManager;
+import com.ecat.integration.ModbusIntegration.ModbusIntegration;
+import com.ecat.integration.ModbusIntegration.ModbusCrc16;
+import com.ecat.integration.ModbusIntegration.ModbusProtocol;
+import com.ecat.integration.ModbusIntegration.ModbusSource;
+import com.serotonin.modbus4j.msg.ReadHoldingRegistersResponse;
+import com.serotonin.modbus4j.msg.WriteRegisterResponse;
+
+/**
+ * SimulatedSlaveFarm 与 ModbusLoadGenerator 测试
+ *
+ * @author coffee
+ */
+public class SimulatedSlaveFarmTest {
+
+    private SimulatedSlaveFarm farm;
+    private ModbusIntegration integration;
+
+    @Before
+    public void setUp() throws Exception {
+        farm = new SimulatedSlaveFarm();
+        integration = new ModbusIntegration();
+        IntegrationManager integrationManager = mock(IntegrationManager.class);
+        when(integrationManager.loadConfig(anyString())).thenReturn(new HashMap<>());
+        Field field = ModbusIntegration.class.getSuperclass().getDeclaredField("integrationManager");
+        field.setAccessible(true);
+        field.set(integration, integrationManager);
+        integration.onInit();
+    }
+
+    @After
+    public void tearDown() {
+        integration.onPause();
+        integration.onRelease();
+        farm.close();
+    }
+
+    /**
+     * 流水线主站读写 MBAP 模拟从站：保持寄存器初始值等于地址，写入后可读回
+     */
+    @Test
+    public void testPipelinedSourceReadsAndWritesSimulatedSlave() throws Exception {
+        SimulatedSlaveFarm.Endpoint endpoint = farm.addEndpoint(ModbusProtocol.TCP);
+        SimulatedSlave slave = endpoint.addSlave(1, new SimulatedSlaveBehavior());
+        ModbusSource device = integration.register(endpoint.tcpInfo(1, 2000, 4), "sim-device");
+
+        ReadHoldingRegistersResponse read = device.readHoldingRegisters(10, 3).get(5, TimeUnit.SECONDS);
+        assertNotNull(read);
+        assertFalse(read.isException());
+        assertArrayEquals(new short[] { 10, 11, 12 }, read.getShortData());
+
+        WriteRegisterResponse write = device.writeRegister(10, 1234).get(5, TimeUnit.SECONDS);
+        assertNotNull(write);
+        assertFalse(write.isException());
+        assertEquals(1234, slave.getHoldingRegister(10));
+
+        ReadHoldingRegistersResponse outOfRange = device.readHoldingRegisters(SimulatedSlaveFarm.DEFAULT_SIZE - 1, 2)
+                .get(5, TimeUnit.SECONDS);
+        assertNotNull(outOfRange);
+        assertTrue(outOfRange.isException());
+        assertEquals(2, outOfRange.getExceptionCode());
+        assertEquals(3, slave.getRequestCount());
+    }
+
+    /**
+     * 故障注入：丢包的从站让主站超时，异常率为 1 的从站始终返回配置的异常码
+     */
+    @Test
+    public void testLossAndExceptionInjection() throws Exception {
+        SimulatedSlaveFarm.Endpoint gateway = farm.addEndpoint(ModbusProtocol.TCP);
+        SimulatedSlave offline = gateway.addSlave(1, new SimulatedSlaveBehavior().lossRate(1.0));
+        SimulatedSlave faulty = gateway.addSlave(2, new SimulatedSlaveBehavior().exceptionRate(1.0).exceptionCode(6));
+        ModbusSource offlineDevice = integration.register(gateway.tcpInfo(1, 200, 4), "sim-offline");
+        ModbusSource faultyDevice = integration.register(gateway.tcpInfo(2, 200, 4), "sim-faulty");
+
+        assertNull(offlineDevice.readHoldingRegisters(0, 1).get(5, TimeUnit.SECONDS));
+        assertEquals(1, offline.getDroppedCount());
+
+        ReadHoldingRegistersResponse busy = faultyDevice.readHoldingRegisters(0, 1).get(5, TimeUnit.SECONDS);
+        assertNotNull(busy);
+        assertTrue(busy.isException());
+        assertEquals(6, busy.getExceptionCode());
+        assertEquals(1, faulty.getExceptionCount());
+    }
+
+    /**
+     * RTU over TCP 端点：应答带正确 CRC，CRC 错误的请求不应答
+     */
+    @Test
+    public void testRtuOverTcpFraming() throws Exception {
+        SimulatedSlaveFarm.Endpoint endpoint = farm.addEndpoint(ModbusProtocol.RTU_OVER_TCP);
+        endpoint.addSlave(7, new SimulatedSlaveBehavior());
+
+        try (Socket socket = new Socket(endpoint.getHost(), endpoint.getPort())) {
+            socket.setSoTimeout(500);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            byte[] request = withCrc(new byte[] { 7, 3, 0, 20, 0, 2 });
+            byte[] corrupted = request.clone();
+            corrupted[corrupted.length - 1] ^= 0x01;
+            out.write(corrupted);
+            out.flush();
+            try {
+                in.readByte();
+                fail("Frame with bad CRC must not be answered");
+            } catch (SocketTimeoutException expected) {
+                // 丢弃
+            }
+
+            out.write(request);
+            out.flush();
+            byte[] response = new byte[9];
+            in.readFully(response);
+            assertArrayEquals(withCrc(new byte[] { 7, 3, 4, 0, 20, 0, 21 }), response);
+        }
+    }
+
+    /**
+     * 通过 ModbusIntegration.register 注册 farm 中的设备并压测：单设备端点和多单元网关端点都能被读到
+     */
+    @Test
+    public void testLoadGeneratorDrivesRegisteredDevices() throws Exception {
+        SimulatedSlaveBehavior behavior = new SimulatedSlaveBehavior().latencyMs(1).jitterMs(1);
+        for (int i = 0; i < 3; i++) {
+            farm.addEndpoint(ModbusProtocol.TCP).addSlave(1, behavior);
+        }
+        SimulatedSlaveFarm.Endpoint gateway = farm.addEndpoint(ModbusProtocol.TCP);
+        gateway.addSlave(1, new SimulatedSlaveBehavior());
+        gateway.addSlave(2, new SimulatedSlaveBehavior());
+
+        List<ModbusSource> devices = ModbusLoadGenerator.registerAll(integration, farm, 2000, 4);
+        assertEquals(5, devices.size());
+        ModbusLoadGenerator.Report report = new ModbusLoadGenerator(devices, 0, 10, 2).run(300);
+
+        assertTrue(report.getRequests() > 0);
+        assertEquals(report.getRequests(), report.getSuccesses());
+        assertTrue(report.getThroughput() > 0);
+        assertTrue(report.getPercentileMs(99) >= report.getPercentileMs(50));
+        for (SimulatedSlave slave : farm.getSlaves()) {
+            assertTrue("Slave without traffic: " + slave.getSlaveId(), slave.getRequestCount() > 0);
+        }
+    }
+
+    /**
+     * 压测报告区分异常应答和失败
+     */
+    @Test
+    public void testLoadGeneratorCountsExceptionsAndFailures() throws Exception {
+        SimulatedSlaveFarm.Endpoint endpoint = farm.addEndpoint(ModbusProtocol.TCP);
+        endpoint.addSlave(1, new SimulatedSlaveBehavior().exceptionRate(1.0));
+        List<ModbusSource> devices = ModbusLoadGenerator.registerAll(integration, farm, 200, 4);
+
+        ModbusLoadGenerator.Report faulty = new ModbusLoadGenerator(devices, 0, 1, 1).run(100);
+        assertTrue(faulty.getExceptions() > 0);
+        assertEquals(0, faulty.getSuccesses());
+
+        endpoint.getSlave(1).getBehavior().exceptionRate(0).lossRate(1.0);
+        ModbusLoadGenerator.Report lossy = new ModbusLoadGenerator(devices, 0, 1, 1).run(100);
+        assertTrue(lossy.getFailures() > 0);
+        assertEquals(0, lossy.getSuccesses());
+    }
+
+    private static byte[] withCrc(byte[] frame) {
+        byte[] result = new byte[frame.length + 2];
+        System.arraycopy(frame, 0, result, 0, frame.length);
+        int crc = ModbusCrc16.calculate(frame, 0, frame.length);
+        result[frame.length] = (byte) crc;
+        result[frame.length + 1] = (byte) (crc >>> 8);
+        return result;
+    }
+}